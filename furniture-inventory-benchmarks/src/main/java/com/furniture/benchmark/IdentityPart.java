@@ -0,0 +1,50 @@
+package com.furniture.benchmark;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Same columns as a part but with the old IDENTITY id, as the "before" side of
+ * {@code InsertBenchmark}. Only exists in that benchmark's schema: it sits outside
+ * the application's packages so no other context scans it.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Entity
+@Table(name = "benchmark_identity_part")
+public class IdentityPart {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private double price;
+
+    @Column(name = "inventory_count", nullable = false)
+    private int inv;
+
+    @Column(name = "min_inventory", nullable = false)
+    private int minInv;
+
+    @Column(name = "max_inventory", nullable = false)
+    private int maxInv;
+
+    protected IdentityPart() {
+    }
+
+    public IdentityPart(String name, double price, int inv) {
+        this.name = name;
+        this.price = price;
+        this.inv = inv;
+        this.maxInv = 100;
+    }
+}
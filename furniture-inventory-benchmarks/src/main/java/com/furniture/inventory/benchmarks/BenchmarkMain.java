@@ -0,0 +1,60 @@
+package com.furniture.inventory.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Entry point of benchmarks.jar. Accepts the usual JMH command line, but saves
+ * results as JSON under results/ unless -rf/-rff say otherwise, so every run can be
+ * compared with an earlier one:
+ * <pre>
+ * java -jar target/benchmarks.jar EntityBenchmark
+ * java -jar target/benchmarks.jar RepositoryBenchmark -p rows=100000
+ * java -jar target/benchmarks.jar compare results/before.json results/after.json
+ * java -jar target/benchmarks.jar loadtest --clients=400 --seconds=30
+ * java -jar target/benchmarks.jar startup --runs=5
+ * </pre>
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("compare")) {
+            ResultComparison.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("loadtest")) {
+            LoadTest.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("startup")) {
+            StartupBenchmark.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        CommandLineOptions cli = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        if (!cli.getResult().hasValue() && !cli.getResultFormat().hasValue()) {
+            Path results = Path.of("results");
+            Files.createDirectories(results);
+            String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            options.resultFormat(ResultFormatType.JSON)
+                    .result(results.resolve("jmh-" + stamp + ".json").toString());
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,97 @@
+package com.furniture.inventory.benchmarks;
+
+import com.furniture.inventory.entity.InhousePart;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.repository.PartRepository;
+import com.furniture.inventory.repository.ProductRepository;
+import com.furniture.inventory.service.AssemblyService;
+import com.furniture.inventory.service.PurchaseOutcome;
+import com.furniture.inventory.service.PurchaseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buy Now and assembly under contention: every thread hits the same product row
+ * (purchase) or the same part rows (assembly), which is where row locks queue up.
+ * Run with -t to change the thread count.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class ContentionBenchmark {
+
+    private static final int PLENTY = 2_000_000_000;
+
+    private ConfigurableApplicationContext context;
+    private PurchaseService purchaseService;
+    private AssemblyService assemblyService;
+    private ProductRepository productRepository;
+    private TransactionTemplate transactionTemplate;
+    private Long hotProductId;
+    private Long assemblyId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = InventoryContext.start("contention", false);
+        purchaseService = context.getBean(PurchaseService.class);
+        assemblyService = context.getBean(AssemblyService.class);
+        productRepository = context.getBean(ProductRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        PartRepository partRepository = context.getBean(PartRepository.class);
+
+        hotProductId = productRepository.save(new Product("Hot Seller", 10.0, PLENTY)).getId();
+
+        Product assembly = new Product("Contended Assembly", 1_000.0, 0);
+        for (int i = 0; i < 4; i++) {
+            Part part = new InhousePart("Contended Part " + i, 1.0, PLENTY, i);
+            part.setMaxInv(PLENTY);
+            assembly.addPart(partRepository.save(part), 1 + i);
+        }
+        assemblyId = productRepository.save(assembly).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PurchaseOutcome purchase() {
+        return purchaseService.purchase(hotProductId);
+    }
+
+    @Benchmark
+    public Product assembleOneUnit() {
+        // Same shape as the product form: load with its BOM, raise inventory by one, save
+        return transactionTemplate.execute(status -> {
+            Product product = productRepository.findWithBomById(assemblyId).orElseThrow();
+            int oldInventory = product.getInv();
+            product.setInv(oldInventory + 1);
+            return assemblyService.saveWithAssembly(product, oldInventory);
+        });
+    }
+}
@@ -0,0 +1,117 @@
+package com.furniture.inventory.benchmarks;
+
+import com.furniture.inventory.importer.BulkImportService;
+import com.furniture.inventory.importer.ImportFormat;
+import com.furniture.inventory.importer.ImportTarget;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds a deterministic catalog: a number of parts, one product per ten parts,
+ * and five bill-of-materials lines per product. Parts and products go through the
+ * bulk importer; BOM lines and materialized costs are written with plain JDBC.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+final class DatasetSeeder {
+
+    static final String[] MATERIALS = {"Oak", "Walnut", "Pine", "Maple", "Birch", "Steel", "Brass", "Teak"};
+    static final String[] SHAPES = {"Leg", "Top", "Panel", "Door", "Drawer", "Rail", "Shelf", "Hinge",
+            "Knob", "Frame", "Slat", "Cushion", "Bracket"};
+
+    static final int LINES_PER_PRODUCT = 5;
+
+    private DatasetSeeder() {
+    }
+
+    /**
+     * @return the part name for a row number, e.g. "Oak Leg 000042"
+     */
+    static String partName(int i) {
+        return MATERIALS[i % MATERIALS.length] + " " + SHAPES[i % SHAPES.length] + " " + String.format("%06d", i);
+    }
+
+    static Dataset seed(ConfigurableApplicationContext context, int parts) throws IOException {
+        BulkImportService importer = context.getBean(BulkImportService.class);
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        int products = Math.max(1, parts / 10);
+
+        Path partFile = Files.createTempFile("bench-parts", ".csv");
+        Path productFile = Files.createTempFile("bench-products", ".csv");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(partFile, StandardCharsets.UTF_8)) {
+                out.write("type,name,price,inv,minInv,maxInv,machineId,companyName\n");
+                for (int i = 0; i < parts; i++) {
+                    boolean inhouse = i % 2 == 0;
+                    out.write((inhouse ? "inhouse," : "outsourced,") + partName(i) + "," + (1 + i % 90) + ".25,"
+                            + (50 + i % 50) + ",5,1000," + (inhouse ? i : "") + "," + (inhouse ? "" : "Supplier " + i % 40));
+                    out.newLine();
+                }
+            }
+            try (BufferedWriter out = Files.newBufferedWriter(productFile, StandardCharsets.UTF_8)) {
+                out.write("name,price,inv\n");
+                for (int i = 0; i < products; i++) {
+                    out.write("Product " + partName(i) + "," + (500 + i % 500) + ".99,0");
+                    out.newLine();
+                }
+            }
+            try (InputStream in = Files.newInputStream(partFile)) {
+                importer.importFrom(ImportTarget.PARTS, ImportFormat.CSV, in);
+            }
+            try (InputStream in = Files.newInputStream(productFile)) {
+                importer.importFrom(ImportTarget.PRODUCTS, ImportFormat.CSV, in);
+            }
+        } finally {
+            Files.deleteIfExists(partFile);
+            Files.deleteIfExists(productFile);
+        }
+
+        long[] partIds = ids(jdbc, "part");
+        long[] productIds = ids(jdbc, "product");
+
+        // Product i uses five parts spread over the catalog, so parts are shared between products
+        List<Object[]> lines = new ArrayList<>();
+        for (int p = 0; p < productIds.length; p++) {
+            for (int k = 0; k < LINES_PER_PRODUCT; k++) {
+                long partId = partIds[(int) ((p * 7L + k * (partIds.length / LINES_PER_PRODUCT + 1)) % partIds.length)];
+                lines.add(new Object[]{productIds[p], partId, 1 + k % 3});
+            }
+            if (lines.size() >= 10_000 || p == productIds.length - 1) {
+                jdbc.batchUpdate("MERGE INTO product_parts (product_id, part_id, quantity) KEY (product_id, part_id) " +
+                        "VALUES (?, ?, ?)", lines);
+                lines.clear();
+            }
+        }
+        jdbc.update("UPDATE product p SET parts_total_cost = (SELECT COALESCE(SUM(pt.price * pp.quantity), 0) " +
+                "FROM product_parts pp JOIN part pt ON pt.id = pp.part_id WHERE pp.product_id = p.id)");
+        jdbc.update("UPDATE product SET margin = price - parts_total_cost");
+
+        EntityManagerFactory emf = context.getBean(EntityManagerFactory.class);
+        emf.getCache().evictAll();
+        emf.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        return new Dataset(partIds, productIds);
+    }
+
+    private static long[] ids(JdbcTemplate jdbc, String table) {
+        return jdbc.queryForList("SELECT id FROM " + table + " ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Ids of the seeded rows, for picking random keys in benchmark methods
+     */
+    record Dataset(long[] partIds, long[] productIds) {
+    }
+}
@@ -0,0 +1,98 @@
+package com.furniture.inventory.benchmarks;
+
+import com.furniture.inventory.entity.InhousePart;
+import com.furniture.inventory.entity.OutsourcedPart;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity business methods on detached objects, without Spring or a database:
+ * cost roll-up over a bill of materials, price validation, and part hashing.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntityBenchmark {
+
+    @Param({"5", "50", "500"})
+    public int bomLines;
+
+    private Product product;
+    private Product materialized;
+    private Part[] parts;
+
+    @Setup
+    public void setUp() {
+        parts = new Part[bomLines];
+        product = new Product(1L, "Benchmark Cabinet", 1_000_000.0, 0);
+        materialized = new Product(2L, "Benchmark Cabinet", 1_000_000.0, 0);
+        for (int i = 0; i < bomLines; i++) {
+            Part part = i % 2 == 0
+                    ? new InhousePart((long) i, DatasetSeeder.partName(i), 1.5 + i, 10, i)
+                    : new OutsourcedPart((long) i, DatasetSeeder.partName(i), 1.5 + i, 10, "Supplier");
+            parts[i] = part;
+            product.addPart(part, 1 + i % 4);
+            materialized.addPart(part, 1 + i % 4);
+        }
+        materialized.refreshCosts();
+    }
+
+    @Benchmark
+    public double calculatePartsTotalCost() {
+        return product.calculatePartsTotalCost();
+    }
+
+    @Benchmark
+    public double materializedPartsTotalCost() {
+        return materialized.getPartsTotalCost();
+    }
+
+    @Benchmark
+    public boolean isPriceValid() {
+        return materialized.isPriceValid();
+    }
+
+    @Benchmark
+    public Set<Part> productParts() {
+        return product.getParts();
+    }
+
+    @Benchmark
+    public int partHashCodes() {
+        int h = 0;
+        for (Part part : parts) {
+            h += part.hashCode();
+        }
+        return h;
+    }
+
+    @Benchmark
+    public Set<Part> partHashSet() {
+        Set<Part> set = new HashSet<>();
+        for (Part part : parts) {
+            set.add(part);
+        }
+        return set;
+    }
+}
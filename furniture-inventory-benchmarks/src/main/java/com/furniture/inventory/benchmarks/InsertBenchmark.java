@@ -0,0 +1,103 @@
+package com.furniture.inventory.benchmarks;
+
+import com.furniture.benchmark.IdentityPart;
+import com.furniture.inventory.FurnitureInventoryApplication;
+import com.furniture.inventory.entity.InhousePart;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Insert throughput of parts with pooled sequence ids, which Hibernate sends as
+ * JDBC batches, against the old IDENTITY ids, which cost a round trip per row and
+ * disable batching. Each invocation persists {@value #ROWS} rows in one transaction;
+ * scores are rows per second. The part side includes the entity listeners every
+ * part insert pays in the application.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+
+    static final int ROWS = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = InventoryContext.start("insert", false, new Class<?>[] {IdentityPartScan.class});
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearRows() {
+        // Keeps the tables, and the H2 heap, from growing across iterations
+        jdbcTemplate.update("DELETE FROM benchmark_identity_part");
+        jdbcTemplate.update("DELETE FROM part WHERE name LIKE 'Insert Benchmark %'");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int pooledSequence() {
+        return insert(i -> new InhousePart("Insert Benchmark " + i, 9.99, 10, i));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int identity() {
+        return insert(i -> new IdentityPart("Insert Benchmark " + i, 9.99, 10));
+    }
+
+    private int insert(IntFunction<Object> factory) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                entityManager.persist(factory.apply(i));
+            }
+            entityManager.flush();
+            entityManager.clear();
+        });
+        return ROWS;
+    }
+
+    // Adds the IDENTITY entity to the application's entities for this context only
+    @Configuration
+    @EntityScan(basePackageClasses = {FurnitureInventoryApplication.class, IdentityPart.class})
+    static class IdentityPartScan {
+    }
+}
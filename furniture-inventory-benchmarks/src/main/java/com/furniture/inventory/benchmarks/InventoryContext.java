@@ -0,0 +1,69 @@
+package com.furniture.inventory.benchmarks;
+
+import com.furniture.inventory.FurnitureInventoryApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the real application against a private in-memory H2 database, so benchmarks
+ * exercise the same beans, mappings and caches as production without touching
+ * ./data/furniture_inventory.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+final class InventoryContext {
+
+    private InventoryContext() {
+    }
+
+    /**
+     * @param database name of the in-memory database; use a distinct name per dataset
+     * @param web true to start the servlet stack (for MockMvc rendering benchmarks)
+     * @param overrides extra --property=value arguments, replacing the defaults above
+     * @return the running context; close it in the benchmark's tear-down
+     */
+    static ConfigurableApplicationContext start(String database, boolean web, String... overrides) {
+        return start(database, web, new Class<?>[0], overrides);
+    }
+
+    /**
+     * @param database name of the in-memory database; use a distinct name per dataset
+     * @param web true to start the servlet stack (for MockMvc rendering benchmarks)
+     * @param sources configuration added to the application's, such as an entity scan
+     *        that includes entities only a benchmark uses
+     * @param overrides extra --property=value arguments, replacing the defaults above
+     * @return the running context; close it in the benchmark's tear-down
+     */
+    static ConfigurableApplicationContext start(String database, boolean web, Class<?>[] sources,
+                                                String... overrides) {
+        // Keyed by property: a property repeated on the command line would be read as a list
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.url", "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        properties.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        properties.put("spring.jpa.show-sql", "false");
+        properties.put("spring.jpa.properties.hibernate.format_sql", "false");
+        properties.put("spring.h2.console.enabled", "false");
+        properties.put("server.port", "0");
+        properties.put("logging.level.root", "WARN");
+        properties.put("inventory.import.progress-interval", "0");
+        properties.put("inventory.import.error-dir", "target/import-errors");
+        for (String override : overrides) {
+            int eq = override.indexOf('=');
+            properties.put(override.substring(2, eq), override.substring(eq + 1));
+        }
+
+        List<String> args = new ArrayList<>();
+        properties.forEach((key, value) -> args.add("--" + key + "=" + value));
+        return new SpringApplicationBuilder(FurnitureInventoryApplication.class)
+                .sources(sources)
+                .web(web ? WebApplicationType.SERVLET : WebApplicationType.NONE)
+                .run(args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,181 @@
+package com.furniture.inventory.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.repository.ProductRepository;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load test of /mainscreen and Buy Now, with virtual threads off
+ * (Tomcat's 200 platform threads) and on (the virtual-threads profile).
+ *
+ * Each mode boots the application on a random port against its own H2 file database,
+ * so file I/O is part of every request. A fixed number of clients then loop for a
+ * fixed time. Throughput and p50/p99 latency are printed for each endpoint and mode,
+ * and saved to results/loadtest-&lt;timestamp&gt;.json.
+ * <pre>
+ * java -jar target/benchmarks.jar loadtest --clients=400 --seconds=30 --rows=10000
+ * </pre>
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+final class LoadTest {
+
+    private static final int STOCK = 2_000_000_000;
+    private static final AtomicLong ERRORS = new AtomicLong();
+
+    private LoadTest() {
+    }
+
+    static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        int clients = Integer.parseInt(options.getOrDefault("clients", "400"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "30"));
+        int rows = Integer.parseInt(options.getOrDefault("rows", "10000"));
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("clients", clients);
+        report.put("seconds", seconds);
+        report.put("rows", rows);
+        for (boolean virtual : new boolean[]{false, true}) {
+            String mode = virtual ? "virtual" : "platform";
+            Path dbDir = Files.createTempDirectory("loadtest-" + mode);
+            List<String> overrides = new ArrayList<>(List.of(
+                    "--spring.datasource.url=jdbc:h2:file:" + dbDir.resolve("inventory") + ";LOCK_TIMEOUT=10000",
+                    "--spring.jpa.hibernate.ddl-auto=update"));
+            if (virtual) {
+                overrides.add("--spring.profiles.active=virtual-threads");
+            }
+            ConfigurableApplicationContext context = InventoryContext.start("loadtest", true,
+                    overrides.toArray(String[]::new));
+            try {
+                DatasetSeeder.seed(context, rows);
+                long productId = context.getBean(ProductRepository.class)
+                        .save(new Product("Load Test Stool", 10.0, STOCK)).getId();
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                String base = "http://localhost:" + port;
+
+                Map<String, Object> results = new LinkedHashMap<>();
+                results.put("mainscreen", run(clients, seconds,
+                        HttpRequest.newBuilder(URI.create(base + "/mainscreen")).GET().build()));
+                results.put("buy", run(clients, seconds,
+                        HttpRequest.newBuilder(URI.create(base + "/products/buy/" + productId))
+                                .POST(HttpRequest.BodyPublishers.noBody()).build()));
+                report.put(mode, results);
+            } finally {
+                context.close();
+            }
+        }
+
+        Path results = Path.of("results");
+        Files.createDirectories(results);
+        Path file = results.resolve("loadtest-" +
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+        System.out.println("Results saved to " + file);
+    }
+
+    private static Map<String, Object> run(int clients, int seconds, HttpRequest request) throws Exception {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        // Warm up the JIT, pools and caches before measuring
+        drive(http, request, clients, System.nanoTime() + Duration.ofSeconds(Math.max(3, seconds / 5)).toNanos());
+
+        long start = System.nanoTime();
+        List<long[]> latencies = drive(http, request, clients, start + Duration.ofSeconds(seconds).toNanos());
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        long errors = ERRORS.getAndSet(0);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", all.length);
+        result.put("errors", errors);
+        result.put("throughputPerSecond", Math.round(all.length / elapsed));
+        result.put("p50Millis", percentile(all, 0.50));
+        result.put("p99Millis", percentile(all, 0.99));
+        result.put("maxMillis", all.length == 0 ? 0 : all[all.length - 1] / 1e6);
+        System.out.printf("%-6s %-45s %,10d req/s  p50 %8.2f ms  p99 %8.2f ms  errors %d%n",
+                request.method(), request.uri().getPath(), result.get("throughputPerSecond"),
+                result.get("p50Millis"), result.get("p99Millis"), errors);
+        return result;
+    }
+
+    private static List<long[]> drive(HttpClient http, HttpRequest request, int clients, long deadline)
+            throws Exception {
+        List<Future<long[]>> futures = new ArrayList<>();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                futures.add(pool.submit(() -> {
+                    long[] samples = new long[1024];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        long begin = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                ERRORS.incrementAndGet();
+                                continue;
+                            }
+                        } catch (IOException e) {
+                            ERRORS.incrementAndGet();
+                            continue;
+                        }
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - begin;
+                    }
+                    return Arrays.copyOf(samples, count);
+                }));
+            }
+        }
+        List<long[]> latencies = new ArrayList<>();
+        for (Future<long[]> future : futures) {
+            latencies.add(future.get());
+        }
+        return latencies;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        return options;
+    }
+}
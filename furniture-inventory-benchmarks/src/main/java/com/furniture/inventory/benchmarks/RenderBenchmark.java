@@ -0,0 +1,78 @@
+package com.furniture.inventory.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Controller plus Thymeleaf rendering of the main screen and product form, through
+ * MockMvc so no HTTP or socket time is measured. With the template cache off (the
+ * application's default) every render re-parses the template.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenderBenchmark {
+
+    @Param({"true", "false"})
+    public boolean templateCache;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private long productId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = InventoryContext.start("render_" + templateCache, true,
+                "--spring.thymeleaf.cache=" + templateCache);
+        DatasetSeeder.Dataset dataset = DatasetSeeder.seed(context, 10_000);
+        productId = dataset.productIds()[dataset.productIds().length / 2];
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String mainscreen() throws Exception {
+        return mockMvc.perform(get("/mainscreen")).andReturn().getResponse().getContentAsString();
+    }
+
+    @Benchmark
+    public String mainscreenFiltered() throws Exception {
+        return mockMvc.perform(get("/mainscreen").param("partFilter", "oak leg").param("productFilter", "walnut"))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Benchmark
+    public String productForm() throws Exception {
+        return mockMvc.perform(get("/products/update/" + productId)).andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,142 @@
+package com.furniture.inventory.benchmarks;
+
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.repository.PartRepository;
+import com.furniture.inventory.repository.ProductRepository;
+import com.furniture.inventory.search.NameSearchService;
+import com.furniture.inventory.valuation.InventoryValuation;
+import com.furniture.inventory.valuation.ValuationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository and search queries against seeded H2 catalogs of increasing size.
+ * Seeding a million parts takes a while; it happens once per trial, outside measurement.
+ * Caches are warm, as they are in a running application.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class RepositoryBenchmark {
+
+    private static final Pageable PAGE = PageRequest.of(0, 26);
+
+    @Param({"10000", "100000", "1000000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private PartRepository partRepository;
+    private ProductRepository productRepository;
+    private NameSearchService searchService;
+    private ValuationService valuationService;
+    private DatasetSeeder.Dataset dataset;
+    private Part middlePart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        context = InventoryContext.start("repository_" + rows, false);
+        dataset = DatasetSeeder.seed(context, rows);
+        partRepository = context.getBean(PartRepository.class);
+        productRepository = context.getBean(ProductRepository.class);
+        searchService = context.getBean(NameSearchService.class);
+        valuationService = context.getBean(ValuationService.class);
+        middlePart = partRepository.findById(dataset.partIds()[dataset.partIds().length / 2]).orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Part> partFirstPage() {
+        return partRepository.findFirstPage(PAGE);
+    }
+
+    @Benchmark
+    public List<Part> partPageAfterMiddle() {
+        return partRepository.findPageAfter(middlePart.getName(), middlePart.getId(), PAGE);
+    }
+
+    @Benchmark
+    public List<Product> productFirstPage() {
+        return productRepository.findFirstPage(PAGE);
+    }
+
+    @Benchmark
+    public List<Long> searchPartsByName() {
+        return searchService.searchParts(DatasetSeeder.partName(randomIndex(rows)).substring(0, 12), 26);
+    }
+
+    @Benchmark
+    public Optional<Part> partById() {
+        return partRepository.findById(randomId(dataset.partIds()));
+    }
+
+    @Benchmark
+    public Optional<Product> productWithBom() {
+        return productRepository.findWithBomById(randomId(dataset.productIds()));
+    }
+
+    @Benchmark
+    public List<Product> productsByPartId() {
+        return productRepository.findProductsByPartId(randomId(dataset.partIds()));
+    }
+
+    @Benchmark
+    public boolean isPartUsedInProducts() {
+        return partRepository.isPartUsedInProducts(randomId(dataset.partIds()));
+    }
+
+    @Benchmark
+    public List<Part> partsShortOf() {
+        long[] ids = dataset.partIds();
+        int start = randomIndex(ids.length - 10);
+        return partRepository.findPartsShortOf(List.of(ids[start], ids[start + 3], ids[start + 7]), 80);
+    }
+
+    @Benchmark
+    public InventoryValuation valuationDashboard() {
+        return valuationService.current();
+    }
+
+    @Benchmark
+    public void valuationRecompute() {
+        valuationService.reconcile();
+    }
+
+    private static long randomId(long[] ids) {
+        return ids[randomIndex(ids.length)];
+    }
+
+    private static int randomIndex(int bound) {
+        return ThreadLocalRandom.current().nextInt(Math.max(1, bound));
+    }
+}
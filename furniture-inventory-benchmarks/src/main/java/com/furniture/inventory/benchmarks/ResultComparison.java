@@ -0,0 +1,58 @@
+package com.furniture.inventory.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prints two JMH JSON result files side by side with the relative change of each score.
+ * A positive change is an improvement: higher throughput, or lower time per operation.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+final class ResultComparison {
+
+    private ResultComparison() {
+    }
+
+    static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: compare <baseline.json> <candidate.json>");
+            return;
+        }
+        Map<String, JsonNode> baseline = load(Path.of(args[0]));
+        Map<String, JsonNode> candidate = load(Path.of(args[1]));
+
+        System.out.printf("%-70s %16s %16s %9s%n", "Benchmark", "Baseline", "Candidate", "Change");
+        candidate.forEach((key, result) -> {
+            JsonNode before = baseline.get(key);
+            double score = result.path("primaryMetric").path("score").asDouble();
+            String unit = result.path("primaryMetric").path("scoreUnit").asText();
+            if (before == null) {
+                System.out.printf("%-70s %16s %16.3f %9s  %s%n", key, "-", score, "new", unit);
+                return;
+            }
+            double old = before.path("primaryMetric").path("score").asDouble();
+            boolean higherIsBetter = result.path("mode").asText().equals("thrpt");
+            double change = old == 0 ? 0 : (higherIsBetter ? score - old : old - score) / old * 100;
+            System.out.printf("%-70s %16.3f %16.3f %+8.1f%%  %s%n", key, old, score, change, unit);
+        });
+    }
+
+    private static Map<String, JsonNode> load(Path file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                    .replace("com.furniture.inventory.benchmarks.", ""));
+            result.path("params").properties().forEach(p -> key.append(' ').append(p.getKey()).append('=')
+                    .append(p.getValue().asText()));
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,164 @@
+package com.furniture.inventory.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from launching the application jar to the first successful /mainscreen,
+ * for the default configuration and the prod profile, optionally with a CDS
+ * archive and AOT-processed context (see the cds and aot Maven profiles).
+ *
+ * Every run is a fresh JVM on a free port. Each variant gets its own H2 file
+ * database, created by an unmeasured first run, so the measured runs start
+ * against an existing schema like a restart in production. Min and median are
+ * printed per variant and saved to results/startup-&lt;timestamp&gt;.json.
+ * <pre>
+ * java -jar target/benchmarks.jar startup --runs=5
+ * java -jar target/benchmarks.jar startup --cds=../furniture-inventory/target/cds --aot=true
+ * </pre>
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+final class StartupBenchmark {
+
+    private static final String JAR = "inventory-0.0.1-SNAPSHOT-exec.jar";
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(2);
+
+    private StartupBenchmark() {
+    }
+
+    static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTest.parse(args);
+        Path jar = Path.of(options.getOrDefault("jar", "../furniture-inventory/target/" + JAR));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        boolean aot = Boolean.parseBoolean(options.getOrDefault("aot", "false"));
+
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        variants.put("default", List.of());
+        variants.put("prod", List.of());
+        if (options.containsKey("cds")) {
+            // The archive only matches the extracted jar it was trained with, and was trained
+            // with the AOT context when the jar was built with both profiles
+            Path cds = Path.of(options.get("cds"));
+            variants.put("prod+cds", List.of("-XX:SharedArchiveFile=" + cds.resolve("application.jsa"),
+                    "-Dspring.aot.enabled=" + aot, "-jar", cds.resolve(jar.getFileName()).toString()));
+        }
+        if (aot) {
+            variants.put("prod+aot", List.of("-Dspring.aot.enabled=true"));
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("jar", jar.toString());
+        report.put("runs", runs);
+        for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+            String name = variant.getKey();
+            Path dbDir = Files.createTempDirectory("startup-" + name.replace('+', '-'));
+            List<String> command = command(jar, variant.getValue(), !name.equals("default"), dbDir);
+
+            start(command, dbDir);
+            long[] millis = new long[runs];
+            for (int i = 0; i < runs; i++) {
+                millis[i] = start(command, dbDir);
+            }
+            Arrays.sort(millis);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("minMillis", millis[0]);
+            result.put("medianMillis", millis[runs / 2]);
+            result.put("maxMillis", millis[runs - 1]);
+            result.put("samplesMillis", millis);
+            report.put(name, result);
+            System.out.printf("%-10s min %,7d ms  median %,7d ms  max %,7d ms%n",
+                    name, millis[0], millis[runs / 2], millis[runs - 1]);
+        }
+
+        Path results = Path.of("results");
+        Files.createDirectories(results);
+        Path file = results.resolve("startup-" +
+                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+        System.out.println("Results saved to " + file);
+    }
+
+    private static List<String> command(Path jar, List<String> jvmArgs, boolean prod, Path dbDir) {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        if (!command.contains("-jar")) {
+            command.add("-jar");
+            command.add(jar.toString());
+        }
+        command.add("--spring.datasource.url=jdbc:h2:file:" + dbDir.resolve("inventory"));
+        if (prod) {
+            command.add("--spring.profiles.active=prod");
+        }
+        return command;
+    }
+
+    /**
+     * Launches the application, waits for /mainscreen and stops it
+     * @return milliseconds from launch to the first 200 response
+     */
+    private static long start(List<String> command, Path dbDir) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> withPort = new ArrayList<>(command);
+        withPort.add("--server.port=" + port);
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/mainscreen"))
+                .GET().build();
+
+        long begin = System.nanoTime();
+        Process process = new ProcessBuilder(withPort)
+                .redirectErrorStream(true)
+                .redirectOutput(dbDir.resolve("application.log").toFile())
+                .start();
+        try {
+            long deadline = begin + READY_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue()
+                            + "; see " + dbDir.resolve("application.log"));
+                }
+                try {
+                    if (http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+                    }
+                } catch (ConnectException e) {
+                    // not listening yet
+                } catch (IOException e) {
+                    // connection reset while the server starts
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("Application not ready after " + READY_TIMEOUT
+                    + "; see " + dbDir.resolve("application.log"));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.furniture.inventory;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class FurnitureInventoryApplication {
 
     public static void main(String[] args) {
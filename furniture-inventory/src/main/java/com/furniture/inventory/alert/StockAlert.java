@@ -0,0 +1,33 @@
+package com.furniture.inventory.alert;
+
+import com.furniture.inventory.entity.StockStatus;
+
+import java.time.Instant;
+
+/**
+ * A part crossed a stock threshold. Published as an application event and pushed
+ * to alert stream subscribers. A transition back to NORMAL means the alert is resolved.
+ *
+ * @param sequence increasing number, used as the stream event id
+ * @param partId the part
+ * @param partName the part name at the time of the alert
+ * @param previous the status before the change
+ * @param status the status after the change
+ * @param inv inventory after the change
+ * @param minInv minimum inventory
+ * @param maxInv maximum inventory
+ * @param at when the change was committed
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public record StockAlert(long sequence, Long partId, String partName, StockStatus previous, StockStatus status,
+                         int inv, int minInv, int maxInv, Instant at) {
+
+    /**
+     * @return true if the part went back to normal levels
+     */
+    public boolean isResolved() {
+        return status == StockStatus.NORMAL;
+    }
+}
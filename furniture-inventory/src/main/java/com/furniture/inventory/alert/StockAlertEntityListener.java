@@ -0,0 +1,41 @@
+package com.furniture.inventory.alert;
+
+import com.furniture.inventory.entity.InventoryWriteListener;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.repository.StockLevel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports part writes made through JPA to the alert engine, so thresholds
+ * are checked at the moment inventory changes rather than by scanning.
+ * Bulk JPQL updates bypass entity listeners and report through
+ * {@link StockAlertService#refresh(java.util.Collection)} instead.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Component
+@Order(30)
+public class StockAlertEntityListener implements InventoryWriteListener {
+
+    private final StockAlertService alertService;
+
+    @Autowired
+    public StockAlertEntityListener(@Lazy StockAlertService alertService) {
+        this.alertService = alertService;
+    }
+
+    @Override
+    public void partSaved(Part part) {
+        alertService.update(new StockLevel(part.getId(), part.getName(), part.getInv(),
+                part.getMinInv(), part.getMaxInv(), part.getStockStatus()));
+    }
+
+    @Override
+    public void partRemoved(Part part) {
+        alertService.remove(part.getId());
+    }
+}
@@ -0,0 +1,236 @@
+package com.furniture.inventory.alert;
+
+import com.furniture.inventory.entity.StockStatus;
+import com.furniture.inventory.repository.PartRepository;
+import com.furniture.inventory.repository.StockLevel;
+import com.furniture.inventory.support.TransactionHooks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replenishment alert engine.
+ *
+ * Keeps the live set of low and overstocked parts in memory, loaded once at startup
+ * from the indexed stock status column. From then on every part write reports the
+ * part's new levels, and only the parts that were written are checked: when a
+ * part's status differs from the live set, a {@link StockAlert} is raised. Nothing
+ * is ever scanned periodically.
+ *
+ * Changes are applied after the writing transaction commits, so rolled-back writes
+ * never raise alerts. Alerts are published as application events, kept in a short
+ * replay buffer, and pushed to server-sent-event subscribers.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Service
+public class StockAlertService {
+
+    private static final Logger log = LoggerFactory.getLogger(StockAlertService.class);
+    private static final int RECENT_ALERTS = 500;
+    private static final long STREAM_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+
+    private final PartRepository partRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // part id -> levels, for parts currently LOW or OVER
+    private final Map<Long, StockLevel> flagged = new ConcurrentHashMap<>();
+    private final Deque<StockAlert> recent = new ArrayDeque<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    // One delivery thread so a slow subscriber never holds up the committing request
+    private final ExecutorService delivery = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "stock-alert-delivery");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Autowired
+    public StockAlertService(PartRepository partRepository, ApplicationEventPublisher eventPublisher,
+                             MeterRegistry meterRegistry) {
+        this.partRepository = partRepository;
+        this.eventPublisher = eventPublisher;
+        meterRegistry.gauge("inventory.parts.flagged", List.of(Tag.of("status", "low")),
+                flagged, m -> count(StockStatus.LOW));
+        meterRegistry.gauge("inventory.parts.flagged", List.of(Tag.of("status", "over")),
+                flagged, m -> count(StockStatus.OVER));
+    }
+
+    /**
+     * Loads the live set from the stock status index, filling in the status of
+     * rows written before the column existed
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    @Transactional
+    public void load() {
+        int backfilled = partRepository.backfillStockStatus();
+        flagged.clear();
+        for (StockLevel level : partRepository.findFlaggedStockLevels()) {
+            flagged.put(level.id(), level);
+        }
+        log.info("Stock alerts loaded: {} low, {} overstocked ({} statuses backfilled)",
+                count(StockStatus.LOW), count(StockStatus.OVER), backfilled);
+    }
+
+    /**
+     * Reports a part's new levels; raises an alert after commit if its status changed
+     * @param level the part's levels as written
+     */
+    public void update(StockLevel level) {
+        TransactionHooks.afterCommit(() -> apply(level));
+    }
+
+    /**
+     * Reports that a part was deleted
+     * @param partId the part ID
+     */
+    public void remove(Long partId) {
+        TransactionHooks.afterCommit(() -> flagged.remove(partId));
+    }
+
+    /**
+     * Re-reads the levels of parts changed by a bulk UPDATE, which entity listeners do not see.
+     * Call inside the writing transaction, after the update.
+     * @param partIds the parts the update touched
+     */
+    public void refresh(Collection<Long> partIds) {
+        if (partIds.isEmpty()) {
+            return;
+        }
+        List<StockLevel> levels = partRepository.findStockLevels(partIds);
+        TransactionHooks.afterCommit(() -> levels.forEach(this::apply));
+    }
+
+    /**
+     * Reconciles the live set with the database after writes that bypassed JPA
+     * entirely (bulk import), raising alerts for every difference
+     */
+    @Transactional(readOnly = true)
+    public void reload() {
+        Map<Long, StockLevel> current = new HashMap<>();
+        for (StockLevel level : partRepository.findFlaggedStockLevels()) {
+            current.put(level.id(), level);
+        }
+        current.values().forEach(this::apply);
+
+        // Parts flagged here but not in the database any more were resolved or deleted
+        List<Long> cleared = flagged.keySet().stream().filter(id -> !current.containsKey(id)).toList();
+        if (!cleared.isEmpty()) {
+            partRepository.findStockLevels(cleared).forEach(this::apply);
+            cleared.forEach(flagged::remove);
+        }
+    }
+
+    /**
+     * @param status LOW or OVER, or null for both
+     * @return flagged parts, lowest inventory first
+     */
+    public List<StockLevel> active(StockStatus status) {
+        List<StockLevel> levels = new ArrayList<>();
+        for (StockLevel level : flagged.values()) {
+            if (status == null || level.status() == status) {
+                levels.add(level);
+            }
+        }
+        levels.sort(Comparator.comparingInt(StockLevel::inv).thenComparing(StockLevel::id));
+        return levels;
+    }
+
+    /**
+     * @param status LOW or OVER
+     * @return number of parts currently in that status
+     */
+    public long count(StockStatus status) {
+        return flagged.values().stream().filter(l -> l.status() == status).count();
+    }
+
+    /**
+     * @param after sequence number of the last alert already seen, 0 for all
+     * @return buffered alerts newer than that, oldest first
+     */
+    public List<StockAlert> since(long after) {
+        synchronized (recent) {
+            return recent.stream().filter(a -> a.sequence() > after).toList();
+        }
+    }
+
+    /**
+     * Opens an alert stream, first replaying buffered alerts newer than lastEventId
+     * @param lastEventId the Last-Event-ID sent by a reconnecting client, or null
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+        subscribers.add(emitter);
+        if (lastEventId != null) {
+            List<StockAlert> missed = since(lastEventId);
+            delivery.execute(() -> missed.forEach(alert -> send(emitter, alert)));
+        }
+        return emitter;
+    }
+
+    private void apply(StockLevel level) {
+        StockStatus[] previous = new StockStatus[1];
+        flagged.compute(level.id(), (id, before) -> {
+            previous[0] = before == null ? StockStatus.NORMAL : before.status();
+            return level.status() == StockStatus.NORMAL ? null : level;
+        });
+        if (previous[0] != level.status()) {
+            raise(level, previous[0]);
+        }
+    }
+
+    private void raise(StockLevel level, StockStatus previous) {
+        StockAlert alert = new StockAlert(sequence.incrementAndGet(), level.id(), level.name(), previous,
+                level.status(), level.inv(), level.minInv(), level.maxInv(), Instant.now());
+        synchronized (recent) {
+            recent.addLast(alert);
+            if (recent.size() > RECENT_ALERTS) {
+                recent.removeFirst();
+            }
+        }
+        eventPublisher.publishEvent(alert);
+        for (SseEmitter emitter : subscribers) {
+            delivery.execute(() -> send(emitter, alert));
+        }
+    }
+
+    private void send(SseEmitter emitter, StockAlert alert) {
+        try {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(alert.sequence()))
+                    .name("stock-alert")
+                    .data(alert));
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(emitter);
+        }
+    }
+}
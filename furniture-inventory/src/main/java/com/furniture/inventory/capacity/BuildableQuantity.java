@@ -0,0 +1,15 @@
+package com.furniture.inventory.capacity;
+
+/**
+ * How many units of a product can be assembled right now from part stock above
+ * each part's minimum inventory.
+ *
+ * @param productId the product ID
+ * @param units units that can be assembled
+ * @param limitingPartId the part that runs out first
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public record BuildableQuantity(Long productId, long units, Long limitingPartId) {
+}
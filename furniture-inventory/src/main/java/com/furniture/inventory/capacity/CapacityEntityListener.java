@@ -0,0 +1,39 @@
+package com.furniture.inventory.capacity;
+
+import com.furniture.inventory.entity.InventoryWriteListener;
+import com.furniture.inventory.entity.Part;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports part stock changes written through JPA to the capacity engine,
+ * so only the products using the changed part are recomputed.
+ * Bulk JPQL updates bypass entity listeners and report through
+ * {@link CapacityService} directly.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Component
+@Order(60)
+public class CapacityEntityListener implements InventoryWriteListener {
+
+    private final CapacityService capacityService;
+
+    @Autowired
+    public CapacityEntityListener(@Lazy CapacityService capacityService) {
+        this.capacityService = capacityService;
+    }
+
+    @Override
+    public void partSaved(Part part) {
+        capacityService.updatePart(part.getId(), part.getInv() - part.getMinInv());
+    }
+
+    @Override
+    public void partRemoved(Part part) {
+        capacityService.updatePart(part.getId(), null);
+    }
+}
@@ -0,0 +1,402 @@
+package com.furniture.inventory.capacity;
+
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.live.StockUpdateBroadcaster;
+import com.furniture.inventory.repository.ProductRepository;
+import com.furniture.inventory.service.BomExplosionService;
+import com.furniture.inventory.support.TransactionHooks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Buildable quantity engine: for every product with a bill of materials, how many
+ * units can be assembled from the part stock above each part's minimum inventory,
+ * the same rule assembly enforces.
+ *
+ * Each product's per-unit part requirements (nested sub-assemblies included) are
+ * kept with a reverse index from part to the products that need it. A part stock
+ * change recomputes only the products in its index entry, each a minimum over its
+ * requirement vector; reads never touch the database.
+ *
+ * Everything is rebuilt from the tables at startup and after bulk imports. Part
+ * changes are applied after the writing transaction commits, and products whose
+ * count moved are pushed to live screens.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Service
+public class CapacityService {
+
+    private static final Logger log = LoggerFactory.getLogger(CapacityService.class);
+
+    private static final String PART_HEADROOM = "SELECT id, inventory_count - min_inventory FROM part";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final ProductRepository productRepository;
+    private final BomExplosionService explosionService;
+    private final StockUpdateBroadcaster broadcaster;
+    private final MeterRegistry meterRegistry;
+
+    private final Object lock = new Object();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    // guarded by lock
+    private Model model = new Model();
+    // ids changed while a rebuild is reading, null when none is running; guarded by lock
+    private Set<Long> touchedParts;
+    private Set<Long> touchedProducts;
+    // published results, read without the lock
+    private final Map<Long, BuildableQuantity> buildable = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CapacityService(JdbcTemplate jdbcTemplate,
+                           ProductRepository productRepository,
+                           BomExplosionService explosionService,
+                           StockUpdateBroadcaster broadcaster,
+                           MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.productRepository = productRepository;
+        this.explosionService = explosionService;
+        this.broadcaster = broadcaster;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("inventory.capacity.products", buildable, Map::size);
+    }
+
+    /**
+     * @param productId the product ID
+     * @return units that can be assembled now; empty if the product has no bill of materials
+     */
+    public Optional<BuildableQuantity> buildable(Long productId) {
+        return Optional.ofNullable(buildable.get(productId));
+    }
+
+    /**
+     * @param productIds product IDs
+     * @return product id to buildable quantity, for the products that have a bill of materials
+     */
+    public Map<Long, BuildableQuantity> buildable(Collection<Long> productIds) {
+        Map<Long, BuildableQuantity> result = new LinkedHashMap<>();
+        for (Long productId : productIds) {
+            BuildableQuantity quantity = buildable.get(productId);
+            if (quantity != null) {
+                result.put(productId, quantity);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return product id to raw parts needed per unit, for every product with a bill of materials
+     */
+    public Map<Long, Map<Long, Long>> requirementVectors() {
+        synchronized (lock) {
+            // The vectors themselves are never modified once stored
+            return new HashMap<>(model.vectors);
+        }
+    }
+
+    /**
+     * Reports parts consumed by a bulk UPDATE, which entity listeners do not see.
+     * Call inside the writing transaction.
+     * @param quantities part id to the units taken from it
+     */
+    public void consumeParts(Map<Long, Long> quantities) {
+        Map<Long, Long> taken = Map.copyOf(quantities);
+        TransactionHooks.afterCommit(() -> {
+            Set<Long> moved;
+            synchronized (lock) {
+                taken.forEach((partId, amount) -> {
+                    model.headroom.merge(partId, -amount, Long::sum);
+                    touch(touchedParts, partId);
+                });
+                moved = recompute(model.productsUsing(taken.keySet()));
+            }
+            publish(moved);
+        });
+    }
+
+    /**
+     * Re-reads the bill of materials of a product and of every assembly built on
+     * top of it. Call after the change has committed and the explosion cache was
+     * invalidated; a deleted product is dropped.
+     * @param productId the changed, added or deleted product
+     */
+    public void refreshProduct(Long productId) {
+        Set<Long> affected = new HashSet<>();
+        Deque<Long> queue = new ArrayDeque<>();
+        queue.add(productId);
+        while (!queue.isEmpty()) {
+            Long current = queue.poll();
+            if (affected.add(current)) {
+                queue.addAll(productRepository.findParentIds(current));
+            }
+        }
+        Map<Long, Map<Long, Long>> vectors = new HashMap<>();
+        for (Long id : affected) {
+            vectors.put(id, explosionService.requirementsPerUnit(id));
+        }
+
+        Set<Long> moved;
+        synchronized (lock) {
+            vectors.forEach(model::putVector);
+            affected.forEach(id -> touch(touchedProducts, id));
+            moved = recompute(affected);
+        }
+        publish(moved);
+    }
+
+    /**
+     * Rebuilds the requirement vectors, reverse index and part headroom from the
+     * tables. Runs at startup and after bulk imports; a call while a rebuild is
+     * already running returns immediately.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            synchronized (lock) {
+                touchedParts = new HashSet<>();
+                touchedProducts = new HashSet<>();
+            }
+            Model fresh = load();
+
+            Set<Long> partIds;
+            Set<Long> productIds;
+            Set<Long> moved;
+            synchronized (lock) {
+                Set<Long> products = new HashSet<>(buildable.keySet());
+                model = fresh;
+                partIds = touchedParts;
+                productIds = touchedProducts;
+                touchedParts = null;
+                touchedProducts = null;
+                products.addAll(model.vectors.keySet());
+                moved = recompute(products);
+            }
+            publish(moved);
+            // These changed while the tables were being read, so the loaded rows may be older
+            rereadParts(partIds);
+            productIds.forEach(this::refreshProduct);
+
+            log.info("Buildable quantities rebuilt for {} products", buildable.size());
+        } finally {
+            synchronized (lock) {
+                touchedParts = null;
+                touchedProducts = null;
+            }
+            rebuilding.set(false);
+            sample.stop(meterRegistry.timer("inventory.capacity.rebuild"));
+        }
+    }
+
+    /**
+     * @param partId the part ID
+     * @param headroom inventory above the minimum, or null if the part was deleted
+     */
+    void updatePart(Long partId, Integer headroom) {
+        TransactionHooks.afterCommit(() -> {
+            Set<Long> moved;
+            synchronized (lock) {
+                if (headroom == null) {
+                    model.headroom.remove(partId);
+                } else {
+                    model.headroom.put(partId, headroom.longValue());
+                }
+                touch(touchedParts, partId);
+                moved = recompute(model.productsUsing(Set.of(partId)));
+            }
+            publish(moved);
+        });
+    }
+
+    /**
+     * Recomputes the given products; call under the lock
+     * @return products whose buildable quantity changed
+     */
+    private Set<Long> recompute(Collection<Long> productIds) {
+        Set<Long> moved = new HashSet<>();
+        for (Long productId : productIds) {
+            BuildableQuantity next = model.buildable(productId);
+            BuildableQuantity previous = next == null ? buildable.remove(productId) : buildable.put(productId, next);
+            if (next == null ? previous != null : previous == null || previous.units() != next.units()) {
+                moved.add(productId);
+            }
+        }
+        return moved;
+    }
+
+    private void publish(Set<Long> moved) {
+        if (!moved.isEmpty()) {
+            broadcaster.changed(ItemType.PRODUCT, moved);
+        }
+    }
+
+    private Model load() {
+        Model fresh = new Model();
+        RowCallbackHandler headroomRows = rs -> fresh.headroom.put(rs.getLong(1), rs.getLong(2));
+        jdbcTemplate.query(PART_HEADROOM, headroomRows);
+
+        Map<Long, Map<Long, Long>> partLines = new HashMap<>();
+        Map<Long, Map<Long, Long>> componentLines = new HashMap<>();
+        RowCallbackHandler partLineRows = rs -> partLines.computeIfAbsent(rs.getLong(1), id -> new HashMap<>())
+                .merge(rs.getLong(2), rs.getLong(3), Long::sum);
+        RowCallbackHandler componentLineRows = rs -> componentLines.computeIfAbsent(rs.getLong(1), id -> new HashMap<>())
+                .merge(rs.getLong(2), rs.getLong(3), Long::sum);
+        jdbcTemplate.query("SELECT product_id, part_id, quantity FROM product_parts", partLineRows);
+        jdbcTemplate.query("SELECT parent_id, component_id, quantity FROM product_components", componentLineRows);
+
+        // Explode every product in memory; the per-product queries of the explosion service would be N+1 here
+        Map<Long, Map<Long, Long>> vectors = new HashMap<>();
+        Set<Long> products = new HashSet<>(partLines.keySet());
+        products.addAll(componentLines.keySet());
+        for (Long productId : products) {
+            try {
+                fresh.putVector(productId, explode(productId, partLines, componentLines, vectors, new HashSet<>()));
+            } catch (IllegalStateException e) {
+                log.warn("Skipping buildable quantity of product {}: {}", productId, e.getMessage());
+            }
+        }
+        return fresh;
+    }
+
+    private static Map<Long, Long> explode(Long productId,
+                                           Map<Long, Map<Long, Long>> partLines,
+                                           Map<Long, Map<Long, Long>> componentLines,
+                                           Map<Long, Map<Long, Long>> vectors,
+                                           Set<Long> path) {
+        Map<Long, Long> cached = vectors.get(productId);
+        if (cached != null) {
+            return cached;
+        }
+        if (!path.add(productId)) {
+            throw new IllegalStateException("Bill of materials contains a cycle at product " + productId);
+        }
+        Map<Long, Long> vector = new HashMap<>(partLines.getOrDefault(productId, Map.of()));
+        componentLines.getOrDefault(productId, Map.of()).forEach((componentId, quantity) ->
+                explode(componentId, partLines, componentLines, vectors, path)
+                        .forEach((partId, perUnit) -> vector.merge(partId, perUnit * quantity, Long::sum)));
+        path.remove(productId);
+        vectors.put(productId, vector);
+        return vector;
+    }
+
+    private void rereadParts(Collection<Long> partIds) {
+        if (partIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> rows = new HashMap<>();
+        RowCallbackHandler headroomRows = rs -> rows.put(rs.getLong(1), rs.getLong(2));
+        namedJdbcTemplate.query(PART_HEADROOM + " WHERE id IN (:ids)", new MapSqlParameterSource("ids", partIds),
+                headroomRows);
+        Set<Long> moved;
+        synchronized (lock) {
+            // Ids no longer in the table were deleted meanwhile
+            partIds.forEach(id -> {
+                Long headroom = rows.get(id);
+                if (headroom == null) {
+                    model.headroom.remove(id);
+                } else {
+                    model.headroom.put(id, headroom);
+                }
+            });
+            moved = recompute(model.productsUsing(partIds));
+        }
+        publish(moved);
+    }
+
+    private static void touch(Set<Long> touched, Long id) {
+        if (touched != null) {
+            touched.add(id);
+        }
+    }
+
+    /**
+     * Part headroom, requirement vectors and the part-to-product reverse index.
+     * Not thread-safe; the live instance is only touched under the service lock.
+     */
+    private static final class Model {
+        // part id -> inventory minus minimum inventory
+        final Map<Long, Long> headroom = new HashMap<>();
+        // product id -> (part id -> units per unit of product)
+        final Map<Long, Map<Long, Long>> vectors = new HashMap<>();
+        // part id -> products whose vector includes it
+        final Map<Long, Set<Long>> usedBy = new HashMap<>();
+
+        /**
+         * Replaces a product's requirement vector; an empty vector removes the product
+         */
+        void putVector(Long productId, Map<Long, Long> vector) {
+            Map<Long, Long> previous = vector.isEmpty() ? vectors.remove(productId) : vectors.put(productId, vector);
+            if (previous != null) {
+                previous.keySet().forEach(partId -> {
+                    Set<Long> users = usedBy.get(partId);
+                    if (users != null && users.remove(productId) && users.isEmpty()) {
+                        usedBy.remove(partId);
+                    }
+                });
+            }
+            if (!vector.isEmpty()) {
+                vector.keySet().forEach(partId -> usedBy.computeIfAbsent(partId, id -> new HashSet<>()).add(productId));
+            }
+        }
+
+        Set<Long> productsUsing(Collection<Long> partIds) {
+            Set<Long> products = new HashSet<>();
+            for (Long partId : partIds) {
+                products.addAll(usedBy.getOrDefault(partId, Set.of()));
+            }
+            return products;
+        }
+
+        /**
+         * The smallest number of units any required part has headroom for
+         * @return null if the product has no bill of materials
+         */
+        BuildableQuantity buildable(Long productId) {
+            Map<Long, Long> vector = vectors.get(productId);
+            if (vector == null) {
+                return null;
+            }
+            long units = Long.MAX_VALUE;
+            Long limitingPart = null;
+            for (Map.Entry<Long, Long> line : vector.entrySet()) {
+                if (line.getValue() <= 0) {
+                    continue;
+                }
+                long available = Math.max(0, headroom.getOrDefault(line.getKey(), 0L)) / line.getValue();
+                if (available < units || available == units && line.getKey() < limitingPart) {
+                    units = available;
+                    limitingPart = line.getKey();
+                }
+            }
+            return limitingPart == null ? null : new BuildableQuantity(productId, units, limitingPart);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.furniture.inventory.config;
+
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Moves databases created with IDENTITY ids over to the pooled id sequences.
+ *
+ * Schema update creates part_seq and product_seq starting at 1, while existing
+ * ./data/furniture_inventory files already hold rows with ids from the identity columns.
+ * Before anything is inserted, each sequence is restarted past the highest existing id.
+ * A pooled sequence value V hands out the block V-49..V, so the restart value leaves a
+ * full allocation of headroom above max(id).
+ *
+ * Runs once per startup and does nothing when the sequences are already ahead.
+ * Never lazily initialized: nothing depends on it, but it must run before the first insert.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Component
+@Lazy(false)
+public class IdSequenceMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(IdSequenceMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param entityManagerFactory only injected so schema update or Flyway has run before the migration
+     */
+    @Autowired
+    public IdSequenceMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        alignSequence("part", "part_seq", Part.ID_ALLOCATION_SIZE);
+        alignSequence("product", "product_seq", Product.ID_ALLOCATION_SIZE);
+    }
+
+    private void alignSequence(String table, String sequence, int allocationSize) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        List<Long> nextValue = jdbcTemplate.queryForList(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?",
+                Long.class, sequence.toUpperCase(Locale.ROOT));
+        if (maxId == null || maxId == 0 || nextValue.isEmpty() || nextValue.get(0) >= maxId + allocationSize) {
+            return;
+        }
+        long restart = maxId + allocationSize + 1;
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + restart);
+        log.info("Restarted {} at {} (max {} id was {})", sequence, restart, table, maxId);
+    }
+}
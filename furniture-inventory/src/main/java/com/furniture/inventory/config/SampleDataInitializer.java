@@ -7,18 +7,22 @@ import com.furniture.inventory.repository.PartRepository;
 import com.furniture.inventory.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
-import java.util.HashSet;
+import java.util.List;
 
 /**
  * Initializes sample data for the furniture inventory application.
  * Adds sample parts and products only if the database is empty.
+ * Disabled with {@code inventory.sample-data.enabled=false}, which also saves the
+ * emptiness check on every start.
  *
  * @author Hardik
  * @version 1.0
  */
 @Component
+@ConditionalOnProperty(prefix = "inventory.sample-data", name = "enabled", havingValue = "true", matchIfMissing = true)
 public class SampleDataInitializer implements CommandLineRunner {
 
     private final PartRepository partRepository;
@@ -86,61 +90,44 @@ public class SampleDataInitializer implements CommandLineRunner {
         screws.setMinInv(50);
         screws.setMaxInv(300);
 
-        // Save all parts
-        partRepository.save(woodenLeg);
-        partRepository.save(tableTop);
-        partRepository.save(chairBack);
-        partRepository.save(drawerSlider);
-        partRepository.save(cabinetDoor);
-        partRepository.save(cushion);
-        partRepository.save(fabric);
-        partRepository.save(hardware);
-        partRepository.save(varnish);
-        partRepository.save(screws);
-
-        // Create Products with associated parts
+        // Save all parts in one transaction so the inserts go out as a JDBC batch
+        partRepository.saveAll(List.of(woodenLeg, tableTop, chairBack, drawerSlider, cabinetDoor,
+                cushion, fabric, hardware, varnish, screws));
+
+        // Create Products with their bills of materials (part, quantity per unit)
         Product diningTable = new Product("Dining Table", 299.99, 10);
-        diningTable.setParts(new HashSet<>());
-        diningTable.getParts().add(woodenLeg);
-        diningTable.getParts().add(tableTop);
-        diningTable.getParts().add(hardware);
-        diningTable.getParts().add(varnish);
+        diningTable.addPart(woodenLeg, 4);
+        diningTable.addPart(tableTop, 1);
+        diningTable.addPart(hardware, 1);
+        diningTable.addPart(varnish, 1);
 
         Product officeChair = new Product("Office Chair", 189.50, 15);
-        officeChair.setParts(new HashSet<>());
-        officeChair.getParts().add(woodenLeg);
-        officeChair.getParts().add(chairBack);
-        officeChair.getParts().add(cushion);
-        officeChair.getParts().add(fabric);
+        officeChair.addPart(woodenLeg, 4);
+        officeChair.addPart(chairBack, 1);
+        officeChair.addPart(cushion, 1);
+        officeChair.addPart(fabric, 2);
 
         Product bookshelf = new Product("Bookshelf", 159.75, 8);
-        bookshelf.setParts(new HashSet<>());
-        bookshelf.getParts().add(woodenLeg);
-        bookshelf.getParts().add(cabinetDoor);
-        bookshelf.getParts().add(hardware);
-        bookshelf.getParts().add(varnish);
+        bookshelf.addPart(woodenLeg, 4);
+        bookshelf.addPart(cabinetDoor, 1);
+        bookshelf.addPart(hardware, 1);
+        bookshelf.addPart(varnish, 1);
 
         Product dresser = new Product("Dresser", 349.99, 5);
-        dresser.setParts(new HashSet<>());
-        dresser.getParts().add(woodenLeg);
-        dresser.getParts().add(tableTop);
-        dresser.getParts().add(drawerSlider);
-        dresser.getParts().add(cabinetDoor);
-        dresser.getParts().add(hardware);
+        dresser.addPart(woodenLeg, 4);
+        dresser.addPart(tableTop, 1);
+        dresser.addPart(drawerSlider, 6);
+        dresser.addPart(cabinetDoor, 1);
+        dresser.addPart(hardware, 1);
 
         Product coffeeTable = new Product("Coffee Table", 129.99, 12);
-        coffeeTable.setParts(new HashSet<>());
-        coffeeTable.getParts().add(woodenLeg);
-        coffeeTable.getParts().add(tableTop);
-        coffeeTable.getParts().add(hardware);
-        coffeeTable.getParts().add(varnish);
-
-        // Save all products
-        productRepository.save(diningTable);
-        productRepository.save(officeChair);
-        productRepository.save(bookshelf);
-        productRepository.save(dresser);
-        productRepository.save(coffeeTable);
+        coffeeTable.addPart(woodenLeg, 4);
+        coffeeTable.addPart(tableTop, 1);
+        coffeeTable.addPart(hardware, 1);
+        coffeeTable.addPart(varnish, 1);
+
+        // Save all products (and their bill-of-materials lines) as batched inserts
+        productRepository.saveAll(List.of(diningTable, officeChair, bookshelf, dresser, coffeeTable));
 
         System.out.println("Sample data initialization completed!");
         System.out.println("Created: 10 parts (5 inhouse, 5 outsourced) and 5 products");
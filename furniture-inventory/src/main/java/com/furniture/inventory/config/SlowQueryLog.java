@@ -0,0 +1,217 @@
+package com.furniture.inventory.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs SQL statements slower than a threshold, with their bind parameters and
+ * elapsed time, as one logfmt line each:
+ * <pre>
+ * Slow query elapsed_ms=412 batch=0 sql="select ... where p1_0.id=?" params=[42]
+ * </pre>
+ *
+ * Replaces show-sql in production: nothing is formatted for fast statements.
+ * Executions are timed around the JDBC call and bind values are kept as plain
+ * references until a statement turns out to be slow. Every slow statement is
+ * timed in {@code inventory.jdbc.slow}; only a sample of them is logged, so a
+ * database-wide slowdown does not flood the log.
+ *
+ * Time spent reading a result set after executeQuery returns is not included.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Component
+@ConditionalOnProperty(prefix = "inventory.slow-query", name = "enabled", havingValue = "true")
+public class SlowQueryLog implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final int maxValueLength;
+    // Resolved on first use: a post-processor must not pull the meter registry in early
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Autowired
+    public SlowQueryLog(@Value("${inventory.slow-query.threshold:100ms}") Duration threshold,
+                        @Value("${inventory.slow-query.sample-rate:1.0}") double sampleRate,
+                        @Value("${inventory.slow-query.max-value-length:64}") int maxValueLength,
+                        ObjectProvider<MeterRegistry> meterRegistry) {
+        this.thresholdNanos = threshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.maxValueLength = maxValueLength;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !Proxy.isProxyClass(bean.getClass())) {
+            log.info("Logging SQL slower than {} ms (sample rate {})",
+                    TimeUnit.NANOSECONDS.toMillis(thresholdNanos), sampleRate);
+            return proxy(DataSource.class, new Delegating(dataSource));
+        }
+        return bean;
+    }
+
+    private static Object proxy(Class<?> type, InvocationHandler handler) {
+        return Proxy.newProxyInstance(SlowQueryLog.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private void slow(String sql, Object[] params, int batch, long elapsedNanos) {
+        meterRegistry.ifAvailable(registry ->
+                registry.timer("inventory.jdbc.slow").record(elapsedNanos, TimeUnit.NANOSECONDS));
+        if (sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        StringBuilder line = new StringBuilder("Slow query elapsed_ms=")
+                .append(TimeUnit.NANOSECONDS.toMillis(elapsedNanos))
+                .append(" batch=").append(batch)
+                .append(" sql=\"").append(escape(sql)).append('"')
+                .append(" params=[");
+        for (int i = 0; i < params.length; i++) {
+            line.append(i == 0 ? "" : ", ").append(render(params[i]));
+        }
+        log.warn(line.append(']').toString());
+    }
+
+    private String render(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof byte[] bytes) {
+            return "<" + bytes.length + " bytes>";
+        }
+        if (value instanceof InputStream || value instanceof Reader) {
+            return "<stream>";
+        }
+        String text = String.valueOf(value);
+        if (text.length() > maxValueLength) {
+            text = text.substring(0, maxValueLength) + "...";
+        }
+        return value instanceof CharSequence ? "'" + escape(text) + "'" : text;
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", " ");
+    }
+
+    /**
+     * Passes every call through to the target, wrapping the connections and
+     * statements it hands out
+     */
+    private class Delegating implements InvocationHandler {
+
+        final Object target;
+
+        Delegating(Object target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : call(method, args);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || (boolean) call(method, args);
+                default:
+                    break;
+            }
+            Object result = call(method, args);
+            Class<?> type = method.getReturnType();
+            if (result != null && type == Connection.class) {
+                return proxy(Connection.class, new Delegating(result));
+            }
+            if (result != null && Statement.class.isAssignableFrom(type)) {
+                // Statement, PreparedStatement or CallableStatement; the SQL is known unless plain
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                return proxy(type, new Timed(result, sql));
+            }
+            return result;
+        }
+
+        Object call(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Records the bind parameters of a statement and times its executions
+     */
+    private class Timed extends Delegating {
+
+        private final String preparedSql;
+        private Object[] params = new Object[8];
+        private int paramCount;
+        private int batch;
+
+        Timed(Object target, String preparedSql) {
+            super(target);
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                Arrays.fill(params, null);
+                paramCount = 0;
+            } else if (name.equals("addBatch")) {
+                batch++;
+            } else if (name.startsWith("execute")) {
+                long start = System.nanoTime();
+                try {
+                    return call(method, args);
+                } finally {
+                    long elapsed = System.nanoTime() - start;
+                    if (elapsed >= thresholdNanos) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+                        slow(sql, Arrays.copyOf(params, paramCount), batch, elapsed);
+                    }
+                    if (name.endsWith("Batch")) {
+                        batch = 0;
+                    }
+                }
+            }
+            return super.invoke(proxy, method, args);
+        }
+
+        private void bind(int index, Object value) {
+            if (index > params.length) {
+                params = Arrays.copyOf(params, Math.max(index, params.length * 2));
+            }
+            params[index - 1] = value;
+            paramCount = Math.max(paramCount, index);
+        }
+    }
+}
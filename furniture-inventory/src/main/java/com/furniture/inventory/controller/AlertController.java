@@ -0,0 +1,69 @@
+package com.furniture.inventory.controller;
+
+import com.furniture.inventory.alert.StockAlert;
+import com.furniture.inventory.alert.StockAlertService;
+import com.furniture.inventory.entity.StockStatus;
+import com.furniture.inventory.repository.StockLevel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * Replenishment alert endpoints: the live low/overstock set, recent alerts,
+ * and a server-sent-event stream of new alerts.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/alerts")
+public class AlertController {
+
+    private final StockAlertService alertService;
+
+    @Autowired
+    public AlertController(StockAlertService alertService) {
+        this.alertService = alertService;
+    }
+
+    /**
+     * Parts currently low or overstocked
+     *
+     * @param status optional LOW or OVER filter
+     * @return flagged parts, lowest inventory first
+     */
+    @GetMapping
+    public List<StockLevel> active(@RequestParam(required = false) StockStatus status) {
+        return alertService.active(status);
+    }
+
+    /**
+     * Recent alerts, for polling clients
+     *
+     * @param after sequence number of the last alert already seen
+     * @return newer alerts, oldest first
+     */
+    @GetMapping("/recent")
+    public List<StockAlert> recent(@RequestParam(defaultValue = "0") long after) {
+        return alertService.since(after);
+    }
+
+    /**
+     * Stream of alerts as they are raised. Reconnecting clients send Last-Event-ID
+     * and get the alerts they missed replayed first.
+     *
+     * @param lastEventId sequence number of the last alert received
+     * @return the event stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return alertService.subscribe(lastEventId);
+    }
+}
@@ -0,0 +1,66 @@
+package com.furniture.inventory.controller;
+
+import com.furniture.inventory.service.BomExplosionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * JSON endpoints for bill-of-materials explosion and implosion.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/bom")
+public class BomController {
+
+    private final BomExplosionService explosionService;
+
+    @Autowired
+    public BomController(BomExplosionService explosionService) {
+        this.explosionService = explosionService;
+    }
+
+    /**
+     * Raw part requirements for a number of units of one product
+     *
+     * @param productId the product to explode
+     * @param units number of units to build
+     * @return part id to total quantity
+     */
+    @GetMapping("/products/{productId}/requirements")
+    public Map<Long, Long> explodeProduct(@PathVariable Long productId,
+                                          @RequestParam(defaultValue = "1") int units) {
+        return explosionService.explode(productId, units);
+    }
+
+    /**
+     * Raw part requirements for a whole order
+     *
+     * @param order product id to number of units
+     * @return part id to total quantity
+     */
+    @PostMapping("/requirements")
+    public Map<Long, Long> explodeOrder(@RequestBody Map<Long, Integer> order) {
+        return explosionService.explode(order);
+    }
+
+    /**
+     * Where-used report for a part, including use through sub-assemblies
+     *
+     * @param partId the part to implode
+     * @return product id to quantity of the part per unit of product
+     */
+    @GetMapping("/parts/{partId}/where-used")
+    public Map<Long, Long> whereUsed(@PathVariable Long partId) {
+        return explosionService.implode(partId);
+    }
+}
@@ -0,0 +1,65 @@
+package com.furniture.inventory.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reports second-level and query cache effectiveness per region,
+ * to help size the regions configured in application.conf.
+ * The same counters are also published as hibernate.* metrics under /actuator/metrics.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@RestController
+public class CacheStatsController {
+
+    private final Statistics statistics;
+
+    @Autowired
+    public CacheStatsController(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Hit, miss and put counts plus current size for every cache region
+     *
+     * @return region name to its statistics
+     */
+    @GetMapping("/admin/cache-stats")
+    public Map<String, Map<String, Object>> showCacheStats() {
+        Map<String, Map<String, Object>> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                regions.put(regionName, describe(region));
+            }
+        }
+        Map<String, Object> queryCache = new LinkedHashMap<>();
+        queryCache.put("hits", statistics.getQueryCacheHitCount());
+        queryCache.put("misses", statistics.getQueryCacheMissCount());
+        queryCache.put("puts", statistics.getQueryCachePutCount());
+        regions.put("query-cache", queryCache);
+        return regions;
+    }
+
+    private static Map<String, Object> describe(CacheRegionStatistics region) {
+        long hits = region.getHitCount();
+        long misses = region.getMissCount();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("puts", region.getPutCount());
+        stats.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        stats.put("elementsInMemory", region.getElementCountInMemory());
+        return stats;
+    }
+}
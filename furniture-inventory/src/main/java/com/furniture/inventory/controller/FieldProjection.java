@@ -0,0 +1,153 @@
+package com.furniture.inventory.controller;
+
+import com.furniture.inventory.repository.RowVersion;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * The JSON fields an API resource can expose, and how to read each one.
+ * Clients pick a subset with {@code ?fields=}; fields that are null for a row
+ * (such as the company name of an in-house part) are left out of its JSON.
+ *
+ * Also derives the strong ETags of the resource: a representation is fully
+ * determined by the selected fields and the id and version of each row, so the
+ * ETag can be checked against a versions-only query before any row is loaded.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+class FieldProjection<T> {
+
+    private final Map<String, Function<T, Object>> fields = new LinkedHashMap<>();
+    private final Function<T, RowVersion> versionOf;
+
+    FieldProjection(Function<T, RowVersion> versionOf) {
+        this.versionOf = versionOf;
+    }
+
+    /**
+     * Adds a field, in the order it appears in responses
+     * @param name the JSON field name
+     * @param reader reads the value from a row
+     * @return this projection
+     */
+    FieldProjection<T> field(String name, Function<T, Object> reader) {
+        fields.put(name, reader);
+        return this;
+    }
+
+    /**
+     * Parses a {@code fields} request parameter
+     * @param requested comma-separated field names; null or blank selects every field
+     * @return the selected fields in response order
+     * @throws IllegalArgumentException if a field name is unknown
+     */
+    Set<String> select(String requested) {
+        if (requested == null || requested.isBlank()) {
+            return fields.keySet();
+        }
+        Set<String> selected = new LinkedHashSet<>();
+        for (String name : requested.split(",")) {
+            String field = name.trim();
+            if (!fields.containsKey(field)) {
+                throw new IllegalArgumentException("Unknown field '" + field + "'; available: " + fields.keySet());
+            }
+            selected.add(field);
+        }
+        // Keep the declared order so the same selection always serializes identically
+        Set<String> ordered = new LinkedHashSet<>(fields.keySet());
+        ordered.retainAll(selected);
+        return ordered;
+    }
+
+    /**
+     * @param row the row to render
+     * @param selected fields from {@link #select(String)}
+     * @return the selected non-null fields of the row
+     */
+    Map<String, Object> render(T row, Set<String> selected) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        for (String field : selected) {
+            Object value = fields.get(field).apply(row);
+            if (value != null) {
+                json.put(field, value);
+            }
+        }
+        return json;
+    }
+
+    /**
+     * @param rows the rows to render
+     * @param selected fields from {@link #select(String)}
+     * @return one JSON object per row
+     */
+    List<Map<String, Object>> render(List<T> rows, Set<String> selected) {
+        return rows.stream().map(row -> render(row, selected)).toList();
+    }
+
+    /**
+     * @param rows loaded rows
+     * @return their ids and versions, for {@link #etag(Set, List)}
+     */
+    List<RowVersion> versions(List<T> rows) {
+        return rows.stream().map(versionOf).toList();
+    }
+
+    /**
+     * @param row a loaded row
+     * @return its id and version
+     */
+    RowVersion version(T row) {
+        return versionOf.apply(row);
+    }
+
+    /**
+     * Strong ETag of a representation
+     * @param selected fields from {@link #select(String)}
+     * @param versions id and version of every row the representation covers, in order
+     * @return the ETag value, unquoted
+     */
+    String etag(Set<String> selected, List<RowVersion> versions) {
+        long[] values = new long[versions.size() * 2];
+        for (int i = 0; i < versions.size(); i++) {
+            values[2 * i] = versions.get(i).id();
+            values[2 * i + 1] = versions.get(i).version();
+        }
+        return etag(String.join(",", selected), values);
+    }
+
+    /**
+     * Strong ETag of any representation fully determined by a label and a list of numbers
+     * @param label distinguishes representations built from the same numbers
+     * @param values the numbers, in order
+     * @return the ETag value, unquoted
+     */
+    static String etag(String label, long[] values) {
+        MessageDigest digest = sha256();
+        digest.update(label.getBytes(StandardCharsets.UTF_8));
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Long.BYTES);
+        for (long value : values) {
+            buffer.putLong(value);
+        }
+        digest.update(buffer.array());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()).substring(0, 22);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by every Java platform", e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.furniture.inventory.controller;
+
+import com.furniture.inventory.importer.BulkImportService;
+import com.furniture.inventory.importer.ImportFormat;
+import com.furniture.inventory.importer.ImportResult;
+import com.furniture.inventory.importer.ImportTarget;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * Bulk import endpoints. The request body is streamed straight into the importer,
+ * so catalogs of any size can be posted without being buffered:
+ * <pre>
+ * curl -X POST -H 'Content-Type: text/csv' --data-binary @parts.csv http://localhost:8080/import/parts
+ * </pre>
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/import")
+public class ImportController {
+
+    private final BulkImportService importService;
+
+    @Autowired
+    public ImportController(BulkImportService importService) {
+        this.importService = importService;
+    }
+
+    /**
+     * Imports parts from a CSV or JSON body
+     *
+     * @param contentType text/csv or application/json
+     * @param body the file contents
+     * @return import counts and the error file location
+     */
+    @PostMapping("/parts")
+    public ResponseEntity<?> importParts(@RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                         InputStream body) {
+        return runImport(ImportTarget.PARTS, contentType, body);
+    }
+
+    /**
+     * Imports products from a CSV or JSON body
+     *
+     * @param contentType text/csv or application/json
+     * @param body the file contents
+     * @return import counts and the error file location
+     */
+    @PostMapping("/products")
+    public ResponseEntity<?> importProducts(@RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                            InputStream body) {
+        return runImport(ImportTarget.PRODUCTS, contentType, body);
+    }
+
+    private ResponseEntity<?> runImport(ImportTarget target, String contentType, InputStream body) {
+        try {
+            ImportResult result = importService.importFrom(target, ImportFormat.fromContentType(contentType), body);
+            return ResponseEntity.ok(result);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Import failed: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.furniture.inventory.controller;
+
+import com.furniture.inventory.entity.InventoryMovement;
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.ledger.LedgerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalInt;
+
+/**
+ * Inventory ledger endpoints: an item's movement history and its stock level
+ * at any point in time since the ledger started.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/ledger")
+public class LedgerController {
+
+    private static final int MAX_HISTORY = 1000;
+
+    private final LedgerService ledgerService;
+
+    @Autowired
+    public LedgerController(LedgerService ledgerService) {
+        this.ledgerService = ledgerService;
+    }
+
+    /**
+     * Recent movements of a part or product
+     *
+     * @param items "parts" or "products"
+     * @param id the item ID
+     * @param limit maximum number of movements
+     * @return movements, newest first
+     */
+    @GetMapping("/{items}/{id}")
+    public ResponseEntity<List<InventoryMovement>> history(@PathVariable String items, @PathVariable Long id,
+                                                           @RequestParam(defaultValue = "50") int limit) {
+        ItemType itemType = itemType(items);
+        if (itemType == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(ledgerService.history(itemType, id, Math.max(1, Math.min(limit, MAX_HISTORY))));
+    }
+
+    /**
+     * Stock level of a part or product at a point in time
+     *
+     * @param items "parts" or "products"
+     * @param id the item ID
+     * @param at ISO-8601 instant; defaults to now
+     * @return the level, or 404 if the ledger started after that time
+     */
+    @GetMapping("/{items}/{id}/stock")
+    public ResponseEntity<Map<String, Object>> stockAt(@PathVariable String items, @PathVariable Long id,
+                                                       @RequestParam(required = false)
+                                                       @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at) {
+        ItemType itemType = itemType(items);
+        Instant pointInTime = at != null ? at : Instant.now();
+        OptionalInt level = itemType == null ? OptionalInt.empty() : ledgerService.stockAt(itemType, id, pointInTime);
+        if (level.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("itemType", itemType, "id", id, "at", pointInTime, "inv", level.getAsInt()));
+    }
+
+    private static ItemType itemType(String items) {
+        return switch (items.toLowerCase(Locale.ROOT)) {
+            case "parts" -> ItemType.PART;
+            case "products" -> ItemType.PRODUCT;
+            default -> null;
+        };
+    }
+}
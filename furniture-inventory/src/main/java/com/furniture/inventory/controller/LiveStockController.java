@@ -0,0 +1,40 @@
+package com.furniture.inventory.controller;
+
+import com.furniture.inventory.live.StockUpdateBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-sent-event stream of stock changes, used by the main screen to patch
+ * rows in place instead of reloading.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@RestController
+public class LiveStockController {
+
+    private final StockUpdateBroadcaster broadcaster;
+
+    @Autowired
+    public LiveStockController(StockUpdateBroadcaster broadcaster) {
+        this.broadcaster = broadcaster;
+    }
+
+    /**
+     * Stream of "stock" events, each a JSON array of current levels, and "reload"
+     * events when a client has fallen too far behind to patch. Reconnecting
+     * clients send Last-Event-ID and get the events they missed replayed first.
+     *
+     * @param lastEventId sequence number of the last event received
+     * @return the event stream
+     */
+    @GetMapping(value = "/live/stock", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return broadcaster.subscribe(lastEventId);
+    }
+}
@@ -1,16 +1,27 @@
 package com.furniture.inventory.controller;
 
+import com.furniture.inventory.capacity.CapacityService;
 import com.furniture.inventory.entity.Part;
 import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.paging.KeysetCursor;
+import com.furniture.inventory.paging.KeysetPage;
 import com.furniture.inventory.repository.PartRepository;
 import com.furniture.inventory.repository.ProductRepository;
+import com.furniture.inventory.search.NameSearchService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Main controller for handling the inventory management application.
@@ -24,19 +35,35 @@ public class MainController {
 
     private final PartRepository partRepository;
     private final ProductRepository productRepository;
+    private final NameSearchService searchService;
+    private final CapacityService capacityService;
+
+    @Value("${inventory.paging.page-size:25}")
+    private int defaultPageSize;
+
+    @Value("${inventory.paging.max-page-size:200}")
+    private int maxPageSize;
 
     @Autowired
-    public MainController(PartRepository partRepository, ProductRepository productRepository) {
+    public MainController(PartRepository partRepository, ProductRepository productRepository,
+                          NameSearchService searchService, CapacityService capacityService) {
         this.partRepository = partRepository;
         this.productRepository = productRepository;
+        this.searchService = searchService;
+        this.capacityService = capacityService;
     }
 
     /**
      * Displays the main inventory management screen
-     * Supports filtering for both parts and products
+     * Supports indexed name search and keyset pagination for both parts and products
      *
      * @param partFilter optional filter for parts search
      * @param productFilter optional filter for products search
+     * @param partAfter cursor to page forward from (last part shown)
+     * @param partBefore cursor to page backward from (first part shown)
+     * @param productAfter cursor to page forward from (last product shown)
+     * @param productBefore cursor to page backward from (first product shown)
+     * @param size optional page size, capped at the configured maximum
      * @param model Spring model for passing data to view
      * @return main screen template name
      */
@@ -44,29 +71,46 @@ public class MainController {
     public String showMainScreen(
             @RequestParam(required = false) String partFilter,
             @RequestParam(required = false) String productFilter,
+            @RequestParam(required = false) String partAfter,
+            @RequestParam(required = false) String partBefore,
+            @RequestParam(required = false) String productAfter,
+            @RequestParam(required = false) String productBefore,
+            @RequestParam(required = false) Integer size,
             Model model) {
 
-        // Handle parts filtering
-        List<Part> parts;
+        int pageSize = resolvePageSize(size);
+
+        // Handle parts filtering and paging
+        KeysetPage<Part> partPage;
         if (partFilter != null && !partFilter.trim().isEmpty()) {
-            parts = partRepository.findByNameContainingIgnoreCase(partFilter.trim());
+            partPage = searchPartPage(partFilter.trim(), partAfter, partBefore, pageSize);
             model.addAttribute("partFilter", partFilter);
         } else {
-            parts = partRepository.findAll();
+            partPage = loadPartPage(partAfter, partBefore, pageSize);
         }
 
-        // Handle products filtering
-        List<Product> products;
+        // Handle products filtering and paging
+        KeysetPage<Product> productPage;
         if (productFilter != null && !productFilter.trim().isEmpty()) {
-            products = productRepository.findByNameContainingIgnoreCase(productFilter.trim());
+            productPage = searchProductPage(productFilter.trim(), productAfter, productBefore, pageSize);
             model.addAttribute("productFilter", productFilter);
         } else {
-            products = productRepository.findAll();
+            productPage = loadProductPage(productAfter, productBefore, pageSize);
         }
 
         // Add data to model for Thymeleaf template
-        model.addAttribute("parts", parts);
-        model.addAttribute("products", products);
+        model.addAttribute("parts", partPage.getContent());
+        model.addAttribute("products", productPage.getContent());
+        model.addAttribute("partPage", partPage);
+        model.addAttribute("productPage", productPage);
+        // Maintained in memory as part stock moves; no per-request recomputation
+        model.addAttribute("buildable", capacityService.buildable(
+                productPage.getContent().stream().map(Product::getId).toList()));
+        model.addAttribute("partAfter", partAfter);
+        model.addAttribute("partBefore", partBefore);
+        model.addAttribute("productAfter", productAfter);
+        model.addAttribute("productBefore", productBefore);
+        model.addAttribute("pageSize", pageSize);
         model.addAttribute("shopName", "Premium Furniture Workshop");
 
         return "mainscreen";
@@ -81,4 +125,106 @@ public class MainController {
     public String clearFilters() {
         return "redirect:/mainscreen";
     }
-}
\ No newline at end of file
+
+    private KeysetPage<Part> loadPartPage(String after, String before, int pageSize) {
+        // Fetch one extra row to find out whether another page exists
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        KeysetCursor beforeCursor = KeysetCursor.decode(before);
+        if (beforeCursor != null) {
+            List<Part> rows = partRepository.findPageBefore(beforeCursor.name(), beforeCursor.id(), limit);
+            if (!rows.isEmpty()) {
+                return KeysetPage.backward(rows, pageSize, MainController::partCursor);
+            }
+        }
+
+        KeysetCursor afterCursor = KeysetCursor.decode(after);
+        if (afterCursor != null) {
+            List<Part> rows = partRepository.findPageAfter(afterCursor.name(), afterCursor.id(), limit);
+            return KeysetPage.forward(rows, pageSize, true, MainController::partCursor);
+        }
+
+        return KeysetPage.forward(partRepository.findFirstPage(limit), pageSize, false,
+                MainController::partCursor);
+    }
+
+    private KeysetPage<Product> loadProductPage(String after, String before, int pageSize) {
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        KeysetCursor beforeCursor = KeysetCursor.decode(before);
+        if (beforeCursor != null) {
+            List<Product> rows = productRepository.findPageBefore(beforeCursor.name(), beforeCursor.id(), limit);
+            if (!rows.isEmpty()) {
+                return KeysetPage.backward(rows, pageSize, MainController::productCursor);
+            }
+        }
+
+        KeysetCursor afterCursor = KeysetCursor.decode(after);
+        if (afterCursor != null) {
+            List<Product> rows = productRepository.findPageAfter(afterCursor.name(), afterCursor.id(), limit);
+            return KeysetPage.forward(rows, pageSize, true, MainController::productCursor);
+        }
+
+        return KeysetPage.forward(productRepository.findFirstPage(limit), pageSize, false,
+                MainController::productCursor);
+    }
+
+    private KeysetPage<Part> searchPartPage(String filter, String after, String before, int pageSize) {
+        int offset = rankOffset(after, before);
+        // Ask the index for one extra id to find out whether another page exists
+        List<Long> ids = searchService.searchParts(filter, offset + pageSize + 1);
+        List<Long> pageIds = ids.subList(Math.min(offset, ids.size()), Math.min(offset + pageSize, ids.size()));
+        List<Part> parts = inRankOrder(partRepository.findAllById(pageIds), pageIds, Part::getId);
+        return KeysetPage.ranked(parts, offset, pageSize, ids.size() > offset + pageSize);
+    }
+
+    private KeysetPage<Product> searchProductPage(String filter, String after, String before, int pageSize) {
+        int offset = rankOffset(after, before);
+        List<Long> ids = searchService.searchProducts(filter, offset + pageSize + 1);
+        List<Long> pageIds = ids.subList(Math.min(offset, ids.size()), Math.min(offset + pageSize, ids.size()));
+        List<Product> products = inRankOrder(productRepository.findAllById(pageIds), pageIds, Product::getId);
+        return KeysetPage.ranked(products, offset, pageSize, ids.size() > offset + pageSize);
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
+    }
+
+    /**
+     * Search results page by rank offset; both cursors carry the offset of the page to show
+     */
+    private static int rankOffset(String after, String before) {
+        String token = before != null && !before.isBlank() ? before : after;
+        if (token == null || token.isBlank()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(token));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static <T> List<T> inRankOrder(List<T> rows, List<Long> rankedIds, Function<T, Long> idOf) {
+        Map<Long, T> byId = rows.stream().collect(Collectors.toMap(idOf, Function.identity()));
+        List<T> ordered = new ArrayList<>(rankedIds.size());
+        for (Long id : rankedIds) {
+            T row = byId.get(id);
+            if (row != null) {
+                ordered.add(row);
+            }
+        }
+        return ordered;
+    }
+
+    private static KeysetCursor partCursor(Part part) {
+        return new KeysetCursor(part.getName(), part.getId());
+    }
+
+    private static KeysetCursor productCursor(Product product) {
+        return new KeysetCursor(product.getName(), product.getId());
+    }
+}
@@ -0,0 +1,56 @@
+package com.furniture.inventory.controller;
+
+import com.furniture.inventory.planning.MrpPlan;
+import com.furniture.inventory.planning.MrpPlanner;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Runs material requirements planning for planners: product stock targets in,
+ * suggested purchase orders and production runs out.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/v1/mrp")
+public class MrpApiController {
+
+    private final MrpPlanner planner;
+
+    @Autowired
+    public MrpApiController(MrpPlanner planner) {
+        this.planner = planner;
+    }
+
+    /**
+     * Plans replenishment for product stock targets
+     *
+     * @param request per-product targets and a default for the rest; both optional
+     * @return the plan, or 409 while another run is in progress
+     */
+    @PostMapping("/plan")
+    public ResponseEntity<?> plan(@RequestBody PlanRequest request) {
+        Map<Long, Integer> targets = request.targets() == null ? Map.of() : request.targets();
+        Optional<MrpPlan> plan = planner.plan(targets, request.defaultTarget());
+        if (plan.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "An MRP run is already in progress"));
+        }
+        return ResponseEntity.ok(plan.get());
+    }
+
+    /**
+     * @param targets product id to the stock level wanted
+     * @param defaultTarget stock level wanted for every other product with a bill of materials
+     */
+    public record PlanRequest(Map<Long, Integer> targets, Integer defaultTarget) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.furniture.inventory.controller;
+
+import com.furniture.inventory.entity.InhousePart;
+import com.furniture.inventory.entity.OutsourcedPart;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.paging.KeysetCursor;
+import com.furniture.inventory.paging.KeysetPage;
+import com.furniture.inventory.repository.PartRepository;
+import com.furniture.inventory.repository.RowVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Version 1 of the JSON API for parts, for POS terminals and warehouse scanners.
+ *
+ * Lists are keyset paginated by name like the main screen. Every response
+ * carries a strong ETag built from the versions of the rows it contains; a
+ * request whose If-None-Match still matches is answered 304 after a
+ * versions-only query, without loading or serializing the rows.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/v1/parts")
+public class PartApiController {
+
+    private static final FieldProjection<Part> FIELDS =
+            new FieldProjection<Part>(p -> new RowVersion(p.getId(), p.getVersion()))
+            .field("id", Part::getId)
+            .field("version", Part::getVersion)
+            .field("type", p -> p instanceof OutsourcedPart ? "OUTSOURCED" : "INHOUSE")
+            .field("name", Part::getName)
+            .field("price", Part::getPrice)
+            .field("inv", Part::getInv)
+            .field("minInv", Part::getMinInv)
+            .field("maxInv", Part::getMaxInv)
+            .field("stockStatus", Part::getStockStatus)
+            .field("machineId", p -> p instanceof InhousePart inhouse ? inhouse.getPartId() : null)
+            .field("companyName", p -> p instanceof OutsourcedPart outsourced ? outsourced.getCompanyName() : null);
+
+    private static final String STOCK_FIELDS = "id,version,inv,minInv,maxInv,stockStatus";
+
+    private final PartRepository partRepository;
+
+    @Value("${inventory.paging.page-size:25}")
+    private int defaultPageSize;
+
+    @Value("${inventory.paging.max-page-size:200}")
+    private int maxPageSize;
+
+    @Autowired
+    public PartApiController(PartRepository partRepository) {
+        this.partRepository = partRepository;
+    }
+
+    /**
+     * One page of parts ordered by name
+     *
+     * @param cursor the {@code next} cursor of the previous page; omit for the first page
+     * @param size page size, capped at the configured maximum
+     * @param fields comma-separated fields to include; omit for all
+     * @param request used to answer conditional requests
+     * @return the page and the cursor of the next one, or 304 if the client's copy is current
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> list(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size,
+                                                    @RequestParam(required = false) String fields,
+                                                    WebRequest request) {
+        Set<String> selected;
+        try {
+            selected = FIELDS.select(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        // One row past the page tells whether there is a next page
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<RowVersion> versions = after == null
+                ? partRepository.findFirstPageVersions(limit)
+                : partRepository.findPageVersionsAfter(after.name(), after.id(), limit);
+        if (request.checkNotModified(FIELDS.etag(selected, versions))) {
+            return null;
+        }
+
+        List<Part> rows = after == null
+                ? partRepository.findFirstPage(limit)
+                : partRepository.findPageAfter(after.name(), after.id(), limit);
+        KeysetPage<Part> page = KeysetPage.forward(rows, pageSize, after != null,
+                p -> new KeysetCursor(p.getName(), p.getId()));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("items", FIELDS.render(page.getContent(), selected));
+        body.put("next", page.getNextCursor());
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(FIELDS.etag(selected, FIELDS.versions(rows)))
+                .body(body);
+    }
+
+    /**
+     * One part
+     *
+     * @param id the part ID
+     * @param fields comma-separated fields to include; omit for all
+     * @param request used to answer conditional requests
+     * @return the part, 304 if the client's copy is current, or 404
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> get(@PathVariable Long id,
+                                                   @RequestParam(required = false) String fields,
+                                                   WebRequest request) {
+        try {
+            return single(id, FIELDS.select(fields), request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Stock level of one part: inventory, limits and stock status
+     *
+     * @param id the part ID
+     * @param request used to answer conditional requests
+     * @return the stock level, 304 if the client's copy is current, or 404
+     */
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<Map<String, Object>> stock(@PathVariable Long id, WebRequest request) {
+        return single(id, FIELDS.select(STOCK_FIELDS), request);
+    }
+
+    private ResponseEntity<Map<String, Object>> single(Long id, Set<String> selected, WebRequest request) {
+        Optional<Long> version = partRepository.findVersionById(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(FIELDS.etag(selected, List.of(new RowVersion(id, version.get()))))) {
+            return null;
+        }
+        Optional<Part> part = partRepository.findById(id);
+        if (part.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(FIELDS.etag(selected, List.of(FIELDS.version(part.get()))))
+                .body(FIELDS.render(part.get(), selected));
+    }
+}
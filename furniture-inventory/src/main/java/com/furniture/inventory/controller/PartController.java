@@ -4,6 +4,7 @@ import com.furniture.inventory.entity.InhousePart;
 import com.furniture.inventory.entity.OutsourcedPart;
 import com.furniture.inventory.entity.Part;
 import com.furniture.inventory.repository.PartRepository;
+import com.furniture.inventory.service.ProductCostService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -23,10 +24,20 @@ import java.util.Optional;
 public class PartController {
 
     private final PartRepository partRepository;
+    private final ProductCostService costService;
 
     @Autowired
-    public PartController(PartRepository partRepository) {
+    public PartController(PartRepository partRepository, ProductCostService costService) {
         this.partRepository = partRepository;
+        this.costService = costService;
+    }
+
+    /**
+     * Part is abstract, so submitted forms bind to the subtype named by their partType field
+     */
+    @ModelAttribute("part")
+    public Part formPart(@RequestParam(required = false) String partType) {
+        return "outsourced".equals(partType) ? new OutsourcedPart() : new InhousePart();
     }
 
     /**
@@ -109,15 +120,29 @@ public class PartController {
     }
 
     /**
-     * Handles updating existing parts
+     * Handles updating existing parts; refused if the part changed since the
+     * form was opened at the given version
      */
     @PostMapping("/update/{id}")
-    public String updatePart(@PathVariable Long id, @ModelAttribute Part updatedPart, Model model) {
+    public String updatePart(@PathVariable Long id, @ModelAttribute Part updatedPart, @RequestParam long version,
+                             Model model) {
+        // Form re-renders below carry on with the version the form was opened at
+        model.addAttribute("version", version);
         try {
             Optional<Part> existingPartOptional = partRepository.findById(id);
 
             if (existingPartOptional.isPresent()) {
                 Part existingPart = existingPartOptional.get();
+                double oldPrice = existingPart.getPrice();
+
+                // Saved or consumed since the form was opened: show what is stored now instead of overwriting it
+                if (existingPart.getVersion() != version) {
+                    model.addAttribute("error", "This part was changed after the form was opened, for example by " +
+                            "an assembly. The form now shows the current values; please make your changes again.");
+                    model.addAttribute("part", existingPart);
+                    model.addAttribute("version", existingPart.getVersion());
+                    return "part-form";
+                }
 
                 // Update common fields
                 existingPart.setName(updatedPart.getName());
@@ -146,7 +171,8 @@ public class PartController {
                     return "part-form";
                 }
 
-                partRepository.save(existingPart);
+                // Save and roll any price change into the cost of products using the part
+                costService.savePart(existingPart, oldPrice);
             }
 
             return "redirect:/mainscreen";
@@ -169,8 +195,8 @@ public class PartController {
             if (partOptional.isPresent()) {
                 Part part = partOptional.get();
 
-                // Check if part is used in any products
-                if (!part.getProducts().isEmpty()) {
+                // Check if part is used in any products (one BOM line fetched at most, no collection load)
+                if (partRepository.isPartUsedInProducts(id)) {
                     model.addAttribute("error",
                             "Cannot delete part '" + part.getName() + "' because it is used in products. " +
                                     "You can set its inventory to 0 instead.");
@@ -0,0 +1,276 @@
+package com.furniture.inventory.controller;
+
+import com.furniture.inventory.capacity.BuildableQuantity;
+import com.furniture.inventory.capacity.CapacityService;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.paging.KeysetCursor;
+import com.furniture.inventory.paging.KeysetPage;
+import com.furniture.inventory.repository.BomEntry;
+import com.furniture.inventory.repository.ProductRepository;
+import com.furniture.inventory.repository.RowVersion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Version 1 of the JSON API for products and their bills of materials, for POS
+ * terminals and warehouse scanners.
+ *
+ * Lists are keyset paginated by name like the main screen. Every response
+ * carries a strong ETag built from the versions of the rows it contains; a
+ * request whose If-None-Match still matches is answered 304 after a
+ * versions-only query, without loading or serializing the rows.
+ * Editing a bill-of-materials line does not always bump the product's version,
+ * so the BOM's ETag also covers its lines, read through the cached line queries.
+ * Buildable quantities come from the in-memory capacity engine and are tagged
+ * by their value.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/v1/products")
+public class ProductApiController {
+
+    private static final FieldProjection<Product> FIELDS =
+            new FieldProjection<Product>(p -> new RowVersion(p.getId(), p.getVersion()))
+                    .field("id", Product::getId)
+                    .field("version", Product::getVersion)
+                    .field("name", Product::getName)
+                    .field("price", Product::getPrice)
+                    .field("inv", Product::getInv)
+                    .field("partsTotalCost", Product::getPartsTotalCost)
+                    .field("margin", Product::getMargin);
+
+    private static final String STOCK_FIELDS = "id,version,inv";
+
+    private final ProductRepository productRepository;
+    private final CapacityService capacityService;
+
+    @Value("${inventory.paging.page-size:25}")
+    private int defaultPageSize;
+
+    @Value("${inventory.paging.max-page-size:200}")
+    private int maxPageSize;
+
+    @Autowired
+    public ProductApiController(ProductRepository productRepository, CapacityService capacityService) {
+        this.productRepository = productRepository;
+        this.capacityService = capacityService;
+    }
+
+    /**
+     * One page of products ordered by name
+     *
+     * @param cursor the {@code next} cursor of the previous page; omit for the first page
+     * @param size page size, capped at the configured maximum
+     * @param fields comma-separated fields to include; omit for all
+     * @param request used to answer conditional requests
+     * @return the page and the cursor of the next one, or 304 if the client's copy is current
+     */
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> list(@RequestParam(required = false) String cursor,
+                                                    @RequestParam(required = false) Integer size,
+                                                    @RequestParam(required = false) String fields,
+                                                    WebRequest request) {
+        Set<String> selected;
+        try {
+            selected = FIELDS.select(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        // One row past the page tells whether there is a next page
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<RowVersion> versions = after == null
+                ? productRepository.findFirstPageVersions(limit)
+                : productRepository.findPageVersionsAfter(after.name(), after.id(), limit);
+        if (request.checkNotModified(FIELDS.etag(selected, versions))) {
+            return null;
+        }
+
+        List<Product> rows = after == null
+                ? productRepository.findFirstPage(limit)
+                : productRepository.findPageAfter(after.name(), after.id(), limit);
+        KeysetPage<Product> page = KeysetPage.forward(rows, pageSize, after != null,
+                p -> new KeysetCursor(p.getName(), p.getId()));
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("items", FIELDS.render(page.getContent(), selected));
+        body.put("next", page.getNextCursor());
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(FIELDS.etag(selected, FIELDS.versions(rows)))
+                .body(body);
+    }
+
+    /**
+     * One product
+     *
+     * @param id the product ID
+     * @param fields comma-separated fields to include; omit for all
+     * @param request used to answer conditional requests
+     * @return the product, 304 if the client's copy is current, or 404
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> get(@PathVariable Long id,
+                                                   @RequestParam(required = false) String fields,
+                                                   WebRequest request) {
+        try {
+            return single(id, FIELDS.select(fields), request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Stock level of one product
+     *
+     * @param id the product ID
+     * @param request used to answer conditional requests
+     * @return the stock level, 304 if the client's copy is current, or 404
+     */
+    @GetMapping("/{id}/stock")
+    public ResponseEntity<Map<String, Object>> stock(@PathVariable Long id, WebRequest request) {
+        return single(id, FIELDS.select(STOCK_FIELDS), request);
+    }
+
+    /**
+     * Bill of materials of one product: its direct part lines and sub-assembly lines
+     *
+     * @param id the product ID
+     * @param request used to answer conditional requests
+     * @return the lines, 304 if the client's copy is current, or 404
+     */
+    @GetMapping("/{id}/bom")
+    public ResponseEntity<Map<String, Object>> bom(@PathVariable Long id, WebRequest request) {
+        Optional<Long> version = productRepository.findVersionById(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        List<BomEntry> parts = byId(productRepository.findPartLines(id));
+        List<BomEntry> components = byId(productRepository.findComponentLines(id));
+        if (request.checkNotModified(bomEtag(id, version.get(), parts, components))) {
+            return null;
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("productId", id);
+        body.put("version", version.get());
+        body.put("parts", parts);
+        body.put("components", components);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(bomEtag(id, version.get(), parts, components))
+                .body(body);
+    }
+
+    /**
+     * How many units of one product can be assembled now from part stock above
+     * each part's minimum, and which part runs out first
+     *
+     * @param id the product ID
+     * @param request used to answer conditional requests
+     * @return the buildable quantity (without units if the product has no bill of materials),
+     *         304 if the client's copy is current, or 404
+     */
+    @GetMapping("/{id}/buildable")
+    public ResponseEntity<Map<String, Object>> buildable(@PathVariable Long id, WebRequest request) {
+        Optional<BuildableQuantity> capacity = capacityService.buildable(id);
+        if (capacity.isEmpty() && productRepository.findVersionById(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = capacity.map(c -> FieldProjection.etag("buildable",
+                        new long[]{id, c.units(), c.limitingPartId()}))
+                .orElse(FieldProjection.etag("buildable", new long[]{id}));
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(etag)
+                .body(capacity.map(ProductApiController::render).orElse(Map.of("productId", id)));
+    }
+
+    /**
+     * Buildable quantities of several products, served from memory
+     *
+     * @param ids comma-separated product IDs, at most the maximum page size
+     * @return one entry per product that has a bill of materials, in request order
+     */
+    @GetMapping("/buildable")
+    public ResponseEntity<Map<String, Object>> buildable(@RequestParam List<Long> ids) {
+        if (ids.size() > maxPageSize) {
+            return ResponseEntity.badRequest().body(Map.of("error", "At most " + maxPageSize + " ids per request"));
+        }
+        List<Map<String, Object>> items = capacityService.buildable(ids).values().stream()
+                .map(ProductApiController::render)
+                .toList();
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(Map.of("items", items));
+    }
+
+    private static Map<String, Object> render(BuildableQuantity capacity) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("productId", capacity.productId());
+        json.put("units", capacity.units());
+        json.put("limitingPartId", capacity.limitingPartId());
+        return json;
+    }
+
+    private ResponseEntity<Map<String, Object>> single(Long id, Set<String> selected, WebRequest request) {
+        Optional<Long> version = productRepository.findVersionById(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(FIELDS.etag(selected, List.of(new RowVersion(id, version.get()))))) {
+            return null;
+        }
+        Optional<Product> product = productRepository.findById(id);
+        if (product.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(FIELDS.etag(selected, List.of(FIELDS.version(product.get()))))
+                .body(FIELDS.render(product.get(), selected));
+    }
+
+    private static List<BomEntry> byId(List<BomEntry> lines) {
+        // Query order is unspecified; a stable order keeps the ETag stable
+        return lines.stream().sorted(Comparator.comparing(BomEntry::id)).toList();
+    }
+
+    private static String bomEtag(Long id, long version, List<BomEntry> parts, List<BomEntry> components) {
+        List<Long> values = new ArrayList<>();
+        values.add(id);
+        values.add(version);
+        values.add((long) parts.size());
+        parts.forEach(line -> {
+            values.add(line.id());
+            values.add((long) line.quantity());
+        });
+        components.forEach(line -> {
+            values.add(line.id());
+            values.add((long) line.quantity());
+        });
+        return FieldProjection.etag("bom", values.stream().mapToLong(Long::longValue).toArray());
+    }
+}
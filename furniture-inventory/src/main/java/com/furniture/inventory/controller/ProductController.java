@@ -1,15 +1,34 @@
 package com.furniture.inventory.controller;
 
+import com.furniture.inventory.capacity.CapacityService;
 import com.furniture.inventory.entity.Part;
 import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.entity.ProductComponent;
+import com.furniture.inventory.entity.ProductPart;
+import com.furniture.inventory.location.LocationStockService;
 import com.furniture.inventory.repository.PartRepository;
 import com.furniture.inventory.repository.ProductRepository;
+import com.furniture.inventory.search.NameSearchService;
+import com.furniture.inventory.service.AssemblyService;
+import com.furniture.inventory.service.BomExplosionService;
+import com.furniture.inventory.service.PurchaseOutcome;
+import com.furniture.inventory.service.PurchaseService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 /**
  * Controller for handling Product-related operations including
@@ -24,21 +43,41 @@ public class ProductController {
 
     private final ProductRepository productRepository;
     private final PartRepository partRepository;
+    private final PurchaseService purchaseService;
+    private final AssemblyService assemblyService;
+    private final BomExplosionService explosionService;
+    private final CapacityService capacityService;
+    private final LocationStockService locationStockService;
+    private final NameSearchService searchService;
+
+    // How many other parts and products the form's pickers list
+    @Value("${inventory.paging.page-size:25}")
+    private int pickerSize;
 
     @Autowired
-    public ProductController(ProductRepository productRepository, PartRepository partRepository) {
+    public ProductController(ProductRepository productRepository, PartRepository partRepository,
+                             PurchaseService purchaseService, AssemblyService assemblyService,
+                             BomExplosionService explosionService, CapacityService capacityService,
+                             LocationStockService locationStockService, NameSearchService searchService) {
         this.productRepository = productRepository;
         this.partRepository = partRepository;
+        this.purchaseService = purchaseService;
+        this.assemblyService = assemblyService;
+        this.explosionService = explosionService;
+        this.capacityService = capacityService;
+        this.locationStockService = locationStockService;
+        this.searchService = searchService;
     }
 
     /**
      * Shows the form for adding a new product
      */
     @GetMapping("/add")
-    public String showAddProductForm(Model model) {
-        model.addAttribute("product", new Product());
-        model.addAttribute("availableParts", partRepository.findAll());
-        model.addAttribute("title", "Add Product");
+    public String showAddProductForm(@RequestParam(required = false) String partFilter,
+                                     @RequestParam(required = false) String productFilter, Model model) {
+        Product product = new Product();
+        model.addAttribute("product", product);
+        addFormOptions(model, "Add Product", product, partFilter, productFilter);
         return "product-form";
     }
 
@@ -46,10 +85,13 @@ public class ProductController {
      * Handles the submission of new products
      */
     @PostMapping("/add")
-    public String addProduct(@ModelAttribute Product product, Model model) {
+    public String addProduct(@ModelAttribute Product product, @RequestParam Map<String, String> params,
+                             Model model) {
         try {
+            applyBillOfMaterials(product, params);
+
             // For new products with no parts, reset inventory to 0
-            if (product.getParts().isEmpty() && product.getInv() > 0) {
+            if (product.getBomLines().isEmpty() && product.getComponents().isEmpty() && product.getInv() > 0) {
                 product.setInv(0);
             }
 
@@ -58,8 +100,7 @@ public class ProductController {
                 model.addAttribute("error",
                         "Product price must be greater than or equal to the sum of part prices. " +
                                 "Current part total: $" + String.format("%.2f", product.getPartsTotalCost()));
-                model.addAttribute("availableParts", partRepository.findAll());
-                model.addAttribute("title", "Add Product");
+                addFormOptions(model, "Add Product", product, null, null);
                 return "product-form";
             }
 
@@ -68,8 +109,7 @@ public class ProductController {
 
         } catch (Exception e) {
             model.addAttribute("error", "Error saving product: " + e.getMessage());
-            model.addAttribute("availableParts", partRepository.findAll());
-            model.addAttribute("title", "Add Product");
+            addFormOptions(model, "Add Product", product, null, null);
             return "product-form";
         }
     }
@@ -78,14 +118,14 @@ public class ProductController {
      * Shows the form for updating an existing product
      */
     @GetMapping("/update/{id}")
-    public String showUpdateProductForm(@PathVariable Long id, Model model) {
-        Optional<Product> productOptional = productRepository.findById(id);
+    public String showUpdateProductForm(@PathVariable Long id, @RequestParam(required = false) String partFilter,
+                                        @RequestParam(required = false) String productFilter, Model model) {
+        Optional<Product> productOptional = productRepository.findWithBomById(id);
 
         if (productOptional.isPresent()) {
             Product product = productOptional.get();
             model.addAttribute("product", product);
-            model.addAttribute("availableParts", partRepository.findAll());
-            model.addAttribute("title", "Update Product");
+            addFormOptions(model, "Update Product", product, partFilter, productFilter);
             return "product-form";
         } else {
             return "redirect:/mainscreen";
@@ -93,74 +133,87 @@ public class ProductController {
     }
 
     /**
-     * Handles updating existing products
+     * Handles updating existing products; refused if the product changed since
+     * the form was opened at the given version
      */
     @PostMapping("/update/{id}")
-    public String updateProduct(@PathVariable Long id, @ModelAttribute Product updatedProduct, Model model) {
+    public String updateProduct(@PathVariable Long id, @ModelAttribute Product updatedProduct,
+                                @RequestParam long version, @RequestParam Map<String, String> params, Model model) {
+        // Form re-renders below carry on with the version the form was opened at
+        model.addAttribute("version", version);
         try {
-            Optional<Product> existingProductOptional = productRepository.findById(id);
+            Optional<Product> existingProductOptional = productRepository.findWithBomById(id);
 
             if (existingProductOptional.isPresent()) {
                 Product existingProduct = existingProductOptional.get();
                 int oldInventory = existingProduct.getInv();
 
+                // Saved or sold since the form was opened: show what is stored now instead of overwriting it
+                if (existingProduct.getVersion() != version) {
+                    model.addAttribute("error", "This product was changed after the form was opened, for example by " +
+                            "a sale. The form now shows the current values; please make your changes again.");
+                    model.addAttribute("product", existingProduct);
+                    model.addAttribute("version", existingProduct.getVersion());
+                    addFormOptions(model, "Update Product", existingProduct, null, null);
+                    return "product-form";
+                }
+
                 // Update fields
                 existingProduct.setName(updatedProduct.getName());
                 existingProduct.setPrice(updatedProduct.getPrice());
                 existingProduct.setInv(updatedProduct.getInv());
                 existingProduct.setParts(updatedProduct.getParts());
+                applyBillOfMaterials(existingProduct, params);
+                double costDelta = existingProduct.refreshCosts();
 
                 // Validate product price against part costs
                 if (!existingProduct.isPriceValid()) {
                     model.addAttribute("error",
                             "Product price must be greater than or equal to the sum of part prices. " +
                                     "Current part total: $" + String.format("%.2f", existingProduct.getPartsTotalCost()));
-                    model.addAttribute("availableParts", partRepository.findAll());
-                    model.addAttribute("title", "Update Product");
+                    addFormOptions(model, "Update Product", updatedProduct, null, null);
                     return "product-form";
                 }
 
-                // Handle inventory changes and part consumption
-                handleInventoryChange(existingProduct, oldInventory);
-
-                productRepository.save(existingProduct);
+                // Consume parts for any newly assembled units, save and update parent costs, as one transaction
+                String location = params.get("assemblyLocation");
+                assemblyService.saveWithAssembly(existingProduct, oldInventory,
+                        location == null || location.isBlank() ? null : location, costDelta);
             }
 
             return "redirect:/mainscreen";
 
         } catch (Exception e) {
             model.addAttribute("error", "Error updating product: " + e.getMessage());
-            model.addAttribute("availableParts", partRepository.findAll());
-            model.addAttribute("title", "Update Product");
+            addFormOptions(model, "Update Product", updatedProduct, null, null);
             return "product-form";
         }
     }
 
     /**
-     * Handles the "Buy Now" functionality - decrements product inventory by 1
+     * Handles the "Buy Now" functionality - decrements product inventory by 1,
+     * at the given location if it has the product in stock
      */
     @PostMapping("/buy/{id}")
-    public String buyProduct(@PathVariable Long id, Model model) {
+    public String buyProduct(@PathVariable Long id, @RequestParam(required = false) String location,
+                             RedirectAttributes redirectAttributes) {
         try {
-            Optional<Product> productOptional = productRepository.findById(id);
+            PurchaseOutcome outcome = purchaseService.purchase(id, location == null || location.isBlank() ? null : location);
+            // From the search index's names, so the purchase still reads no product row
+            String name = searchService.productName(id).map(n -> "'" + n + "'").orElse("product");
 
-            if (productOptional.isPresent()) {
-                Product product = productOptional.get();
-
-                if (product.decrementInventory()) {
-                    productRepository.save(product);
-                    model.addAttribute("success",
-                            "Successfully purchased '" + product.getName() + "'. Inventory updated.");
-                } else {
-                    model.addAttribute("error",
-                            "Cannot purchase '" + product.getName() + "'. Product is out of stock.");
-                }
+            if (outcome == PurchaseOutcome.PURCHASED) {
+                redirectAttributes.addFlashAttribute("success",
+                        "Successfully purchased " + name + ". Inventory updated.");
+            } else if (outcome == PurchaseOutcome.OUT_OF_STOCK) {
+                redirectAttributes.addFlashAttribute("error",
+                        "Cannot purchase " + name + ". Product is out of stock.");
             }
 
             return "redirect:/mainscreen";
 
         } catch (Exception e) {
-            model.addAttribute("error", "Error processing purchase: " + e.getMessage());
+            redirectAttributes.addFlashAttribute("error", "Error processing purchase: " + e.getMessage());
             return "redirect:/mainscreen";
         }
     }
@@ -169,35 +222,106 @@ public class ProductController {
      * Handles deletion of products
      */
     @GetMapping("/delete/{id}")
-    public String deleteProduct(@PathVariable Long id) {
+    public String deleteProduct(@PathVariable Long id, RedirectAttributes redirectAttributes) {
+        if (!productRepository.findParentIds(id).isEmpty()) {
+            redirectAttributes.addFlashAttribute("error",
+                    "Cannot delete product because it is used as a sub-assembly of other products.");
+            return "redirect:/mainscreen";
+        }
         productRepository.deleteById(id);
+        explosionService.invalidate(id);
+        capacityService.refreshProduct(id);
         return "redirect:/mainscreen";
     }
 
     /**
-     * Handles inventory changes and updates part inventory accordingly
-     * When product inventory increases, it consumes parts from inventory
+     * Applies the bill-of-materials details submitted with the product form:
+     * part quantities as qty_{partId} and sub-assemblies as component_{productId}
+     * (a quantity of 0 removes the sub-assembly)
      */
-    private void handleInventoryChange(Product product, int oldInventory) {
-        int inventoryChange = product.getInv() - oldInventory;
-
-        if (inventoryChange > 0) {
-            // Product inventory increased - consume parts
-            for (Part part : product.getParts()) {
-                int newPartInventory = part.getInv() - inventoryChange;
-
-                // Check if part inventory would go below minimum
-                if (newPartInventory < part.getMinInv()) {
-                    throw new IllegalArgumentException(
-                            "Cannot assemble product. Part '" + part.getName() +
-                                    "' would have inventory below minimum. Required: " + inventoryChange +
-                                    ", Available: " + (part.getInv() - part.getMinInv()));
-                }
+    private void applyBillOfMaterials(Product product, Map<String, String> params) {
+        for (ProductPart line : product.getBomLines()) {
+            int quantity = parseQuantity(params.get("qty_" + line.getPart().getId()));
+            if (quantity > 0) {
+                line.setQuantity(quantity);
+            }
+        }
+
+        Map<Long, Integer> requested = new HashMap<>();
+        params.forEach((name, value) -> {
+            if (name.startsWith("component_")) {
+                requested.put(Long.valueOf(name.substring("component_".length())), parseQuantity(value));
+            }
+        });
 
-                part.setInv(newPartInventory);
-                partRepository.save(part);
+        product.getComponents().removeIf(line -> requested.getOrDefault(line.getComponent().getId(), 0) <= 0);
+        for (Product component : productRepository.findAllById(requested.keySet())) {
+            int quantity = requested.get(component.getId());
+            if (quantity <= 0) {
+                continue;
             }
+            if (product.getId() != null && explosionService.contains(component.getId(), product.getId())) {
+                throw new IllegalArgumentException("'" + component.getName() +
+                        "' cannot be a sub-assembly of this product because it already contains it.");
+            }
+            product.addComponent(component, quantity);
+        }
+    }
+
+    private static int parseQuantity(String value) {
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Fills the part and sub-assembly pickers with the product's own lines plus one
+     * page of others, the first by name or the best matches for a filter; listing
+     * the whole catalog would not fit a page
+     */
+    private void addFormOptions(Model model, String title, Product product, String partFilter, String productFilter) {
+        // The product's own lines are always listed, so saving the form never drops one that was not on screen
+        Map<Long, Part> parts = new LinkedHashMap<>();
+        for (ProductPart line : product.getBomLines()) {
+            parts.put(line.getPart().getId(), line.getPart());
+        }
+        List<Part> partPage = partFilter == null || partFilter.isBlank()
+                ? partRepository.findFirstPage(PageRequest.of(0, pickerSize + 1))
+                : byName(partRepository.findAllById(searchService.searchParts(partFilter.trim(), pickerSize + 1)),
+                        Part::getName);
+        partPage.stream().limit(pickerSize).forEach(part -> parts.putIfAbsent(part.getId(), part));
+
+        Map<Long, Product> products = new LinkedHashMap<>();
+        for (ProductComponent line : product.getComponents()) {
+            products.put(line.getComponent().getId(), line.getComponent());
         }
-        // Note: Decreasing product inventory (sales) doesn't return parts to inventory
+        // Two extra rows: one to tell whether there are more, one in case the product itself is among them
+        List<Product> productPage = (productFilter == null || productFilter.isBlank()
+                ? productRepository.findFirstPage(PageRequest.of(0, pickerSize + 2))
+                : byName(productRepository.findAllById(searchService.searchProducts(productFilter.trim(), pickerSize + 2)),
+                        Product::getName))
+                .stream().filter(other -> !other.getId().equals(product.getId())).toList();
+        productPage.stream().limit(pickerSize).forEach(other -> products.putIfAbsent(other.getId(), other));
+
+        model.addAttribute("availableParts", parts.values());
+        model.addAttribute("availableProducts", products.values());
+        model.addAttribute("partFilter", partFilter);
+        model.addAttribute("productFilter", productFilter);
+        model.addAttribute("pickerSize", pickerSize);
+        model.addAttribute("morePartsAvailable", partPage.size() > pickerSize);
+        model.addAttribute("moreProductsAvailable", productPage.size() > pickerSize);
+        model.addAttribute("locations", locationStockService.locations());
+        model.addAttribute("title", title);
+    }
+
+    private static <T> List<T> byName(List<T> rows, Function<T, String> nameOf) {
+        List<T> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparing(nameOf, String.CASE_INSENSITIVE_ORDER));
+        return sorted;
     }
 }
\ No newline at end of file
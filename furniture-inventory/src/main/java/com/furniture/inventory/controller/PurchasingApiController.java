@@ -0,0 +1,60 @@
+package com.furniture.inventory.controller;
+
+import com.furniture.inventory.purchasing.PurchaseOrder;
+import com.furniture.inventory.purchasing.PurchaseOrderBatcher;
+import com.furniture.inventory.purchasing.SupplierIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes purchase order batching: the lines waiting for each supplier, the
+ * supplier list, and a way to issue every open batch without waiting.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/v1/purchasing")
+public class PurchasingApiController {
+
+    private final PurchaseOrderBatcher batcher;
+    private final SupplierIndex supplierIndex;
+
+    @Autowired
+    public PurchasingApiController(PurchaseOrderBatcher batcher, SupplierIndex supplierIndex) {
+        this.batcher = batcher;
+        this.supplierIndex = supplierIndex;
+    }
+
+    /**
+     * @return supplier name to part id to quantity, for batches not yet issued
+     */
+    @GetMapping("/pending")
+    public Map<String, Map<Long, Integer>> pending() {
+        return batcher.pending();
+    }
+
+    /**
+     * @return supplier name to number of outsourced parts
+     */
+    @GetMapping("/suppliers")
+    public Map<String, Integer> suppliers() {
+        return supplierIndex.supplierSizes();
+    }
+
+    /**
+     * Issues every open batch now
+     *
+     * @return the orders written to the outbox
+     */
+    @PostMapping("/issue")
+    public List<PurchaseOrder> issue() {
+        return batcher.issueAll();
+    }
+}
@@ -0,0 +1,163 @@
+package com.furniture.inventory.controller;
+
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.reservation.Reservation;
+import com.furniture.inventory.reservation.ReservationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Stock reservations for the web shop: holding units while they sit in a cart,
+ * renewing, releasing or confirming the hold, and the available-to-promise
+ * quantity of an item.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/api/v1/reservations")
+public class ReservationApiController {
+
+    private final ReservationService reservationService;
+
+    @Autowired
+    public ReservationApiController(ReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    /**
+     * Units of a part or product available to promise
+     *
+     * @param items "parts" or "products"
+     * @param id the item ID
+     * @return on-hand minus reserved units, or 404 if there is no such item
+     */
+    @GetMapping("/{items}/{id}")
+    public ResponseEntity<Map<String, Object>> available(@PathVariable String items, @PathVariable Long id) {
+        ItemType itemType = itemType(items);
+        OptionalLong available = itemType == null ? OptionalLong.empty() : reservationService.available(itemType, id);
+        if (available.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("itemType", itemType, "id", id, "available", available.getAsLong()));
+    }
+
+    /**
+     * Holds units of a part or product
+     *
+     * @param items "parts" or "products"
+     * @param id the item ID
+     * @param quantity units to hold
+     * @param ttl ISO-8601 duration to hold them for; defaults to {@code inventory.reservation.default-ttl}
+     * @return 201 with the reservation, 409 if fewer units are available, 404 if there
+     *         is no such item, or 400 if the request is invalid
+     */
+    @PostMapping("/{items}/{id}")
+    public ResponseEntity<Object> reserve(@PathVariable String items, @PathVariable Long id,
+                                          @RequestParam(defaultValue = "1") int quantity,
+                                          @RequestParam(required = false) Duration ttl) {
+        ItemType itemType = itemType(items);
+        if (itemType == null || reservationService.available(itemType, id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            Optional<Reservation> reservation = reservationService.reserve(itemType, id, quantity, ttl);
+            if (reservation.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "Fewer than " + quantity + " units are available"));
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).body(reservation.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * @param reservationId the reservation ID
+     * @return the reservation, or 404 if it was released, confirmed or has expired
+     */
+    @GetMapping("/{reservationId}")
+    public ResponseEntity<Reservation> find(@PathVariable long reservationId) {
+        return ResponseEntity.of(reservationService.find(reservationId));
+    }
+
+    /**
+     * Keeps holding a reservation's units for another time to live
+     *
+     * @param reservationId the reservation ID
+     * @param ttl ISO-8601 duration from now; defaults to {@code inventory.reservation.default-ttl}
+     * @return the renewed reservation, 404 if it was released, confirmed or has expired,
+     *         or 400 if the time to live is out of range
+     */
+    @PostMapping("/{reservationId}/renew")
+    public ResponseEntity<Object> renew(@PathVariable long reservationId,
+                                        @RequestParam(required = false) Duration ttl) {
+        try {
+            Optional<Reservation> reservation = reservationService.renew(reservationId, ttl);
+            return reservation.<ResponseEntity<Object>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Sells a reservation's units at checkout
+     *
+     * @param reservationId the reservation ID
+     * @param location the location to sell from first; optional
+     * @return 204, 404 if it was released, confirmed or has expired, 409 if the stock
+     *         is no longer there, or 400 if the location is unknown
+     */
+    @PostMapping("/{reservationId}/confirm")
+    public ResponseEntity<Object> confirm(@PathVariable long reservationId,
+                                          @RequestParam(required = false) String location) {
+        if (reservationService.find(reservationId).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            if (!reservationService.confirm(reservationId, location == null || location.isBlank() ? null : location)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "The reserved units are no longer in stock"));
+            }
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Releases a reservation's units
+     *
+     * @param reservationId the reservation ID
+     * @return 204, or 404 if it was released, confirmed or has expired
+     */
+    @DeleteMapping("/{reservationId}")
+    public ResponseEntity<Void> release(@PathVariable long reservationId) {
+        return reservationService.release(reservationId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    private static ItemType itemType(String items) {
+        return switch (items.toLowerCase(Locale.ROOT)) {
+            case "parts" -> ItemType.PART;
+            case "products" -> ItemType.PRODUCT;
+            default -> null;
+        };
+    }
+}
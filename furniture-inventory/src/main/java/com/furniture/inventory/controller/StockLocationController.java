@@ -0,0 +1,126 @@
+package com.furniture.inventory.controller;
+
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.location.LocationStockService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stock by location: what each warehouse or showroom holds of an item, and
+ * receiving and transferring stock between them.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@RestController
+@RequestMapping("/stock")
+public class StockLocationController {
+
+    private final LocationStockService locationStockService;
+
+    @Autowired
+    public StockLocationController(LocationStockService locationStockService) {
+        this.locationStockService = locationStockService;
+    }
+
+    /**
+     * @return the location codes, home location first
+     */
+    @GetMapping("/locations")
+    public List<String> locations() {
+        return locationStockService.locations();
+    }
+
+    /**
+     * Stock of a part or product at each location
+     *
+     * @param items "parts" or "products"
+     * @param id the item ID
+     * @return the total and units per location, or 404 if there is no such item
+     */
+    @GetMapping("/{items}/{id}")
+    public ResponseEntity<Map<String, Object>> stock(@PathVariable String items, @PathVariable Long id) {
+        ItemType itemType = itemType(items);
+        Optional<Map<String, Integer>> stock = itemType == null ? Optional.empty()
+                : locationStockService.stock(itemType, id);
+        if (stock.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        long total = stock.get().values().stream().mapToLong(Integer::longValue).sum();
+        return ResponseEntity.ok(Map.of("itemType", itemType, "id", id, "total", total, "locations", stock.get()));
+    }
+
+    /**
+     * Receives units of a part or product at a location
+     *
+     * @param items "parts" or "products"
+     * @param id the item ID
+     * @param location the receiving location
+     * @param quantity units received
+     * @return the item's stock afterwards, or 400 if the request is invalid
+     */
+    @PostMapping("/{items}/{id}/receive")
+    public ResponseEntity<Map<String, Object>> receive(@PathVariable String items, @PathVariable Long id,
+                                                       @RequestParam String location, @RequestParam int quantity) {
+        ItemType itemType = itemType(items);
+        if (itemType == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            locationStockService.receive(itemType, id, location, quantity);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        return stock(items, id);
+    }
+
+    /**
+     * Moves units of a part or product between locations
+     *
+     * @param items "parts" or "products"
+     * @param id the item ID
+     * @param from the location to take from
+     * @param to the location to move to
+     * @param quantity units moved
+     * @return the item's stock afterwards, 409 if the source does not have the units,
+     *         or 400 if the request is invalid
+     */
+    @PostMapping("/{items}/{id}/transfer")
+    public ResponseEntity<Map<String, Object>> transfer(@PathVariable String items, @PathVariable Long id,
+                                                        @RequestParam String from, @RequestParam String to,
+                                                        @RequestParam int quantity) {
+        ItemType itemType = itemType(items);
+        if (itemType == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            if (!locationStockService.transfer(itemType, id, from, to, quantity)) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", from + " does not have " + quantity + " units"));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        return stock(items, id);
+    }
+
+    private static ItemType itemType(String items) {
+        return switch (items.toLowerCase(Locale.ROOT)) {
+            case "parts" -> ItemType.PART;
+            case "products" -> ItemType.PRODUCT;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,57 @@
+package com.furniture.inventory.controller;
+
+import com.furniture.inventory.valuation.InventoryValuation;
+import com.furniture.inventory.valuation.ValuationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+/**
+ * Inventory valuation dashboard for finance.
+ * The page polls the data endpoint, which is served from the incrementally
+ * maintained totals and never aggregates over the tables.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Controller
+public class ValuationController {
+
+    private final ValuationService valuationService;
+
+    @Value("${inventory.valuation.dashboard-refresh-millis:5000}")
+    private long refreshMillis;
+
+    @Autowired
+    public ValuationController(ValuationService valuationService) {
+        this.valuationService = valuationService;
+    }
+
+    /**
+     * Displays the valuation dashboard
+     *
+     * @param model Spring model for passing data to view
+     * @return valuation template name
+     */
+    @GetMapping("/valuation")
+    public String showDashboard(Model model) {
+        model.addAttribute("valuation", valuationService.current());
+        model.addAttribute("refreshMillis", refreshMillis);
+        model.addAttribute("shopName", "Premium Furniture Workshop");
+        return "valuation";
+    }
+
+    /**
+     * Current valuation totals, polled by the dashboard
+     *
+     * @return the totals
+     */
+    @GetMapping("/valuation/data")
+    @ResponseBody
+    public InventoryValuation valuation() {
+        return valuationService.current();
+    }
+}
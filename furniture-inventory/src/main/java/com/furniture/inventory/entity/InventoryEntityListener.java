@@ -0,0 +1,55 @@
+package com.furniture.inventory.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * The one JPA entity listener on {@link Part} and {@link Product}: passes each
+ * write on to every {@link InventoryWriteListener}, in order, so the entities do
+ * not name the modules that follow their stock.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Component
+public class InventoryEntityListener {
+
+    private final List<InventoryWriteListener> listeners;
+
+    @Autowired
+    public InventoryEntityListener(List<InventoryWriteListener> listeners) {
+        this.listeners = List.copyOf(listeners);
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        if (entity instanceof Part part) {
+            for (InventoryWriteListener listener : listeners) {
+                listener.partSaved(part);
+            }
+        } else if (entity instanceof Product product) {
+            for (InventoryWriteListener listener : listeners) {
+                listener.productSaved(product);
+            }
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Part part) {
+            for (InventoryWriteListener listener : listeners) {
+                listener.partRemoved(part);
+            }
+        } else if (entity instanceof Product product) {
+            for (InventoryWriteListener listener : listeners) {
+                listener.productRemoved(product);
+            }
+        }
+    }
+}
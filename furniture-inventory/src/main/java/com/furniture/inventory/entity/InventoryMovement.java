@@ -0,0 +1,94 @@
+package com.furniture.inventory.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * One entry of the append-only inventory ledger: a signed change to the stock
+ * of a part or product. Entries are never updated or deleted.
+ *
+ * Inserted by {@link com.furniture.inventory.ledger.LedgerService} in the same
+ * transaction as the stock change it records, numbering {@code seq} as it goes;
+ * the mapping exists for the schema and for reading history.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Entity
+@Table(name = "inventory_movement",
+        indexes = @Index(name = "idx_movement_item_seq", columnList = "item_type, item_id, seq"))
+public class InventoryMovement {
+
+    @Id
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "item_type", nullable = false, length = 10)
+    private ItemType itemType;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "movement_type", nullable = false, length = 10)
+    private MovementType movementType;
+
+    // Signed: positive adds stock, negative removes it
+    @Column(nullable = false)
+    private int quantity;
+
+    // Null when the change was made to the item's total without naming a location
+    @Column(length = 20)
+    private String location;
+
+    @Column(name = "recorded_at", nullable = false)
+    private Instant recordedAt;
+
+    // Constructors
+    public InventoryMovement() {
+        // Default constructor for JPA
+    }
+
+    // Getters
+    public Long getSeq() {
+        return seq;
+    }
+
+    public ItemType getItemType() {
+        return itemType;
+    }
+
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public MovementType getMovementType() {
+        return movementType;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public Instant getRecordedAt() {
+        return recordedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryMovement{" +
+                "seq=" + seq +
+                ", itemType=" + itemType +
+                ", itemId=" + itemId +
+                ", movementType=" + movementType +
+                ", quantity=" + quantity +
+                ", location='" + location + '\'' +
+                ", recordedAt=" + recordedAt +
+                '}';
+    }
+}
@@ -0,0 +1,55 @@
+package com.furniture.inventory.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * A ledger checkpoint: every movement up to and including {@code lastSeq} is
+ * folded into the snapshot's items. Snapshots are incremental, so an item's
+ * level as of snapshot N is its {@link InventorySnapshotItem} row with the
+ * highest snapshot id not above N.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Entity
+@Table(name = "inventory_snapshot", indexes = @Index(name = "idx_snapshot_taken_at", columnList = "taken_at"))
+public class InventorySnapshot {
+
+    @Id
+    private Long id;
+
+    @Column(name = "taken_at", nullable = false)
+    private Instant takenAt;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+
+    // Constructors
+    public InventorySnapshot() {
+        // Default constructor for JPA
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Instant getTakenAt() {
+        return takenAt;
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+
+    @Override
+    public String toString() {
+        return "InventorySnapshot{" +
+                "id=" + id +
+                ", takenAt=" + takenAt +
+                ", lastSeq=" + lastSeq +
+                '}';
+    }
+}
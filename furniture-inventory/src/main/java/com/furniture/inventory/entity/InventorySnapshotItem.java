@@ -0,0 +1,93 @@
+package com.furniture.inventory.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * An item's inventory as of a snapshot. Only items that moved since the
+ * previous snapshot get a row.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Entity
+@Table(name = "inventory_snapshot_item")
+public class InventorySnapshotItem {
+
+    @EmbeddedId
+    private Key id = new Key();
+
+    @Column(nullable = false)
+    private int inv;
+
+    // Constructors
+    public InventorySnapshotItem() {
+        // Default constructor for JPA
+    }
+
+    // Getters
+    public Key getId() {
+        return id;
+    }
+
+    public int getInv() {
+        return inv;
+    }
+
+    @Override
+    public String toString() {
+        return "InventorySnapshotItem{" +
+                "itemType=" + id.itemType +
+                ", itemId=" + id.itemId +
+                ", snapshotId=" + id.snapshotId +
+                ", inv=" + inv +
+                '}';
+    }
+
+    /**
+     * Composite key (item, snapshot_id); leading with the item lets point-in-time
+     * lookups seek straight to an item's latest snapshot row
+     */
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "item_type", length = 10)
+        private ItemType itemType;
+
+        @Column(name = "item_id")
+        private Long itemId;
+
+        @Column(name = "snapshot_id")
+        private Long snapshotId;
+
+        public ItemType getItemType() {
+            return itemType;
+        }
+
+        public Long getItemId() {
+            return itemId;
+        }
+
+        public Long getSnapshotId() {
+            return snapshotId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return itemType == key.itemType &&
+                    Objects.equals(itemId, key.itemId) &&
+                    Objects.equals(snapshotId, key.snapshotId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(itemType, itemId, snapshotId);
+        }
+    }
+}
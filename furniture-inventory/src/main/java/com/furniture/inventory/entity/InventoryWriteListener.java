@@ -0,0 +1,38 @@
+package com.furniture.inventory.entity;
+
+/**
+ * Told about part and product writes made through JPA, by
+ * {@link InventoryEntityListener}. Implementations are Spring beans, called in
+ * their {@link org.springframework.core.annotation.Order} within the flush that
+ * wrote the entity; anything that must only see committed data waits for the commit itself.
+ * Bulk JPQL and JDBC updates bypass JPA and are not reported here.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public interface InventoryWriteListener {
+
+    /**
+     * @param part the part just inserted or updated
+     */
+    default void partSaved(Part part) {
+    }
+
+    /**
+     * @param part the part just deleted
+     */
+    default void partRemoved(Part part) {
+    }
+
+    /**
+     * @param product the product just inserted or updated
+     */
+    default void productSaved(Product product) {
+    }
+
+    /**
+     * @param product the product just deleted
+     */
+    default void productRemoved(Product product) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.furniture.inventory.entity;
+
+/**
+ * Kind of stocked item an inventory movement refers to.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public enum ItemType {
+
+    PART,
+
+    PRODUCT
+}
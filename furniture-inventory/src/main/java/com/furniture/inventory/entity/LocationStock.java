@@ -0,0 +1,110 @@
+package com.furniture.inventory.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Stock of a part or product held at one location other than the home location.
+ * The home location's stock is whatever part of the item's total is not held
+ * anywhere else, so it has no row.
+ *
+ * {@code unfolded} is the part of this row's changes not yet added to the item's
+ * {@code inventory_count}: each location's row is one shard of the item's total,
+ * and the shards are folded into the total in batches by
+ * {@link com.furniture.inventory.location.LocationStockService}. Written with JDBC;
+ * the mapping exists for the schema.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Entity
+@Table(name = "location_stock")
+public class LocationStock {
+
+    @EmbeddedId
+    private Key id = new Key();
+
+    @Column(nullable = false)
+    private int quantity;
+
+    // Signed change not yet in the item's total
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private int unfolded;
+
+    // Constructors
+    public LocationStock() {
+        // Default constructor for JPA
+    }
+
+    // Getters
+    public Key getId() {
+        return id;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public int getUnfolded() {
+        return unfolded;
+    }
+
+    @Override
+    public String toString() {
+        return "LocationStock{" +
+                "location='" + id.location + '\'' +
+                ", itemType=" + id.itemType +
+                ", itemId=" + id.itemId +
+                ", quantity=" + quantity +
+                ", unfolded=" + unfolded +
+                '}';
+    }
+
+    /**
+     * Composite key (item, location)
+     */
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "location", length = 20)
+        private String location;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "item_type", length = 10)
+        private ItemType itemType;
+
+        @Column(name = "item_id")
+        private Long itemId;
+
+        public String getLocation() {
+            return location;
+        }
+
+        public ItemType getItemType() {
+            return itemType;
+        }
+
+        public Long getItemId() {
+            return itemId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(location, key.location) &&
+                    itemType == key.itemType &&
+                    Objects.equals(itemId, key.itemId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(location, itemType, itemId);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.furniture.inventory.entity;
+
+/**
+ * Why an item's inventory changed.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public enum MovementType {
+
+    /** Stock added: a new item's opening stock, a restock, or assembled product units */
+    RECEIVE,
+
+    /** Parts taken to assemble products */
+    CONSUME,
+
+    /** Units sold, by "Buy Now" or by confirming a reservation */
+    SALE,
+
+    /** Manual correction, including removing a deleted item's remaining stock */
+    ADJUST,
+
+    /** Stock moved between locations; recorded as a pair that leaves the total unchanged */
+    TRANSFER
+}
@@ -1,7 +1,13 @@
 package com.furniture.inventory.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.Objects;
 
@@ -15,11 +21,21 @@ import java.util.Objects;
 @Entity
 @Inheritance(strategy = InheritanceType.SINGLE_TABLE)
 @DiscriminatorColumn(name = "part_type", discriminatorType = DiscriminatorType.STRING)
-@Table(name = "part")
+@Table(name = "part", indexes = {
+        @Index(name = "idx_part_name_id", columnList = "name, id"),
+        @Index(name = "idx_part_stock_status", columnList = "stock_status")})
+@EntityListeners(InventoryEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "parts")
 public abstract class Part {
 
+    /** Ids reserved per sequence call; the sequence increments by this much */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence: ids are handed out in blocks, so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "part_seq")
+    @SequenceGenerator(name = "part_seq", sequenceName = "part_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -37,8 +53,25 @@ public abstract class Part {
     @Column(name = "max_inventory", nullable = false)
     private int maxInv;
 
-    @ManyToMany(mappedBy = "parts")
-    private Set<Product> products = new HashSet<>();
+    // Derived from inv/minInv/maxInv on every write; kept as a column so it can be indexed
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stock_status", length = 10)
+    private StockStatus stockStatus;
+
+    // Bumped on every write, including bulk updates; the REST API derives ETags from it
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
+    // Inventory as last loaded or reported, so a write can tell the ledger how far it moved
+    @Transient
+    private int recordedInv;
+
+    @OneToMany(mappedBy = "part")
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "part-product-links")
+    private List<ProductPart> productLinks = new ArrayList<>();
 
     // Constructors
     public Part() {
@@ -71,6 +104,13 @@ public abstract class Part {
         this.id = id;
     }
 
+    /**
+     * @return the optimistic-lock version, incremented on every write to this part
+     */
+    public long getVersion() {
+        return version;
+    }
+
     public String getName() {
         return name;
     }
@@ -111,21 +151,40 @@ public abstract class Part {
         this.maxInv = maxInv;
     }
 
+    /**
+     * Products whose bill of materials lists this part directly
+     * @return the distinct products using this part
+     */
     public Set<Product> getProducts() {
+        Set<Product> products = new HashSet<>();
+        for (ProductPart line : productLinks) {
+            products.add(line.getProduct());
+        }
         return products;
     }
 
-    public void setProducts(Set<Product> products) {
-        this.products = products;
+    // Business logic methods
+    /**
+     * @return the stock status for the current inventory levels
+     */
+    public StockStatus getStockStatus() {
+        return StockStatus.of(inv, minInv, maxInv);
     }
 
-    // Business logic methods
     /**
-     * Checks if current inventory is below minimum threshold
+     * @return whether the part is made in house rather than bought in; templates
+     *         cannot ask for the class, which may be a lazy-loading proxy anyway
+     */
+    public boolean isInhouse() {
+        return this instanceof InhousePart;
+    }
+
+    /**
+     * Checks if current inventory is at or below minimum threshold
      * @return true if inventory needs restocking
      */
     public boolean isInventoryLow() {
-        return inv < minInv;
+        return getStockStatus() == StockStatus.LOW;
     }
 
     /**
@@ -133,7 +192,27 @@ public abstract class Part {
      * @return true if inventory is overstocked
      */
     public boolean isInventoryOverMax() {
-        return inv > maxInv;
+        return getStockStatus() == StockStatus.OVER;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateStockStatus() {
+        stockStatus = getStockStatus();
+    }
+
+    @PostLoad
+    void rememberInventory() {
+        recordedInv = inv;
+    }
+
+    /**
+     * @return how far inventory moved since the part was loaded or this was last called
+     */
+    public int takeInventoryChange() {
+        int change = inv - recordedInv;
+        recordedInv = inv;
+        return change;
     }
 
     // Standard methods
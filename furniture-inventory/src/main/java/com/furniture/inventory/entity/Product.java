@@ -1,23 +1,39 @@
 package com.furniture.inventory.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.Objects;
 
 /**
  * Represents a furniture product assembled from various parts.
- * Tracks product information and associated parts for assembly.
+ * Tracks product information and its bill of materials: parts with quantities
+ * plus any nested sub-assemblies.
  *
  * @author Hardik
  * @version 1.0
  */
 @Entity
-@Table(name = "product")
+@Table(name = "product", indexes = @Index(name = "idx_product_name_id", columnList = "name, id"))
+@EntityListeners(InventoryEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "products")
 public class Product {
 
+    /** Ids reserved per sequence call; the sequence increments by this much */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled sequence: ids are handed out in blocks, so inserts can be JDBC-batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -29,13 +45,33 @@ public class Product {
     @Column(name = "inventory_count", nullable = false)
     private int inv;
 
-    @ManyToMany
-    @JoinTable(
-            name = "product_parts",
-            joinColumns = @JoinColumn(name = "product_id"),
-            inverseJoinColumns = @JoinColumn(name = "part_id")
-    )
-    private Set<Part> parts = new HashSet<>();
+    // Denormalized cost of the bill of materials, kept current by ProductCostService.
+    // Null only for rows written before the column existed, until the startup backfill runs.
+    @Column(name = "parts_total_cost")
+    private Double partsTotalCost;
+
+    @Column(name = "margin")
+    private Double margin;
+
+    // Bumped on every write, including bulk updates; the REST API derives ETags from it
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
+    // Inventory as last loaded or reported, so a write can tell the ledger how far it moved
+    @Transient
+    private int recordedInv;
+
+    @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product-bom-lines")
+    private List<ProductPart> bomLines = new ArrayList<>();
+
+    @OneToMany(mappedBy = "parent", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 100)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product-components")
+    private List<ProductComponent> components = new ArrayList<>();
 
     // Constructors
     public Product() {
@@ -64,6 +100,13 @@ public class Product {
         this.id = id;
     }
 
+    /**
+     * @return the optimistic-lock version, incremented on every write to this product
+     */
+    public long getVersion() {
+        return version;
+    }
+
     public String getName() {
         return name;
     }
@@ -88,23 +131,165 @@ public class Product {
         this.inv = inv;
     }
 
+    public List<ProductPart> getBomLines() {
+        return bomLines;
+    }
+
+    public List<ProductComponent> getComponents() {
+        return components;
+    }
+
+    /**
+     * Parts used by this product, regardless of quantity
+     * @return the distinct parts on the bill of materials
+     */
     public Set<Part> getParts() {
+        Set<Part> parts = new HashSet<>();
+        for (ProductPart line : bomLines) {
+            parts.add(line.getPart());
+        }
         return parts;
     }
 
+    /**
+     * Replaces the set of parts used by this product.
+     * Parts already on the bill of materials keep their quantity; new parts start at one.
+     * @param parts the parts this product should use
+     */
     public void setParts(Set<Part> parts) {
-        this.parts = parts;
+        Set<Long> keep = new HashSet<>();
+        for (Part part : parts) {
+            keep.add(part.getId());
+        }
+        bomLines.removeIf(line -> !keep.contains(line.getPart().getId()));
+        for (Part part : parts) {
+            if (quantityOf(part) == 0) {
+                bomLines.add(new ProductPart(this, part, 1));
+            }
+        }
+    }
+
+    /**
+     * Adds a part to the bill of materials, or changes its quantity if already present
+     * @param part the part
+     * @param quantity units of the part per unit of product
+     */
+    public void addPart(Part part, int quantity) {
+        for (ProductPart line : bomLines) {
+            if (Objects.equals(line.getPart().getId(), part.getId())) {
+                line.setQuantity(quantity);
+                return;
+            }
+        }
+        bomLines.add(new ProductPart(this, part, quantity));
+    }
+
+    /**
+     * Adds a sub-assembly, or changes its quantity if already present
+     * @param component the sub-assembly product
+     * @param quantity units of the sub-assembly per unit of product
+     */
+    public void addComponent(Product component, int quantity) {
+        for (ProductComponent line : components) {
+            if (Objects.equals(line.getComponent().getId(), component.getId())) {
+                line.setQuantity(quantity);
+                return;
+            }
+        }
+        components.add(new ProductComponent(this, component, quantity));
+    }
+
+    /**
+     * @param part the part to look up
+     * @return units of the part per unit of product, or 0 if not used
+     */
+    public int quantityOf(Part part) {
+        for (ProductPart line : bomLines) {
+            if (Objects.equals(line.getPart().getId(), part.getId())) {
+                return line.getQuantity();
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @param component the sub-assembly to look up
+     * @return units of the sub-assembly per unit of product, or 0 if not used
+     */
+    public int quantityOf(Product component) {
+        for (ProductComponent line : components) {
+            if (Objects.equals(line.getComponent().getId(), component.getId())) {
+                return line.getQuantity();
+            }
+        }
+        return 0;
     }
 
     // Business logic methods
     /**
-     * Calculates the total cost of all parts in this product
-     * @return sum of all part prices
+     * Total cost of all parts in this product, including the parts of any sub-assemblies.
+     * Reads the materialized column; falls back to walking the bill of materials
+     * only when the column has not been filled yet.
+     * @return sum of part price times quantity
      */
     public double getPartsTotalCost() {
-        return parts.stream()
-                .mapToDouble(Part::getPrice)
-                .sum();
+        return partsTotalCost != null ? partsTotalCost : calculatePartsTotalCost();
+    }
+
+    /**
+     * @return product price minus parts cost
+     */
+    public double getMargin() {
+        return margin != null ? margin : price - getPartsTotalCost();
+    }
+
+    /**
+     * Walks the bill of materials to compute the parts cost.
+     * Sub-assemblies contribute their own materialized cost, so this only touches
+     * this product's direct lines.
+     * @return sum of part price times quantity
+     */
+    public double calculatePartsTotalCost() {
+        double total = 0;
+        for (ProductPart line : bomLines) {
+            total += line.getPart().getPrice() * line.getQuantity();
+        }
+        for (ProductComponent line : components) {
+            total += line.getComponent().getPartsTotalCost() * line.getQuantity();
+        }
+        return total;
+    }
+
+    /**
+     * Recomputes the materialized parts cost and margin from the bill of materials.
+     * Call after changing the price or the bill of materials.
+     * @return how much the parts cost changed, for propagating to parent assemblies
+     *         (0 if no cost had been stored yet)
+     */
+    public double refreshCosts() {
+        Double before = partsTotalCost;
+        partsTotalCost = calculatePartsTotalCost();
+        margin = price - partsTotalCost;
+        return before != null ? partsTotalCost - before : 0;
+    }
+
+    @PrePersist
+    void onPersist() {
+        refreshCosts();
+    }
+
+    @PostLoad
+    void rememberInventory() {
+        recordedInv = inv;
+    }
+
+    /**
+     * @return how far inventory moved since the product was loaded or this was last called
+     */
+    public int takeInventoryChange() {
+        int change = inv - recordedInv;
+        recordedInv = inv;
+        return change;
     }
 
     /**
@@ -135,7 +320,8 @@ public class Product {
                 ", name='" + name + '\'' +
                 ", price=" + price +
                 ", inv=" + inv +
-                ", partsCount=" + parts.size() +
+                // Never trigger a lazy load just to print the entity
+                ", bomLines=" + (Hibernate.isInitialized(bomLines) ? bomLines.size() : "?") +
                 '}';
     }
 
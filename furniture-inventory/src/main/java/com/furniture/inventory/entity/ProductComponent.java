@@ -0,0 +1,116 @@
+package com.furniture.inventory.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Nested bill-of-materials line: how many units of a sub-assembly (itself a product)
+ * go into one unit of a parent product.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Entity
+@Table(name = "product_components")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "bom-components")
+public class ProductComponent {
+
+    @EmbeddedId
+    private Key id = new Key();
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("parentId")
+    @JoinColumn(name = "parent_id")
+    private Product parent;
+
+    // Read-only, as in ProductPart: the key's componentId writes the column
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "component_id", insertable = false, updatable = false)
+    private Product component;
+
+    @Column(nullable = false)
+    private int quantity = 1;
+
+    // Constructors
+    public ProductComponent() {
+        // Default constructor for JPA
+    }
+
+    public ProductComponent(Product parent, Product component, int quantity) {
+        if (component.getId() == null) {
+            throw new IllegalArgumentException("Save product '" + component.getName() + "' before using it as a sub-assembly");
+        }
+        this.parent = parent;
+        this.component = component;
+        this.id.componentId = component.getId();
+        this.quantity = quantity;
+    }
+
+    // Getters and Setters
+    public Key getId() {
+        return id;
+    }
+
+    public Product getParent() {
+        return parent;
+    }
+
+    public Product getComponent() {
+        return component;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductComponent{" +
+                "parentId=" + id.parentId +
+                ", componentId=" + id.componentId +
+                ", quantity=" + quantity +
+                '}';
+    }
+
+    /**
+     * Composite key (parent_id, component_id)
+     */
+    @Embeddable
+    public static class Key implements Serializable {
+
+        private Long parentId;
+        @Column(name = "component_id")
+        private Long componentId;
+
+        public Long getParentId() {
+            return parentId;
+        }
+
+        public Long getComponentId() {
+            return componentId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(parentId, key.parentId) &&
+                    Objects.equals(componentId, key.componentId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(parentId, componentId);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.furniture.inventory.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Bill-of-materials line: how many units of a part go into one unit of a product.
+ * Maps the existing product_parts join table, extended with a quantity column.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Entity
+@Table(name = "product_parts")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "bom-lines")
+public class ProductPart {
+
+    @EmbeddedId
+    private Key id = new Key();
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("productId")
+    @JoinColumn(name = "product_id")
+    private Product product;
+
+    // Read-only: the key's partId writes the column, so saving a line never
+    // cascades into a part loaded in another session
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "part_id", insertable = false, updatable = false)
+    private Part part;
+
+    @Column(nullable = false)
+    @ColumnDefault("1")
+    private int quantity = 1;
+
+    // Constructors
+    public ProductPart() {
+        // Default constructor for JPA
+    }
+
+    public ProductPart(Product product, Part part, int quantity) {
+        if (part.getId() == null) {
+            throw new IllegalArgumentException("Save part '" + part.getName() + "' before adding it to a product");
+        }
+        this.product = product;
+        this.part = part;
+        this.id.partId = part.getId();
+        this.quantity = quantity;
+    }
+
+    // Getters and Setters
+    public Key getId() {
+        return id;
+    }
+
+    public Product getProduct() {
+        return product;
+    }
+
+    public Part getPart() {
+        return part;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    @Override
+    public String toString() {
+        return "ProductPart{" +
+                "productId=" + id.productId +
+                ", partId=" + id.partId +
+                ", quantity=" + quantity +
+                '}';
+    }
+
+    /**
+     * Composite key (product_id, part_id)
+     */
+    @Embeddable
+    public static class Key implements Serializable {
+
+        private Long productId;
+        @Column(name = "part_id")
+        private Long partId;
+
+        public Long getProductId() {
+            return productId;
+        }
+
+        public Long getPartId() {
+            return partId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(productId, key.productId) &&
+                    Objects.equals(partId, key.partId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(productId, partId);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.furniture.inventory.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * How far the write-behind purchase journal has been applied to the product
+ * table. Updated in the same transaction as the inventory it accounts for, so
+ * replaying the journal after a crash never applies a sale twice.
+ * Holds a single row.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Entity
+@Table(name = "purchase_journal_checkpoint")
+public class PurchaseJournalCheckpoint {
+
+    /** Id of the only row */
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+
+    // Constructors
+    public PurchaseJournalCheckpoint() {
+        // Default constructor for JPA
+    }
+
+    // Getters
+    public Integer getId() {
+        return id;
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+}
@@ -0,0 +1,37 @@
+package com.furniture.inventory.entity;
+
+/**
+ * Where a part's inventory stands relative to its minimum and maximum.
+ * Stored on the part row (indexed) so low and overstocked parts can be
+ * listed without comparing columns across the whole table.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public enum StockStatus {
+
+    /** At or below the minimum: nothing more can be consumed, time to reorder */
+    LOW,
+
+    /** Between the minimum and the maximum */
+    NORMAL,
+
+    /** Above the maximum */
+    OVER;
+
+    /**
+     * @param inv current inventory
+     * @param minInv minimum inventory
+     * @param maxInv maximum inventory
+     * @return the status for those levels
+     */
+    public static StockStatus of(int inv, int minInv, int maxInv) {
+        if (inv <= minInv) {
+            return LOW;
+        }
+        if (inv > maxInv) {
+            return OVER;
+        }
+        return NORMAL;
+    }
+}
@@ -0,0 +1,82 @@
+package com.furniture.inventory.importer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Command-line import mode. When started with --import.parts=FILE and/or
+ * --import.products=FILE the files are imported, a summary is printed and the
+ * application exits instead of serving requests:
+ * <pre>
+ * java -jar inventory.jar --spring.main.web-application-type=none --import.parts=catalog.csv
+ * </pre>
+ * Runs before the sample data initializer, so an imported catalog is never mixed with sample data.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class BulkImportRunner implements ApplicationRunner {
+
+    private final BulkImportService importService;
+    private final ConfigurableApplicationContext context;
+
+    @Autowired
+    public BulkImportRunner(BulkImportService importService, ConfigurableApplicationContext context) {
+        this.importService = importService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        List<String> parts = args.getOptionValues("import.parts");
+        List<String> products = args.getOptionValues("import.products");
+        if (parts == null && products == null) {
+            return;
+        }
+
+        int exitCode = 0;
+        // Parts first, so a later product import can refer to them
+        for (String file : parts == null ? List.<String>of() : parts) {
+            exitCode = Math.max(exitCode, importFile(ImportTarget.PARTS, Path.of(file)));
+        }
+        for (String file : products == null ? List.<String>of() : products) {
+            exitCode = Math.max(exitCode, importFile(ImportTarget.PRODUCTS, Path.of(file)));
+        }
+
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    /**
+     * @return 0 if every row was imported, 1 if some were rejected, 2 if the file could not be read
+     */
+    private int importFile(ImportTarget target, Path file) {
+        System.out.println("Importing " + target.name().toLowerCase() + " from " + file + "...");
+        try (InputStream input = Files.newInputStream(file)) {
+            ImportResult result = importService.importFrom(target, ImportFormat.fromFileName(file.toString()), input);
+            System.out.println("Imported " + result.rowsImported() + " of " + result.rowsRead() + " rows in " +
+                    result.elapsedMillis() + " ms (" + result.getRowsPerSecond() + " rows/s)");
+            if (result.errorFile() != null) {
+                System.out.println(result.rowsRejected() + " rows rejected, see " + result.errorFile());
+                return 1;
+            }
+            return 0;
+        } catch (Exception e) {
+            System.err.println("Import of " + file + " failed: " + e.getMessage());
+            return 2;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.furniture.inventory.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furniture.inventory.alert.StockAlertService;
+import com.furniture.inventory.capacity.CapacityService;
+import com.furniture.inventory.entity.MovementType;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.ledger.LedgerService;
+import com.furniture.inventory.purchasing.PurchaseOrderBatcher;
+import com.furniture.inventory.search.NameSearchService;
+import com.furniture.inventory.valuation.ValuationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Bulk loads parts or products from CSV or JSON.
+ *
+ * The input is read as a stream on the calling thread and cut into chunks. Chunks are
+ * validated in parallel on a small worker pool and written back on the calling thread,
+ * in input order, as one JDBC batch per chunk in its own transaction. Only a bounded
+ * number of chunks is in flight at a time, so memory use does not grow with the file.
+ *
+ * Rows that fail validation, or belong to a chunk the database rejected, are written
+ * to a per-import error file with their line number. Chunks already written stay
+ * committed if a later part of the input turns out to be malformed.
+ *
+ * The inserts bypass Hibernate, so the matching second-level cache regions are
+ * evicted, the name search index is rebuilt, and stock alerts and the inventory
+ * valuation are reconciled once the import finishes.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+    private static final DateTimeFormatter FILE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final NameSearchService searchService;
+    private final StockAlertService alertService;
+    private final ValuationService valuationService;
+    private final CapacityService capacityService;
+    private final PurchaseOrderBatcher purchaseOrderBatcher;
+    private final LedgerService ledgerService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${inventory.import.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${inventory.import.parallelism:0}")
+    private int parallelism;
+
+    @Value("${inventory.import.progress-interval:100000}")
+    private long progressInterval;
+
+    @Value("${inventory.import.error-dir:./data/import-errors}")
+    private Path errorDir;
+
+    @Autowired
+    public BulkImportService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             EntityManagerFactory entityManagerFactory,
+                             NameSearchService searchService,
+                             StockAlertService alertService,
+                             ValuationService valuationService,
+                             CapacityService capacityService,
+                             PurchaseOrderBatcher purchaseOrderBatcher,
+                             LedgerService ledgerService,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.searchService = searchService;
+        this.alertService = alertService;
+        this.valuationService = valuationService;
+        this.capacityService = capacityService;
+        this.purchaseOrderBatcher = purchaseOrderBatcher;
+        this.ledgerService = ledgerService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Imports every record of the input
+     *
+     * @param target whether the input holds parts or products
+     * @param format the input format
+     * @param input the input; read to the end but not closed
+     * @return counts and the error file, if any rows were rejected
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    public ImportResult importFrom(ImportTarget target, ImportFormat format, InputStream input) throws IOException {
+        RowMapper mapper = target == ImportTarget.PARTS ? new PartRowMapper() : new ProductRowMapper();
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+
+        Progress progress = new Progress(target);
+        try (RecordReader reader = open(format, input);
+             ErrorFile errors = new ErrorFile(target);
+             ExecutorService pool = Executors.newFixedThreadPool(workers)) {
+
+            Deque<Future<ValidatedChunk>> inFlight = new ArrayDeque<>();
+            List<RawRow> chunk;
+            try {
+                while (!(chunk = readChunk(reader)).isEmpty()) {
+                    progress.read += chunk.size();
+                    List<RawRow> rows = chunk;
+                    inFlight.add(pool.submit(() -> validate(rows, mapper)));
+                    // Keep the workers busy while bounding how much input is held in memory
+                    if (inFlight.size() >= workers * 2) {
+                        write(await(inFlight.poll()), mapper, errors, progress);
+                    }
+                }
+                while (!inFlight.isEmpty()) {
+                    write(await(inFlight.poll()), mapper, errors, progress);
+                }
+            } finally {
+                inFlight.forEach(f -> f.cancel(true));
+            }
+
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            ImportResult result = new ImportResult(target, progress.read, progress.imported, progress.rejected,
+                    elapsedMillis, errors.path == null ? null : errors.path.toString());
+            log.info("Import of {} finished: {} read, {} imported, {} rejected in {} ms ({} rows/s)",
+                    target, result.rowsRead(), result.rowsImported(), result.rowsRejected(),
+                    elapsedMillis, result.getRowsPerSecond());
+            return result;
+        } finally {
+            if (progress.imported > 0) {
+                afterImport(target);
+            }
+            meterRegistry.counter("inventory.import.rows", "target", tag(target), "outcome", "imported")
+                    .increment(progress.imported);
+            meterRegistry.counter("inventory.import.rows", "target", tag(target), "outcome", "rejected")
+                    .increment(progress.rejected);
+        }
+    }
+
+    private RecordReader open(ImportFormat format, InputStream input) throws IOException {
+        if (format == ImportFormat.JSON) {
+            return new JsonRecordReader(objectMapper.getFactory(), input);
+        }
+        return new CsvRecordReader(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16));
+    }
+
+    private List<RawRow> readChunk(RecordReader reader) throws IOException {
+        List<RawRow> chunk = new ArrayList<>(batchSize);
+        RawRow row;
+        while (chunk.size() < batchSize && (row = reader.next()) != null) {
+            chunk.add(row);
+        }
+        return chunk;
+    }
+
+    private static ValidatedChunk validate(List<RawRow> rows, RowMapper mapper) {
+        ValidatedChunk chunk = new ValidatedChunk(rows.size());
+        for (RawRow row : rows) {
+            try {
+                chunk.params.add(mapper.map(row));
+                chunk.lines.add(row.line());
+            } catch (IllegalArgumentException e) {
+                chunk.errors.add(new RowError(row.line(), e.getMessage()));
+            }
+        }
+        return chunk;
+    }
+
+    private void write(ValidatedChunk chunk, RowMapper mapper, ErrorFile errors, Progress progress) throws IOException {
+        for (RowError error : chunk.errors) {
+            errors.write(error.line(), error.message());
+        }
+        progress.rejected += chunk.errors.size();
+
+        if (!chunk.params.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    assignIds(chunk.params, mapper);
+                    jdbcTemplate.batchUpdate(mapper.insertSql(), chunk.params);
+                    recordOpeningStock(chunk.params, mapper);
+                });
+                progress.imported += chunk.params.size();
+            } catch (DataAccessException e) {
+                // The chunk's transaction rolled back as a whole, so every row in it is rejected
+                String message = "Batch rejected by the database: " + e.getMostSpecificCause().getMessage();
+                for (Long line : chunk.lines) {
+                    errors.write(line, message);
+                }
+                progress.rejected += chunk.params.size();
+            }
+        }
+        progress.report();
+    }
+
+    /**
+     * Draws ids from the same pooled sequence Hibernate uses: each sequence value V
+     * reserves the block V-size+1..V, so imported rows never collide with entities
+     * saved through JPA while the import runs
+     */
+    private void assignIds(List<Object[]> params, RowMapper mapper) {
+        String nextValueSql = "SELECT NEXT VALUE FOR " + mapper.idSequence();
+        long next = 1;
+        long hi = 0;
+        for (Object[] row : params) {
+            if (next > hi) {
+                hi = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+                next = Math.max(1, hi - mapper.idAllocationSize() + 1);
+            }
+            row[0] = next++;
+        }
+    }
+
+    /**
+     * Records each imported row's opening inventory in the ledger once the chunk commits
+     */
+    private void recordOpeningStock(List<Object[]> params, RowMapper mapper) {
+        if (mapper.inventoryParam() < 0) {
+            return;
+        }
+        Map<Long, Integer> received = new HashMap<>();
+        for (Object[] row : params) {
+            received.put((Long) row[0], (Integer) row[mapper.inventoryParam()]);
+        }
+        ledgerService.recordAll(mapper.itemType(), MovementType.RECEIVE, received);
+    }
+
+    private void afterImport(ImportTarget target) {
+        Class<?> entity = target == ImportTarget.PARTS ? Part.class : Product.class;
+        entityManagerFactory.getCache().evict(entity);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        searchService.rebuild();
+        if (target == ImportTarget.PARTS) {
+            alertService.reload();
+            purchaseOrderBatcher.load();
+        }
+        valuationService.reconcile();
+        capacityService.rebuild();
+    }
+
+    private static ValidatedChunk await(Future<ValidatedChunk> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Validation failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static String tag(ImportTarget target) {
+        return target.name().toLowerCase(Locale.ROOT);
+    }
+
+    private record RowError(long line, String message) {
+    }
+
+    private static final class ValidatedChunk {
+        final List<Object[]> params;
+        final List<Long> lines;
+        final List<RowError> errors = new ArrayList<>();
+
+        ValidatedChunk(int size) {
+            this.params = new ArrayList<>(size);
+            this.lines = new ArrayList<>(size);
+        }
+    }
+
+    private final class Progress {
+        final ImportTarget target;
+        final long started = System.nanoTime();
+        long read;
+        long imported;
+        long rejected;
+        long nextReport = progressInterval;
+
+        Progress(ImportTarget target) {
+            this.target = target;
+        }
+
+        void report() {
+            long done = imported + rejected;
+            if (progressInterval > 0 && done >= nextReport) {
+                long elapsedMillis = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+                log.info("Importing {}: {} rows done ({} rejected), {} rows/s",
+                        target, done, rejected, imported * 1000 / elapsedMillis);
+                nextReport = done + progressInterval;
+            }
+        }
+    }
+
+    /**
+     * CSV of rejected rows (line, error), created on the first rejection
+     */
+    private final class ErrorFile implements AutoCloseable {
+        final ImportTarget target;
+        Path path;
+        BufferedWriter writer;
+
+        ErrorFile(ImportTarget target) {
+            this.target = target;
+        }
+
+        void write(long line, String message) throws IOException {
+            if (writer == null) {
+                Files.createDirectories(errorDir);
+                path = errorDir.resolve(tag(target) + "-import-" + LocalDateTime.now().format(FILE_STAMP) + "-errors.csv");
+                writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+                writer.write("line,error");
+                writer.newLine();
+            }
+            writer.write(Long.toString(line));
+            writer.write(",\"");
+            writer.write(message == null ? "" : message.replace("\"", "\"\""));
+            writer.write('"');
+            writer.newLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+}
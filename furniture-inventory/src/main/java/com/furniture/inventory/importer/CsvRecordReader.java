@@ -0,0 +1,126 @@
+package com.furniture.inventory.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming CSV reader (RFC 4180): the first record is the header, fields may be
+ * quoted, quotes inside quoted fields are doubled, and quoted fields may span lines.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+class CsvRecordReader implements RecordReader {
+
+    private final Reader reader;
+    private final List<String> header = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    private long line = 1;
+    private int pending = -2;
+
+    CsvRecordReader(Reader reader) throws IOException {
+        this.reader = reader;
+        List<String> columns = readRecord();
+        if (columns == null) {
+            throw new IOException("CSV input is empty; a header row is required");
+        }
+        for (String column : columns) {
+            header.add(RecordReader.normalizeColumn(column));
+        }
+    }
+
+    @Override
+    public RawRow next() throws IOException {
+        List<String> values;
+        long start;
+        do {
+            start = line;
+            values = readRecord();
+            if (values == null) {
+                return null;
+            }
+        } while (values.size() == 1 && values.get(0).isEmpty()); // skip blank lines
+
+        Map<String, String> fields = new HashMap<>(header.size() * 2);
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            fields.put(header.get(i), values.get(i));
+        }
+        if (values.size() > header.size()) {
+            fields.put("#extra", String.valueOf(values.size() - header.size()));
+        }
+        return new RawRow(start, fields);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field at line " + line);
+                }
+                if (c == '"') {
+                    int peek = read();
+                    if (peek == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        unread(peek);
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r') {
+                    int peek = read();
+                    if (peek != '\n') {
+                        unread(peek);
+                    }
+                }
+                if (c != -1) {
+                    line++;
+                }
+                values.add(field.toString());
+                return values;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pending = c;
+    }
+}
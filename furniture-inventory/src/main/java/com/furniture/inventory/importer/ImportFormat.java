@@ -0,0 +1,40 @@
+package com.furniture.inventory.importer;
+
+import java.util.Locale;
+
+/**
+ * File formats accepted by the bulk importer.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public enum ImportFormat {
+
+    /** Comma-separated values with a header row */
+    CSV,
+
+    /** A JSON array of objects, or one object per line */
+    JSON;
+
+    /**
+     * Picks the format from a request content type
+     * @param contentType the Content-Type header, may be null
+     * @return JSON for json content types, CSV otherwise
+     */
+    public static ImportFormat fromContentType(String contentType) {
+        if (contentType != null && contentType.toLowerCase(Locale.ROOT).contains("json")) {
+            return JSON;
+        }
+        return CSV;
+    }
+
+    /**
+     * Picks the format from a file name extension
+     * @param fileName the file name
+     * @return JSON for .json and .ndjson files, CSV otherwise
+     */
+    public static ImportFormat fromFileName(String fileName) {
+        String lower = fileName.toLowerCase(Locale.ROOT);
+        return lower.endsWith(".json") || lower.endsWith(".ndjson") ? JSON : CSV;
+    }
+}
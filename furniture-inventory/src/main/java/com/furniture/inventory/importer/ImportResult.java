@@ -0,0 +1,29 @@
+package com.furniture.inventory.importer;
+
+/**
+ * Summary of a finished bulk import.
+ *
+ * @param target what was imported
+ * @param rowsRead data rows read from the input
+ * @param rowsImported rows written to the database
+ * @param rowsRejected rows that failed validation or could not be written
+ * @param elapsedMillis wall-clock time of the whole import
+ * @param errorFile path of the per-row error file, or null if every row was imported
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public record ImportResult(ImportTarget target,
+                           long rowsRead,
+                           long rowsImported,
+                           long rowsRejected,
+                           long elapsedMillis,
+                           String errorFile) {
+
+    /**
+     * @return rows written per second
+     */
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsImported : rowsImported * 1000 / elapsedMillis;
+    }
+}
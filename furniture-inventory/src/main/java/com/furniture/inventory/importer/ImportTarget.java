@@ -0,0 +1,12 @@
+package com.furniture.inventory.importer;
+
+/**
+ * What a bulk import loads.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public enum ImportTarget {
+    PARTS,
+    PRODUCTS
+}
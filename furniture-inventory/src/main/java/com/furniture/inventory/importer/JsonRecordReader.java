@@ -0,0 +1,64 @@
+package com.furniture.inventory.importer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Streaming JSON reader built on the Jackson token parser, so only the current object
+ * is ever held in memory. Accepts either one top-level array of objects or a sequence
+ * of top-level objects (newline-delimited JSON). Nested values are not supported.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+class JsonRecordReader implements RecordReader {
+
+    private final JsonParser parser;
+    private boolean started;
+
+    JsonRecordReader(JsonFactory factory, InputStream input) throws IOException {
+        this.parser = factory.createParser(input);
+    }
+
+    @Override
+    public RawRow next() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (!started) {
+            started = true;
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            }
+        }
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object at line " + parser.currentLocation().getLineNr());
+        }
+
+        long line = parser.currentLocation().getLineNr();
+        Map<String, String> fields = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = RecordReader.normalizeColumn(parser.currentName());
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                throw new IOException("Nested value for '" + name + "' at line " + parser.currentLocation().getLineNr());
+            }
+            if (value != JsonToken.VALUE_NULL) {
+                fields.put(name, parser.getText());
+            }
+        }
+        return new RawRow(line, fields);
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,85 @@
+package com.furniture.inventory.importer;
+
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.StockStatus;
+
+import java.util.Locale;
+
+/**
+ * Maps part records. Columns: type (inhouse or outsourced), name, price, inv,
+ * minInv, maxInv, and machineId for inhouse or companyName for outsourced parts.
+ * Applies the same rules as the part form: min/max default to 0/100 when both are
+ * missing, and inventory must lie between them.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+class PartRowMapper implements RowMapper {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO part (id, part_type, name, price, inventory_count, min_inventory, max_inventory, " +
+                    "stock_status, machine_id, company_name) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Override
+    public int inventoryParam() {
+        return 4;
+    }
+
+    @Override
+    public ItemType itemType() {
+        return ItemType.PART;
+    }
+
+    @Override
+    public String insertSql() {
+        return INSERT_SQL;
+    }
+
+    @Override
+    public String idSequence() {
+        return "part_seq";
+    }
+
+    @Override
+    public int idAllocationSize() {
+        return Part.ID_ALLOCATION_SIZE;
+    }
+
+    @Override
+    public Object[] map(RawRow row) {
+        if (row.fields().containsKey("#extra")) {
+            throw new IllegalArgumentException("Row has more fields than the header");
+        }
+        String type = RowMapper.requireText(row, "type").toLowerCase(Locale.ROOT);
+        String name = RowMapper.requireText(row, "name");
+        double price = RowMapper.parsePrice(row);
+        int inv = RowMapper.parseInt(row, "inv", 0);
+        int minInv = RowMapper.parseInt(row, "mininv", 0);
+        int maxInv = RowMapper.parseInt(row, "maxinv", 0);
+
+        // Set default min/max values if not provided
+        if (minInv == 0 && maxInv == 0) {
+            maxInv = 100;
+        }
+        if (minInv > maxInv) {
+            throw new IllegalArgumentException("Minimum inventory " + minInv + " exceeds maximum " + maxInv);
+        }
+        if (inv < minInv) {
+            throw new IllegalArgumentException("Inventory cannot be less than minimum inventory: " + minInv);
+        }
+        if (inv > maxInv) {
+            throw new IllegalArgumentException("Inventory cannot exceed maximum inventory: " + maxInv);
+        }
+
+        String status = StockStatus.of(inv, minInv, maxInv).name();
+        return switch (type) {
+            case "inhouse" -> new Object[]{null, "INHOUSE", name, price, inv, minInv, maxInv, status,
+                    RowMapper.parseInt(row, "machineid", 0), null};
+            case "outsourced" -> new Object[]{null, "OUTSOURCED", name, price, inv, minInv, maxInv, status,
+                    null, RowMapper.requireText(row, "companyname")};
+            default -> throw new IllegalArgumentException(
+                    "Unknown part type '" + type + "', expected inhouse or outsourced");
+        };
+    }
+}
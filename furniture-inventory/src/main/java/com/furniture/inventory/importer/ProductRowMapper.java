@@ -0,0 +1,53 @@
+package com.furniture.inventory.importer;
+
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.entity.Product;
+
+/**
+ * Maps product records. Columns: name, price, inv.
+ * Imported products have no parts yet, so as on the product form their
+ * inventory starts at zero and their parts cost is zero.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+class ProductRowMapper implements RowMapper {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO product (id, name, price, inventory_count, parts_total_cost, margin) VALUES (?, ?, ?, ?, ?, ?)";
+
+    @Override
+    public ItemType itemType() {
+        return ItemType.PRODUCT;
+    }
+
+    @Override
+    public String insertSql() {
+        return INSERT_SQL;
+    }
+
+    @Override
+    public String idSequence() {
+        return "product_seq";
+    }
+
+    @Override
+    public int idAllocationSize() {
+        return Product.ID_ALLOCATION_SIZE;
+    }
+
+    @Override
+    public Object[] map(RawRow row) {
+        if (row.fields().containsKey("#extra")) {
+            throw new IllegalArgumentException("Row has more fields than the header");
+        }
+        String name = RowMapper.requireText(row, "name");
+        double price = RowMapper.parsePrice(row);
+        int inv = RowMapper.parseInt(row, "inv", 0);
+        if (inv < 0) {
+            throw new IllegalArgumentException("Inventory cannot be negative: " + inv);
+        }
+        // For new products with no parts, reset inventory to 0
+        return new Object[]{null, name, price, 0, 0.0, price};
+    }
+}
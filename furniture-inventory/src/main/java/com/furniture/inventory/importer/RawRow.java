@@ -0,0 +1,20 @@
+package com.furniture.inventory.importer;
+
+import java.util.Map;
+
+/**
+ * One record read from an import file, before validation.
+ *
+ * @param line line in the input where the record starts
+ * @param fields field values keyed by normalized column name
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+record RawRow(long line, Map<String, String> fields) {
+
+    String get(String column) {
+        String value = fields.get(column);
+        return value == null ? null : value.trim();
+    }
+}
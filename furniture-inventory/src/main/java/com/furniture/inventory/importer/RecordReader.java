@@ -0,0 +1,35 @@
+package com.furniture.inventory.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Streams records out of an import file one at a time, so memory use does not
+ * depend on the size of the file.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+interface RecordReader extends Closeable {
+
+    /**
+     * @return the next record, or null at the end of the input
+     * @throws IOException if the input cannot be read or is malformed
+     */
+    RawRow next() throws IOException;
+
+    /**
+     * Column names are matched case-insensitively, ignoring spaces, dashes and underscores,
+     * so "Min Inv", "min_inv" and "minInv" are the same column
+     */
+    static String normalizeColumn(String column) {
+        StringBuilder normalized = new StringBuilder(column.length());
+        for (int i = 0; i < column.length(); i++) {
+            char c = column.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(Character.toLowerCase(c));
+            }
+        }
+        return normalized.toString();
+    }
+}
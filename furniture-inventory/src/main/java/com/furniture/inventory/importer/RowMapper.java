@@ -0,0 +1,81 @@
+package com.furniture.inventory.importer;
+
+import com.furniture.inventory.entity.ItemType;
+
+/**
+ * Validates an import record and turns it into the parameters of an INSERT.
+ * Implementations are stateless and called from several threads at once.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+interface RowMapper {
+
+    /**
+     * @return what the imported rows are, for the inventory ledger
+     */
+    ItemType itemType();
+
+    /**
+     * @return the INSERT statement the mapped parameters are bound to; the first parameter is the id
+     */
+    String insertSql();
+
+    /**
+     * @return the pooled sequence ids are drawn from
+     */
+    String idSequence();
+
+    /**
+     * @return how many ids one value of {@link #idSequence()} reserves
+     */
+    int idAllocationSize();
+
+    /**
+     * @param row the raw record
+     * @return JDBC parameters in the order of {@link #insertSql()}, with the id slot left null
+     * @throws IllegalArgumentException with a user-facing message if the record is invalid
+     */
+    Object[] map(RawRow row);
+
+    /**
+     * @return index of the opening inventory among the mapped parameters, or -1 if rows start with no stock
+     */
+    default int inventoryParam() {
+        return -1;
+    }
+
+    static String requireText(RawRow row, String column) {
+        String value = row.get(column);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("Missing " + column);
+        }
+        return value;
+    }
+
+    static double parsePrice(RawRow row) {
+        String value = requireText(row, "price");
+        double price;
+        try {
+            price = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid price '" + value + "'");
+        }
+        if (price < 0 || Double.isNaN(price) || Double.isInfinite(price)) {
+            throw new IllegalArgumentException("Price cannot be negative: " + value);
+        }
+        return price;
+    }
+
+    static int parseInt(RawRow row, String column, int defaultValue) {
+        String value = row.get(column);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + " '" + value + "'");
+        }
+    }
+}
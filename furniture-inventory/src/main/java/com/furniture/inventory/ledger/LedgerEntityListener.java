@@ -0,0 +1,59 @@
+package com.furniture.inventory.ledger;
+
+import com.furniture.inventory.entity.InventoryWriteListener;
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.entity.MovementType;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records inventory changes made through the forms in the ledger. Opening
+ * stock and increases are receipts; a part decreased by hand is an adjustment,
+ * and a product decreased by hand is a sale, as the product form treats it.
+ * Bulk JPQL updates (assembly, Buy Now) bypass entity listeners and record
+ * their movements directly.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Component
+@Order(50)
+public class LedgerEntityListener implements InventoryWriteListener {
+
+    private final LedgerService ledgerService;
+
+    @Autowired
+    public LedgerEntityListener(@Lazy LedgerService ledgerService) {
+        this.ledgerService = ledgerService;
+    }
+
+    @Override
+    public void partSaved(Part part) {
+        int change = part.takeInventoryChange();
+        ledgerService.record(ItemType.PART, part.getId(),
+                change > 0 ? MovementType.RECEIVE : MovementType.ADJUST, change);
+    }
+
+    @Override
+    public void productSaved(Product product) {
+        int change = product.takeInventoryChange();
+        ledgerService.record(ItemType.PRODUCT, product.getId(),
+                change > 0 ? MovementType.RECEIVE : MovementType.SALE, change);
+    }
+
+    // Removals write off whatever stock the deleted item still had
+
+    @Override
+    public void partRemoved(Part part) {
+        ledgerService.record(ItemType.PART, part.getId(), MovementType.ADJUST, -part.getInv());
+    }
+
+    @Override
+    public void productRemoved(Product product) {
+        ledgerService.record(ItemType.PRODUCT, product.getId(), MovementType.ADJUST, -product.getInv());
+    }
+}
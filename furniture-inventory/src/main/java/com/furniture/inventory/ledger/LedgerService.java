@@ -0,0 +1,380 @@
+package com.furniture.inventory.ledger;
+
+import com.furniture.inventory.entity.InventoryMovement;
+import com.furniture.inventory.entity.InventorySnapshot;
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.entity.MovementType;
+import com.furniture.inventory.live.StockUpdateBroadcaster;
+import com.furniture.inventory.location.LocationStockService;
+import com.furniture.inventory.repository.InventoryMovementRepository;
+import com.furniture.inventory.repository.InventorySnapshotRepository;
+import com.furniture.inventory.support.TransactionHooks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only inventory ledger.
+ *
+ * Every stock change is inserted as a movement (receive, consume, sale,
+ * adjustment or transfer between locations) in the same transaction as the
+ * change itself, so the ledger commits, rolls back and survives a crash
+ * together with the part and product tables it describes.
+ *
+ * Sequence numbers are handed out when movements are inserted, so a transaction
+ * can commit after one that numbered its movements later. Snapshots therefore
+ * only cover sequence numbers below the oldest transaction still in flight: every
+ * movement at or below that cut has either committed or rolled back.
+ *
+ * A snapshot thread takes incremental snapshots every {@code snapshot-every}
+ * movements or {@code snapshot-interval}, whichever comes first: only items
+ * that moved since the previous snapshot get a new row. The first start takes
+ * a baseline snapshot of the part and product tables.
+ *
+ * A point-in-time query reads the latest snapshot before that time plus the
+ * item's movements after it, so it never replays more than one snapshot
+ * interval of history.
+ *
+ * Being the one place every committed stock change passes through, the ledger
+ * also tells the {@link StockUpdateBroadcaster} which items moved, and hands
+ * changes made to totals without a location to the {@link LocationStockService}
+ * as home stock.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Service
+public class LedgerService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerService.class);
+    private static final long POLL_MILLIS = 200;
+
+    private static final String INSERT_MOVEMENT_SQL =
+            "INSERT INTO inventory_movement (seq, item_type, item_id, movement_type, quantity, location, recorded_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_SNAPSHOT_SQL =
+            "INSERT INTO inventory_snapshot (id, taken_at, last_seq) VALUES (?, ?, ?)";
+    // Parameters in a select list carry no type of their own; H2 needs the casts
+    private static final String BASELINE_ITEMS_SQL =
+            "INSERT INTO inventory_snapshot_item (item_type, item_id, snapshot_id, inv) " +
+                    "SELECT 'PART', id, CAST(? AS BIGINT), inventory_count FROM part " +
+                    "UNION ALL SELECT 'PRODUCT', id, CAST(? AS BIGINT), inventory_count FROM product";
+    // Each item that moved gets its previous snapshot level plus its net movement
+    private static final String SNAPSHOT_ITEMS_SQL =
+            "INSERT INTO inventory_snapshot_item (item_type, item_id, snapshot_id, inv) " +
+                    "SELECT m.item_type, m.item_id, CAST(? AS BIGINT), COALESCE((SELECT s.inv FROM inventory_snapshot_item s " +
+                    "WHERE s.item_type = m.item_type AND s.item_id = m.item_id AND s.snapshot_id = " +
+                    "(SELECT MAX(t.snapshot_id) FROM inventory_snapshot_item t " +
+                    "WHERE t.item_type = m.item_type AND t.item_id = m.item_id)), 0) + m.delta " +
+                    "FROM (SELECT item_type, item_id, SUM(quantity) AS delta FROM inventory_movement " +
+                    "WHERE seq > ? AND seq <= ? GROUP BY item_type, item_id) m";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryMovementRepository movementRepository;
+    private final InventorySnapshotRepository snapshotRepository;
+    private final StockUpdateBroadcaster broadcaster;
+    private final LocationStockService locationStockService;
+    private final MeterRegistry meterRegistry;
+
+    private final long snapshotEvery;
+    private final Duration snapshotInterval;
+
+    // Guards sequence allocation; inFlight holds the first sequence number of
+    // every insert whose transaction has not completed yet
+    private final Object seqLock = new Object();
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+    private long nextSeq;
+
+    private volatile boolean running;
+    private Thread snapshotter;
+
+    // Owned by the snapshot thread once it starts
+    private long lastSnapshotId;
+    private long lastSnapshotSeq;
+    private Instant lastSnapshotAt;
+
+    @Autowired
+    public LedgerService(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         InventoryMovementRepository movementRepository,
+                         InventorySnapshotRepository snapshotRepository,
+                         StockUpdateBroadcaster broadcaster,
+                         @Lazy LocationStockService locationStockService,
+                         MeterRegistry meterRegistry,
+                         @Value("${inventory.ledger.snapshot-every:100000}") long snapshotEvery,
+                         @Value("${inventory.ledger.snapshot-interval:PT1H}") Duration snapshotInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.movementRepository = movementRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.broadcaster = broadcaster;
+        this.locationStockService = locationStockService;
+        this.meterRegistry = meterRegistry;
+        this.snapshotEvery = snapshotEvery;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * Records a change to one item's stock in the current transaction
+     * @param itemType part or product
+     * @param itemId the item ID
+     * @param movementType why the stock changed
+     * @param quantity signed change; zero records nothing
+     */
+    public void record(ItemType itemType, Long itemId, MovementType movementType, int quantity) {
+        if (quantity != 0) {
+            recordAll(itemType, movementType, Map.of(itemId, quantity));
+        }
+    }
+
+    /**
+     * Records the same kind of change to several items in the current transaction
+     * @param itemType part or product
+     * @param movementType why the stock changed
+     * @param quantities item ID to signed change
+     */
+    public void recordAll(ItemType itemType, MovementType movementType, Map<Long, Integer> quantities) {
+        recordAll(itemType, null, movementType, quantities);
+    }
+
+    /**
+     * Records the same kind of change to several items at one location in the current
+     * transaction; home stock and live screens are told once it commits
+     * @param itemType part or product
+     * @param location the location; null for a change made to the items' totals, which is credited to home stock
+     * @param movementType why the stock changed
+     * @param quantities item ID to signed change
+     */
+    public void recordAll(ItemType itemType, String location, MovementType movementType, Map<Long, Integer> quantities) {
+        Map<Long, Integer> changes = Map.copyOf(quantities);
+        insert(itemType, location, movementType, changes);
+        TransactionHooks.afterCommit(() -> {
+            if (location == null) {
+                locationStockService.onTotalChanged(itemType, changes);
+            }
+            broadcaster.changed(itemType, changes.keySet());
+        });
+    }
+
+    /**
+     * Reads an item's stock at a point in time from the latest snapshot before it
+     * plus the movements since
+     * @param itemType part or product
+     * @param itemId the item ID
+     * @param at point in time
+     * @return the stock level, or empty if the ledger started after that time
+     */
+    @Transactional(readOnly = true)
+    public OptionalInt stockAt(ItemType itemType, Long itemId, Instant at) {
+        return snapshotRepository.findTopByTakenAtLessThanEqualOrderByIdDesc(at)
+                .map(snapshot -> {
+                    int base = snapshotRepository.findItemLevel(itemType, itemId, snapshot.getId()).orElse(0);
+                    long change = movementRepository.sumChangeSince(itemType, itemId, snapshot.getLastSeq(), at);
+                    return OptionalInt.of(Math.toIntExact(base + change));
+                })
+                .orElse(OptionalInt.empty());
+    }
+
+    /**
+     * @param itemType part or product
+     * @param itemId the item ID
+     * @param limit maximum number of movements
+     * @return the item's most recent movements, newest first
+     */
+    @Transactional(readOnly = true)
+    public List<InventoryMovement> history(ItemType itemType, Long itemId, int limit) {
+        return movementRepository.findByItemTypeAndItemIdOrderBySeqDesc(itemType, itemId, PageRequest.of(0, limit));
+    }
+
+    @Override
+    public synchronized void start() {
+        InventorySnapshot latest = snapshotRepository.findTopByOrderByIdDesc().orElse(null);
+        if (latest == null) {
+            takeBaseline();
+        } else {
+            lastSnapshotId = latest.getId();
+            lastSnapshotSeq = latest.getLastSeq();
+            lastSnapshotAt = latest.getTakenAt();
+        }
+        running = true;
+        snapshotter = new Thread(this::snapshotLoop, "inventory-ledger-snapshots");
+        snapshotter.setDaemon(true);
+        snapshotter.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (snapshotter != null) {
+            snapshotter.interrupt();
+            try {
+                snapshotter.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            snapshotter = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Start before and stop after the components that record movements
+        return SmartLifecycle.DEFAULT_PHASE - 1;
+    }
+
+    private void insert(ItemType itemType, String location, MovementType movementType, Map<Long, Integer> changes) {
+        List<Object[]> params = new ArrayList<>(changes.size());
+        Object recordedAt = Instant.now().atOffset(ZoneOffset.UTC);
+        changes.forEach((itemId, quantity) -> {
+            if (quantity != 0) {
+                params.add(new Object[]{null, itemType.name(), itemId, movementType.name(), quantity, location, recordedAt});
+            }
+        });
+        if (params.isEmpty()) {
+            return;
+        }
+        long first = allocate(params.size());
+        for (int i = 0; i < params.size(); i++) {
+            params.get(i)[0] = first + i;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // Rolled back or committed, the numbers stop holding the snapshot cut back
+            TransactionHooks.afterCompletion(() -> completed(first));
+            jdbcTemplate.batchUpdate(INSERT_MOVEMENT_SQL, params);
+        } else {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_MOVEMENT_SQL, params);
+            } finally {
+                completed(first);
+            }
+        }
+        meterRegistry.counter("inventory.ledger.movements").increment(params.size());
+    }
+
+    private long allocate(int count) {
+        synchronized (seqLock) {
+            long first = loadSeq();
+            nextSeq += count;
+            inFlight.add(first);
+            return first;
+        }
+    }
+
+    // Callers hold seqLock
+    private long loadSeq() {
+        if (nextSeq == 0) {
+            nextSeq = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(seq), 0) FROM inventory_movement", Long.class) + 1;
+        }
+        return nextSeq;
+    }
+
+    private void completed(long first) {
+        synchronized (seqLock) {
+            inFlight.remove(first);
+        }
+    }
+
+    /**
+     * @return the highest sequence number below every transaction still in flight
+     */
+    private long committedCut() {
+        synchronized (seqLock) {
+            return inFlight.isEmpty() ? loadSeq() - 1 : inFlight.first() - 1;
+        }
+    }
+
+    private void snapshotLoop() {
+        while (running) {
+            try {
+                Thread.sleep(POLL_MILLIS);
+                long cut = committedCut();
+                if (snapshotDue(cut)) {
+                    takeSnapshot(cut);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Keep the thread alive; a failed snapshot is simply retried on the next pass
+                log.error("Inventory ledger snapshot failed", e);
+            }
+        }
+    }
+
+    private boolean snapshotDue(long cut) {
+        long pending = cut - lastSnapshotSeq;
+        return pending >= snapshotEvery
+                || (pending > 0 && Duration.between(lastSnapshotAt, Instant.now()).compareTo(snapshotInterval) >= 0);
+    }
+
+    private void takeBaseline() {
+        long snapshotId = lastSnapshotId + 1;
+        Instant takenAt = Instant.now();
+        long upToSeq;
+        while (true) {
+            synchronized (seqLock) {
+                // The tables only agree with the movements once nothing is in flight
+                if (inFlight.isEmpty()) {
+                    long cut = loadSeq() - 1;
+                    transactionTemplate.executeWithoutResult(status -> {
+                        jdbcTemplate.update(BASELINE_ITEMS_SQL, snapshotId, snapshotId);
+                        jdbcTemplate.update(INSERT_SNAPSHOT_SQL, snapshotId, takenAt.atOffset(ZoneOffset.UTC), cut);
+                    });
+                    upToSeq = cut;
+                    break;
+                }
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        lastSnapshotId = snapshotId;
+        lastSnapshotSeq = upToSeq;
+        lastSnapshotAt = takenAt;
+        log.info("Inventory ledger started with baseline snapshot {}", snapshotId);
+    }
+
+    private void takeSnapshot(long upToSeq) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long snapshotId = lastSnapshotId + 1;
+        Instant takenAt = Instant.now();
+        Integer items = transactionTemplate.execute(status -> {
+            int rows = jdbcTemplate.update(SNAPSHOT_ITEMS_SQL, snapshotId, lastSnapshotSeq, upToSeq);
+            jdbcTemplate.update(INSERT_SNAPSHOT_SQL, snapshotId, takenAt.atOffset(ZoneOffset.UTC), upToSeq);
+            return rows;
+        });
+        lastSnapshotId = snapshotId;
+        lastSnapshotSeq = upToSeq;
+        lastSnapshotAt = takenAt;
+        sample.stop(meterRegistry.timer("inventory.ledger.snapshot"));
+        log.info("Inventory ledger snapshot {} covers movements up to {} ({} items moved)", snapshotId, upToSeq, items);
+    }
+}
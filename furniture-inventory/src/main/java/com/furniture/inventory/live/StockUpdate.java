@@ -0,0 +1,22 @@
+package com.furniture.inventory.live;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.entity.StockStatus;
+
+/**
+ * The current stock of one part or product, as pushed to live screens.
+ *
+ * @param type part or product
+ * @param id the item ID
+ * @param inv current inventory, or null if the item was deleted
+ * @param status stock status of a part; null for products
+ * @param buildable units of a product that can be assembled from part stock; null for parts
+ *        and for products without a bill of materials
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record StockUpdate(ItemType type, Long id, Integer inv, StockStatus status, Long buildable) {
+}
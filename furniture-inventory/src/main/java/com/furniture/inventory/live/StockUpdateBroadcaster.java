@@ -0,0 +1,355 @@
+package com.furniture.inventory.live;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furniture.inventory.capacity.BuildableQuantity;
+import com.furniture.inventory.capacity.CapacityService;
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.entity.StockStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pushes live stock levels to the main screen over server-sent events.
+ *
+ * Committed stock movements only mark the item as changed. Every
+ * {@code interval} the broadcaster reads the current level of the changed items
+ * in one query per table, serializes the result once, and fans the same event
+ * out to every subscriber. A burst of sales on one product costs one row in one
+ * event, however many screens are open.
+ *
+ * Idle subscribers hold no thread: emitters are async servlet responses, and
+ * events are written on a virtual thread per subscriber. A subscriber still
+ * writing the previous event queues new ones, so a slow client never delays
+ * the others; one that falls more than {@code replay-events} behind is told to
+ * reload instead. So is everyone when more than {@code max-items} items changed
+ * in one interval, such as during a bulk import.
+ *
+ * Events carry sequence numbers and the last {@code replay-events} are kept, so
+ * a reconnecting client that sends Last-Event-ID catches up without reloading.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Service
+public class StockUpdateBroadcaster implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(StockUpdateBroadcaster.class);
+    private static final long STREAM_TIMEOUT_MILLIS = 30 * 60 * 1000L;
+    private static final long HEARTBEAT_MILLIS = 25_000;
+    private static final int QUERY_CHUNK = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CapacityService capacityService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration interval;
+    private final int maxItems;
+    private final int replayEvents;
+
+    private final Map<ItemType, Set<Long>> changed = new EnumMap<>(ItemType.class);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Deque<Event> recent = new ArrayDeque<>();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    private ScheduledExecutorService ticker;
+    private volatile boolean running;
+    private long lastHeartbeat;
+
+    @Autowired
+    public StockUpdateBroadcaster(JdbcTemplate jdbcTemplate,
+                                  @Lazy CapacityService capacityService,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${inventory.live.interval:250ms}") Duration interval,
+                                  @Value("${inventory.live.max-items:2000}") int maxItems,
+                                  @Value("${inventory.live.replay-events:256}") int replayEvents) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.capacityService = capacityService;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.interval = interval;
+        this.maxItems = maxItems;
+        this.replayEvents = replayEvents;
+        for (ItemType itemType : ItemType.values()) {
+            changed.put(itemType, ConcurrentHashMap.newKeySet());
+        }
+        meterRegistry.gauge("inventory.live.subscribers", subscribers, List::size);
+    }
+
+    /**
+     * Marks items whose stock changed; call after the change has committed
+     * @param itemType part or product
+     * @param itemIds the items that moved
+     */
+    public void changed(ItemType itemType, Collection<Long> itemIds) {
+        changed.get(itemType).addAll(itemIds);
+    }
+
+    /**
+     * Opens a live stock stream
+     * @param lastEventId the Last-Event-ID sent by a reconnecting client, or null
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        Subscriber subscriber = new Subscriber(new SseEmitter(STREAM_TIMEOUT_MILLIS));
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+        if (lastEventId != null && lastEventId < sequence.get()) {
+            List<Event> missed = since(lastEventId);
+            if (missed == null) {
+                subscriber.lagging = true;
+            } else {
+                subscriber.backlog.addAll(missed);
+            }
+        }
+        subscribers.add(subscriber);
+        return subscriber.emitter;
+    }
+
+    /**
+     * Reads the levels of the items changed since the last call and sends them to
+     * every subscriber. Runs every interval; safe to call at any time.
+     */
+    public synchronized void publish() {
+        Map<ItemType, Set<Long>> batch = new EnumMap<>(ItemType.class);
+        int total = 0;
+        for (ItemType itemType : ItemType.values()) {
+            Set<Long> ids = changed.get(itemType);
+            Set<Long> taken = new HashSet<>(ids);
+            ids.removeAll(taken);
+            batch.put(itemType, taken);
+            total += taken.size();
+        }
+
+        Event event = null;
+        if (total > maxItems) {
+            // Cheaper for every screen to reload than to patch this many rows
+            sequence.incrementAndGet();
+            synchronized (recent) {
+                // Nothing before this point can be replayed any more
+                recent.clear();
+            }
+            subscribers.forEach(s -> s.lagging = true);
+        } else if (total > 0) {
+            event = new Event(sequence.incrementAndGet(), serialize(levels(batch)));
+            remember(event);
+            meterRegistry.summary("inventory.live.items").record(total);
+        }
+
+        long now = System.currentTimeMillis();
+        boolean heartbeat = now - lastHeartbeat >= HEARTBEAT_MILLIS;
+        for (Subscriber subscriber : subscribers) {
+            deliver(subscriber, event, heartbeat);
+        }
+        if (heartbeat) {
+            lastHeartbeat = now;
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "live-stock-broadcaster");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        ticker.scheduleWithFixedDelay(this::publishSafely, millis, millis, TimeUnit.MILLISECONDS);
+        lastHeartbeat = System.currentTimeMillis();
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+        subscribers.forEach(s -> s.emitter.complete());
+        subscribers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void publishSafely() {
+        try {
+            publish();
+        } catch (RuntimeException e) {
+            // Keep the ticker alive; the next interval picks up new changes
+            log.warn("Live stock broadcast failed", e);
+        }
+    }
+
+    private List<StockUpdate> levels(Map<ItemType, Set<Long>> batch) {
+        List<StockUpdate> updates = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        RowCallbackHandler partRows = rs -> {
+            String status = rs.getString(3);
+            seen.add(rs.getLong(1));
+            updates.add(new StockUpdate(ItemType.PART, rs.getLong(1), rs.getInt(2),
+                    status == null ? null : StockStatus.valueOf(status), null));
+        };
+        RowCallbackHandler productRows = rs -> {
+            seen.add(rs.getLong(1));
+            Long buildable = capacityService.buildable(rs.getLong(1)).map(BuildableQuantity::units).orElse(null);
+            updates.add(new StockUpdate(ItemType.PRODUCT, rs.getLong(1), rs.getInt(2), null, buildable));
+        };
+        read(ItemType.PART, batch.get(ItemType.PART),
+                "SELECT id, inventory_count, stock_status FROM part WHERE id IN (", partRows, seen, updates);
+        read(ItemType.PRODUCT, batch.get(ItemType.PRODUCT),
+                "SELECT id, inventory_count FROM product WHERE id IN (", productRows, seen, updates);
+        return updates;
+    }
+
+    private void read(ItemType itemType, Set<Long> ids, String select, RowCallbackHandler rows,
+                      Set<Long> seen, List<StockUpdate> updates) {
+        for (List<Long> chunk : chunks(ids)) {
+            seen.clear();
+            jdbcTemplate.query(select + placeholders(chunk) + ")", rows, chunk.toArray());
+            for (Long id : chunk) {
+                if (!seen.contains(id)) {
+                    // Deleted since it moved
+                    updates.add(new StockUpdate(itemType, id, null, null, null));
+                }
+            }
+        }
+    }
+
+    private void deliver(Subscriber subscriber, Event event, boolean heartbeat) {
+        if (event != null) {
+            subscriber.backlog.addLast(event);
+        }
+        if (!heartbeat && !subscriber.lagging && subscriber.backlog.isEmpty()) {
+            return;
+        }
+        if (!subscriber.busy.compareAndSet(false, true)) {
+            return;
+        }
+        senders.execute(() -> {
+            try {
+                if (subscriber.lagging) {
+                    subscriber.lagging = false;
+                    subscriber.backlog.clear();
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(Long.toString(sequence.get()))
+                            .name("reload")
+                            .data("{}", MediaType.APPLICATION_JSON));
+                } else if (subscriber.backlog.isEmpty()) {
+                    subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+                Event next;
+                while ((next = subscriber.backlog.pollFirst()) != null) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .id(Long.toString(next.sequence()))
+                            .name("stock")
+                            .data(next.json(), MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(subscriber);
+            } finally {
+                subscriber.busy.set(false);
+            }
+            if (subscriber.backlog.size() > replayEvents) {
+                subscriber.lagging = true;
+            }
+        });
+    }
+
+    private void remember(Event event) {
+        synchronized (recent) {
+            recent.addLast(event);
+            if (recent.size() > replayEvents) {
+                recent.removeFirst();
+            }
+        }
+    }
+
+    /**
+     * @return events after the given sequence number, or null if some are no longer kept
+     */
+    private List<Event> since(long after) {
+        synchronized (recent) {
+            if (recent.isEmpty() || recent.peekFirst().sequence() > after + 1) {
+                return null;
+            }
+            return recent.stream().filter(e -> e.sequence() > after).toList();
+        }
+    }
+
+    private String serialize(List<StockUpdate> updates) {
+        try {
+            return objectMapper.writeValueAsString(updates);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize stock updates", e);
+        }
+    }
+
+    private static List<List<Long>> chunks(Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> all = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += QUERY_CHUNK) {
+            chunks.add(all.subList(from, Math.min(from + QUERY_CHUNK, all.size())));
+        }
+        return chunks;
+    }
+
+    private static String placeholders(List<Long> ids) {
+        return String.join(",", Collections.nCopies(ids.size(), "?"));
+    }
+
+    private record Event(long sequence, String json) {
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Deque<Event> backlog = new ConcurrentLinkedDeque<>();
+        private final AtomicBoolean busy = new AtomicBoolean();
+        private volatile boolean lagging;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
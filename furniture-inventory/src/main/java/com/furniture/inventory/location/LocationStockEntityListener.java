@@ -0,0 +1,41 @@
+package com.furniture.inventory.location;
+
+import com.furniture.inventory.entity.InventoryWriteListener;
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops a deleted part's or product's stock at every location. Saves need
+ * nothing here: their change to the total reaches the home location through
+ * the ledger. Ordered after the ledger listener, so the write-off is recorded
+ * before the item's counter is dropped.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Component
+@Order(80)
+public class LocationStockEntityListener implements InventoryWriteListener {
+
+    private final LocationStockService locationStockService;
+
+    @Autowired
+    public LocationStockEntityListener(@Lazy LocationStockService locationStockService) {
+        this.locationStockService = locationStockService;
+    }
+
+    @Override
+    public void partRemoved(Part part) {
+        locationStockService.remove(ItemType.PART, part.getId());
+    }
+
+    @Override
+    public void productRemoved(Product product) {
+        locationStockService.remove(ItemType.PRODUCT, product.getId());
+    }
+}
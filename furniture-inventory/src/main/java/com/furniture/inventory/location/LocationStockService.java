@@ -0,0 +1,806 @@
+package com.furniture.inventory.location;
+
+import com.furniture.inventory.alert.StockAlertService;
+import com.furniture.inventory.capacity.CapacityService;
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.entity.MovementType;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.ledger.LedgerService;
+import com.furniture.inventory.live.StockUpdateBroadcaster;
+import com.furniture.inventory.purchase.PurchaseBuffer;
+import com.furniture.inventory.support.TransactionHooks;
+import com.furniture.inventory.valuation.ValuationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stock per location for parts and products.
+ *
+ * The locations are {@code inventory.location.codes}; the first is the home
+ * location. Stock at every other location is a row in {@code location_stock},
+ * so sales and receipts at different sites lock different rows. The home
+ * location holds whatever part of the item's total is not held elsewhere,
+ * which keeps everything that only knows totals (the forms, bulk import,
+ * write-behind Buy Now) working against home stock.
+ *
+ * The item's {@code inventory_count} stays the global total that alerting,
+ * valuation, capacity and planning read, but a change at another location does
+ * not touch it: it is added to the row's {@code unfolded} column instead, in the
+ * same statement. Every {@code fold-interval} the unfolded changes of the items
+ * that moved are added to their totals in one batch, so the total is one shard
+ * update per item per interval rather than one per sale. Unfolded changes are
+ * durable; those left by a crash are folded at startup.
+ *
+ * Each item's stock is also held in memory as a {@link StripedStockCounter},
+ * loaded on first use. It is what routing reads, and a take reserves units from
+ * it before writing, so concurrent takes never both get the last unit; the
+ * conditional UPDATEs are the backstop. Changes made to totals without a
+ * location reach the home cell through the ledger.
+ *
+ * While write-behind Buy Now is accepting, a product's home stock is also sold
+ * from the {@link PurchaseBuffer} counter, whose sales reach the totals (and
+ * the home cell) only when flushed. Routing therefore reads home product stock
+ * through the buffer, and takes and transfers of it withhold their units from
+ * the buffer first.
+ *
+ * Metrics: {@code inventory.location.fold} times each fold batch and
+ * {@code inventory.location.unfolded} counts items waiting to be folded.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Service
+public class LocationStockService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(LocationStockService.class);
+    private static final int HOME = 0;
+    private static final int FOLD_CHUNK = 500;
+    private static final long FOLD_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final String ROWS_SQL =
+            "SELECT location, quantity, unfolded FROM location_stock WHERE item_type = ? AND item_id = ?";
+    private static final String TAKE_SQL = "UPDATE location_stock SET quantity = quantity - ?, unfolded = unfolded - ? " +
+            "WHERE location = ? AND item_type = ? AND item_id = ? AND quantity >= ?";
+    private static final String ADD_SQL = "UPDATE location_stock SET quantity = quantity + ?, unfolded = unfolded + ? " +
+            "WHERE location = ? AND item_type = ? AND item_id = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO location_stock (location, item_type, item_id, quantity, unfolded) VALUES (?, ?, ?, ?, ?)";
+    private static final String DELETE_SQL = "DELETE FROM location_stock WHERE item_type = ? AND item_id = ?";
+    private static final String UNFOLDED_ITEMS_SQL =
+            "SELECT DISTINCT item_type, item_id FROM location_stock WHERE unfolded <> 0";
+    private static final String UNFOLDED_ROWS_SQL = "SELECT item_id, location, unfolded FROM location_stock " +
+            "WHERE item_type = :itemType AND item_id IN (:ids) AND unfolded <> 0";
+    // Subtracts what was read rather than zeroing, so changes made during the fold stay unfolded
+    private static final String FOLDED_SQL =
+            "UPDATE location_stock SET unfolded = unfolded - ? WHERE location = ? AND item_type = ? AND item_id = ?";
+    // The part's stock status follows its total, as in Part.getStockStatus
+    private static final String PART_TOTAL_SQL = "UPDATE part SET inventory_count = inventory_count + ?, " +
+            "version = version + 1, stock_status = CASE WHEN inventory_count + ? <= min_inventory THEN 'LOW' " +
+            "WHEN inventory_count + ? > max_inventory THEN 'OVER' ELSE 'NORMAL' END WHERE id = ?";
+    private static final String PRODUCT_TOTAL_SQL =
+            "UPDATE product SET inventory_count = inventory_count + ?, version = version + 1 WHERE id = ?";
+    private static final String IN_STOCK = " AND inventory_count + ? >= 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final LedgerService ledgerService;
+    private final ValuationService valuationService;
+    private final StockAlertService alertService;
+    private final CapacityService capacityService;
+    private final StockUpdateBroadcaster broadcaster;
+    private final ObjectProvider<PurchaseBuffer> purchaseBuffer;
+    private final MeterRegistry meterRegistry;
+    private final List<String> locations;
+    private final Duration foldInterval;
+
+    private final Map<Long, StripedStockCounter> partCounters = new ConcurrentHashMap<>();
+    private final Map<Long, StripedStockCounter> productCounters = new ConcurrentHashMap<>();
+    // Items with changes at other locations not yet folded into their totals
+    private final Set<Long> unfoldedParts = ConcurrentHashMap.newKeySet();
+    private final Set<Long> unfoldedProducts = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock foldLock = new ReentrantLock();
+    // Odd while a fold is writing
+    private final AtomicLong foldSeq = new AtomicLong();
+
+    private ScheduledExecutorService folder;
+    private volatile boolean running;
+
+    @Autowired
+    public LocationStockService(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                EntityManagerFactory entityManagerFactory,
+                                LedgerService ledgerService,
+                                ValuationService valuationService,
+                                StockAlertService alertService,
+                                CapacityService capacityService,
+                                StockUpdateBroadcaster broadcaster,
+                                ObjectProvider<PurchaseBuffer> purchaseBuffer,
+                                MeterRegistry meterRegistry,
+                                @Value("${inventory.location.codes:MAIN}") String[] codes,
+                                @Value("${inventory.location.fold-interval:1s}") Duration foldInterval) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.ledgerService = ledgerService;
+        this.valuationService = valuationService;
+        this.alertService = alertService;
+        this.capacityService = capacityService;
+        this.broadcaster = broadcaster;
+        this.purchaseBuffer = purchaseBuffer;
+        this.meterRegistry = meterRegistry;
+        this.locations = Arrays.stream(codes).map(LocationStockService::normalize)
+                .filter(code -> !code.isEmpty()).distinct().toList();
+        if (locations.isEmpty() || locations.stream().anyMatch(code -> code.length() > 20)) {
+            throw new IllegalArgumentException("inventory.location.codes needs at least one code of up to 20 characters");
+        }
+        this.foldInterval = foldInterval;
+        meterRegistry.gauge("inventory.location.unfolded", this, s -> s.unfoldedParts.size() + s.unfoldedProducts.size());
+    }
+
+    /**
+     * @return the location codes, home location first
+     */
+    public List<String> locations() {
+        return locations;
+    }
+
+    /**
+     * @return the home location, which holds all stock not placed elsewhere
+     */
+    public String home() {
+        return locations.get(HOME);
+    }
+
+    /**
+     * @param itemType part or product
+     * @param itemId the item ID
+     * @return units at each location, in location order, or empty if there is no such item
+     */
+    public Optional<Map<String, Integer>> stock(ItemType itemType, Long itemId) {
+        StripedStockCounter counter = counter(itemType, itemId);
+        if (counter == null) {
+            return Optional.empty();
+        }
+        Map<String, Integer> stock = new LinkedHashMap<>();
+        for (int i = 0; i < locations.size(); i++) {
+            stock.put(locations.get(i), counter.get(i));
+        }
+        return Optional.of(stock);
+    }
+
+    /**
+     * The item's total across locations, including changes not yet folded into
+     * its stored inventory and, for products, less the write-behind sales not
+     * flushed yet; read from memory once the item is loaded
+     * @param itemType part or product
+     * @param itemId the item ID
+     * @return the total, or empty if there is no such item
+     */
+    public OptionalLong total(ItemType itemType, Long itemId) {
+        StripedStockCounter counter = counter(itemType, itemId);
+        if (counter == null) {
+            return OptionalLong.empty();
+        }
+        PurchaseBuffer buffer = itemType == ItemType.PRODUCT ? purchaseBuffer.getIfAvailable() : null;
+        return OptionalLong.of(counter.sum() - (buffer == null ? 0 : buffer.unflushed(itemId)));
+    }
+
+    /**
+     * Picks the location to take units from: the preferred location if it has
+     * them, else home, else the first other location that has them
+     * @param itemType part or product
+     * @param itemId the item ID
+     * @param quantity units needed
+     * @param preferred location to try first; may be null
+     * @return the location, or empty if none has enough or there is no such item
+     */
+    public Optional<String> route(ItemType itemType, Long itemId, int quantity, String preferred) {
+        return route(itemType, Map.of(itemId, (long) quantity), preferred);
+    }
+
+    /**
+     * Picks one location that has all of several items, in the order of
+     * {@link #route(ItemType, Long, int, String)}
+     * @param itemType part or product
+     * @param quantities item ID to units needed
+     * @param preferred location to try first; may be null
+     * @return the location, or empty if no single location has them all
+     */
+    public Optional<String> route(ItemType itemType, Map<Long, Long> quantities, String preferred) {
+        Map<Long, StripedStockCounter> counters = new HashMap<>();
+        for (Long itemId : quantities.keySet()) {
+            StripedStockCounter counter = counter(itemType, itemId);
+            if (counter == null) {
+                return Optional.empty();
+            }
+            counters.put(itemId, counter);
+        }
+        List<Integer> order = new ArrayList<>();
+        if (preferred != null) {
+            order.add(index(preferred));
+        }
+        for (int i = 0; i < locations.size(); i++) {
+            if (!order.contains(i)) {
+                order.add(i);
+            }
+        }
+        for (int index : order) {
+            if (quantities.entrySet().stream()
+                    .allMatch(e -> available(itemType, e.getKey(), counters.get(e.getKey()), index) >= e.getValue())) {
+                return Optional.of(locations.get(index));
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Takes units of several items from one location, all or nothing. Joins the
+     * current transaction if there is one.
+     * @param itemType part or product
+     * @param location the location to take from
+     * @param quantities item ID to units to take
+     * @param movementType the ledger movement to record, usually SALE or CONSUME
+     * @return whether the units were taken; false if the location is short of any
+     *         item, in which case nothing was written
+     */
+    public boolean take(ItemType itemType, String location, Map<Long, Long> quantities, MovementType movementType) {
+        int index = index(location);
+        // Written as configured, whatever case the caller used
+        String code = locations.get(index);
+        // Reserve in memory first, so concurrent takes never both get the last units
+        List<Reservation> reservations = new ArrayList<>();
+        for (Map.Entry<Long, Long> entry : quantities.entrySet()) {
+            StripedStockCounter counter = counter(itemType, entry.getKey());
+            int quantity = Math.toIntExact(entry.getValue());
+            Optional<Runnable> giveBack = counter == null ? Optional.empty() : withhold(itemType, entry.getKey(), index, quantity);
+            if (giveBack.isEmpty() || !counter.tryTake(index, quantity)) {
+                giveBack.ifPresent(Runnable::run);
+                reservations.forEach(Reservation::release);
+                return false;
+            }
+            reservations.add(new Reservation(itemType, entry.getKey(), counter, index, quantity, giveBack.get()));
+        }
+        try {
+            Boolean taken = transactionTemplate.execute(status -> {
+                List<Object[]> params = new ArrayList<>();
+                for (Reservation r : reservations) {
+                    params.add(index == HOME
+                            ? totalParams(itemType, r.itemId, -r.quantity, true)
+                            : new Object[]{r.quantity, r.quantity, code, itemType.name(), r.itemId, r.quantity});
+                }
+                int[] counts = jdbcTemplate.batchUpdate(index == HOME ? totalSql(itemType, true) : TAKE_SQL, params);
+                if (Arrays.stream(counts).anyMatch(count -> count == 0)) {
+                    undo(itemType, code, reservations, counts);
+                    return false;
+                }
+                TransactionHooks.onRollback(() -> reservations.forEach(Reservation::release));
+
+                Map<Long, Integer> changes = new HashMap<>();
+                reservations.forEach(r -> changes.put(r.itemId, -r.quantity));
+                ledgerService.recordAll(itemType, code, movementType, changes);
+                if (index == HOME) {
+                    reportTotals(itemType, changes);
+                } else {
+                    TransactionHooks.afterCommit(() -> unfolded(itemType).addAll(changes.keySet()));
+                }
+                return true;
+            });
+            if (!Boolean.TRUE.equals(taken)) {
+                reservations.forEach(Reservation::release);
+            }
+            return Boolean.TRUE.equals(taken);
+        } catch (RuntimeException e) {
+            reservations.forEach(Reservation::release);
+            throw e;
+        }
+    }
+
+    /**
+     * Adds units of an item at a location. Joins the current transaction if there is one.
+     * @param itemType part or product
+     * @param itemId the item ID
+     * @param location the receiving location
+     * @param quantity units received
+     * @throws IllegalArgumentException if the quantity is not positive, the location
+     *         is unknown or there is no such item
+     */
+    public void receive(ItemType itemType, Long itemId, String location, int quantity) {
+        int index = index(location);
+        // Written as configured, whatever case the caller used
+        String code = locations.get(index);
+        StripedStockCounter counter = requireCounter(itemType, itemId, quantity);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (index == HOME) {
+                jdbcTemplate.update(totalSql(itemType, false), totalParams(itemType, itemId, quantity, false));
+                reportTotals(itemType, Map.of(itemId, quantity));
+            } else {
+                addToRow(code, itemType, itemId, quantity, quantity);
+                TransactionHooks.afterCommit(() -> unfolded(itemType).add(itemId));
+            }
+            ledgerService.recordAll(itemType, code, MovementType.RECEIVE, Map.of(itemId, quantity));
+            TransactionHooks.afterCommit(() -> counter.add(index, quantity));
+        });
+    }
+
+    /**
+     * Moves units of an item between locations; its total does not change.
+     * Joins the current transaction if there is one.
+     * @param itemType part or product
+     * @param itemId the item ID
+     * @param from the location to take from
+     * @param to the location to move to
+     * @param quantity units moved
+     * @return whether they were moved; false if the source does not have them
+     * @throws IllegalArgumentException if the quantity is not positive, a location
+     *         is unknown, both are the same or there is no such item
+     */
+    public boolean transfer(ItemType itemType, Long itemId, String from, String to, int quantity) {
+        int source = index(from);
+        int target = index(to);
+        if (source == target) {
+            throw new IllegalArgumentException("Cannot transfer from " + from + " to itself");
+        }
+        StripedStockCounter counter = requireCounter(itemType, itemId, quantity);
+        Optional<Runnable> giveBack = withhold(itemType, itemId, source, quantity);
+        if (giveBack.isEmpty() || !counter.tryTake(source, quantity)) {
+            giveBack.ifPresent(Runnable::run);
+            return false;
+        }
+        Reservation reservation = new Reservation(itemType, itemId, counter, source, quantity, giveBack.get());
+        try {
+            Boolean moved = transactionTemplate.execute(status -> {
+                if (source != HOME && jdbcTemplate.update(TAKE_SQL, quantity, 0,
+                        locations.get(source), itemType.name(), itemId, quantity) == 0) {
+                    reservation.drop();
+                    return false;
+                }
+                TransactionHooks.onRollback(reservation::release);
+                if (target != HOME) {
+                    addToRow(locations.get(target), itemType, itemId, quantity, 0);
+                }
+                ledgerService.recordAll(itemType, locations.get(source), MovementType.TRANSFER, Map.of(itemId, -quantity));
+                ledgerService.recordAll(itemType, locations.get(target), MovementType.TRANSFER, Map.of(itemId, quantity));
+                TransactionHooks.afterCommit(() -> counter.add(target, quantity));
+                return true;
+            });
+            if (!Boolean.TRUE.equals(moved)) {
+                reservation.release();
+            }
+            return Boolean.TRUE.equals(moved);
+        } catch (RuntimeException e) {
+            reservation.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Places units that the current transaction has just added to an item's
+     * total, such as products assembled at a site, at another location than home.
+     * Call inside that transaction, after the total was written.
+     * @param itemType part or product
+     * @param itemId the item ID
+     * @param location where the units are
+     * @param quantity units added
+     */
+    public void allocate(ItemType itemType, Long itemId, String location, int quantity) {
+        int index = index(location);
+        // Written as configured, whatever case the caller used
+        String code = locations.get(index);
+        if (index == HOME || quantity <= 0) {
+            return;
+        }
+        addToRow(code, itemType, itemId, quantity, 0);
+        ledgerService.recordAll(itemType, home(), MovementType.TRANSFER, Map.of(itemId, -quantity));
+        ledgerService.recordAll(itemType, code, MovementType.TRANSFER, Map.of(itemId, quantity));
+        // Runs after the ledger has credited the new units to home
+        TransactionHooks.afterCommit(() -> {
+            StripedStockCounter counter = counters(itemType).get(itemId);
+            if (counter != null) {
+                counter.add(HOME, -quantity);
+                counter.add(index, quantity);
+            }
+        });
+    }
+
+    /**
+     * Credits changes made to items' totals without a location to the home
+     * location. Called by the ledger once the change has committed.
+     * @param itemType part or product
+     * @param changes item ID to signed change
+     */
+    public void onTotalChanged(ItemType itemType, Map<Long, Integer> changes) {
+        Map<Long, StripedStockCounter> counters = counters(itemType);
+        changes.forEach((itemId, change) -> {
+            // Items not loaded yet read the new total when they are
+            StripedStockCounter counter = counters.get(itemId);
+            if (counter != null) {
+                counter.add(HOME, change);
+            }
+        });
+    }
+
+    /**
+     * Drops a deleted item's stock at every location. Call inside the deleting transaction.
+     */
+    void remove(ItemType itemType, Long itemId) {
+        jdbcTemplate.update(DELETE_SQL, itemType.name(), itemId);
+        TransactionHooks.afterCommit(() -> {
+            counters(itemType).remove(itemId);
+            unfolded(itemType).remove(itemId);
+        });
+    }
+
+    /**
+     * Folds changes a crash left unfolded into the totals before anything reads them
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void recover() {
+        RowCallbackHandler rows = rs -> unfolded(ItemType.valueOf(rs.getString(1))).add(rs.getLong(2));
+        jdbcTemplate.query(UNFOLDED_ITEMS_SQL, rows);
+        int items = unfoldedParts.size() + unfoldedProducts.size();
+        if (items > 0) {
+            fold();
+            log.info("Folded unfolded location stock of {} items into their totals", items);
+        }
+    }
+
+    /**
+     * Adds the changes made at other locations since the last fold to the
+     * items' totals. Runs every fold interval; safe to call at any time.
+     */
+    public void fold() {
+        foldLock.lock();
+        try {
+            for (ItemType itemType : ItemType.values()) {
+                Set<Long> unfolded = unfolded(itemType);
+                List<Long> itemIds = new ArrayList<>(unfolded);
+                // Items that move again from here on are queued for the next fold
+                itemIds.forEach(unfolded::remove);
+                for (int from = 0; from < itemIds.size(); from += FOLD_CHUNK) {
+                    List<Long> chunk = itemIds.subList(from, Math.min(from + FOLD_CHUNK, itemIds.size()));
+                    try {
+                        fold(itemType, chunk);
+                    } catch (RuntimeException e) {
+                        unfolded.addAll(chunk);
+                        log.error("Folding location stock of {} {}s failed; will retry", chunk.size(),
+                                itemType.name().toLowerCase(Locale.ROOT), e);
+                    }
+                }
+            }
+        } finally {
+            foldLock.unlock();
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        folder = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "location-stock-folder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = foldInterval.toMillis();
+        folder.scheduleWithFixedDelay(this::fold, millis, millis, TimeUnit.MILLISECONDS);
+        running = true;
+        log.info("Stock locations {}, home {}; folding into totals every {} ms", locations, home(), millis);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (folder != null) {
+            folder.shutdown();
+            try {
+                folder.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            folder = null;
+        }
+        // Anything left is durable in location_stock and folded on the next start
+        fold();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void fold(ItemType itemType, List<Long> itemIds) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Map<Long, Integer> changes = new HashMap<>();
+        foldSeq.incrementAndGet();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Object[]> folded = new ArrayList<>();
+                RowCallbackHandler rows = rs -> {
+                    folded.add(new Object[]{rs.getInt(3), rs.getString(2), itemType.name(), rs.getLong(1)});
+                    changes.merge(rs.getLong(1), rs.getInt(3), Integer::sum);
+                };
+                namedJdbcTemplate.query(UNFOLDED_ROWS_SQL, new MapSqlParameterSource("itemType", itemType.name())
+                        .addValue("ids", itemIds), rows);
+                changes.values().removeIf(change -> change == 0);
+                if (folded.isEmpty()) {
+                    return;
+                }
+                jdbcTemplate.batchUpdate(FOLDED_SQL, folded);
+                if (!changes.isEmpty()) {
+                    List<Object[]> totals = new ArrayList<>(changes.size());
+                    changes.forEach((itemId, change) -> totals.add(totalParams(itemType, itemId, change, false)));
+                    jdbcTemplate.batchUpdate(totalSql(itemType, false), totals);
+                    reportTotals(itemType, changes);
+                    // The ledger announced these moves when they happened; the totals only change now
+                    TransactionHooks.afterCommit(() -> broadcaster.changed(itemType, changes.keySet()));
+                }
+            });
+        } finally {
+            foldSeq.incrementAndGet();
+        }
+        sample.stop(meterRegistry.timer("inventory.location.fold", "item", itemType.name().toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Reports changes written to items' totals by JDBC, which entity listeners do
+     * not see. Call inside the writing transaction.
+     */
+    private void reportTotals(ItemType itemType, Map<Long, Integer> changes) {
+        valuationService.adjust(itemType, changes);
+        Class<?> entity;
+        if (itemType == ItemType.PART) {
+            entity = Part.class;
+            alertService.refresh(changes.keySet());
+            // Negative amounts give headroom back
+            Map<Long, Long> taken = new HashMap<>();
+            changes.forEach((partId, change) -> taken.put(partId, (long) -change));
+            capacityService.consumeParts(taken);
+        } else {
+            entity = Product.class;
+            PurchaseBuffer buffer = purchaseBuffer.getIfAvailable();
+            if (buffer != null) {
+                changes.keySet().forEach(buffer::invalidate);
+            }
+        }
+        TransactionHooks.afterCommit(() -> changes.keySet().forEach(id -> entityManagerFactory.getCache().evict(entity, id)));
+    }
+
+    /**
+     * Reverses the rows a failed take did write, so the transaction can go on
+     */
+    private void undo(ItemType itemType, String location, List<Reservation> reservations, int[] counts) {
+        List<Object[]> params = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            Reservation r = reservations.get(i);
+            if (counts[i] != 0) {
+                params.add(index(location) == HOME
+                        ? totalParams(itemType, r.itemId, r.quantity, false)
+                        : new Object[]{r.quantity, r.quantity, location, itemType.name(), r.itemId});
+            } else {
+                // Memory said the units were there and the database disagrees: reload the item
+                r.drop();
+            }
+        }
+        if (!params.isEmpty()) {
+            jdbcTemplate.batchUpdate(index(location) == HOME ? totalSql(itemType, false) : ADD_SQL, params);
+        }
+    }
+
+    /**
+     * Units at a location that can be taken: home product stock less what the
+     * write-behind buffer has sold but not flushed
+     */
+    private int available(ItemType itemType, Long itemId, StripedStockCounter counter, int index) {
+        int units = counter.get(index);
+        PurchaseBuffer buffer = writeBehind(itemType, index);
+        return buffer == null ? units : Math.min(units, buffer.available(itemId));
+    }
+
+    /**
+     * Withholds home product units from the write-behind buffer, so it does not sell them as well
+     * @return gives the units back; empty if the buffer does not have them
+     */
+    private Optional<Runnable> withhold(ItemType itemType, Long itemId, int index, int quantity) {
+        PurchaseBuffer buffer = writeBehind(itemType, index);
+        return buffer == null ? Optional.of(() -> { }) : buffer.withhold(itemId, quantity);
+    }
+
+    /**
+     * @return the buffer that also sells this stock, or null if none does
+     */
+    private PurchaseBuffer writeBehind(ItemType itemType, int index) {
+        if (itemType != ItemType.PRODUCT || index != HOME) {
+            return null;
+        }
+        PurchaseBuffer buffer = purchaseBuffer.getIfAvailable();
+        return buffer != null && buffer.isAccepting() ? buffer : null;
+    }
+
+    private void addToRow(String location, ItemType itemType, Long itemId, int quantity, int unfolded) {
+        if (jdbcTemplate.update(ADD_SQL, quantity, unfolded, location, itemType.name(), itemId) == 0) {
+            jdbcTemplate.update(INSERT_SQL, location, itemType.name(), itemId, quantity, unfolded);
+        }
+    }
+
+    private StripedStockCounter requireCounter(ItemType itemType, Long itemId, int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        StripedStockCounter counter = counter(itemType, itemId);
+        if (counter == null) {
+            throw new IllegalArgumentException("No " + itemType.name().toLowerCase(Locale.ROOT) + " with id " + itemId);
+        }
+        return counter;
+    }
+
+    /**
+     * Returns an item's counter, loading it on first use
+     * @return the counter, or null if there is no such item
+     */
+    private StripedStockCounter counter(ItemType itemType, Long itemId) {
+        Map<Long, StripedStockCounter> counters = counters(itemType);
+        StripedStockCounter counter = counters.get(itemId);
+        if (counter != null) {
+            return counter;
+        }
+        int[] stock;
+        while (true) {
+            // Read the total and the unfolded changes between folds, so they are a consistent pair.
+            // Not a lock: the caller may hold row locks a fold is waiting for.
+            long seq = foldSeq.get();
+            if ((seq & 1) != 0) {
+                LockSupport.parkNanos(FOLD_WAIT_NANOS);
+                continue;
+            }
+            stock = read(itemType, itemId);
+            if (foldSeq.get() == seq) {
+                break;
+            }
+        }
+        if (stock == null) {
+            return null;
+        }
+        counter = new StripedStockCounter(stock);
+        StripedStockCounter existing = counters.putIfAbsent(itemId, counter);
+        return existing != null ? existing : counter;
+    }
+
+    /**
+     * @return units at each location, or null if there is no such item
+     */
+    private int[] read(ItemType itemType, Long itemId) {
+        String table = itemType == ItemType.PART ? "part" : "product";
+        List<Integer> total = jdbcTemplate.queryForList(
+                "SELECT inventory_count FROM " + table + " WHERE id = ?", Integer.class, itemId);
+        if (total.isEmpty()) {
+            return null;
+        }
+        int[] stock = new int[locations.size()];
+        long[] home = {total.get(0)};
+        RowCallbackHandler rows = rs -> {
+            int index = locations.indexOf(rs.getString(1));
+            // Stock at a location no longer configured counts towards no cell
+            home[0] += rs.getInt(3) - rs.getInt(2);
+            if (index > HOME) {
+                stock[index] = rs.getInt(2);
+            }
+        };
+        jdbcTemplate.query(ROWS_SQL, rows, itemType.name(), itemId);
+        stock[HOME] = Math.toIntExact(home[0]);
+        return stock;
+    }
+
+    private Map<Long, StripedStockCounter> counters(ItemType itemType) {
+        return itemType == ItemType.PART ? partCounters : productCounters;
+    }
+
+    private Set<Long> unfolded(ItemType itemType) {
+        return itemType == ItemType.PART ? unfoldedParts : unfoldedProducts;
+    }
+
+    private int index(String location) {
+        int index = location == null ? -1 : locations.indexOf(normalize(location));
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown location: " + location);
+        }
+        return index;
+    }
+
+    private static String totalSql(ItemType itemType, boolean inStock) {
+        String sql = itemType == ItemType.PART ? PART_TOTAL_SQL : PRODUCT_TOTAL_SQL;
+        return inStock ? sql + IN_STOCK : sql;
+    }
+
+    private static Object[] totalParams(ItemType itemType, Long itemId, int change, boolean inStock) {
+        List<Object> params = new ArrayList<>(List.of(change));
+        if (itemType == ItemType.PART) {
+            params.add(change);
+            params.add(change);
+        }
+        params.add(itemId);
+        if (inStock) {
+            params.add(change);
+        }
+        return params.toArray();
+    }
+
+    private static String normalize(String code) {
+        return code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Units taken from a counter ahead of the write; given back at most once
+     */
+    private final class Reservation {
+        final ItemType itemType;
+        final Long itemId;
+        final StripedStockCounter counter;
+        final int index;
+        final int quantity;
+        // Gives withheld units back to the write-behind buffer
+        final Runnable giveBack;
+        final AtomicBoolean released = new AtomicBoolean();
+
+        Reservation(ItemType itemType, Long itemId, StripedStockCounter counter, int index, int quantity,
+                    Runnable giveBack) {
+            this.itemType = itemType;
+            this.itemId = itemId;
+            this.counter = counter;
+            this.index = index;
+            this.quantity = quantity;
+            this.giveBack = giveBack;
+        }
+
+        void release() {
+            if (released.compareAndSet(false, true)) {
+                counter.add(index, quantity);
+                giveBack.run();
+            }
+        }
+
+        /**
+         * Forgets the item's counter so its next use reloads it from the database
+         */
+        void drop() {
+            counters(itemType).remove(itemId, counter);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.furniture.inventory.location;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * One item's stock, striped by location: a cell per location, so sales and
+ * receipts at different sites never update the same cell, and the item's
+ * total is a sum over a handful of cells rather than a query.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+final class StripedStockCounter {
+
+    private final AtomicIntegerArray cells;
+
+    /**
+     * @param stock units at each location, by location index
+     */
+    StripedStockCounter(int[] stock) {
+        this.cells = new AtomicIntegerArray(stock);
+    }
+
+    /**
+     * @param location location index
+     * @return units at the location; negative if more was taken there than recorded
+     */
+    int get(int location) {
+        return cells.get(location);
+    }
+
+    /**
+     * @return units across all locations
+     */
+    long sum() {
+        long sum = 0;
+        for (int i = 0; i < cells.length(); i++) {
+            sum += cells.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * @param location location index
+     * @param change signed change
+     */
+    void add(int location, int change) {
+        cells.addAndGet(location, change);
+    }
+
+    /**
+     * Takes units from a location if it has enough
+     * @param location location index
+     * @param quantity units to take
+     * @return whether they were taken
+     */
+    boolean tryTake(int location, int quantity) {
+        while (true) {
+            int available = cells.get(location);
+            if (available < quantity) {
+                return false;
+            }
+            if (cells.compareAndSet(location, available, available - quantity)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.furniture.inventory.paging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position of a row in a (name, id) ordered listing.
+ * Encoded as an opaque URL-safe token so it can travel in request parameters.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public record KeysetCursor(String name, Long id) {
+
+    private static final char SEPARATOR = ':';
+
+    /**
+     * Encodes this cursor as a URL-safe token
+     * @return the encoded cursor
+     */
+    public String encode() {
+        String raw = id + String.valueOf(SEPARATOR) + name;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}
+     * @param token the encoded cursor, may be null or blank
+     * @return the decoded cursor, or null if the token is missing or malformed
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0) {
+                return null;
+            }
+            return new KeysetCursor(raw.substring(separator + 1), Long.valueOf(raw.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            // Tampered or truncated cursor - fall back to the first page
+            return null;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.furniture.inventory.paging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset (seek) paginated listing.
+ * Carries the rows to display plus the cursors for the neighbouring pages.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public class KeysetPage<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+    private final String previousCursor;
+
+    private KeysetPage(List<T> content, String nextCursor, String previousCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
+    }
+
+    /**
+     * Builds a page from rows fetched in listing order.
+     * The query is expected to fetch one row more than the page size to detect a next page.
+     *
+     * @param rows rows in ascending order, at most size + 1
+     * @param size requested page size
+     * @param hasPrevious whether the page was reached from a cursor
+     * @param cursorOf extracts the keyset cursor of a row
+     * @return the page
+     */
+    public static <T> KeysetPage<T> forward(List<T> rows, int size, boolean hasPrevious,
+                                            Function<T, KeysetCursor> cursorOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        return build(content, hasNext, hasPrevious, cursorOf);
+    }
+
+    /**
+     * Builds a page from rows fetched in reverse listing order (paging backwards).
+     * The query is expected to fetch one row more than the page size to detect a previous page.
+     *
+     * @param rowsReversed rows in descending order, at most size + 1
+     * @param size requested page size
+     * @param cursorOf extracts the keyset cursor of a row
+     * @return the page, with content restored to ascending order
+     */
+    public static <T> KeysetPage<T> backward(List<T> rowsReversed, int size,
+                                             Function<T, KeysetCursor> cursorOf) {
+        boolean hasPrevious = rowsReversed.size() > size;
+        List<T> content = new ArrayList<>(hasPrevious ? rowsReversed.subList(0, size) : rowsReversed);
+        Collections.reverse(content);
+        return build(content, true, hasPrevious, cursorOf);
+    }
+
+    /**
+     * Builds a page of search results.
+     * Search results are ordered by relevance rather than by a key, so the cursors
+     * are the rank offsets at which the neighbouring pages start.
+     *
+     * @param content rows of this page in rank order
+     * @param offset rank offset of the first row
+     * @param size requested page size
+     * @param hasNext whether more results follow this page
+     * @return the page
+     */
+    public static <T> KeysetPage<T> ranked(List<T> content, int offset, int size, boolean hasNext) {
+        String next = hasNext ? String.valueOf(offset + size) : null;
+        String previous = offset > 0 ? String.valueOf(Math.max(0, offset - size)) : null;
+        return new KeysetPage<>(content, next, previous);
+    }
+
+    private static <T> KeysetPage<T> build(List<T> content, boolean hasNext, boolean hasPrevious,
+                                           Function<T, KeysetCursor> cursorOf) {
+        if (content.isEmpty()) {
+            return new KeysetPage<>(content, null, null);
+        }
+        String next = hasNext ? cursorOf.apply(content.get(content.size() - 1)).encode() : null;
+        String previous = hasPrevious ? cursorOf.apply(content.get(0)).encode() : null;
+        return new KeysetPage<>(content, next, previous);
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public String getPreviousCursor() {
+        return previousCursor;
+    }
+
+    public boolean isHasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean isHasPrevious() {
+        return previousCursor != null;
+    }
+}
@@ -0,0 +1,74 @@
+package com.furniture.inventory.planning;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Result of a material-requirements-planning run: the parts to replenish, as
+ * suggested purchase orders per supplier and production runs per machine.
+ *
+ * @param startedAt when the run started
+ * @param elapsedMillis wall-clock time of the whole run
+ * @param purchaseOrders one suggestion per supplier of outsourced parts, by supplier name
+ * @param productionRuns one run per machine making in-house parts, by machine id
+ * @param stats sizes, phase times and partitioning of the run
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public record MrpPlan(Instant startedAt, long elapsedMillis, List<PurchaseOrder> purchaseOrders,
+                      List<ProductionRun> productionRuns, Stats stats) {
+
+    /**
+     * One part to replenish.
+     *
+     * @param partId the part ID
+     * @param name the part name
+     * @param inv current inventory
+     * @param minInv minimum inventory
+     * @param maxInv maximum inventory
+     * @param gross units the product targets consume
+     * @param shortfall units needed to keep the part at its minimum after consumption
+     * @param quantity units to order or make: enough to bring the part back up to its maximum
+     */
+    public record Line(Long partId, String name, int inv, int minInv, int maxInv,
+                       long gross, long shortfall, long quantity) {
+    }
+
+    /**
+     * @param supplier the supplier company
+     * @param lines parts to order, by part id
+     * @param units total units
+     * @param cost total price of the units
+     */
+    public record PurchaseOrder(String supplier, List<Line> lines, long units, double cost) {
+    }
+
+    /**
+     * @param machineId the machine making the parts
+     * @param lines parts to make, by part id
+     * @param units total units
+     */
+    public record ProductionRun(int machineId, List<Line> lines, long units) {
+    }
+
+    /**
+     * @param parallelism worker threads
+     * @param products products with a bill of materials
+     * @param productsWithDemand products below their target
+     * @param parts parts netted
+     * @param loadMillis reading parts and product levels
+     * @param explodeMillis exploding product demand into gross part requirements
+     * @param netMillis netting parts and grouping them into orders and runs
+     * @param explodePartitions leaf tasks of the explosion
+     * @param netPartitions leaf tasks of the netting
+     * @param smallestPartition fewest rows handled by one leaf task
+     * @param largestPartition most rows handled by one leaf task
+     * @param steals tasks stolen between workers
+     */
+    public record Stats(int parallelism, int products, int productsWithDemand, int parts,
+                        long loadMillis, long explodeMillis, long netMillis,
+                        int explodePartitions, int netPartitions, int smallestPartition, int largestPartition,
+                        long steals) {
+    }
+}
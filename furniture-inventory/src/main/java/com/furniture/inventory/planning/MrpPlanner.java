@@ -0,0 +1,427 @@
+package com.furniture.inventory.planning;
+
+import com.furniture.inventory.capacity.CapacityService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Material requirements planning: from target stock levels for products, the
+ * parts to buy and make.
+ *
+ * A run has three phases, each spread over a fork/join pool:
+ * <ol>
+ * <li>Load: parts are read in id-range slices on every worker, product levels in one query.</li>
+ * <li>Explode: each product's shortfall against its target is multiplied through its
+ * per-unit requirement vector (maintained by the capacity engine), giving gross
+ * part requirements. Tasks split the product list in halves and their partial sums
+ * are merged on the way back up.</li>
+ * <li>Net: every part is checked against its minimum after the gross requirement is
+ * taken; parts that would fall below are replenished up to their maximum. Tasks split
+ * the id-ordered part list and concatenate results left before right.</li>
+ * </ol>
+ * Sums are exact and results are concatenated in id order, so a plan does not
+ * depend on the parallelism or on how tasks were scheduled. Like assembly,
+ * explosion goes down to raw parts and does not net sub-assembly stock.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Service
+public class MrpPlanner {
+
+    private static final Logger log = LoggerFactory.getLogger(MrpPlanner.class);
+    private static final int LEAVES_PER_WORKER = 8;
+    private static final int MIN_PRODUCTS_PER_LEAF = 256;
+    private static final int MIN_PARTS_PER_LEAF = 4096;
+
+    private static final String PART_COLUMNS = "SELECT id, part_type, machine_id, company_name, name, price, " +
+            "inventory_count, min_inventory, max_inventory FROM part";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CapacityService capacityService;
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Value("${inventory.mrp.parallelism:0}")
+    private int parallelism;
+
+    @Autowired
+    public MrpPlanner(JdbcTemplate jdbcTemplate, CapacityService capacityService, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.capacityService = capacityService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Plans replenishment for the given product targets
+     * @param targets product id to the stock level wanted; overrides the default
+     * @param defaultTarget stock level wanted for products not in targets; null for none
+     * @return the plan, or empty if another run is in progress
+     */
+    public Optional<MrpPlan> plan(Map<Long, Integer> targets, Integer defaultTarget) {
+        return plan(targets, defaultTarget, parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    Optional<MrpPlan> plan(Map<Long, Integer> targets, Integer defaultTarget, int workers) {
+        if (!running.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        Instant startedAt = Instant.now();
+        long start = System.nanoTime();
+        try (ForkJoinPool pool = new ForkJoinPool(workers)) {
+            Map<Long, Map<Long, Long>> vectors = capacityService.requirementVectors();
+            PartTable parts = loadParts(pool, workers);
+            Map<Long, Integer> productLevels = loadProductLevels();
+            long loaded = System.nanoTime();
+
+            // Shortfall of every product with a bill of materials, in id order
+            List<long[]> demand = new ArrayList<>();
+            new TreeMap<>(vectors).keySet().forEach(productId -> {
+                Integer target = targets.getOrDefault(productId, defaultTarget);
+                Integer level = productLevels.get(productId);
+                if (target != null && level != null && target > level) {
+                    demand.add(new long[]{productId, target - level});
+                }
+            });
+            PartitionStats explodeStats = new PartitionStats();
+            Map<Long, Long> gross = pool.invoke(new Explode(demand, 0, demand.size(),
+                    leafSize(demand.size(), workers, MIN_PRODUCTS_PER_LEAF), vectors, explodeStats));
+            long exploded = System.nanoTime();
+
+            PartitionStats netStats = new PartitionStats();
+            Groups groups = pool.invoke(new Net(parts, 0, parts.size, leafSize(parts.size, workers, MIN_PARTS_PER_LEAF),
+                    gross, netStats));
+            long netted = System.nanoTime();
+
+            List<MrpPlan.PurchaseOrder> purchaseOrders = new ArrayList<>();
+            groups.bySupplier.forEach((supplier, lines) -> purchaseOrders.add(new MrpPlan.PurchaseOrder(supplier,
+                    lines, lines.stream().mapToLong(MrpPlan.Line::quantity).sum(), cost(lines, parts))));
+            List<MrpPlan.ProductionRun> productionRuns = new ArrayList<>();
+            groups.byMachine.forEach((machineId, lines) -> productionRuns.add(new MrpPlan.ProductionRun(machineId,
+                    lines, lines.stream().mapToLong(MrpPlan.Line::quantity).sum())));
+
+            MrpPlan.Stats stats = new MrpPlan.Stats(workers, vectors.size(), demand.size(), parts.size,
+                    millis(loaded - start), millis(exploded - loaded), millis(netted - exploded),
+                    explodeStats.leaves.get(), netStats.leaves.get(),
+                    Math.min(explodeStats.smallest(), netStats.smallest()),
+                    Math.max(explodeStats.largest.get(), netStats.largest.get()),
+                    pool.getStealCount());
+            long elapsed = System.nanoTime() - start;
+            meterRegistry.timer("inventory.mrp.run").record(elapsed, TimeUnit.NANOSECONDS);
+            log.info("MRP run: {} products with demand, {} parts, {} purchase orders, {} production runs in {} ms",
+                    demand.size(), parts.size, purchaseOrders.size(), productionRuns.size(), millis(elapsed));
+            return Optional.of(new MrpPlan(startedAt, millis(elapsed), purchaseOrders, productionRuns, stats));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private PartTable loadParts(ForkJoinPool pool, int workers) {
+        List<Callable<PartTable>> reads = new ArrayList<>();
+        for (long[] range : slices(workers * LEAVES_PER_WORKER)) {
+            reads.add(() -> {
+                PartTable slice = new PartTable();
+                RowCallbackHandler rows = slice::add;
+                jdbcTemplate.query(PART_COLUMNS + " WHERE id BETWEEN ? AND ? ORDER BY id", rows, range[0], range[1]);
+                return slice;
+            });
+        }
+        // Slices cover ascending id ranges, so appending them in order keeps the table sorted by id
+        PartTable table = new PartTable();
+        for (Future<PartTable> slice : pool.invokeAll(reads)) {
+            table.append(await(slice));
+        }
+        return table;
+    }
+
+    private Map<Long, Integer> loadProductLevels() {
+        Map<Long, Integer> levels = new HashMap<>();
+        RowCallbackHandler rows = rs -> levels.put(rs.getLong(1), rs.getInt(2));
+        jdbcTemplate.query("SELECT id, inventory_count FROM product", rows);
+        return levels;
+    }
+
+    /**
+     * Splits the part id range into roughly equal slices
+     */
+    private List<long[]> slices(int count) {
+        Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(id) AS lo, MAX(id) AS hi FROM part");
+        if (bounds.get("lo") == null) {
+            return List.of();
+        }
+        long lo = ((Number) bounds.get("lo")).longValue();
+        long hi = ((Number) bounds.get("hi")).longValue();
+        long width = Math.max(1, (hi - lo + count) / count);
+        List<long[]> slices = new ArrayList<>();
+        for (long start = lo; start <= hi; start += width) {
+            slices.add(new long[]{start, Math.min(hi, start + width - 1)});
+        }
+        return slices;
+    }
+
+    private static double cost(List<MrpPlan.Line> lines, PartTable parts) {
+        double cost = 0;
+        for (MrpPlan.Line line : lines) {
+            cost += line.quantity() * parts.priceOf(line.partId());
+        }
+        return cost;
+    }
+
+    private static int leafSize(int rows, int workers, int minimum) {
+        return Math.max(minimum, rows / (workers * LEAVES_PER_WORKER) + 1);
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static PartTable await(Future<PartTable> slice) {
+        try {
+            return slice.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("MRP run interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("MRP run failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Gross part requirements of a range of product shortfalls
+     */
+    private static final class Explode extends RecursiveTask<Map<Long, Long>> {
+
+        private final List<long[]> demand;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final Map<Long, Map<Long, Long>> vectors;
+        private final PartitionStats stats;
+
+        Explode(List<long[]> demand, int from, int to, int leafSize,
+                Map<Long, Map<Long, Long>> vectors, PartitionStats stats) {
+            this.demand = demand;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.vectors = vectors;
+            this.stats = stats;
+        }
+
+        @Override
+        protected Map<Long, Long> compute() {
+            if (to - from <= leafSize) {
+                stats.leaf(to - from);
+                Map<Long, Long> gross = new HashMap<>();
+                for (int i = from; i < to; i++) {
+                    long units = demand.get(i)[1];
+                    vectors.get(demand.get(i)[0]).forEach((partId, perUnit) ->
+                            gross.merge(partId, perUnit * units, Long::sum));
+                }
+                return gross;
+            }
+            int middle = (from + to) >>> 1;
+            Explode left = new Explode(demand, from, middle, leafSize, vectors, stats);
+            left.fork();
+            Map<Long, Long> right = new Explode(demand, middle, to, leafSize, vectors, stats).compute();
+            Map<Long, Long> joined = left.join();
+            // Add the smaller map into the larger; sums do not depend on the order
+            Map<Long, Long> into = joined.size() >= right.size() ? joined : right;
+            Map<Long, Long> other = into == joined ? right : joined;
+            other.forEach((partId, units) -> into.merge(partId, units, Long::sum));
+            return into;
+        }
+    }
+
+    /**
+     * Parts to replenish in a range of the part table, grouped by supplier and machine
+     */
+    private static final class Net extends RecursiveTask<Groups> {
+
+        private final PartTable parts;
+        private final int from;
+        private final int to;
+        private final int leafSize;
+        private final Map<Long, Long> gross;
+        private final PartitionStats stats;
+
+        Net(PartTable parts, int from, int to, int leafSize, Map<Long, Long> gross, PartitionStats stats) {
+            this.parts = parts;
+            this.from = from;
+            this.to = to;
+            this.leafSize = leafSize;
+            this.gross = gross;
+            this.stats = stats;
+        }
+
+        @Override
+        protected Groups compute() {
+            if (to - from <= leafSize) {
+                stats.leaf(to - from);
+                Groups groups = new Groups();
+                for (int i = from; i < to; i++) {
+                    MrpPlan.Line line = parts.net(i, gross.getOrDefault(parts.ids[i], 0L));
+                    if (line != null) {
+                        groups.add(parts, i, line);
+                    }
+                }
+                return groups;
+            }
+            int middle = (from + to) >>> 1;
+            Net left = new Net(parts, from, middle, leafSize, gross, stats);
+            left.fork();
+            Groups right = new Net(parts, middle, to, leafSize, gross, stats).compute();
+            return left.join().append(right);
+        }
+    }
+
+    /**
+     * Planned lines per supplier and per machine, each list in part id order
+     */
+    private static final class Groups {
+        final Map<String, List<MrpPlan.Line>> bySupplier = new TreeMap<>();
+        final Map<Integer, List<MrpPlan.Line>> byMachine = new TreeMap<>();
+
+        void add(PartTable parts, int index, MrpPlan.Line line) {
+            if (parts.suppliers[index] != null) {
+                bySupplier.computeIfAbsent(parts.suppliers[index], s -> new ArrayList<>()).add(line);
+            } else {
+                byMachine.computeIfAbsent(parts.machines[index], m -> new ArrayList<>()).add(line);
+            }
+        }
+
+        /**
+         * Appends the groups of the next id range
+         */
+        Groups append(Groups next) {
+            next.bySupplier.forEach((supplier, lines) ->
+                    bySupplier.computeIfAbsent(supplier, s -> new ArrayList<>()).addAll(lines));
+            next.byMachine.forEach((machine, lines) ->
+                    byMachine.computeIfAbsent(machine, m -> new ArrayList<>()).addAll(lines));
+            return this;
+        }
+    }
+
+    /**
+     * Leaf task sizes of one phase
+     */
+    private static final class PartitionStats {
+        final AtomicInteger leaves = new AtomicInteger();
+        final AtomicInteger smallest = new AtomicInteger(Integer.MAX_VALUE);
+        final AtomicInteger largest = new AtomicInteger();
+
+        void leaf(int rows) {
+            leaves.incrementAndGet();
+            smallest.accumulateAndGet(rows, Math::min);
+            largest.accumulateAndGet(rows, Math::max);
+        }
+
+        int smallest() {
+            return leaves.get() == 0 ? 0 : smallest.get();
+        }
+    }
+
+    /**
+     * Part columns the plan needs, one array per column and sorted by id,
+     * so a million parts are a handful of arrays rather than a million objects
+     */
+    private static final class PartTable {
+        private static final String OUTSOURCED = "OUTSOURCED";
+
+        long[] ids = new long[1024];
+        String[] names = new String[1024];
+        String[] suppliers = new String[1024];
+        int[] machines = new int[1024];
+        double[] prices = new double[1024];
+        int[] inv = new int[1024];
+        int[] minInv = new int[1024];
+        int[] maxInv = new int[1024];
+        int size;
+
+        void add(ResultSet rs) throws SQLException {
+            grow(size + 1);
+            ids[size] = rs.getLong(1);
+            boolean outsourced = OUTSOURCED.equals(rs.getString(2));
+            machines[size] = outsourced ? 0 : rs.getInt(3);
+            // An outsourced part without a company still has to be bought
+            suppliers[size] = outsourced ? (rs.getString(4) == null ? "" : rs.getString(4)) : null;
+            names[size] = rs.getString(5);
+            prices[size] = rs.getDouble(6);
+            inv[size] = rs.getInt(7);
+            minInv[size] = rs.getInt(8);
+            maxInv[size] = rs.getInt(9);
+            size++;
+        }
+
+        void append(PartTable slice) {
+            grow(size + slice.size);
+            System.arraycopy(slice.ids, 0, ids, size, slice.size);
+            System.arraycopy(slice.names, 0, names, size, slice.size);
+            System.arraycopy(slice.suppliers, 0, suppliers, size, slice.size);
+            System.arraycopy(slice.machines, 0, machines, size, slice.size);
+            System.arraycopy(slice.prices, 0, prices, size, slice.size);
+            System.arraycopy(slice.inv, 0, inv, size, slice.size);
+            System.arraycopy(slice.minInv, 0, minInv, size, slice.size);
+            System.arraycopy(slice.maxInv, 0, maxInv, size, slice.size);
+            size += slice.size;
+        }
+
+        /**
+         * @return the line to replenish part i after taking gross units, or null if it stays at or above its minimum
+         */
+        MrpPlan.Line net(int i, long gross) {
+            long projected = inv[i] - gross;
+            if (projected >= minInv[i]) {
+                return null;
+            }
+            long shortfall = minInv[i] - projected;
+            long quantity = Math.max(shortfall, (long) maxInv[i] - projected);
+            return new MrpPlan.Line(ids[i], names[i], inv[i], minInv[i], maxInv[i], gross, shortfall, quantity);
+        }
+
+        double priceOf(long id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            return index < 0 ? 0 : prices[index];
+        }
+
+        private void grow(int capacity) {
+            if (capacity <= ids.length) {
+                return;
+            }
+            int length = Math.max(capacity, ids.length * 2);
+            ids = Arrays.copyOf(ids, length);
+            names = Arrays.copyOf(names, length);
+            suppliers = Arrays.copyOf(suppliers, length);
+            machines = Arrays.copyOf(machines, length);
+            prices = Arrays.copyOf(prices, length);
+            inv = Arrays.copyOf(inv, length);
+            minInv = Arrays.copyOf(minInv, length);
+            maxInv = Arrays.copyOf(maxInv, length);
+        }
+    }
+}
@@ -0,0 +1,416 @@
+package com.furniture.inventory.purchase;
+
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.entity.MovementType;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.entity.PurchaseJournalCheckpoint;
+import com.furniture.inventory.ledger.LedgerService;
+import com.furniture.inventory.location.LocationStockService;
+import com.furniture.inventory.service.PurchaseOutcome;
+import com.furniture.inventory.support.TransactionHooks;
+import com.furniture.inventory.valuation.ValuationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind "Buy Now" for sale bursts, enabled with
+ * {@code inventory.purchase.write-behind.enabled=true}.
+ *
+ * Each product's sellable stock is held in an in-memory counter, loaded from
+ * its home location stock on the first purchase; units at other locations are
+ * sold by the synchronous path. A purchase reserves a unit from the
+ * counter, is written to the {@link PurchaseJournal} (group-committed, so a
+ * burst shares one fsync) and is acknowledged as soon as it is durable. No
+ * database write happens on the request thread.
+ *
+ * Every {@code flush-interval} the durable sales are coalesced per product and
+ * applied in one JDBC batch, together with the journal checkpoint. After a
+ * crash the journal is replayed from the checkpoint before purchases are
+ * accepted, so no acknowledged sale is lost or applied twice.
+ *
+ * Product writes through JPA (form edits, assembly) drop the product's counter
+ * after commit; the next purchase reloads it from the database, less the sales
+ * not flushed yet. A sale racing such an edit can leave the counter a few units
+ * low, never high, until it is next reloaded.
+ *
+ * The counter is the only record of home stock that knows about unflushed
+ * sales, so synchronous sales, consumption and transfers of a product's home
+ * stock first {@link #withhold} their units from it; the buffer can then not
+ * sell the same units again. The flush UPDATE also refuses to take a product's
+ * stored inventory below zero; a refused sale is logged and counted in
+ * {@code inventory.purchase.buffer.oversold} rather than retried forever.
+ *
+ * Metrics: {@code inventory.purchase.buffer.pending} (sales not yet in the
+ * database), {@code inventory.purchase.buffer.queue} (sales waiting for the
+ * journal), {@code inventory.purchase.journal.sync} (fsync latency) and
+ * {@code inventory.purchase.buffer.flush} (flush latency).
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Service
+@ConditionalOnProperty(prefix = "inventory.purchase.write-behind", name = "enabled", havingValue = "true")
+public class PurchaseBuffer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PurchaseBuffer.class);
+    // Marks a dropped counter so purchases holding it reload instead of selling from it
+    private static final int DROPPED = Integer.MIN_VALUE / 2;
+
+    private static final String SELL_SQL = "UPDATE product SET inventory_count = inventory_count - ?, version = version + 1 " +
+            "WHERE id = ? AND inventory_count >= ?";
+    private static final String UPDATE_CHECKPOINT_SQL = "UPDATE purchase_journal_checkpoint SET last_seq = ? WHERE id = ?";
+    private static final String INSERT_CHECKPOINT_SQL = "INSERT INTO purchase_journal_checkpoint (id, last_seq) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ValuationService valuationService;
+    private final LedgerService ledgerService;
+    private final LocationStockService locationStockService;
+    private final MeterRegistry meterRegistry;
+    private final PurchaseJournal journal;
+    private final Duration flushInterval;
+    private final Duration ackTimeout;
+
+    private final Map<Long, AtomicInteger> counters = new ConcurrentHashMap<>();
+    // Sales reserved but not yet in the database, per product
+    private final Map<Long, AtomicInteger> unflushed = new ConcurrentHashMap<>();
+    private final AtomicInteger unflushedTotal = new AtomicInteger();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private ScheduledExecutorService flusher;
+    private volatile boolean running;
+
+    @Autowired
+    public PurchaseBuffer(JdbcTemplate jdbcTemplate,
+                          PlatformTransactionManager transactionManager,
+                          EntityManagerFactory entityManagerFactory,
+                          ValuationService valuationService,
+                          LedgerService ledgerService,
+                          LocationStockService locationStockService,
+                          MeterRegistry meterRegistry,
+                          @Value("${inventory.purchase.write-behind.journal-dir:./data/purchase-journal}") Path journalDir,
+                          @Value("${inventory.purchase.write-behind.segment-bytes:4194304}") long segmentBytes,
+                          @Value("${inventory.purchase.write-behind.flush-interval:50ms}") Duration flushInterval,
+                          @Value("${inventory.purchase.write-behind.ack-timeout:5s}") Duration ackTimeout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.valuationService = valuationService;
+        this.ledgerService = ledgerService;
+        this.locationStockService = locationStockService;
+        this.meterRegistry = meterRegistry;
+        this.journal = new PurchaseJournal(journalDir, segmentBytes, meterRegistry);
+        this.flushInterval = flushInterval;
+        this.ackTimeout = ackTimeout;
+        meterRegistry.gauge("inventory.purchase.buffer.pending", unflushedTotal, AtomicInteger::get);
+        meterRegistry.gauge("inventory.purchase.buffer.queue", journal, PurchaseJournal::queued);
+    }
+
+    /**
+     * @return whether purchases can go through the buffer; false before startup,
+     *         after shutdown, or once the journal has failed
+     */
+    public boolean isAccepting() {
+        return running && journal.isWritable();
+    }
+
+    /**
+     * Sells one unit of a product from its in-memory stock
+     * @param productId the product to buy
+     * @return the outcome; PURCHASED only once the sale is durable in the journal
+     * @throws IllegalStateException if the sale could not be journaled; nothing was sold
+     */
+    public PurchaseOutcome purchase(Long productId) {
+        AtomicInteger pending = unflushed.computeIfAbsent(productId, id -> new AtomicInteger());
+        PurchaseOutcome outcome = reserve(productId, pending);
+        if (outcome != PurchaseOutcome.PURCHASED) {
+            return outcome;
+        }
+        unflushedTotal.incrementAndGet();
+        try {
+            journal.append(productId, 1).get(ackTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            return PurchaseOutcome.PURCHASED;
+        } catch (InterruptedException | ExecutionException | TimeoutException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // Not acknowledged: give the unit back
+            AtomicInteger counter = counters.get(productId);
+            if (counter != null) {
+                counter.incrementAndGet();
+            }
+            pending.decrementAndGet();
+            unflushedTotal.decrementAndGet();
+            throw new IllegalStateException("Purchase could not be recorded, please try again", e);
+        }
+    }
+
+    /**
+     * Takes units of a product's home stock out of its counter for a write made
+     * by another path, so the buffer cannot sell them as well
+     * @param productId the product
+     * @param quantity units taken
+     * @return gives the units back if the write does not happen; empty if home stock
+     *         less the unflushed sales is short, or there is no such product
+     */
+    public Optional<Runnable> withhold(Long productId, int quantity) {
+        while (true) {
+            AtomicInteger counter = counters.get(productId);
+            if (counter == null) {
+                counter = load(productId);
+                if (counter == null) {
+                    return Optional.empty();
+                }
+            }
+            int available = counter.get();
+            if (available <= DROPPED / 2) {
+                continue;
+            }
+            if (available < quantity) {
+                return Optional.empty();
+            }
+            if (counter.compareAndSet(available, available - quantity)) {
+                // Into the counter it came from: a reloaded one already reads the database
+                AtomicInteger taken = counter;
+                return Optional.of(() -> taken.addAndGet(quantity));
+            }
+        }
+    }
+
+    /**
+     * @param productId the product
+     * @return units of home stock the buffer can still sell; 0 if there is no such product
+     */
+    public int available(Long productId) {
+        while (true) {
+            AtomicInteger counter = counters.get(productId);
+            if (counter == null) {
+                counter = load(productId);
+                if (counter == null) {
+                    return 0;
+                }
+            }
+            int available = counter.get();
+            if (available > DROPPED / 2) {
+                return Math.max(available, 0);
+            }
+        }
+    }
+
+    /**
+     * @param productId the product
+     * @return units sold by the buffer that are not in the database yet
+     */
+    public int unflushed(Long productId) {
+        AtomicInteger pending = unflushed.get(productId);
+        return pending == null ? 0 : pending.get();
+    }
+
+    /**
+     * Drops a product's counter after the current transaction commits, so the
+     * next purchase reloads it from the database
+     * @param productId the product that was written
+     */
+    public void invalidate(Long productId) {
+        TransactionHooks.afterCommit(() -> {
+            AtomicInteger counter = counters.remove(productId);
+            if (counter != null) {
+                counter.set(DROPPED);
+            }
+        });
+    }
+
+    /**
+     * Applies the durable sales to the database in one batch. Runs every flush
+     * interval; safe to call at any time.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            PurchaseJournal.Drain drain = journal.drain();
+            if (drain.sales().isEmpty()) {
+                return;
+            }
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                apply(drain.sales(), drain.upToSeq());
+            } catch (RuntimeException e) {
+                journal.restore(drain);
+                log.error("Write-behind purchase flush failed; {} products will be retried", drain.sales().size(), e);
+                return;
+            }
+            drain.sales().forEach((productId, quantity) -> {
+                unflushed.get(productId).addAndGet(-quantity);
+                unflushedTotal.addAndGet(-quantity);
+            });
+            journal.release(drain.upToSeq());
+            sample.stop(meterRegistry.timer("inventory.purchase.buffer.flush"));
+            meterRegistry.summary("inventory.purchase.buffer.flush.products").record(drain.sales().size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        try {
+            long checkpoint = readCheckpoint();
+            PurchaseJournal.Replay replay = journal.replay(checkpoint);
+            if (!replay.unapplied().isEmpty()) {
+                apply(replay.unapplied(), replay.maxSeq());
+                log.info("Replayed write-behind sales of {} products from the purchase journal",
+                        replay.unapplied().size());
+            }
+            journal.start(replay.maxSeq());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the purchase journal", e);
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "purchase-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = flushInterval.toMillis();
+        flusher.scheduleWithFixedDelay(this::flush, millis, millis, TimeUnit.MILLISECONDS);
+        running = true;
+        log.info("Write-behind purchases enabled, flushing every {} ms", millis);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (flusher != null) {
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flusher = null;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            log.warn("Error closing the purchase journal", e);
+        }
+        // Anything still pending is durable in the journal and replayed on the next start
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private PurchaseOutcome reserve(Long productId, AtomicInteger pending) {
+        while (true) {
+            AtomicInteger counter = counters.get(productId);
+            if (counter == null) {
+                counter = load(productId);
+                if (counter == null) {
+                    return PurchaseOutcome.NOT_FOUND;
+                }
+            }
+            int available = counter.get();
+            if (available <= DROPPED / 2) {
+                continue;
+            }
+            if (available <= 0) {
+                return PurchaseOutcome.OUT_OF_STOCK;
+            }
+            // Count the sale as unflushed before taking it, so a concurrent reload never oversells;
+            // only while taking, so buyers still waiting for the load do not shrink it
+            pending.incrementAndGet();
+            if (counter.compareAndSet(available, available - 1)) {
+                return PurchaseOutcome.PURCHASED;
+            }
+            pending.decrementAndGet();
+        }
+    }
+
+    /**
+     * Builds a product's counter from its home location stock less the sales not flushed yet
+     */
+    private AtomicInteger load(Long productId) {
+        // Hold off flushes so home stock and unflushed sales are read as one consistent pair;
+        // a flush credits its sales to home stock before it lets go of the lock
+        flushLock.lock();
+        try {
+            // Only home stock: inventory_count also counts units held at other locations
+            Optional<Integer> home = locationStockService.stock(ItemType.PRODUCT, productId)
+                    .map(stock -> stock.get(locationStockService.home()));
+            if (home.isEmpty()) {
+                return null;
+            }
+            AtomicInteger pending = unflushed.get(productId);
+            int notFlushed = pending == null ? 0 : pending.get();
+            AtomicInteger counter = new AtomicInteger(home.get() - notFlushed);
+            AtomicInteger existing = counters.putIfAbsent(productId, counter);
+            return existing != null ? existing : counter;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void apply(Map<Long, Integer> sales, long upToSeq) {
+        List<Long> productIds = new ArrayList<>(sales.keySet());
+        List<Object[]> params = new ArrayList<>(sales.size());
+        productIds.forEach(productId -> params.add(new Object[]{sales.get(productId), productId, sales.get(productId)}));
+        transactionTemplate.executeWithoutResult(status -> {
+            int[] counts = jdbcTemplate.batchUpdate(SELL_SQL, params);
+            if (jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, upToSeq, PurchaseJournalCheckpoint.ID) == 0) {
+                jdbcTemplate.update(INSERT_CHECKPOINT_SQL, PurchaseJournalCheckpoint.ID, upToSeq);
+            }
+            for (int i = 0; i < counts.length; i++) {
+                Long productId = productIds.get(i);
+                int quantity = sales.get(productId);
+                if (counts[i] == 0) {
+                    // Stock went elsewhere before the sale was applied (or the product was deleted)
+                    log.error("Write-behind sale of {} units of product {} would take its stock below zero; not applied",
+                            quantity, productId);
+                    meterRegistry.counter("inventory.purchase.buffer.oversold").increment(quantity);
+                    continue;
+                }
+                valuationService.sellProduct(productId, quantity);
+                ledgerService.record(ItemType.PRODUCT, productId, MovementType.SALE, -quantity);
+            }
+        });
+        // The batch bypasses Hibernate, so drop the cached copies of the products it changed
+        sales.keySet().forEach(productId -> entityManagerFactory.getCache().evict(Product.class, productId));
+    }
+
+    private long readCheckpoint() {
+        List<Long> lastSeq = jdbcTemplate.queryForList(
+                "SELECT last_seq FROM purchase_journal_checkpoint WHERE id = ?", Long.class, PurchaseJournalCheckpoint.ID);
+        return lastSeq.isEmpty() ? 0 : lastSeq.get(0);
+    }
+}
@@ -0,0 +1,45 @@
+package com.furniture.inventory.purchase;
+
+import com.furniture.inventory.entity.InventoryWriteListener;
+import com.furniture.inventory.entity.Product;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops a product's write-behind stock counter when the product is written
+ * through JPA, so the next purchase reloads it. A new product has no counter
+ * to drop. Does nothing when write-behind purchases are disabled.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Component
+@Order(70)
+public class PurchaseBufferEntityListener implements InventoryWriteListener {
+
+    private final ObjectProvider<PurchaseBuffer> purchaseBuffer;
+
+    @Autowired
+    public PurchaseBufferEntityListener(ObjectProvider<PurchaseBuffer> purchaseBuffer) {
+        this.purchaseBuffer = purchaseBuffer;
+    }
+
+    @Override
+    public void productSaved(Product product) {
+        invalidate(product);
+    }
+
+    @Override
+    public void productRemoved(Product product) {
+        invalidate(product);
+    }
+
+    private void invalidate(Product product) {
+        PurchaseBuffer buffer = purchaseBuffer.getIfAvailable();
+        if (buffer != null) {
+            buffer.invalidate(product.getId());
+        }
+    }
+}
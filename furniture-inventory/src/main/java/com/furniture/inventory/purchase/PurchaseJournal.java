@@ -0,0 +1,321 @@
+package com.furniture.inventory.purchase;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Durable journal of acknowledged write-behind sales.
+ *
+ * Appends are group-committed by one journal thread: every sale waiting when
+ * the thread wakes is written and fsynced together, so a burst costs one fsync
+ * rather than one per click. A sale is added to the pending (not yet flushed)
+ * totals only once it is durable, in sequence order, so a drain always covers
+ * exactly the journal up to its sequence number.
+ *
+ * The journal is split into segment files named after their first sequence
+ * number. Segments whose sales are all in the database are deleted.
+ *
+ * Record layout: seq (8 bytes), product id (8), quantity (4), CRC32 of the
+ * preceding 20 bytes (4). A torn record at the end of a segment is ignored on replay.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+class PurchaseJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(PurchaseJournal.class);
+    private static final int RECORD_BYTES = 24;
+    private static final int MAX_GROUP = 1024;
+    private static final String SEGMENT_PREFIX = "purchases-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final MeterRegistry meterRegistry;
+    private final BlockingQueue<Append> queue = new LinkedBlockingQueue<>();
+
+    private final Object pendingLock = new Object();
+    // guarded by pendingLock
+    private Map<Long, Integer> pending = new HashMap<>();
+    private long pendingUpToSeq;
+
+    private final Object segmentsLock = new Object();
+    // guarded by segmentsLock
+    private final Deque<Segment> closedSegments = new ArrayDeque<>();
+
+    // Owned by the journal thread once it starts
+    private FileChannel channel;
+    private Path segmentPath;
+    private long lastSeq;
+
+    private volatile boolean running;
+    private volatile IOException failure;
+    private Thread thread;
+
+    PurchaseJournal(Path dir, long segmentBytes, MeterRegistry meterRegistry) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Reads every segment left by a previous run
+     * @param checkpoint last sequence number already applied to the database
+     * @return sales after the checkpoint, per product, and the highest sequence number found
+     */
+    Replay replay(long checkpoint) throws IOException {
+        Files.createDirectories(dir);
+        Map<Long, Integer> unapplied = new HashMap<>();
+        long maxSeq = checkpoint;
+        for (Path segment : segments()) {
+            ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+            try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+                while (true) {
+                    record.clear();
+                    while (record.hasRemaining() && in.read(record) >= 0) {
+                        // keep reading until the record is complete or the file ends
+                    }
+                    if (record.hasRemaining() || !valid(record)) {
+                        break;
+                    }
+                    long seq = record.getLong(0);
+                    if (seq > checkpoint) {
+                        unapplied.merge(record.getLong(8), record.getInt(16), Integer::sum);
+                    }
+                    maxSeq = Math.max(maxSeq, seq);
+                }
+            }
+        }
+        return new Replay(unapplied, maxSeq);
+    }
+
+    /**
+     * Deletes the segments of a previous run once their sales are in the database,
+     * then opens a fresh segment and starts the journal thread
+     * @param afterSeq sequence number to continue after
+     */
+    void start(long afterSeq) throws IOException {
+        for (Path segment : segments()) {
+            Files.delete(segment);
+        }
+        lastSeq = afterSeq;
+        pendingUpToSeq = afterSeq;
+        openSegment(afterSeq + 1);
+        running = true;
+        thread = new Thread(this::run, "purchase-journal");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues a sale for the next group commit
+     * @param productId the product sold
+     * @param quantity units sold
+     * @return completes once the sale is durable, or exceptionally if it could not be written
+     */
+    CompletableFuture<Void> append(long productId, int quantity) {
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        if (failure != null || !running) {
+            durable.completeExceptionally(new IOException("Purchase journal is not accepting writes", failure));
+            return durable;
+        }
+        queue.add(new Append(productId, quantity, durable));
+        return durable;
+    }
+
+    /**
+     * @return whether sales can be journaled
+     */
+    boolean isWritable() {
+        return running && failure == null;
+    }
+
+    /**
+     * @return sales waiting for the journal thread
+     */
+    int queued() {
+        return queue.size();
+    }
+
+    /**
+     * Takes the durable sales not yet flushed
+     * @return sales per product, covering the journal up to {@link Drain#upToSeq()}
+     */
+    Drain drain() {
+        synchronized (pendingLock) {
+            Drain drain = new Drain(pending, pendingUpToSeq);
+            pending = new HashMap<>();
+            return drain;
+        }
+    }
+
+    /**
+     * Puts back sales whose flush failed, so the next flush retries them
+     * @param drain what {@link #drain()} returned
+     */
+    void restore(Drain drain) {
+        synchronized (pendingLock) {
+            drain.sales().forEach((productId, quantity) -> pending.merge(productId, quantity, Integer::sum));
+        }
+    }
+
+    /**
+     * Deletes closed segments whose sales are all in the database
+     * @param appliedSeq last sequence number applied to the database
+     */
+    void release(long appliedSeq) {
+        synchronized (segmentsLock) {
+            while (!closedSegments.isEmpty() && closedSegments.peekFirst().lastSeq() <= appliedSeq) {
+                Path path = closedSegments.pollFirst().path();
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("Could not delete purchase journal segment {}", path, e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops accepting sales, writes what is queued and closes the current segment
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private void run() {
+        List<Append> group = new ArrayList<>(MAX_GROUP);
+        while (running || !queue.isEmpty()) {
+            try {
+                Append first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+                queue.drainTo(group, MAX_GROUP - 1);
+                if (failure != null) {
+                    throw failure;
+                }
+                writeGroup(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException e) {
+                if (failure == null) {
+                    log.error("Purchase journal write failed; write-behind purchases are disabled", e);
+                    failure = e;
+                }
+                group.forEach(a -> a.durable().completeExceptionally(e));
+            }
+            group.clear();
+        }
+    }
+
+    private void writeGroup(List<Append> group) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        ByteBuffer buffer = ByteBuffer.allocate(group.size() * RECORD_BYTES);
+        long seq = lastSeq;
+        CRC32 crc = new CRC32();
+        for (Append append : group) {
+            int start = buffer.position();
+            buffer.putLong(++seq).putLong(append.productId()).putInt(append.quantity());
+            crc.reset();
+            crc.update(buffer.array(), start, RECORD_BYTES - 4);
+            buffer.putInt((int) crc.getValue());
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+        lastSeq = seq;
+        sample.stop(meterRegistry.timer("inventory.purchase.journal.sync"));
+
+        synchronized (pendingLock) {
+            for (Append append : group) {
+                pending.merge(append.productId(), append.quantity(), Integer::sum);
+            }
+            pendingUpToSeq = seq;
+        }
+        group.forEach(a -> a.durable().complete(null));
+
+        if (channel.size() >= segmentBytes) {
+            channel.close();
+            synchronized (segmentsLock) {
+                closedSegments.addLast(new Segment(segmentPath, lastSeq));
+            }
+            openSegment(lastSeq + 1);
+        }
+    }
+
+    private void openSegment(long firstSeq) throws IOException {
+        segmentPath = dir.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSeq, SEGMENT_SUFFIX));
+        channel = FileChannel.open(segmentPath, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).sorted().toList();
+        }
+    }
+
+    private static boolean valid(ByteBuffer record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, RECORD_BYTES - 4);
+        return (int) crc.getValue() == record.getInt(RECORD_BYTES - 4);
+    }
+
+    private record Append(long productId, int quantity, CompletableFuture<Void> durable) {
+    }
+
+    private record Segment(Path path, long lastSeq) {
+    }
+
+    /**
+     * Sales found on replay
+     */
+    record Replay(Map<Long, Integer> unapplied, long maxSeq) {
+    }
+
+    /**
+     * Durable sales taken for a flush
+     */
+    record Drain(Map<Long, Integer> sales, long upToSeq) {
+    }
+}
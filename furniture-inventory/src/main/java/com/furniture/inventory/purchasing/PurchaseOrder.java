@@ -0,0 +1,30 @@
+package com.furniture.inventory.purchasing;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A purchase order for one supplier, as written to the outbox.
+ *
+ * @param number the order number, unique across restarts
+ * @param supplier the supplier company, as named on its parts
+ * @param createdAt when the order was issued
+ * @param lines the parts ordered, by part id
+ * @param units total units
+ * @param cost total price of the units
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public record PurchaseOrder(String number, String supplier, Instant createdAt, List<Line> lines,
+                            long units, double cost) {
+
+    /**
+     * @param partId the part ID
+     * @param name the part name
+     * @param quantity units ordered: enough to bring the part up to its maximum inventory
+     * @param unitPrice the part's price
+     */
+    public record Line(Long partId, String name, int quantity, double unitPrice) {
+    }
+}
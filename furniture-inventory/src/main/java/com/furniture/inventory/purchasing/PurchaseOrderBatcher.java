@@ -0,0 +1,335 @@
+package com.furniture.inventory.purchasing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furniture.inventory.alert.StockAlert;
+import com.furniture.inventory.entity.StockStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Coalesces low-stock outsourced parts into one purchase order per supplier.
+ *
+ * Every LOW stock alert for an outsourced part adds a line to its supplier's open
+ * batch, sized to bring the part back up to its maximum inventory; a part that
+ * recovers before the batch goes out is dropped from it. A batch is issued once
+ * its oldest line has waited {@code window}, or as soon as it reaches
+ * {@code max-lines}. Supplier, name and price come from the {@link SupplierIndex},
+ * so issuing an order never reads the part table.
+ *
+ * Issued orders are written as JSON files to the outbox directory, atomically, for
+ * the supplier integration (or {@link StubSupplierService}) to pick up. Open
+ * batches are not persisted: at startup they are rebuilt from the parts that are
+ * LOW and not on an order still in the outbox.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Service
+public class PurchaseOrderBatcher implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PurchaseOrderBatcher.class);
+    private static final String OUTSOURCED_PARTS = "SELECT id, company_name, name, price, inventory_count, " +
+            "max_inventory, stock_status FROM part WHERE part_type = 'OUTSOURCED'";
+    private static final DateTimeFormatter NUMBER_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SupplierIndex supplierIndex;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Duration window;
+    private final int maxLines;
+    private final Path outboxDir;
+    private final AtomicLong orderCount = new AtomicLong();
+
+    private final Object lock = new Object();
+    // supplier key -> part id -> quantity and when it was added; guarded by lock
+    private final Map<String, Map<Long, Pending>> batches = new HashMap<>();
+
+    private ScheduledExecutorService ticker;
+    private volatile boolean running;
+
+    @Autowired
+    public PurchaseOrderBatcher(JdbcTemplate jdbcTemplate,
+                                SupplierIndex supplierIndex,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${inventory.purchasing.window:PT5M}") Duration window,
+                                @Value("${inventory.purchasing.max-lines:50}") int maxLines,
+                                @Value("${inventory.purchasing.outbox-dir:./data/purchase-orders}") Path outboxDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.supplierIndex = supplierIndex;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.window = window;
+        this.maxLines = maxLines;
+        this.outboxDir = outboxDir;
+        meterRegistry.gauge("inventory.purchasing.pending.lines", batches, b -> pendingLines());
+    }
+
+    /**
+     * Loads the supplier index and reopens batches for parts that are low and not
+     * on an order still waiting in the outbox. Runs at startup and after bulk imports.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public void load() {
+        Map<Long, SupplierIndex.Entry> entries = new HashMap<>();
+        Map<Long, Integer> low = new HashMap<>();
+        RowCallbackHandler rows = rs -> {
+            entries.put(rs.getLong(1), new SupplierIndex.Entry(rs.getString(2), rs.getString(3), rs.getDouble(4)));
+            if (StockStatus.LOW.name().equals(rs.getString(7))) {
+                low.put(rs.getLong(1), rs.getInt(6) - rs.getInt(5));
+            }
+        };
+        jdbcTemplate.query(OUTSOURCED_PARTS, rows);
+        supplierIndex.replace(entries);
+
+        Set<Long> onOrder = partsInOutbox();
+        synchronized (lock) {
+            low.forEach((partId, quantity) -> {
+                if (!onOrder.contains(partId)) {
+                    add(partId, quantity);
+                }
+            });
+        }
+        log.info("Purchasing: {} outsourced parts from {} suppliers, {} lines waiting",
+                entries.size(), supplierIndex.supplierSizes().size(), pendingLines());
+    }
+
+    /**
+     * Adds a part that went low to its supplier's batch, or drops one that recovered
+     * @param alert a stock alert, raised after the change committed
+     */
+    @EventListener
+    public void onStockAlert(StockAlert alert) {
+        if (supplierIndex.get(alert.partId()) == null) {
+            return;
+        }
+        boolean full;
+        synchronized (lock) {
+            if (alert.status() == StockStatus.LOW) {
+                full = add(alert.partId(), alert.maxInv() - alert.inv());
+            } else {
+                drop(alert.partId());
+                full = false;
+            }
+        }
+        ScheduledExecutorService current = ticker;
+        if (full && current != null) {
+            current.execute(this::issueSafely);
+        }
+    }
+
+    /**
+     * @return open batches: supplier name to part id to quantity, by supplier name
+     */
+    public Map<String, Map<Long, Integer>> pending() {
+        Map<String, Map<Long, Integer>> view = new TreeMap<>();
+        synchronized (lock) {
+            batches.forEach((key, lines) -> {
+                Map<Long, Integer> quantities = new TreeMap<>();
+                lines.forEach((partId, line) -> quantities.put(partId, line.quantity()));
+                view.put(supplierIndex.displayName(key), quantities);
+            });
+        }
+        return view;
+    }
+
+    /**
+     * Issues every open batch now, regardless of the window
+     * @return the orders written to the outbox
+     */
+    public List<PurchaseOrder> issueAll() {
+        return issue(true);
+    }
+
+    @Override
+    public synchronized void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "purchase-order-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Check a few times per window so batches go out close to their deadline
+        long millis = Math.max(100, Math.min(window.toMillis() / 10, 10_000));
+        ticker.scheduleWithFixedDelay(this::issueSafely, millis, millis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (ticker != null) {
+            ticker.shutdownNow();
+            ticker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void issueSafely() {
+        try {
+            issue(false);
+        } catch (RuntimeException e) {
+            // Keep the ticker alive; batches stay open and are retried next time
+            log.warn("Issuing purchase orders failed", e);
+        }
+    }
+
+    /**
+     * Writes the batches that are due, or all of them
+     */
+    private List<PurchaseOrder> issue(boolean all) {
+        Instant now = Instant.now();
+        Map<String, Map<Long, Pending>> due = new TreeMap<>();
+        synchronized (lock) {
+            batches.forEach((key, lines) -> {
+                if (all || lines.size() >= maxLines || oldest(lines).plus(window).isBefore(now)) {
+                    due.put(key, lines);
+                }
+            });
+            due.keySet().forEach(batches::remove);
+        }
+
+        List<PurchaseOrder> orders = new ArrayList<>();
+        for (Map.Entry<String, Map<Long, Pending>> batch : due.entrySet()) {
+            PurchaseOrder order = order(batch.getKey(), batch.getValue(), now);
+            if (order.lines().isEmpty()) {
+                continue;
+            }
+            try {
+                write(order);
+                orders.add(order);
+                meterRegistry.counter("inventory.purchasing.orders").increment();
+                meterRegistry.summary("inventory.purchasing.order.lines").record(order.lines().size());
+            } catch (IOException e) {
+                log.error("Could not write purchase order {}; its lines stay open", order.number(), e);
+                synchronized (lock) {
+                    batch.getValue().forEach((partId, line) ->
+                            batches.computeIfAbsent(batch.getKey(), k -> new LinkedHashMap<>()).putIfAbsent(partId, line));
+                }
+            }
+        }
+        return orders;
+    }
+
+    private PurchaseOrder order(String supplierKey, Map<Long, Pending> lines, Instant now) {
+        List<PurchaseOrder.Line> orderLines = new ArrayList<>();
+        long units = 0;
+        double cost = 0;
+        for (Map.Entry<Long, Pending> line : new TreeMap<>(lines).entrySet()) {
+            SupplierIndex.Entry part = supplierIndex.get(line.getKey());
+            // Deleted, or moved to another supplier, since it was added
+            if (part == null || !part.supplierKey().equals(supplierKey)) {
+                continue;
+            }
+            orderLines.add(new PurchaseOrder.Line(line.getKey(), part.name(), line.getValue().quantity(), part.price()));
+            units += line.getValue().quantity();
+            cost += line.getValue().quantity() * part.price();
+        }
+        String number = "PO-" + NUMBER_FORMAT.format(now) + "-" + orderCount.incrementAndGet();
+        return new PurchaseOrder(number, supplierIndex.displayName(supplierKey), now, orderLines, units, cost);
+    }
+
+    private void write(PurchaseOrder order) throws IOException {
+        Files.createDirectories(outboxDir);
+        Path file = outboxDir.resolve(order.number() + ".json");
+        Path temp = outboxDir.resolve(order.number() + ".json.tmp");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(temp.toFile(), order);
+        // The consumer only picks up *.json, so it never sees a half-written order
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Issued purchase order {} to {}: {} lines, {} units", order.number(), order.supplier(),
+                order.lines().size(), order.units());
+    }
+
+    private Set<Long> partsInOutbox() {
+        Set<Long> partIds = new HashSet<>();
+        if (!Files.isDirectory(outboxDir)) {
+            return partIds;
+        }
+        try (Stream<Path> files = Files.list(outboxDir)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(".json")).toList()) {
+                objectMapper.readValue(file.toFile(), PurchaseOrder.class).lines()
+                        .forEach(line -> partIds.add(line.partId()));
+            }
+        } catch (IOException e) {
+            log.warn("Could not read the purchase order outbox {}", outboxDir, e);
+        }
+        return partIds;
+    }
+
+    /**
+     * Adds or resizes a line; call under the lock
+     * @return whether the supplier's batch is now full
+     */
+    private boolean add(Long partId, int quantity) {
+        SupplierIndex.Entry part = supplierIndex.get(partId);
+        if (part == null || quantity <= 0) {
+            return false;
+        }
+        drop(partId);
+        Map<Long, Pending> lines = batches.computeIfAbsent(part.supplierKey(), k -> new LinkedHashMap<>());
+        lines.put(partId, new Pending(quantity, Instant.now()));
+        return lines.size() >= maxLines;
+    }
+
+    /**
+     * Removes a part from whichever batch holds it; call under the lock
+     */
+    private void drop(Long partId) {
+        batches.values().removeIf(lines -> lines.remove(partId) != null && lines.isEmpty());
+    }
+
+    private int pendingLines() {
+        synchronized (lock) {
+            return batches.values().stream().mapToInt(Map::size).sum();
+        }
+    }
+
+    private static Instant oldest(Map<Long, Pending> lines) {
+        Instant oldest = Instant.MAX;
+        for (Pending line : lines.values()) {
+            if (line.addedAt().isBefore(oldest)) {
+                oldest = line.addedAt();
+            }
+        }
+        return oldest;
+    }
+
+    private record Pending(int quantity, Instant addedAt) {
+    }
+}
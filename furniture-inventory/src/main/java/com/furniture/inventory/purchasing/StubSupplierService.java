@@ -0,0 +1,111 @@
+package com.furniture.inventory.purchasing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Stand-in for the supplier integration, for development and demos: polls the
+ * purchase order outbox, logs each order as accepted and moves it to
+ * {@code accepted/} below the outbox. Orders there no longer count as open when
+ * {@link PurchaseOrderBatcher} reopens batches at startup.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Service
+@ConditionalOnProperty(prefix = "inventory.purchasing.stub-supplier", name = "enabled", havingValue = "true")
+public class StubSupplierService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(StubSupplierService.class);
+
+    private final ObjectMapper objectMapper;
+    private final Path outboxDir;
+    private final Duration interval;
+
+    private ScheduledExecutorService poller;
+    private volatile boolean running;
+
+    @Autowired
+    public StubSupplierService(ObjectMapper objectMapper,
+                               @Value("${inventory.purchasing.outbox-dir:./data/purchase-orders}") Path outboxDir,
+                               @Value("${inventory.purchasing.stub-supplier.interval:5s}") Duration interval) {
+        this.objectMapper = objectMapper;
+        this.outboxDir = outboxDir;
+        this.interval = interval;
+    }
+
+    /**
+     * Accepts every order waiting in the outbox
+     * @return the number of orders accepted
+     */
+    public int poll() {
+        if (!Files.isDirectory(outboxDir)) {
+            return 0;
+        }
+        List<Path> waiting;
+        try (Stream<Path> files = Files.list(outboxDir)) {
+            waiting = files.filter(f -> f.getFileName().toString().endsWith(".json")).sorted().toList();
+        } catch (IOException e) {
+            log.warn("Could not list the purchase order outbox {}", outboxDir, e);
+            return 0;
+        }
+        int accepted = 0;
+        for (Path file : waiting) {
+            try {
+                PurchaseOrder order = objectMapper.readValue(file.toFile(), PurchaseOrder.class);
+                Path done = Files.createDirectories(outboxDir.resolve("accepted"));
+                Files.move(file, done.resolve(file.getFileName()), StandardCopyOption.ATOMIC_MOVE);
+                log.info("Supplier {} accepted purchase order {}: {} lines, {} units, {}",
+                        order.supplier(), order.number(), order.lines().size(), order.units(),
+                        String.format("%.2f", order.cost()));
+                accepted++;
+            } catch (IOException e) {
+                log.warn("Could not accept purchase order {}", file, e);
+            }
+        }
+        return accepted;
+    }
+
+    @Override
+    public synchronized void start() {
+        poller = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "stub-supplier");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long millis = interval.toMillis();
+        poller.scheduleWithFixedDelay(this::poll, millis, millis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,142 @@
+package com.furniture.inventory.purchasing;
+
+import com.furniture.inventory.support.TransactionHooks;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory index of outsourced parts by supplier, so purchase orders are built
+ * without reading the part table.
+ *
+ * Company names are free text, so suppliers are keyed by the name trimmed, with
+ * runs of spaces collapsed and case ignored: "Acme  Hinges" and "acme hinges" are
+ * one supplier, shown under the first spelling seen.
+ *
+ * Loaded by {@link PurchaseOrderBatcher} at startup and after bulk imports, then
+ * kept current by {@link SupplierIndexEntityListener} after each commit.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Component
+public class SupplierIndex {
+
+    private final Object lock = new Object();
+    // guarded by lock
+    private Map<Long, Entry> parts = new HashMap<>();
+    private Map<String, Set<Long>> bySupplier = new HashMap<>();
+    private Map<String, String> displayNames = new HashMap<>();
+
+    /**
+     * @param partId the part ID
+     * @return the part's supplier, name and price, or null if it is not an outsourced part
+     */
+    public Entry get(Long partId) {
+        synchronized (lock) {
+            return parts.get(partId);
+        }
+    }
+
+    /**
+     * @return supplier name to number of outsourced parts, by name
+     */
+    public Map<String, Integer> supplierSizes() {
+        synchronized (lock) {
+            Map<String, Integer> sizes = new TreeMap<>();
+            bySupplier.forEach((key, ids) -> sizes.put(displayNames.get(key), ids.size()));
+            return sizes;
+        }
+    }
+
+    /**
+     * Replaces the whole index
+     * @param entries every outsourced part
+     */
+    void replace(Map<Long, Entry> entries) {
+        synchronized (lock) {
+            parts = new HashMap<>();
+            bySupplier = new HashMap<>();
+            displayNames = new HashMap<>();
+            entries.forEach(this::putLocked);
+        }
+    }
+
+    /**
+     * Records an outsourced part's supplier, name and price once the write commits
+     */
+    void put(Long partId, String companyName, String name, double price) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (lock) {
+                putLocked(partId, new Entry(companyName, name, price));
+            }
+        });
+    }
+
+    /**
+     * Drops a deleted part once the delete commits
+     */
+    void remove(Long partId) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (lock) {
+                removeLocked(partId);
+            }
+        });
+    }
+
+    /**
+     * @param companyName a company name as entered
+     * @return the key identifying the supplier
+     */
+    static String key(String companyName) {
+        return companyName == null ? "" : companyName.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private void putLocked(Long partId, Entry entry) {
+        removeLocked(partId);
+        parts.put(partId, entry);
+        String key = entry.supplierKey();
+        bySupplier.computeIfAbsent(key, k -> new HashSet<>()).add(partId);
+        displayNames.putIfAbsent(key, entry.supplier() == null ? "" : entry.supplier().trim());
+    }
+
+    private void removeLocked(Long partId) {
+        Entry previous = parts.remove(partId);
+        if (previous != null) {
+            Set<Long> ids = bySupplier.get(previous.supplierKey());
+            if (ids != null && ids.remove(partId) && ids.isEmpty()) {
+                bySupplier.remove(previous.supplierKey());
+                displayNames.remove(previous.supplierKey());
+            }
+        }
+    }
+
+    /**
+     * @param supplierKey a key from {@link #key(String)}
+     * @return the supplier's name as first entered
+     */
+    String displayName(String supplierKey) {
+        synchronized (lock) {
+            return displayNames.getOrDefault(supplierKey, supplierKey);
+        }
+    }
+
+    /**
+     * An outsourced part as the purchasing side needs it.
+     *
+     * @param supplier the company name as entered on the part
+     * @param name the part name
+     * @param price the part's price
+     */
+    public record Entry(String supplier, String name, double price) {
+
+        String supplierKey() {
+            return key(supplier);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.furniture.inventory.purchasing;
+
+import com.furniture.inventory.entity.InventoryWriteListener;
+import com.furniture.inventory.entity.OutsourcedPart;
+import com.furniture.inventory.entity.Part;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@link SupplierIndex} in step with outsourced part writes. It is
+ * ordered before the stock alert listener, so a new part is indexed before
+ * its first alert is raised.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Component
+@Order(10)
+public class SupplierIndexEntityListener implements InventoryWriteListener {
+
+    private final SupplierIndex supplierIndex;
+
+    @Autowired
+    public SupplierIndexEntityListener(@Lazy SupplierIndex supplierIndex) {
+        this.supplierIndex = supplierIndex;
+    }
+
+    @Override
+    public void partSaved(Part part) {
+        if (part instanceof OutsourcedPart outsourced) {
+            supplierIndex.put(part.getId(), outsourced.getCompanyName(), part.getName(), part.getPrice());
+        }
+    }
+
+    @Override
+    public void partRemoved(Part part) {
+        if (part instanceof OutsourcedPart) {
+            supplierIndex.remove(part.getId());
+        }
+    }
+}
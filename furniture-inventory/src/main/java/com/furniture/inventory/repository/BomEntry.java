@@ -0,0 +1,11 @@
+package com.furniture.inventory.repository;
+
+/**
+ * One bill-of-materials line as loaded for BOM explosion:
+ * the id of a part or sub-assembly and how many go into one unit of the parent.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public record BomEntry(Long id, int quantity) {
+}
@@ -0,0 +1,46 @@
+package com.furniture.inventory.repository;
+
+import com.furniture.inventory.entity.InventoryMovement;
+import com.furniture.inventory.entity.ItemType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Read access to the inventory ledger. Entries are appended in JDBC batches
+ * by the ledger writer, never through this repository.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Repository
+public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long> {
+
+    /**
+     * Finds an item's most recent movements
+     * @param itemType part or product
+     * @param itemId the item ID
+     * @param pageable how many movements to return
+     * @return movements, newest first
+     */
+    List<InventoryMovement> findByItemTypeAndItemIdOrderBySeqDesc(ItemType itemType, Long itemId, Pageable pageable);
+
+    /**
+     * Sums an item's movements after a snapshot, up to a point in time.
+     * Seeks on (item, seq), so only movements since the snapshot are read.
+     * @param itemType part or product
+     * @param itemId the item ID
+     * @param afterSeq last sequence number folded into the snapshot
+     * @param at point in time
+     * @return net change in stock
+     */
+    @Query("SELECT COALESCE(SUM(m.quantity), 0) FROM InventoryMovement m " +
+            "WHERE m.itemType = :itemType AND m.itemId = :itemId AND m.seq > :afterSeq AND m.recordedAt <= :at")
+    long sumChangeSince(@Param("itemType") ItemType itemType, @Param("itemId") Long itemId,
+                        @Param("afterSeq") long afterSeq, @Param("at") Instant at);
+}
@@ -0,0 +1,48 @@
+package com.furniture.inventory.repository;
+
+import com.furniture.inventory.entity.InventorySnapshot;
+import com.furniture.inventory.entity.ItemType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Read access to ledger snapshots. Snapshots are written by the ledger writer.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Repository
+public interface InventorySnapshotRepository extends JpaRepository<InventorySnapshot, Long> {
+
+    /**
+     * Finds the latest snapshot
+     * @return the snapshot, or empty before the ledger's first start
+     */
+    Optional<InventorySnapshot> findTopByOrderByIdDesc();
+
+    /**
+     * Finds the latest snapshot taken at or before a point in time
+     * @param at point in time
+     * @return the snapshot, or empty if the ledger started later
+     */
+    Optional<InventorySnapshot> findTopByTakenAtLessThanEqualOrderByIdDesc(Instant at);
+
+    /**
+     * Finds an item's level as of a snapshot: its row in the latest snapshot
+     * at or before that one that recorded it
+     * @param itemType part or product
+     * @param itemId the item ID
+     * @param snapshotId the snapshot
+     * @return the level, or empty if the item had no stock recorded by then
+     */
+    @Query("SELECT i.inv FROM InventorySnapshotItem i WHERE i.id.itemType = :itemType AND i.id.itemId = :itemId " +
+            "AND i.id.snapshotId = (SELECT MAX(j.id.snapshotId) FROM InventorySnapshotItem j " +
+            "WHERE j.id.itemType = :itemType AND j.id.itemId = :itemId AND j.id.snapshotId <= :snapshotId)")
+    Optional<Integer> findItemLevel(@Param("itemType") ItemType itemType, @Param("itemId") Long itemId,
+                                    @Param("snapshotId") Long snapshotId);
+}
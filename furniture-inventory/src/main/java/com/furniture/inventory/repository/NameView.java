@@ -0,0 +1,15 @@
+package com.furniture.inventory.repository;
+
+/**
+ * Lightweight (id, name) projection used to build in-memory indexes
+ * without materializing full entities.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public interface NameView {
+
+    Long getId();
+
+    String getName();
+}
@@ -1,12 +1,21 @@
 package com.furniture.inventory.repository;
 
 import com.furniture.inventory.entity.Part;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for Part entities with custom query methods.
@@ -19,32 +28,141 @@ import java.util.List;
 public interface PartRepository extends JpaRepository<Part, Long> {
 
     /**
-     * Finds parts by name containing ignore case
-     * @param name the name to search for
-     * @return list of matching parts
+     * Streams the id and name of every part, used to build the search index
+     * @return stream of (id, name) projections; must be consumed inside a transaction
      */
-    List<Part> findByNameContainingIgnoreCase(String name);
+    @Query("SELECT p.id AS id, p.name AS name FROM Part p")
+    Stream<NameView> streamAllNames();
 
     /**
-     * Finds parts with inventory below minimum threshold
+     * Finds the first page of parts ordered by name
+     * @param pageable page size (offset is always zero)
+     * @return parts ordered by name then id
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT p FROM Part p ORDER BY p.name ASC, p.id ASC")
+    List<Part> findFirstPage(Pageable pageable);
+
+    /**
+     * Finds the page of parts that follows the given (name, id) cursor.
+     * Seeks directly to the cursor, so deep pages cost the same as the first one.
+     * @param name name of the last row on the current page
+     * @param id id of the last row on the current page
+     * @param pageable page size (offset is always zero)
+     * @return parts ordered by name then id
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT p FROM Part p WHERE p.name > :name OR (p.name = :name AND p.id > :id) " +
+            "ORDER BY p.name ASC, p.id ASC")
+    List<Part> findPageAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Finds the page of parts that precedes the given (name, id) cursor
+     * @param name name of the first row on the current page
+     * @param id id of the first row on the current page
+     * @param pageable page size (offset is always zero)
+     * @return parts in reverse order (name then id descending)
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT p FROM Part p WHERE p.name < :name OR (p.name = :name AND p.id < :id) " +
+            "ORDER BY p.name DESC, p.id DESC")
+    List<Part> findPageBefore(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Reads the version of one part
+     * @param id the part ID
+     * @return its version, or empty if the part does not exist
+     */
+    @Query("SELECT p.version FROM Part p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Reads the ids and versions of the first page of parts, in the order of {@link #findFirstPage}
+     * @param pageable page size (offset is always zero)
+     * @return (id, version) rows ordered by name then id
+     */
+    @Query("SELECT new com.furniture.inventory.repository.RowVersion(p.id, p.version) FROM Part p " +
+            "ORDER BY p.name ASC, p.id ASC")
+    List<RowVersion> findFirstPageVersions(Pageable pageable);
+
+    /**
+     * Reads the ids and versions of the page of parts after the given cursor, in the order of {@link #findPageAfter}
+     * @param name name of the last row on the current page
+     * @param id id of the last row on the current page
+     * @param pageable page size (offset is always zero)
+     * @return (id, version) rows ordered by name then id
+     */
+    @Query("SELECT new com.furniture.inventory.repository.RowVersion(p.id, p.version) FROM Part p " +
+            "WHERE p.name > :name OR (p.name = :name AND p.id > :id) ORDER BY p.name ASC, p.id ASC")
+    List<RowVersion> findPageVersionsAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Finds parts with inventory at or below minimum threshold.
+     * Reads the indexed stock status column rather than comparing columns on every row.
      * @return list of parts that need restocking
      */
-    @Query("SELECT p FROM Part p WHERE p.inv < p.minInv")
+    @Query("SELECT p FROM Part p WHERE p.stockStatus = com.furniture.inventory.entity.StockStatus.LOW")
     List<Part> findPartsWithLowInventory();
 
     /**
      * Finds parts with inventory above maximum capacity
      * @return list of overstocked parts
      */
-    @Query("SELECT p FROM Part p WHERE p.inv > p.maxInv")
+    @Query("SELECT p FROM Part p WHERE p.stockStatus = com.furniture.inventory.entity.StockStatus.OVER")
     List<Part> findPartsWithExcessInventory();
 
     /**
-     * Checks if a part is used in any product
+     * Reads the current levels of the given parts
+     * @param ids the part IDs
+     * @return stock levels of the parts that exist
+     */
+    @Query("SELECT new com.furniture.inventory.repository.StockLevel(p.id, p.name, p.inv, p.minInv, p.maxInv, " +
+            "p.stockStatus) FROM Part p WHERE p.id IN :ids")
+    List<StockLevel> findStockLevels(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Reads the levels of every part that is low or overstocked, using the status index
+     * @return stock levels of flagged parts
+     */
+    @Query("SELECT new com.furniture.inventory.repository.StockLevel(p.id, p.name, p.inv, p.minInv, p.maxInv, " +
+            "p.stockStatus) FROM Part p WHERE p.stockStatus <> com.furniture.inventory.entity.StockStatus.NORMAL")
+    List<StockLevel> findFlaggedStockLevels();
+
+    /**
+     * Fills in the stock status of rows written before the column existed
+     * @return number of parts updated
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Part p SET p.stockStatus = CASE WHEN p.inv <= p.minInv THEN com.furniture.inventory.entity.StockStatus.LOW " +
+            "WHEN p.inv > p.maxInv THEN com.furniture.inventory.entity.StockStatus.OVER ELSE com.furniture.inventory.entity.StockStatus.NORMAL END " +
+            "WHERE p.stockStatus IS NULL")
+    int backfillStockStatus();
+
+    /**
+     * Finds the parts that cannot give up the given quantity without dropping below minimum
+     * @param ids the parts to check
+     * @param quantity units that would be taken from each part
+     * @return parts that would end up below their minimum inventory
+     */
+    @Query("SELECT p FROM Part p WHERE p.id IN :ids AND p.inv - :quantity < p.minInv")
+    List<Part> findPartsShortOf(@Param("ids") Collection<Long> ids, @Param("quantity") int quantity);
+
+    /**
+     * Finds the products whose bill of materials uses a part
+     * @param partId the part ID
+     * @param pageable how many product ids to return
+     * @return ids of products using the part
+     */
+    @Query("SELECT l.id.productId FROM ProductPart l WHERE l.id.partId = :partId")
+    List<Long> findProductIdsUsingPart(@Param("partId") Long partId, Pageable pageable);
+
+    /**
+     * Checks if a part is used in any product; stops at the first BOM line found
+     * rather than counting them all
      * @param partId the part ID to check
      * @return true if part is used in any product
      */
-    @Query("SELECT CASE WHEN COUNT(p) > 0 THEN true ELSE false END " +
-            "FROM Product pr JOIN pr.parts p WHERE p.id = :partId")
-    boolean isPartUsedInProducts(@Param("partId") Long partId);
+    default boolean isPartUsedInProducts(Long partId) {
+        return !findProductIdsUsingPart(partId, PageRequest.of(0, 1)).isEmpty();
+    }
 }
\ No newline at end of file
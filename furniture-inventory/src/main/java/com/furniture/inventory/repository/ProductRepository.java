@@ -1,12 +1,21 @@
 package com.furniture.inventory.repository;
 
 import com.furniture.inventory.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for Product entities with custom query methods.
@@ -19,24 +28,157 @@ import java.util.List;
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     /**
-     * Finds products by name containing ignore case
-     * @param name the name to search for
-     * @return list of matching products
+     * Streams the id and name of every product, used to build the search index
+     * @return stream of (id, name) projections; must be consumed inside a transaction
      */
-    List<Product> findByNameContainingIgnoreCase(String name);
+    @Query("SELECT p.id AS id, p.name AS name FROM Product p")
+    Stream<NameView> streamAllNames();
+
+    /**
+     * Finds the first page of products ordered by name
+     * @param pageable page size (offset is always zero)
+     * @return products ordered by name then id
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT p FROM Product p ORDER BY p.name ASC, p.id ASC")
+    List<Product> findFirstPage(Pageable pageable);
+
+    /**
+     * Finds the page of products that follows the given (name, id) cursor.
+     * Seeks directly to the cursor, so deep pages cost the same as the first one.
+     * @param name name of the last row on the current page
+     * @param id id of the last row on the current page
+     * @param pageable page size (offset is always zero)
+     * @return products ordered by name then id
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT p FROM Product p WHERE p.name > :name OR (p.name = :name AND p.id > :id) " +
+            "ORDER BY p.name ASC, p.id ASC")
+    List<Product> findPageAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Finds the page of products that precedes the given (name, id) cursor
+     * @param name name of the first row on the current page
+     * @param id id of the first row on the current page
+     * @param pageable page size (offset is always zero)
+     * @return products in reverse order (name then id descending)
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT p FROM Product p WHERE p.name < :name OR (p.name = :name AND p.id < :id) " +
+            "ORDER BY p.name DESC, p.id DESC")
+    List<Product> findPageBefore(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Reads the version of one product
+     * @param id the product ID
+     * @return its version, or empty if the product does not exist
+     */
+    @Query("SELECT p.version FROM Product p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Reads the ids and versions of the first page of products, in the order of {@link #findFirstPage}
+     * @param pageable page size (offset is always zero)
+     * @return (id, version) rows ordered by name then id
+     */
+    @Query("SELECT new com.furniture.inventory.repository.RowVersion(p.id, p.version) FROM Product p " +
+            "ORDER BY p.name ASC, p.id ASC")
+    List<RowVersion> findFirstPageVersions(Pageable pageable);
+
+    /**
+     * Reads the ids and versions of the page of products after the given cursor, in the order of {@link #findPageAfter}
+     * @param name name of the last row on the current page
+     * @param id id of the last row on the current page
+     * @param pageable page size (offset is always zero)
+     * @return (id, version) rows ordered by name then id
+     */
+    @Query("SELECT new com.furniture.inventory.repository.RowVersion(p.id, p.version) FROM Product p " +
+            "WHERE p.name > :name OR (p.name = :name AND p.id > :id) ORDER BY p.name ASC, p.id ASC")
+    List<RowVersion> findPageVersionsAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Loads a product together with its part lines and their parts in one query.
+     * Sub-assembly lines are batch-fetched on first access.
+     * @param id the product ID
+     * @return the product with its bill of materials initialized
+     */
+    @EntityGraph(attributePaths = {"bomLines", "bomLines.part"})
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findWithBomById(@Param("id") Long id);
 
     /**
      * Finds products that use a specific part
      * @param partId the part ID to search for
      * @return list of products containing the part
      */
-    @Query("SELECT p FROM Product p JOIN p.parts part WHERE part.id = :partId")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT l.product FROM ProductPart l WHERE l.part.id = :partId")
     List<Product> findProductsByPartId(@Param("partId") Long partId);
 
     /**
-     * Calculates total value of inventory (sum of price * inventory for all products)
-     * @return total inventory value
+     * Finds the direct part lines of a product's bill of materials
+     * @param productId the product ID
+     * @return (part id, quantity per unit) entries
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.furniture.inventory.repository.BomEntry(l.part.id, l.quantity) " +
+            "FROM ProductPart l WHERE l.product.id = :productId")
+    List<BomEntry> findPartLines(@Param("productId") Long productId);
+
+    /**
+     * Finds the sub-assembly lines of a product's bill of materials
+     * @param productId the product ID
+     * @return (component product id, quantity per unit) entries
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.furniture.inventory.repository.BomEntry(c.component.id, c.quantity) " +
+            "FROM ProductComponent c WHERE c.parent.id = :productId")
+    List<BomEntry> findComponentLines(@Param("productId") Long productId);
+
+    /**
+     * Finds the products that use the given product as a sub-assembly
+     * @param componentId the sub-assembly product ID
+     * @return ids of the direct parent products
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT c.parent.id FROM ProductComponent c WHERE c.component.id = :componentId")
+    List<Long> findParentIds(@Param("componentId") Long componentId);
+
+    /**
+     * Finds the products that use the given product as a sub-assembly, with quantities
+     * @param componentId the sub-assembly product ID
+     * @return (parent product id, units of the sub-assembly per unit of parent) entries
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.furniture.inventory.repository.BomEntry(c.parent.id, c.quantity) " +
+            "FROM ProductComponent c WHERE c.component.id = :componentId")
+    List<BomEntry> findParentLines(@Param("componentId") Long componentId);
+
+    /**
+     * Finds the products that list the given part directly on their bill of materials
+     * @param partId the part ID
+     * @return ids of the products using the part
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT l.product.id FROM ProductPart l WHERE l.part.id = :partId")
+    List<Long> findProductIdsByPartId(@Param("partId") Long partId);
+
+    /**
+     * Shifts the materialized parts cost (and with it the margin) of several products at once.
+     * Rows whose cost has not been materialized yet are left for the backfill.
+     * @param ids the product IDs
+     * @param delta amount to add to each product's parts cost
+     * @return number of products updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.partsTotalCost = p.partsTotalCost + :delta, p.margin = p.margin - :delta, " +
+            "p.version = p.version + 1 " +
+            "WHERE p.id IN :ids AND p.partsTotalCost IS NOT NULL")
+    int adjustPartsTotalCost(@Param("ids") Collection<Long> ids, @Param("delta") double delta);
+
+    /**
+     * Finds products whose parts cost has not been materialized yet
+     * @return products with a null parts cost
      */
-    @Query("SELECT SUM(p.price * p.inv) FROM Product p")
-    Double calculateTotalInventoryValue();
+    List<Product> findByPartsTotalCostIsNull();
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.furniture.inventory.repository;
+
+/**
+ * The id and version of a row, read to validate cached API responses
+ * without loading the rows themselves.
+ *
+ * @param id the row ID
+ * @param version the row's optimistic-lock version
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public record RowVersion(Long id, long version) {
+}
@@ -0,0 +1,19 @@
+package com.furniture.inventory.repository;
+
+import com.furniture.inventory.entity.StockStatus;
+
+/**
+ * A part's inventory levels and stock status, as read for alerting.
+ *
+ * @param id the part ID
+ * @param name the part name
+ * @param inv current inventory
+ * @param minInv minimum inventory
+ * @param maxInv maximum inventory
+ * @param status the stored stock status
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public record StockLevel(Long id, String name, int inv, int minInv, int maxInv, StockStatus status) {
+}
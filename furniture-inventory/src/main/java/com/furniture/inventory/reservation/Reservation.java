@@ -0,0 +1,22 @@
+package com.furniture.inventory.reservation;
+
+import com.furniture.inventory.entity.ItemType;
+
+import java.time.Instant;
+
+/**
+ * A soft hold on units of a part or product, such as an item in a shopping cart.
+ * Held units are not available to promise to anyone else until the hold is
+ * released, confirmed or expires.
+ *
+ * @param id the reservation ID
+ * @param itemType part or product
+ * @param itemId the item ID
+ * @param quantity units held
+ * @param expiresAt when the hold lapses unless renewed
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public record Reservation(long id, ItemType itemType, Long itemId, int quantity, Instant expiresAt) {
+}
@@ -0,0 +1,432 @@
+package com.furniture.inventory.reservation;
+
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.entity.MovementType;
+import com.furniture.inventory.location.LocationStockService;
+import com.furniture.inventory.support.TransactionHooks;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Soft reservations of part and product stock, such as items in shopping carts.
+ *
+ * A reservation holds units without taking them: the item's available-to-promise
+ * quantity is its on-hand total across locations minus the units held, and a new
+ * hold, a "Buy Now" purchase or an assembly is refused what is not available.
+ * On hand is {@link LocationStockService#total}, which already leaves out the
+ * write-behind sales not flushed yet.
+ * Each item in use has a read-write lock: takes of an item with nothing held share
+ * it, while a take past holds and a new hold have it to themselves until the
+ * units have left the on-hand total, so a check and what follows it are one step.
+ * An item's lock is dropped once no take or new hold is using it, so the locks
+ * grow with the items being worked on rather than with every item ever touched.
+ * Confirming a reservation sells the held units; releasing it, or letting it
+ * expire, makes them available again.
+ *
+ * Every reservation has a time to live. Expiry runs on a {@link TimingWheel}
+ * turned by one thread every {@code tick}, so a tick costs the same with a
+ * million holds as with none, apart from the holds that actually expire, and a
+ * hold costs one small object rather than a timer or a database row.
+ * Reservations are kept in memory only: a restart releases them all, which
+ * errs on the side of selling.
+ *
+ * Metrics: {@code inventory.reservation.active} counts live holds and
+ * {@code inventory.reservation.expired} counts holds that lapsed.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Service
+public class ReservationService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationService.class);
+
+    private final LocationStockService locationStockService;
+    private final MeterRegistry meterRegistry;
+    private final long tickNanos;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final long origin = System.nanoTime();
+    private final AtomicLong ids = new AtomicLong();
+
+    private final Map<Long, Hold> holds = new ConcurrentHashMap<>();
+    // item id -> units held; items with nothing held have no entry
+    private final Map<Long, Integer> reservedParts = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> reservedProducts = new ConcurrentHashMap<>();
+    private final Map<Long, ItemLock> partLocks = new ConcurrentHashMap<>();
+    private final Map<Long, ItemLock> productLocks = new ConcurrentHashMap<>();
+    // Guarded by itself
+    private final TimingWheel<Hold> wheel;
+
+    private ScheduledExecutorService ticker;
+    private volatile boolean running;
+
+    @Autowired
+    public ReservationService(LocationStockService locationStockService,
+                              MeterRegistry meterRegistry,
+                              @Value("${inventory.reservation.tick:100ms}") Duration tick,
+                              @Value("${inventory.reservation.default-ttl:PT15M}") Duration defaultTtl,
+                              @Value("${inventory.reservation.max-ttl:PT2H}") Duration maxTtl) {
+        this.locationStockService = locationStockService;
+        this.meterRegistry = meterRegistry;
+        this.tickNanos = Math.max(1, tick.toNanos());
+        this.defaultTtl = defaultTtl;
+        this.maxTtl = maxTtl;
+        this.wheel = new TimingWheel<>(currentTick());
+        meterRegistry.gauge("inventory.reservation.active", holds, Map::size);
+    }
+
+    /**
+     * Holds units of an item if that many are available to promise
+     * @param itemType part or product
+     * @param itemId the item ID
+     * @param quantity units to hold
+     * @param ttl how long to hold them; null for {@code default-ttl}
+     * @return the reservation, or empty if fewer units are available or there is no such item
+     * @throws IllegalArgumentException if the quantity or time to live is out of range
+     */
+    public Optional<Reservation> reserve(ItemType itemType, Long itemId, int quantity, Duration ttl) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        Duration holdFor = checkTtl(ttl);
+        // Alone, so no take is under way between reading the on-hand total and holding
+        Lock lock = use(itemType, itemId).writeLock();
+        lock.lock();
+        try {
+            OptionalLong available = available(itemType, itemId);
+            if (available.isEmpty() || available.getAsLong() < quantity) {
+                return Optional.empty();
+            }
+            reserved(itemType).merge(itemId, quantity, Integer::sum);
+        } finally {
+            lock.unlock();
+            unuse(itemType, itemId);
+        }
+        Hold hold = new Hold(ids.incrementAndGet(), itemType, itemId, quantity);
+        holds.put(hold.id, hold);
+        synchronized (wheel) {
+            schedule(hold, holdFor);
+        }
+        return Optional.of(hold.view());
+    }
+
+    /**
+     * @param id the reservation ID
+     * @return the reservation, or empty if it was released, confirmed or has expired
+     */
+    public Optional<Reservation> find(long id) {
+        return Optional.ofNullable(holds.get(id)).map(Hold::view);
+    }
+
+    /**
+     * Extends a reservation to expire the given time from now
+     * @param id the reservation ID
+     * @param ttl how long to keep holding; null for {@code default-ttl}
+     * @return the renewed reservation, or empty if it was released, confirmed or has expired
+     * @throws IllegalArgumentException if the time to live is out of range
+     */
+    public Optional<Reservation> renew(long id, Duration ttl) {
+        Duration holdFor = checkTtl(ttl);
+        Hold hold = holds.get(id);
+        if (hold == null) {
+            return Optional.empty();
+        }
+        synchronized (wheel) {
+            // Expired, released or being confirmed since the lookup
+            if (!hold.isScheduled()) {
+                return Optional.empty();
+            }
+            schedule(hold, holdFor);
+        }
+        return Optional.of(hold.view());
+    }
+
+    /**
+     * Drops a reservation, making its units available again
+     * @param id the reservation ID
+     * @return whether there was such a reservation
+     */
+    public boolean release(long id) {
+        Hold hold = holds.remove(id);
+        if (hold == null) {
+            return false;
+        }
+        synchronized (wheel) {
+            wheel.cancel(hold);
+        }
+        unreserve(hold);
+        return true;
+    }
+
+    /**
+     * Sells a reservation's units, from the given location if it has them and
+     * otherwise from wherever the item is in stock
+     * @param id the reservation ID
+     * @param location the location to sell from first; null for no preference
+     * @return whether the units were sold; false if there is no such reservation or
+     *         the stock was taken by changes that bypass reservations, in which
+     *         case the reservation is kept
+     * @throws IllegalArgumentException if the location is unknown
+     */
+    public boolean confirm(long id, String location) {
+        Hold hold = holds.remove(id);
+        if (hold == null) {
+            return false;
+        }
+        synchronized (wheel) {
+            wheel.cancel(hold);
+        }
+        boolean sold = false;
+        try {
+            sold = sell(hold, location);
+            return sold;
+        } finally {
+            if (sold) {
+                // Taken before unreserving, so the units are never available twice
+                unreserve(hold);
+            } else {
+                holds.put(hold.id, hold);
+                synchronized (wheel) {
+                    // Expires on the next tick if its time ran out meanwhile
+                    wheel.schedule(hold, hold.deadline());
+                }
+            }
+        }
+    }
+
+    /**
+     * @param itemType part or product
+     * @param itemId the item ID
+     * @return units on hand and not held, or empty if there is no such item
+     */
+    public OptionalLong available(ItemType itemType, Long itemId) {
+        OptionalLong onHand = locationStockService.total(itemType, itemId);
+        if (onHand.isEmpty()) {
+            return onHand;
+        }
+        return OptionalLong.of(onHand.getAsLong() - reserved(itemType).getOrDefault(itemId, 0));
+    }
+
+    /**
+     * Takes units without breaking a reservation, checking and taking as one
+     * step. Items with holds are taken one take at a time; items without share
+     * their lock, which is the common case.
+     * @param itemType part or product
+     * @param quantities item ID to units to take
+     * @param take takes the units, joining the current transaction if there is one
+     * @return the take's result, or empty if an item has holds and fewer units than
+     *         that are available, in which case the take did not run
+     */
+    public <T> Optional<T> takeUnreserved(ItemType itemType, Map<Long, Long> quantities, Supplier<T> take) {
+        List<Lock> locked = new ArrayList<>();
+        List<Long> used = new ArrayList<>();
+        try {
+            // In item order, so two takes never wait on each other
+            for (Long itemId : new TreeSet<>(quantities.keySet())) {
+                ReadWriteLock itemLock = use(itemType, itemId);
+                used.add(itemId);
+                itemLock.readLock().lock();
+                // Holds are only placed under the write lock, so none can appear while this is held
+                if (!reserved(itemType).containsKey(itemId)) {
+                    locked.add(itemLock.readLock());
+                    continue;
+                }
+                itemLock.readLock().unlock();
+                itemLock.writeLock().lock();
+                locked.add(itemLock.writeLock());
+                OptionalLong available = available(itemType, itemId);
+                if (available.isPresent() && available.getAsLong() < quantities.get(itemId)) {
+                    return Optional.empty();
+                }
+            }
+            return Optional.of(take.get());
+        } finally {
+            // Until then a take at home has not left the on-hand total
+            TransactionHooks.afterCompletion(() -> {
+                locked.forEach(Lock::unlock);
+                used.forEach(itemId -> unuse(itemType, itemId));
+            });
+        }
+    }
+
+    /**
+     * Lets go of the reservations whose time ran out
+     */
+    void expire() {
+        List<Hold> expired = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advance(currentTick(), expired::add);
+        }
+        int count = 0;
+        for (Hold hold : expired) {
+            // Released or confirmed concurrently otherwise
+            if (holds.remove(hold.id, hold)) {
+                unreserve(hold);
+                count++;
+            }
+        }
+        if (count > 0) {
+            meterRegistry.counter("inventory.reservation.expired").increment(count);
+        }
+    }
+
+    @Override
+    public synchronized void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "reservation-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::expireQuietly, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+        running = true;
+        log.info("Reservations expire on a {}-slot, {}-level timing wheel turning every {} ms",
+                TimingWheel.SLOTS, TimingWheel.LEVELS, TimeUnit.NANOSECONDS.toMillis(tickNanos));
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (ticker != null) {
+            ticker.shutdown();
+            try {
+                ticker.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ticker = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void expireQuietly() {
+        try {
+            expire();
+        } catch (RuntimeException e) {
+            // A failed tick must not cancel the schedule; the next one catches up
+            log.error("Reservation expiry failed", e);
+        }
+    }
+
+    private boolean sell(Hold hold, String location) {
+        Map<Long, Long> units = Map.of(hold.itemId, (long) hold.quantity);
+        // Another sale may take the routed location's units first; route again
+        for (int attempt = 0; attempt < locationStockService.locations().size(); attempt++) {
+            Optional<String> from = locationStockService.route(hold.itemType, hold.itemId, hold.quantity, location);
+            if (from.isEmpty()) {
+                return false;
+            }
+            if (locationStockService.take(hold.itemType, from.get(), units, MovementType.SALE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Call holding the wheel's lock
+    private void schedule(Hold hold, Duration ttl) {
+        hold.expiresAt = Instant.now().plus(ttl);
+        wheel.schedule(hold, currentTick() + (ttl.toNanos() + tickNanos - 1) / tickNanos);
+    }
+
+    private void unreserve(Hold hold) {
+        reserved(hold.itemType).computeIfPresent(hold.itemId,
+                (id, reserved) -> reserved == hold.quantity ? null : reserved - hold.quantity);
+    }
+
+    private Duration checkTtl(Duration ttl) {
+        Duration holdFor = ttl != null ? ttl : defaultTtl;
+        if (holdFor.isNegative() || holdFor.isZero() || holdFor.compareTo(maxTtl) > 0) {
+            throw new IllegalArgumentException("Time to live must be positive and at most " + maxTtl);
+        }
+        return holdFor;
+    }
+
+    private long currentTick() {
+        return (System.nanoTime() - origin) / tickNanos;
+    }
+
+    private Map<Long, Integer> reserved(ItemType itemType) {
+        return itemType == ItemType.PART ? reservedParts : reservedProducts;
+    }
+
+    /**
+     * @return items whose lock is in use right now
+     */
+    int lockedItems() {
+        return partLocks.size() + productLocks.size();
+    }
+
+    /**
+     * Returns an item's lock, creating it if no one is using it; pair with {@link #unuse}
+     */
+    private ReadWriteLock use(ItemType itemType, Long itemId) {
+        return locks(itemType).compute(itemId, (id, lock) -> {
+            ItemLock used = lock != null ? lock : new ItemLock();
+            used.users++;
+            return used;
+        });
+    }
+
+    /**
+     * Drops an item's lock once its last user is done with it
+     */
+    private void unuse(ItemType itemType, Long itemId) {
+        locks(itemType).computeIfPresent(itemId, (id, lock) -> --lock.users == 0 ? null : lock);
+    }
+
+    private Map<Long, ItemLock> locks(ItemType itemType) {
+        return itemType == ItemType.PART ? partLocks : productLocks;
+    }
+
+    private static final class ItemLock extends ReentrantReadWriteLock {
+        // Only changed inside the lock map's compute for the item, which serializes it
+        int users;
+    }
+
+    private static final class Hold extends TimingWheel.Timeout {
+        final long id;
+        final ItemType itemType;
+        final Long itemId;
+        final int quantity;
+        volatile Instant expiresAt;
+
+        Hold(long id, ItemType itemType, Long itemId, int quantity) {
+            this.id = id;
+            this.itemType = itemType;
+            this.itemId = itemId;
+            this.quantity = quantity;
+        }
+
+        Reservation view() {
+            return new Reservation(id, itemType, itemId, quantity, expiresAt);
+        }
+    }
+}
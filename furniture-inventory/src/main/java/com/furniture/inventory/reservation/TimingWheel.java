@@ -0,0 +1,183 @@
+package com.furniture.inventory.reservation;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: {@value #LEVELS} wheels of {@value #SLOTS} slots,
+ * each slot a tick of the wheel above it, covering {@code SLOTS^LEVELS} ticks.
+ * A timeout goes in the slot of the coarsest wheel its deadline needs and moves
+ * down a wheel each time the wheel above turns past its slot, so adding and
+ * cancelling are O(1) and a tick costs O(1) plus the timeouts it expires or
+ * moves, whatever the number pending.
+ *
+ * Timeouts are intrusive list nodes with no per-timeout allocation beyond the
+ * timeout itself. Not thread-safe; the owner serializes access.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+final class TimingWheel<T extends TimingWheel.Timeout> {
+
+    static final int SLOTS = 64;
+    static final int LEVELS = 4;
+    private static final int BITS = Integer.numberOfTrailingZeros(SLOTS);
+    private static final int MASK = SLOTS - 1;
+    private static final long SPAN = 1L << (BITS * LEVELS);
+
+    /**
+     * A pending timeout; subclass to carry what it is for
+     */
+    abstract static class Timeout {
+        long deadline;
+        Timeout prev;
+        Timeout next;
+
+        /**
+         * @return the tick the timeout is due at
+         */
+        final long deadline() {
+            return deadline;
+        }
+
+        final boolean isScheduled() {
+            return next != null;
+        }
+
+        void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+
+    // Circular list with a sentinel per slot, so unlinking needs no slot lookup
+    private static final class Sentinel extends Timeout {
+        Sentinel() {
+            prev = this;
+            next = this;
+        }
+    }
+
+    private final Sentinel[][] wheels = new Sentinel[LEVELS][SLOTS];
+    private long now;
+    private int size;
+
+    /**
+     * @param start the current tick
+     */
+    TimingWheel(long start) {
+        for (Sentinel[] wheel : wheels) {
+            for (int i = 0; i < SLOTS; i++) {
+                wheel[i] = new Sentinel();
+            }
+        }
+        this.now = start;
+    }
+
+    /**
+     * @return the last tick advanced to
+     */
+    long now() {
+        return now;
+    }
+
+    /**
+     * @return timeouts pending
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Schedules a timeout, or reschedules it if already pending
+     * @param timeout the timeout
+     * @param deadline the tick it is due at; a tick already passed means the next one
+     */
+    void schedule(T timeout, long deadline) {
+        cancel(timeout);
+        timeout.deadline = Math.max(deadline, now + 1);
+        place(timeout);
+        size++;
+    }
+
+    /**
+     * @param timeout the timeout
+     * @return whether it was pending
+     */
+    boolean cancel(T timeout) {
+        if (!timeout.isScheduled()) {
+            return false;
+        }
+        timeout.unlink();
+        size--;
+        return true;
+    }
+
+    /**
+     * Turns the wheel to a tick, handing every timeout due by then to the consumer
+     * @param tick the tick to advance to; earlier ticks are ignored
+     * @param expired receives each due timeout, already unscheduled
+     */
+    @SuppressWarnings("unchecked")
+    void advance(long tick, Consumer<T> expired) {
+        while (now < tick) {
+            now++;
+            // Move each coarser wheel's slot for this tick down before firing the finest
+            for (int level = 1; level < LEVELS && (now & ((1L << (BITS * level)) - 1)) == 0; level++) {
+                Sentinel slot = wheels[level][(int) (now >>> (BITS * level)) & MASK];
+                for (Timeout t = detach(slot); t != null; ) {
+                    Timeout next = t.next;
+                    t.prev = null;
+                    t.next = null;
+                    place(t);
+                    t = next;
+                }
+            }
+            Sentinel slot = wheels[0][(int) now & MASK];
+            for (Timeout t = detach(slot); t != null; ) {
+                Timeout next = t.next;
+                t.prev = null;
+                t.next = null;
+                if (t.deadline <= now) {
+                    size--;
+                    expired.accept((T) t);
+                } else {
+                    // Beyond the wheels' span when scheduled; goes round again
+                    place(t);
+                }
+                t = next;
+            }
+        }
+    }
+
+    private void place(Timeout timeout) {
+        long delta = timeout.deadline - now;
+        // Deadlines past the span wait in the coarsest wheel and are placed again when it comes round
+        long at = delta < SPAN ? timeout.deadline : now + SPAN - 1;
+        int level = 0;
+        while (level < LEVELS - 1 && (at - now) >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        Sentinel slot = wheels[level][(int) (at >>> (BITS * level)) & MASK];
+        timeout.prev = slot.prev;
+        timeout.next = slot;
+        slot.prev.next = timeout;
+        slot.prev = timeout;
+    }
+
+    /**
+     * Empties a slot
+     * @return its first timeout, the rest chained by {@code next} and ending in null
+     */
+    private static Timeout detach(Sentinel slot) {
+        if (slot.next == slot) {
+            return null;
+        }
+        Timeout first = slot.next;
+        slot.prev.next = null;
+        slot.next = slot;
+        slot.prev = slot;
+        return first;
+    }
+}
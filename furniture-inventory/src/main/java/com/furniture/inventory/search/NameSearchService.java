@@ -0,0 +1,112 @@
+package com.furniture.inventory.search;
+
+import com.furniture.inventory.repository.NameView;
+import com.furniture.inventory.repository.PartRepository;
+import com.furniture.inventory.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Name search for parts and products backed by in-process trigram indexes.
+ * The indexes are built once at startup and then kept in sync with entity
+ * writes by {@link SearchIndexEntityListener}. Product names are also kept as
+ * written, so messages can name a product without reading its row.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Service
+public class NameSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(NameSearchService.class);
+
+    private final PartRepository partRepository;
+    private final ProductRepository productRepository;
+
+    private final TrigramIndex partIndex = new TrigramIndex();
+    private final TrigramIndex productIndex = new TrigramIndex();
+    private final Map<Long, String> productNames = new ConcurrentHashMap<>();
+
+    @Autowired
+    public NameSearchService(PartRepository partRepository, ProductRepository productRepository) {
+        this.partRepository = partRepository;
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Loads every part and product name into the indexes
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long start = System.nanoTime();
+        partIndex.clear();
+        productIndex.clear();
+        productNames.clear();
+        try (Stream<NameView> parts = partRepository.streamAllNames()) {
+            parts.forEach(p -> partIndex.put(p.getId(), p.getName()));
+        }
+        try (Stream<NameView> products = productRepository.streamAllNames()) {
+            products.forEach(p -> indexProduct(p.getId(), p.getName()));
+        }
+        log.info("Search indexes built: {} parts, {} products in {} ms",
+                partIndex.size(), productIndex.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Searches part names
+     * @param query substring or prefix to look for
+     * @param limit maximum number of results
+     * @return matching part ids, best match first
+     */
+    public List<Long> searchParts(String query, int limit) {
+        return partIndex.search(query, limit);
+    }
+
+    /**
+     * Searches product names
+     * @param query substring or prefix to look for
+     * @param limit maximum number of results
+     * @return matching product ids, best match first
+     */
+    public List<Long> searchProducts(String query, int limit) {
+        return productIndex.search(query, limit);
+    }
+
+    /**
+     * @param id the product ID
+     * @return the product's name as written, or empty if there is no such product
+     */
+    public Optional<String> productName(Long id) {
+        return Optional.ofNullable(productNames.get(id));
+    }
+
+    void indexPart(Long id, String name) {
+        partIndex.put(id, name);
+    }
+
+    void removePart(Long id) {
+        partIndex.remove(id);
+    }
+
+    void indexProduct(Long id, String name) {
+        productIndex.put(id, name);
+        productNames.put(id, name);
+    }
+
+    void removeProduct(Long id) {
+        productIndex.remove(id);
+        productNames.remove(id);
+    }
+}
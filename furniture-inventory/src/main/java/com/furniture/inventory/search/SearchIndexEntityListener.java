@@ -0,0 +1,56 @@
+package com.furniture.inventory.search;
+
+import com.furniture.inventory.entity.InventoryWriteListener;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.support.TransactionHooks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the name search indexes in step with part and product writes. Index
+ * changes are applied only once the surrounding transaction commits, so
+ * rolled-back writes never show up in search.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Component
+@Order(20)
+public class SearchIndexEntityListener implements InventoryWriteListener {
+
+    private final NameSearchService searchService;
+
+    @Autowired
+    public SearchIndexEntityListener(@Lazy NameSearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @Override
+    public void partSaved(Part part) {
+        Long id = part.getId();
+        String name = part.getName();
+        TransactionHooks.afterCommit(() -> searchService.indexPart(id, name));
+    }
+
+    @Override
+    public void productSaved(Product product) {
+        Long id = product.getId();
+        String name = product.getName();
+        TransactionHooks.afterCommit(() -> searchService.indexProduct(id, name));
+    }
+
+    @Override
+    public void partRemoved(Part part) {
+        Long id = part.getId();
+        TransactionHooks.afterCommit(() -> searchService.removePart(id));
+    }
+
+    @Override
+    public void productRemoved(Product product) {
+        Long id = product.getId();
+        TransactionHooks.afterCommit(() -> searchService.removeProduct(id));
+    }
+}
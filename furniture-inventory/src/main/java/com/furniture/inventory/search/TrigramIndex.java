@@ -0,0 +1,328 @@
+package com.furniture.inventory.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory trigram inverted index over entity names.
+ * Every name is split into its overlapping three-character grams; a query is answered
+ * by intersecting the posting lists of its own grams and verifying the survivors,
+ * so substring searches never touch rows that cannot match.
+ *
+ * A query shorter than a gram has no gram of its own. It matches names with a
+ * word starting with it, looked up in postings of each word's one- and
+ * two-character prefixes, so it reads only its matches rather than every row.
+ *
+ * Each posting list is a sorted array of primitive ids rather than a set of boxed
+ * ones, and lists are intersected by merging (or, when one is much shorter, by
+ * binary search into the longer). Only the best {@code limit} matches are kept
+ * while ranking, so a common query does not sort everything it matched.
+ *
+ * Reads are lock-free; writes are serialized so a name and its postings change together.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public class TrigramIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    // Past this length ratio, intersect by binary search into the longer list instead of merging
+    private static final int SEARCH_RATIO = 16;
+    private static final Ids NONE = new Ids(new long[0], 0);
+    private static final Comparator<Match> RANKING = Comparator.comparingInt(Match::rank)
+            .thenComparingInt(m -> m.name().length())
+            .thenComparing(Match::name)
+            .thenComparingLong(Match::id);
+
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+    private final Map<String, Posting> postings = new ConcurrentHashMap<>();
+    // Word prefixes shorter than a gram -> ids, for short queries
+    private final Map<String, Posting> prefixes = new ConcurrentHashMap<>();
+
+    /**
+     * Adds or re-indexes an entry
+     * @param id entity id
+     * @param name entity name
+     */
+    public synchronized void put(Long id, String name) {
+        String normalized = normalize(name);
+        String previous = names.put(id, normalized);
+        if (normalized.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            unlink(id, previous);
+        }
+        for (String gram : grams(normalized)) {
+            postings.computeIfAbsent(gram, g -> new Posting()).add(id);
+        }
+        for (String prefix : prefixes(normalized)) {
+            prefixes.computeIfAbsent(prefix, p -> new Posting()).add(id);
+        }
+    }
+
+    /**
+     * Removes an entry from the index
+     * @param id entity id
+     */
+    public synchronized void remove(Long id) {
+        String previous = names.remove(id);
+        if (previous != null) {
+            unlink(id, previous);
+        }
+    }
+
+    /**
+     * Drops every entry
+     */
+    public synchronized void clear() {
+        names.clear();
+        postings.clear();
+        prefixes.clear();
+    }
+
+    /**
+     * @return number of indexed entries
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Finds entries whose name contains the query, best matches first; a query
+     * shorter than a gram only finds names with a word starting with it.
+     * Ranking: exact match, then prefix, then word prefix, then any substring;
+     * ties are broken by shorter name, then alphabetically, then by id.
+     *
+     * @param query text to search for
+     * @param limit maximum number of ids to return
+     * @return matching ids in rank order
+     */
+    public List<Long> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+
+        // The worst of the best matches so far on top, so each match costs log(limit)
+        PriorityQueue<Match> best = new PriorityQueue<>(RANKING.reversed());
+        Ids candidates = candidates(q);
+        for (int i = 0; i < candidates.size(); i++) {
+            long id = candidates.ids()[i];
+            String name = names.get(id);
+            if (name == null) {
+                continue;
+            }
+            int position = name.indexOf(q);
+            if (position < 0) {
+                continue;
+            }
+            Match match = new Match(id, name, rank(name, q, position));
+            if (best.size() < limit) {
+                best.add(match);
+            } else if (RANKING.compare(match, best.peek()) < 0) {
+                best.poll();
+                best.add(match);
+            }
+        }
+
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(RANKING);
+        List<Long> ids = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            ids.add(match.id());
+        }
+        return ids;
+    }
+
+    private Ids candidates(String q) {
+        if (q.length() < GRAM_LENGTH) {
+            // Too short to have a gram of its own; a substring this short matches nearly every name
+            Posting posting = prefixes.get(q);
+            return posting == null ? NONE : posting.ids();
+        }
+
+        List<Ids> lists = new ArrayList<>();
+        for (String gram : grams(q)) {
+            Posting posting = postings.get(gram);
+            if (posting == null) {
+                return NONE;
+            }
+            lists.add(posting.ids());
+        }
+        // Intersect starting from the rarest gram to keep the working set small
+        lists.sort(Comparator.comparingInt(Ids::size));
+        Ids result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.size() > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * @param shorter sorted ids, no longer than the other list
+     * @param longer sorted ids
+     * @return the ids in both, sorted
+     */
+    private static Ids intersect(Ids shorter, Ids longer) {
+        long[] a = shorter.ids();
+        long[] b = longer.ids();
+        long[] both = new long[shorter.size()];
+        int count = 0;
+        if (longer.size() / SEARCH_RATIO > shorter.size()) {
+            int from = 0;
+            for (int i = 0; i < shorter.size() && from < longer.size(); i++) {
+                int found = Arrays.binarySearch(b, from, longer.size(), a[i]);
+                if (found >= 0) {
+                    both[count++] = a[i];
+                    from = found + 1;
+                } else {
+                    from = -found - 1;
+                }
+            }
+        } else {
+            int i = 0;
+            int j = 0;
+            while (i < shorter.size() && j < longer.size()) {
+                if (a[i] == b[j]) {
+                    both[count++] = a[i];
+                    i++;
+                    j++;
+                } else if (a[i] < b[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+        }
+        return new Ids(both, count);
+    }
+
+    private void unlink(Long id, String name) {
+        unlink(postings, grams(name), id);
+        unlink(prefixes, prefixes(name), id);
+    }
+
+    private static void unlink(Map<String, Posting> index, Set<String> keys, Long id) {
+        for (String key : keys) {
+            Posting posting = index.get(key);
+            if (posting != null && posting.remove(id)) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static int rank(String name, String q, int position) {
+        if (name.length() == q.length()) {
+            return 0;
+        }
+        if (position == 0) {
+            return 1;
+        }
+        if (name.charAt(position - 1) == ' ') {
+            return 2;
+        }
+        return 3;
+    }
+
+    private static Set<String> grams(String name) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= name.length(); i++) {
+            grams.add(name.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    /**
+     * @return the prefixes shorter than a gram of every word in the name
+     */
+    private static Set<String> prefixes(String name) {
+        Set<String> prefixes = new HashSet<>();
+        for (String word : name.split(" ")) {
+            for (int length = 1; length < GRAM_LENGTH && length <= word.length(); length++) {
+                prefixes.add(word.substring(0, length));
+            }
+        }
+        return prefixes;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private record Match(long id, String name, int rank) {
+    }
+
+    /**
+     * The first {@code size} entries of {@code ids}, sorted ascending; never changed once published
+     */
+    private record Ids(long[] ids, int size) {
+    }
+
+    /**
+     * A posting list: ids in ascending order. Written under the index's lock and
+     * read without one through an {@link Ids} snapshot. Adding an id above every
+     * other, the usual case as ids come from a sequence, writes past the
+     * published size in place; anything else copies the array, so no published
+     * snapshot ever sees an entry change.
+     */
+    private static final class Posting {
+        private long[] ids = new long[2];
+        private volatile Ids published = NONE;
+
+        Ids ids() {
+            return published;
+        }
+
+        void add(long id) {
+            int size = published.size();
+            if (size == 0 || ids[size - 1] < id) {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                }
+                ids[size] = id;
+            } else {
+                int found = Arrays.binarySearch(ids, 0, size, id);
+                if (found >= 0) {
+                    return;
+                }
+                int at = -found - 1;
+                long[] copy = new long[Math.max(ids.length, size + 1)];
+                System.arraycopy(ids, 0, copy, 0, at);
+                copy[at] = id;
+                System.arraycopy(ids, at, copy, at + 1, size - at);
+                ids = copy;
+            }
+            published = new Ids(ids, size + 1);
+        }
+
+        /**
+         * @return whether the list is now empty
+         */
+        boolean remove(long id) {
+            int size = published.size();
+            int found = Arrays.binarySearch(ids, 0, size, id);
+            if (found < 0) {
+                return size == 0;
+            }
+            long[] copy = new long[ids.length];
+            System.arraycopy(ids, 0, copy, 0, found);
+            System.arraycopy(ids, found + 1, copy, found, size - found - 1);
+            ids = copy;
+            published = new Ids(copy, size - 1);
+            return size == 1;
+        }
+    }
+}
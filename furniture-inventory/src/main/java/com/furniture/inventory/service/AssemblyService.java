@@ -0,0 +1,190 @@
+package com.furniture.inventory.service;
+
+import com.furniture.inventory.capacity.CapacityService;
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.entity.MovementType;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.location.LocationStockService;
+import com.furniture.inventory.repository.PartRepository;
+import com.furniture.inventory.repository.ProductRepository;
+import com.furniture.inventory.repository.StockLevel;
+import com.furniture.inventory.reservation.ReservationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Assembles products from parts.
+ * Raising a product's inventory consumes its parts; the part consumption and the
+ * product update are committed together or not at all.
+ *
+ * Part requirements come from the bill-of-materials explosion, so quantities and
+ * nested sub-assemblies are honoured. Every part is checked against its minimum
+ * using its live total, and all of them are then decremented in one JDBC batch,
+ * which keeps a typical assembly to a handful of statements.
+ *
+ * All parts of an assembly are taken from one location, the one asked for if it
+ * has them all and otherwise any that does, and the assembled units are placed
+ * there. Either way the parts go through {@link LocationStockService#take}: at
+ * the home location it decrements the part totals, elsewhere the location's
+ * stock rows. Parts held by reservations are not consumed.
+ *
+ * Metrics:
+ * {@code inventory.assembly} times the whole unit of work including commit,
+ * {@code inventory.assembly.consume} times the part writes, which is where
+ * row lock waits show up under contention, and {@code inventory.assembly.parts}
+ * records how many parts each assembly touched.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Service
+public class AssemblyService {
+
+    private final PartRepository partRepository;
+    private final ProductRepository productRepository;
+    private final BomExplosionService explosionService;
+    private final CapacityService capacityService;
+    private final ProductCostService costService;
+    private final LocationStockService locationStockService;
+    private final ReservationService reservationService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public AssemblyService(PartRepository partRepository,
+                           ProductRepository productRepository,
+                           BomExplosionService explosionService,
+                           CapacityService capacityService,
+                           ProductCostService costService,
+                           LocationStockService locationStockService,
+                           ReservationService reservationService,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.partRepository = partRepository;
+        this.productRepository = productRepository;
+        this.explosionService = explosionService;
+        this.capacityService = capacityService;
+        this.costService = costService;
+        this.locationStockService = locationStockService;
+        this.reservationService = reservationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Saves a product and, when its inventory went up, consumes the parts needed
+     * to assemble the additional units. Decreasing inventory (sales) does not
+     * return parts to stock.
+     *
+     * @param product the product with its new inventory and bill of materials
+     * @param oldInventory the inventory before the change
+     * @return the saved product
+     * @throws IllegalArgumentException if a part would drop below its minimum inventory;
+     *         nothing is written in that case
+     */
+    public Product saveWithAssembly(Product product, int oldInventory) {
+        return saveWithAssembly(product, oldInventory, null, 0);
+    }
+
+    /**
+     * Saves a product and, when its inventory went up, assembles the additional
+     * units at one location that has all the parts they need
+     *
+     * @param product the product with its new inventory and bill of materials
+     * @param oldInventory the inventory before the change
+     * @param location the location to assemble at if it has the parts; null for no preference
+     * @param costDelta how much the product's parts cost changed, pushed up to the
+     *        assemblies built on it in the same transaction
+     * @return the saved product
+     * @throws IllegalArgumentException if a part would drop below its minimum inventory,
+     *         no single location has all the parts, or the location is unknown;
+     *         nothing is written in that case
+     */
+    public Product saveWithAssembly(Product product, int oldInventory, String location, double costDelta) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
+        try {
+            Product saved = transactionTemplate.execute(status -> {
+                int inventoryChange = product.getInv() - oldInventory;
+                Product managed = productRepository.saveAndFlush(product);
+                if (inventoryChange > 0) {
+                    Map<Long, Long> requirements = explosionService.explode(managed, inventoryChange);
+                    String site = requirements.isEmpty()
+                            ? (location != null ? location : locationStockService.home())
+                            : consumeParts(requirements, location);
+                    locationStockService.allocate(ItemType.PRODUCT, managed.getId(), site, inventoryChange);
+                }
+                costService.propagate(managed.getId(), costDelta);
+                return managed;
+            });
+            // The bill of materials may have changed; drop memoized explosions built on it
+            explosionService.invalidate(saved.getId());
+            capacityService.refreshProduct(saved.getId());
+            outcome = "assembled";
+            return saved;
+        } finally {
+            sample.stop(meterRegistry.timer("inventory.assembly", "outcome", outcome));
+        }
+    }
+
+    /**
+     * @return the location the parts were taken from
+     */
+    private String consumeParts(Map<Long, Long> requirements, String location) {
+        meterRegistry.summary("inventory.assembly.parts").record(requirements.size());
+
+        // Check every part before writing anything so the error names the short part. The live total
+        // includes changes at other locations that are not folded into the stored inventory yet.
+        for (StockLevel level : partRepository.findStockLevels(requirements.keySet())) {
+            long required = requirements.get(level.id());
+            long available = locationStockService.total(ItemType.PART, level.id()).orElse(level.inv()) - level.minInv();
+            if (available < required) {
+                throw new IllegalArgumentException(
+                        "Cannot assemble product. Part '" + level.name() +
+                                "' would have inventory below minimum. Required: " + required +
+                                ", Available: " + available);
+            }
+        }
+
+        // Checked and taken as one step, so a hold placed meanwhile is not consumed
+        Optional<String> site = reservationService.takeUnreserved(ItemType.PART, requirements,
+                () -> takeParts(requirements, location));
+        if (site.isEmpty()) {
+            for (Map.Entry<Long, Long> entry : requirements.entrySet()) {
+                long available = reservationService.available(ItemType.PART, entry.getKey()).orElse(0);
+                if (available < entry.getValue()) {
+                    throw new IllegalArgumentException("Cannot assemble product. Part with ID " + entry.getKey() +
+                            " is held by reservations. Required: " + entry.getValue() + ", Available: " + available);
+                }
+            }
+            throw new IllegalArgumentException(
+                    "Cannot assemble product. Part inventory changed during assembly, please try again.");
+        }
+        return site.get();
+    }
+
+    /**
+     * @return the location the parts were taken from
+     */
+    private String takeParts(Map<Long, Long> requirements, String location) {
+        String site = locationStockService.route(ItemType.PART, requirements, location)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Cannot assemble product. No single location has all the parts, please transfer them first."));
+        // At home the totals are written and reported for alerting, valuation and capacity at once;
+        // elsewhere they hear of it when the location's change is folded into the totals
+        Timer.Sample sample = Timer.start(meterRegistry);
+        if (!locationStockService.take(ItemType.PART, site, requirements, MovementType.CONSUME)) {
+            throw new IllegalArgumentException(
+                    "Cannot assemble product. Part inventory changed during assembly, please try again.");
+        }
+        sample.stop(meterRegistry.timer("inventory.assembly.consume"));
+        return site;
+    }
+}
@@ -0,0 +1,221 @@
+package com.furniture.inventory.service;
+
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.entity.ProductComponent;
+import com.furniture.inventory.entity.ProductPart;
+import com.furniture.inventory.repository.BomEntry;
+import com.furniture.inventory.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bill-of-materials explosion and implosion engine.
+ *
+ * Explosion turns an order of products into the total raw parts it needs, walking
+ * nested sub-assemblies. Each product's per-unit requirement vector (part id to
+ * quantity) is computed once and memoized, so re-exploding a product is a map lookup
+ * plus a scale, and a sub-assembly shared by many products is only walked once.
+ *
+ * Cached vectors are dropped by {@link #invalidate(Long)} when a bill of materials
+ * changes; every assembly that was built on top of the changed product goes with it.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Service
+public class BomExplosionService {
+
+    private final ProductRepository productRepository;
+
+    // product id -> (part id -> units of that part per unit of product)
+    private final Map<Long, Map<Long, Long>> requirementVectors = new ConcurrentHashMap<>();
+    // component product id -> assemblies whose cached vector includes it
+    private final Map<Long, Set<Long>> cachedParents = new ConcurrentHashMap<>();
+    // bumped on every invalidation so a vector computed from stale rows is never cached
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    public BomExplosionService(ProductRepository productRepository) {
+        this.productRepository = productRepository;
+    }
+
+    /**
+     * Raw parts needed to build one unit of a product
+     * @param productId the product ID
+     * @return part id to quantity, never null
+     * @throws IllegalStateException if the bill of materials contains a cycle
+     */
+    public Map<Long, Long> requirementsPerUnit(Long productId) {
+        Map<Long, Long> cached = requirementVectors.get(productId);
+        if (cached != null) {
+            return cached;
+        }
+        return compute(productId, new HashSet<>());
+    }
+
+    /**
+     * Raw parts needed to build a number of units of a product
+     * @param productId the product ID
+     * @param units number of units
+     * @return part id to total quantity
+     */
+    public Map<Long, Long> explode(Long productId, int units) {
+        Map<Long, Long> totals = new HashMap<>();
+        addScaled(totals, requirementsPerUnit(productId), units);
+        return totals;
+    }
+
+    /**
+     * Raw parts needed for a whole order
+     * @param order product id to number of units
+     * @return part id to total quantity
+     */
+    public Map<Long, Long> explode(Map<Long, Integer> order) {
+        Map<Long, Long> totals = new HashMap<>();
+        order.forEach((productId, units) -> addScaled(totals, requirementsPerUnit(productId), units));
+        return totals;
+    }
+
+    /**
+     * Raw parts needed to build units of a product as it currently stands in memory.
+     * The product's own lines are read from the entity, so a bill of materials that was
+     * just edited in the current transaction is honoured; sub-assemblies use cached vectors.
+     * @param product the product
+     * @param units number of units
+     * @return part id to total quantity
+     */
+    public Map<Long, Long> explode(Product product, int units) {
+        Map<Long, Long> perUnit = new HashMap<>();
+        for (ProductPart line : product.getBomLines()) {
+            perUnit.merge(line.getPart().getId(), (long) line.getQuantity(), Long::sum);
+        }
+        for (ProductComponent line : product.getComponents()) {
+            addScaled(perUnit, requirementsPerUnit(line.getComponent().getId()), line.getQuantity());
+        }
+        Map<Long, Long> totals = new HashMap<>();
+        addScaled(totals, perUnit, units);
+        return totals;
+    }
+
+    /**
+     * Implosion (where-used): every product that needs the part, directly or
+     * through sub-assemblies, with how many units of the part one unit consumes
+     * @param partId the part ID
+     * @return product id to quantity of the part per unit of product
+     */
+    public Map<Long, Long> implode(Long partId) {
+        Set<Long> users = new HashSet<>();
+        Deque<Long> queue = new ArrayDeque<>(productRepository.findProductIdsByPartId(partId));
+        while (!queue.isEmpty()) {
+            Long productId = queue.poll();
+            if (users.add(productId)) {
+                queue.addAll(productRepository.findParentIds(productId));
+            }
+        }
+
+        Map<Long, Long> whereUsed = new HashMap<>();
+        for (Long productId : users) {
+            Long quantity = requirementsPerUnit(productId).get(partId);
+            if (quantity != null) {
+                whereUsed.put(productId, quantity);
+            }
+        }
+        return whereUsed;
+    }
+
+    /**
+     * Checks whether a product already contains another one somewhere below it.
+     * Used to reject a sub-assembly that would make the bill of materials cyclic.
+     * @param assemblyId the product to search below
+     * @param productId the product to look for
+     * @return true if productId is assemblyId itself or one of its nested components
+     */
+    public boolean contains(Long assemblyId, Long productId) {
+        Set<Long> seen = new HashSet<>();
+        Deque<Long> stack = new ArrayDeque<>();
+        stack.push(assemblyId);
+        while (!stack.isEmpty()) {
+            Long current = stack.pop();
+            if (current.equals(productId)) {
+                return true;
+            }
+            if (seen.add(current)) {
+                for (BomEntry line : productRepository.findComponentLines(current)) {
+                    stack.push(line.id());
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Drops the cached vector of a product whose bill of materials changed,
+     * together with those of every assembly built on top of it
+     * @param productId the changed product
+     */
+    public void invalidate(Long productId) {
+        generation.incrementAndGet();
+        Deque<Long> queue = new ArrayDeque<>();
+        Set<Long> seen = new HashSet<>();
+        queue.add(productId);
+        while (!queue.isEmpty()) {
+            Long current = queue.poll();
+            if (seen.add(current)) {
+                requirementVectors.remove(current);
+                Set<Long> parents = cachedParents.remove(current);
+                if (parents != null) {
+                    queue.addAll(parents);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return number of products with a memoized requirement vector
+     */
+    public int cachedVectorCount() {
+        return requirementVectors.size();
+    }
+
+    private Map<Long, Long> compute(Long productId, Set<Long> path) {
+        Map<Long, Long> cached = requirementVectors.get(productId);
+        if (cached != null) {
+            return cached;
+        }
+        if (!path.add(productId)) {
+            throw new IllegalStateException("Bill of materials contains a cycle at product " + productId);
+        }
+
+        long startGeneration = generation.get();
+        Map<Long, Long> vector = new HashMap<>();
+        for (BomEntry line : productRepository.findPartLines(productId)) {
+            vector.merge(line.id(), (long) line.quantity(), Long::sum);
+        }
+        for (BomEntry line : productRepository.findComponentLines(productId)) {
+            Map<Long, Long> child = compute(line.id(), path);
+            cachedParents.computeIfAbsent(line.id(), id -> ConcurrentHashMap.newKeySet()).add(productId);
+            addScaled(vector, child, line.quantity());
+        }
+        path.remove(productId);
+
+        Map<Long, Long> result = Collections.unmodifiableMap(vector);
+        if (generation.get() == startGeneration) {
+            requirementVectors.put(productId, result);
+        }
+        return result;
+    }
+
+    private static void addScaled(Map<Long, Long> totals, Map<Long, Long> vector, long factor) {
+        vector.forEach((partId, quantity) -> totals.merge(partId, quantity * factor, Long::sum));
+    }
+}
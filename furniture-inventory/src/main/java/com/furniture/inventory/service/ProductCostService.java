@@ -0,0 +1,112 @@
+package com.furniture.inventory.service;
+
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.repository.BomEntry;
+import com.furniture.inventory.repository.PartRepository;
+import com.furniture.inventory.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the materialized parts cost and margin of products current.
+ *
+ * Nothing is recomputed from scratch: a part price change is turned into a cost
+ * delta and applied to every product that uses the part, directly or through
+ * sub-assemblies, scaled by how many units of the part each product needs.
+ * Products needing the same number of units are shifted by one bulk UPDATE.
+ * A product whose own bill of materials changed pushes its delta up to the
+ * assemblies built on it the same way.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Service
+public class ProductCostService {
+
+    private final PartRepository partRepository;
+    private final ProductRepository productRepository;
+    private final BomExplosionService explosionService;
+
+    @Autowired
+    public ProductCostService(PartRepository partRepository,
+                              ProductRepository productRepository,
+                              BomExplosionService explosionService) {
+        this.partRepository = partRepository;
+        this.productRepository = productRepository;
+        this.explosionService = explosionService;
+    }
+
+    /**
+     * Materializes the cost of products saved before the cost columns existed
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    @Transactional
+    public void backfill() {
+        for (Product product : productRepository.findByPartsTotalCostIsNull()) {
+            // Sub-assemblies without a stored cost fall back to computing it, so order does not matter
+            product.refreshCosts();
+        }
+    }
+
+    /**
+     * Saves a part and, if its price changed, rolls the difference into the cost
+     * of every product using it, in the same transaction
+     * @param part the part with its new values
+     * @param oldPrice the price before the change
+     * @return the saved part
+     */
+    @Transactional
+    public Part savePart(Part part, double oldPrice) {
+        Part saved = partRepository.save(part);
+        double priceDelta = saved.getPrice() - oldPrice;
+        if (priceDelta != 0 && saved.getId() != null) {
+            // Where-used walks the reverse index from the part up through every assembly level
+            applyScaled(explosionService.implode(saved.getId()), priceDelta);
+        }
+        return saved;
+    }
+
+    /**
+     * Pushes a change in one product's parts cost up to every assembly that contains it
+     * @param productId the product whose cost changed
+     * @param costDelta the change in its parts cost
+     */
+    @Transactional
+    public void propagate(Long productId, double costDelta) {
+        if (costDelta == 0) {
+            return;
+        }
+        Map<Long, Long> ancestors = new HashMap<>();
+        collectAncestors(productId, 1, ancestors);
+        applyScaled(ancestors, costDelta);
+    }
+
+    private void collectAncestors(Long productId, long factor, Map<Long, Long> ancestors) {
+        for (BomEntry parent : productRepository.findParentLines(productId)) {
+            long units = factor * parent.quantity();
+            ancestors.merge(parent.id(), units, Long::sum);
+            collectAncestors(parent.id(), units, ancestors);
+        }
+    }
+
+    /**
+     * Applies delta times quantity to each product, one bulk UPDATE per distinct quantity
+     */
+    private void applyScaled(Map<Long, Long> quantities, double delta) {
+        Map<Long, List<Long>> productsByQuantity = new TreeMap<>();
+        quantities.forEach((productId, quantity) ->
+                productsByQuantity.computeIfAbsent(quantity, q -> new ArrayList<>()).add(productId));
+        productsByQuantity.forEach((quantity, productIds) ->
+                productRepository.adjustPartsTotalCost(productIds, delta * quantity));
+    }
+}
@@ -0,0 +1,13 @@
+package com.furniture.inventory.service;
+
+/**
+ * Result of a "Buy Now" purchase attempt.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public enum PurchaseOutcome {
+    PURCHASED,
+    OUT_OF_STOCK,
+    NOT_FOUND
+}
@@ -0,0 +1,146 @@
+package com.furniture.inventory.service;
+
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.entity.MovementType;
+import com.furniture.inventory.location.LocationStockService;
+import com.furniture.inventory.purchase.PurchaseBuffer;
+import com.furniture.inventory.repository.ProductRepository;
+import com.furniture.inventory.reservation.ReservationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Handles "Buy Now" purchases under contention.
+ * Each purchase is routed to a location that has the product, preferring the
+ * one asked for, and is a single conditional UPDATE in its own short
+ * transaction: of the product row for the home location, of the location's
+ * stock row otherwise. No row is ever read, modified in Java and written back,
+ * and sales at different locations do not wait for each other.
+ *
+ * With {@code inventory.purchase.write-behind.enabled=true} purchases that do
+ * not name a location go through the {@link PurchaseBuffer} instead, which
+ * sells home stock from memory and writes to the database in batches; this path
+ * remains the fallback whenever the buffer is not accepting, and sells the
+ * units at other locations once home has run out.
+ *
+ * Either way, units held by a {@link ReservationService} reservation are not
+ * sold: a product whose holds cover its stock is out of stock here.
+ *
+ * Every attempt is recorded in the {@code inventory.purchase} timer, tagged by outcome
+ * and mode (sync, write-behind, or reserved when holds refuse the sale), which
+ * gives both throughput (count over time) and latency per outcome.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Service
+public class PurchaseService {
+
+    private final ProductRepository productRepository;
+    private final LocationStockService locationStockService;
+    private final ReservationService reservationService;
+    private final ObjectProvider<PurchaseBuffer> purchaseBuffer;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public PurchaseService(ProductRepository productRepository,
+                           LocationStockService locationStockService,
+                           ReservationService reservationService,
+                           ObjectProvider<PurchaseBuffer> purchaseBuffer,
+                           MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.locationStockService = locationStockService;
+        this.reservationService = reservationService;
+        this.purchaseBuffer = purchaseBuffer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Sells one unit of a product if it is in stock anywhere
+     * @param productId the product to buy
+     * @return the outcome of the attempt
+     */
+    public PurchaseOutcome purchase(Long productId) {
+        return purchase(productId, null);
+    }
+
+    /**
+     * Sells one unit of a product, from the given location if it has one and
+     * otherwise from wherever the product is in stock
+     * @param productId the product to buy
+     * @param location the location to sell from first; null for no preference
+     * @return the outcome of the attempt
+     * @throws IllegalArgumentException if the location is unknown
+     */
+    public PurchaseOutcome purchase(Long productId, String location) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // Checked and taken as one step, so a hold placed meanwhile is not sold
+        Optional<Sale> taken = reservationService.takeUnreserved(ItemType.PRODUCT, Map.of(productId, 1L), () -> {
+            PurchaseBuffer buffer = purchaseBuffer.getIfAvailable();
+            if (location == null && buffer != null && buffer.isAccepting()) {
+                PurchaseOutcome outcome = buffer.purchase(productId);
+                // The buffer only sells home stock; other locations may still have units
+                if (outcome != PurchaseOutcome.OUT_OF_STOCK || locationStockService.locations().size() == 1) {
+                    return new Sale(outcome, "write-behind");
+                }
+                return new Sale(sellAwayFromHome(productId), "sync");
+            }
+            // Timed around the transaction so the measurement includes the commit
+            return new Sale(sell(productId, location), "sync");
+        });
+        if (taken.isEmpty()) {
+            sample.stop(meterRegistry.timer("inventory.purchase", "outcome", "out_of_stock", "mode", "reserved"));
+            return PurchaseOutcome.OUT_OF_STOCK;
+        }
+        Sale sale = taken.get();
+        sample.stop(meterRegistry.timer("inventory.purchase",
+                "outcome", sale.outcome().name().toLowerCase(Locale.ROOT), "mode", sale.mode()));
+        return sale.outcome();
+    }
+
+    /**
+     * Sells from a location other than home, whose stock belongs to the buffer
+     * while it is accepting: its unflushed sales are not in the database yet
+     */
+    private PurchaseOutcome sellAwayFromHome(Long productId) {
+        List<String> locations = locationStockService.locations();
+        Map<String, Integer> stock = locationStockService.stock(ItemType.PRODUCT, productId).orElse(Map.of());
+        for (String location : locations.subList(1, locations.size())) {
+            if (stock.getOrDefault(location, 0) > 0
+                    && locationStockService.take(ItemType.PRODUCT, location, Map.of(productId, 1L), MovementType.SALE)) {
+                return PurchaseOutcome.PURCHASED;
+            }
+        }
+        return PurchaseOutcome.OUT_OF_STOCK;
+    }
+
+    private PurchaseOutcome sell(Long productId, String location) {
+        // Another buyer may take the routed location's last unit first; route again
+        for (int attempt = 0; attempt < locationStockService.locations().size(); attempt++) {
+            Optional<String> from = locationStockService.route(ItemType.PRODUCT, productId, 1, location);
+            if (from.isEmpty()) {
+                break;
+            }
+            if (locationStockService.take(ItemType.PRODUCT, from.get(), Map.of(productId, 1L), MovementType.SALE)) {
+                return PurchaseOutcome.PURCHASED;
+            }
+        }
+        return productRepository.existsById(productId)
+                ? PurchaseOutcome.OUT_OF_STOCK
+                : PurchaseOutcome.NOT_FOUND;
+    }
+
+    /**
+     * An outcome and the path that produced it, for the purchase timer's mode tag
+     */
+    private record Sale(PurchaseOutcome outcome, String mode) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.furniture.inventory.valuation;
+
+/**
+ * What one part or product contributes to the inventory valuation.
+ *
+ * @param type part type discriminator (INHOUSE or OUTSOURCED), null for products
+ * @param supplier supplier company of an outsourced part, otherwise null
+ * @param price unit price
+ * @param inv units in stock
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+record Holding(String type, String supplier, double price, int inv) {
+
+    double value() {
+        return price * inv;
+    }
+
+    Holding withInv(int newInv) {
+        return new Holding(type, supplier, price, newInv);
+    }
+}
@@ -0,0 +1,28 @@
+package com.furniture.inventory.valuation;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Point-in-time view of the valuation dashboard.
+ *
+ * @param totalValue parts value plus products value
+ * @param partsValue price times inventory over all parts
+ * @param productsValue price times inventory over all products
+ * @param partsValueByType parts value per part type (INHOUSE, OUTSOURCED)
+ * @param partsValueBySupplier outsourced parts value per supplier company
+ * @param partCount number of parts
+ * @param productCount number of products
+ * @param lowStockParts parts at or below their minimum inventory
+ * @param overstockParts parts above their maximum inventory
+ * @param lastReconcileDrift how far the incremental total had drifted from the last full recompute
+ * @param reconciledAt when the last full recompute finished, null before the first one
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+public record InventoryValuation(double totalValue, double partsValue, double productsValue,
+                                 Map<String, Double> partsValueByType, Map<String, Double> partsValueBySupplier,
+                                 long partCount, long productCount, long lowStockParts, long overstockParts,
+                                 double lastReconcileDrift, Instant reconciledAt) {
+}
@@ -0,0 +1,59 @@
+package com.furniture.inventory.valuation;
+
+import com.furniture.inventory.entity.InventoryWriteListener;
+import com.furniture.inventory.entity.OutsourcedPart;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports part and product writes made through JPA to the valuation, so the
+ * dashboard totals move with each change instead of being re-aggregated.
+ * Bulk JPQL updates bypass entity listeners and report through
+ * {@link ValuationService} directly.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Component
+@Order(40)
+public class ValuationEntityListener implements InventoryWriteListener {
+
+    private final ValuationService valuationService;
+
+    @Autowired
+    public ValuationEntityListener(@Lazy ValuationService valuationService) {
+        this.valuationService = valuationService;
+    }
+
+    @Override
+    public void partSaved(Part part) {
+        valuationService.updatePart(part.getId(), holdingOf(part));
+    }
+
+    @Override
+    public void productSaved(Product product) {
+        valuationService.updateProduct(product.getId(),
+                new Holding(null, null, product.getPrice(), product.getInv()));
+    }
+
+    @Override
+    public void partRemoved(Part part) {
+        valuationService.updatePart(part.getId(), null);
+    }
+
+    @Override
+    public void productRemoved(Product product) {
+        valuationService.updateProduct(product.getId(), null);
+    }
+
+    private static Holding holdingOf(Part part) {
+        if (part instanceof OutsourcedPart outsourced) {
+            return new Holding(ValuationService.OUTSOURCED, outsourced.getCompanyName(), part.getPrice(), part.getInv());
+        }
+        return new Holding(ValuationService.INHOUSE, null, part.getPrice(), part.getInv());
+    }
+}
@@ -0,0 +1,404 @@
+package com.furniture.inventory.valuation;
+
+import com.furniture.inventory.alert.StockAlertService;
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.entity.StockStatus;
+import com.furniture.inventory.support.TransactionHooks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Inventory valuation for the finance dashboard.
+ *
+ * Totals are maintained incrementally: every part and product write reports the
+ * row's new price and inventory, and only the difference from its previous
+ * contribution is applied. Reading the dashboard therefore never touches the
+ * database, however many rows there are.
+ *
+ * A full recompute runs at startup, after bulk imports and on a fixed schedule
+ * to reconcile any drift (floating point error, or a change that raced the
+ * previous recompute). It reads the tables in id-range slices on several threads
+ * and swaps the result in; rows written while it was reading are re-read afterwards.
+ *
+ * Changes are applied after the writing transaction commits, so rolled-back
+ * writes never move the totals.
+ *
+ * @author Hardik
+ * @version 1.0
+ */
+@Service
+public class ValuationService {
+
+    static final String INHOUSE = "INHOUSE";
+    static final String OUTSOURCED = "OUTSOURCED";
+
+    private static final Logger log = LoggerFactory.getLogger(ValuationService.class);
+    private static final int SLICES_PER_WORKER = 4;
+
+    private static final String PART_COLUMNS = "SELECT id, part_type, company_name, price, inventory_count FROM part";
+    private static final String PRODUCT_COLUMNS = "SELECT id, price, inventory_count FROM product";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final StockAlertService alertService;
+    private final MeterRegistry meterRegistry;
+
+    private final Object lock = new Object();
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+    // guarded by lock
+    private Totals totals = new Totals();
+    // ids written while a recompute is reading, null when none is running; guarded by lock
+    private Set<Long> touchedParts;
+    private Set<Long> touchedProducts;
+    private volatile double lastDrift;
+    private volatile Instant reconciledAt;
+
+    @Value("${inventory.valuation.parallelism:0}")
+    private int parallelism;
+
+    @Autowired
+    public ValuationService(JdbcTemplate jdbcTemplate, StockAlertService alertService, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.alertService = alertService;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("inventory.valuation.value", List.of(Tag.of("scope", "parts")),
+                this, v -> v.current().partsValue());
+        meterRegistry.gauge("inventory.valuation.value", List.of(Tag.of("scope", "products")),
+                this, v -> v.current().productsValue());
+        meterRegistry.gauge("inventory.valuation.drift", this, v -> v.lastDrift);
+    }
+
+    /**
+     * @return the current totals; served from memory
+     */
+    public InventoryValuation current() {
+        synchronized (lock) {
+            double partsValue = totals.byType.values().stream().mapToDouble(Double::doubleValue).sum();
+            return new InventoryValuation(partsValue + totals.productValue, partsValue, totals.productValue,
+                    new LinkedHashMap<>(totals.byType), new LinkedHashMap<>(totals.bySupplier),
+                    totals.parts.size(), totals.products.size(),
+                    alertService.count(StockStatus.LOW), alertService.count(StockStatus.OVER),
+                    lastDrift, reconciledAt);
+        }
+    }
+
+    /**
+     * Reports parts consumed by a bulk UPDATE, which entity listeners do not see.
+     * Call inside the writing transaction.
+     * @param quantities part id to the units taken from it
+     */
+    public void consumeParts(Map<Long, Long> quantities) {
+        Map<Long, Long> taken = Map.copyOf(quantities);
+        TransactionHooks.afterCommit(() -> {
+            synchronized (lock) {
+                taken.forEach((partId, amount) -> {
+                    totals.adjustPart(partId, -Math.toIntExact(amount));
+                    touch(touchedParts, partId);
+                });
+            }
+        });
+    }
+
+    /**
+     * Reports units of a product sold by a bulk UPDATE.
+     * Call inside the writing transaction.
+     * @param productId the product sold
+     * @param units units sold
+     */
+    public void sellProduct(Long productId, int units) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (lock) {
+                totals.adjustProduct(productId, -units);
+                touch(touchedProducts, productId);
+            }
+        });
+    }
+
+    /**
+     * Reports stock changes written by a bulk UPDATE, which entity listeners do not
+     * see; positive changes add stock. Call inside the writing transaction.
+     * @param itemType part or product
+     * @param changes item id to signed change
+     */
+    public void adjust(ItemType itemType, Map<Long, Integer> changes) {
+        Map<Long, Integer> applied = Map.copyOf(changes);
+        TransactionHooks.afterCommit(() -> {
+            synchronized (lock) {
+                applied.forEach((id, change) -> {
+                    if (itemType == ItemType.PART) {
+                        totals.adjustPart(id, change);
+                        touch(touchedParts, id);
+                    } else {
+                        totals.adjustProduct(id, change);
+                        touch(touchedProducts, id);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Recomputes every total from the tables and replaces the incremental ones.
+     * Runs at startup and then on the reconcile interval; a call while a recompute
+     * is already running returns immediately.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    @Scheduled(initialDelayString = "${inventory.valuation.reconcile-interval:PT10M}",
+            fixedDelayString = "${inventory.valuation.reconcile-interval:PT10M}")
+    public void reconcile() {
+        if (!reconciling.compareAndSet(false, true)) {
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            synchronized (lock) {
+                touchedParts = new HashSet<>();
+                touchedProducts = new HashSet<>();
+            }
+            Totals fresh = recompute();
+
+            Set<Long> partIds;
+            Set<Long> productIds;
+            double drift;
+            synchronized (lock) {
+                // Nothing to drift from before the first recompute
+                drift = reconciledAt == null ? 0 : totals.value() - fresh.value();
+                totals = fresh;
+                partIds = touchedParts;
+                productIds = touchedProducts;
+                touchedParts = null;
+                touchedProducts = null;
+            }
+            // These rows changed while the slices were being read, so the slice may hold the old values
+            reread(partIds, productIds);
+
+            lastDrift = drift;
+            reconciledAt = Instant.now();
+            log.info("Inventory valuation reconciled: {} parts, {} products, drift {}",
+                    fresh.parts.size(), fresh.products.size(), String.format("%.2f", drift));
+        } finally {
+            synchronized (lock) {
+                touchedParts = null;
+                touchedProducts = null;
+            }
+            reconciling.set(false);
+            sample.stop(meterRegistry.timer("inventory.valuation.reconcile"));
+        }
+    }
+
+    void updatePart(Long partId, Holding holding) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (lock) {
+                totals.putPart(partId, holding);
+                touch(touchedParts, partId);
+            }
+        });
+    }
+
+    void updateProduct(Long productId, Holding holding) {
+        TransactionHooks.afterCommit(() -> {
+            synchronized (lock) {
+                totals.putProduct(productId, holding);
+                touch(touchedProducts, productId);
+            }
+        });
+    }
+
+    private Totals recompute() {
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        Totals fresh = new Totals();
+        try (ExecutorService pool = Executors.newFixedThreadPool(workers)) {
+            List<Future<Totals>> slices = new ArrayList<>();
+            for (long[] range : slices("part", workers * SLICES_PER_WORKER)) {
+                slices.add(pool.submit(() -> readParts(PART_COLUMNS + " WHERE id BETWEEN ? AND ?", range[0], range[1])));
+            }
+            for (long[] range : slices("product", workers * SLICES_PER_WORKER)) {
+                slices.add(pool.submit(() -> readProducts(PRODUCT_COLUMNS + " WHERE id BETWEEN ? AND ?", range[0], range[1])));
+            }
+            for (Future<Totals> slice : slices) {
+                fresh.absorb(await(slice));
+            }
+        }
+        return fresh;
+    }
+
+    /**
+     * Splits the table's id range into roughly equal slices
+     */
+    private List<long[]> slices(String table, int count) {
+        Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(id) AS lo, MAX(id) AS hi FROM " + table);
+        if (bounds.get("lo") == null) {
+            return List.of();
+        }
+        long lo = ((Number) bounds.get("lo")).longValue();
+        long hi = ((Number) bounds.get("hi")).longValue();
+        long width = Math.max(1, (hi - lo + count) / count);
+        List<long[]> slices = new ArrayList<>();
+        for (long start = lo; start <= hi; start += width) {
+            slices.add(new long[]{start, Math.min(hi, start + width - 1)});
+        }
+        return slices;
+    }
+
+    private Totals readParts(String sql, Object... args) {
+        Totals rows = new Totals();
+        jdbcTemplate.query(sql, partRows(rows), args);
+        return rows;
+    }
+
+    private Totals readProducts(String sql, Object... args) {
+        Totals rows = new Totals();
+        jdbcTemplate.query(sql, productRows(rows), args);
+        return rows;
+    }
+
+    private void reread(Collection<Long> partIds, Collection<Long> productIds) {
+        if (!partIds.isEmpty()) {
+            Totals rows = new Totals();
+            namedJdbcTemplate.query(PART_COLUMNS + " WHERE id IN (:ids)",
+                    new MapSqlParameterSource("ids", partIds), partRows(rows));
+            synchronized (lock) {
+                // Ids no longer in the table were deleted meanwhile
+                partIds.forEach(id -> totals.putPart(id, rows.parts.get(id)));
+            }
+        }
+        if (!productIds.isEmpty()) {
+            Totals rows = new Totals();
+            namedJdbcTemplate.query(PRODUCT_COLUMNS + " WHERE id IN (:ids)",
+                    new MapSqlParameterSource("ids", productIds), productRows(rows));
+            synchronized (lock) {
+                productIds.forEach(id -> totals.putProduct(id, rows.products.get(id)));
+            }
+        }
+    }
+
+    private static RowCallbackHandler partRows(Totals into) {
+        return rs -> {
+            String type = rs.getString(2);
+            into.putPart(rs.getLong(1), new Holding(type, OUTSOURCED.equals(type) ? rs.getString(3) : null,
+                    rs.getDouble(4), rs.getInt(5)));
+        };
+    }
+
+    private static RowCallbackHandler productRows(Totals into) {
+        return rs -> into.putProduct(rs.getLong(1), new Holding(null, null, rs.getDouble(2), rs.getInt(3)));
+    }
+
+    private static void touch(Set<Long> touched, Long id) {
+        if (touched != null) {
+            touched.add(id);
+        }
+    }
+
+    private static Totals await(Future<Totals> slice) {
+        try {
+            return slice.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Valuation recompute interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Valuation recompute failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Per-row contributions and the aggregates derived from them. Not thread-safe;
+     * the live instance is only touched under the service lock.
+     */
+    private static final class Totals {
+        final Map<Long, Holding> parts = new HashMap<>();
+        final Map<Long, Holding> products = new HashMap<>();
+        final Map<String, Double> byType = new TreeMap<>();
+        final Map<String, Double> bySupplier = new TreeMap<>();
+        double productValue;
+
+        /**
+         * Replaces a part's contribution; a null holding removes the part
+         */
+        void putPart(Long id, Holding holding) {
+            Holding previous = holding == null ? parts.remove(id) : parts.put(id, holding);
+            if (previous != null) {
+                addPartValue(previous, -previous.value());
+            }
+            if (holding != null) {
+                addPartValue(holding, holding.value());
+            }
+        }
+
+        void adjustPart(Long id, int change) {
+            Holding holding = parts.get(id);
+            if (holding != null) {
+                putPart(id, holding.withInv(holding.inv() + change));
+            }
+        }
+
+        void putProduct(Long id, Holding holding) {
+            Holding previous = holding == null ? products.remove(id) : products.put(id, holding);
+            if (previous != null) {
+                productValue -= previous.value();
+            }
+            if (holding != null) {
+                productValue += holding.value();
+            }
+        }
+
+        void adjustProduct(Long id, int change) {
+            Holding holding = products.get(id);
+            if (holding != null) {
+                putProduct(id, holding.withInv(holding.inv() + change));
+            }
+        }
+
+        /**
+         * Adds a slice covering a disjoint id range
+         */
+        void absorb(Totals slice) {
+            parts.putAll(slice.parts);
+            products.putAll(slice.products);
+            slice.byType.forEach((type, value) -> byType.merge(type, value, Double::sum));
+            slice.bySupplier.forEach((supplier, value) -> bySupplier.merge(supplier, value, Double::sum));
+            productValue += slice.productValue;
+        }
+
+        double value() {
+            return byType.values().stream().mapToDouble(Double::doubleValue).sum() + productValue;
+        }
+
+        private void addPartValue(Holding holding, double value) {
+            byType.merge(holding.type(), value, Double::sum);
+            if (holding.supplier() != null) {
+                bySupplier.merge(holding.supplier(), value, Double::sum);
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+-- Baseline schema, as generated from the JPA mappings.
+-- Databases created earlier by ddl-auto=update are baselined at this version instead
+-- (spring.flyway.baseline-on-migrate in the prod profile).
+
+CREATE SEQUENCE part_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE product_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE part (
+    part_type       VARCHAR(31)      NOT NULL,
+    id              BIGINT           NOT NULL,
+    name            VARCHAR(255)     NOT NULL,
+    price           DOUBLE PRECISION NOT NULL,
+    inventory_count INTEGER          NOT NULL,
+    min_inventory   INTEGER          NOT NULL,
+    max_inventory   INTEGER          NOT NULL,
+    stock_status    VARCHAR(10),
+    version         BIGINT           DEFAULT 0 NOT NULL,
+    machine_id      INTEGER,
+    company_name    VARCHAR(255),
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_part_name_id ON part (name, id);
+CREATE INDEX idx_part_stock_status ON part (stock_status);
+
+CREATE TABLE product (
+    id               BIGINT           NOT NULL,
+    name             VARCHAR(255)     NOT NULL,
+    price            DOUBLE PRECISION NOT NULL,
+    inventory_count  INTEGER          NOT NULL,
+    parts_total_cost DOUBLE PRECISION,
+    margin           DOUBLE PRECISION,
+    version          BIGINT           DEFAULT 0 NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_product_name_id ON product (name, id);
+
+CREATE TABLE product_parts (
+    product_id BIGINT            NOT NULL,
+    part_id    BIGINT            NOT NULL,
+    quantity   INTEGER DEFAULT 1 NOT NULL,
+    PRIMARY KEY (part_id, product_id),
+    CONSTRAINT fk_product_parts_product FOREIGN KEY (product_id) REFERENCES product (id),
+    CONSTRAINT fk_product_parts_part FOREIGN KEY (part_id) REFERENCES part (id)
+);
+
+CREATE TABLE product_components (
+    parent_id    BIGINT  NOT NULL,
+    component_id BIGINT  NOT NULL,
+    quantity     INTEGER NOT NULL,
+    PRIMARY KEY (component_id, parent_id),
+    CONSTRAINT fk_product_components_parent FOREIGN KEY (parent_id) REFERENCES product (id),
+    CONSTRAINT fk_product_components_component FOREIGN KEY (component_id) REFERENCES product (id)
+);
+
+CREATE TABLE inventory_movement (
+    seq           BIGINT                      NOT NULL,
+    item_type     VARCHAR(10)                 NOT NULL,
+    item_id       BIGINT                      NOT NULL,
+    movement_type VARCHAR(10)                 NOT NULL,
+    quantity      INTEGER                     NOT NULL,
+    recorded_at   TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (seq)
+);
+CREATE INDEX idx_movement_item_seq ON inventory_movement (item_type, item_id, seq);
+
+CREATE TABLE inventory_snapshot (
+    id       BIGINT                      NOT NULL,
+    taken_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    last_seq BIGINT                      NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_snapshot_taken_at ON inventory_snapshot (taken_at);
+
+CREATE TABLE inventory_snapshot_item (
+    item_type   VARCHAR(10) NOT NULL,
+    item_id     BIGINT      NOT NULL,
+    snapshot_id BIGINT      NOT NULL,
+    inv         INTEGER     NOT NULL,
+    PRIMARY KEY (item_id, item_type, snapshot_id)
+);
+
+CREATE TABLE purchase_journal_checkpoint (
+    id       INTEGER NOT NULL,
+    last_seq BIGINT  NOT NULL,
+    PRIMARY KEY (id)
+);
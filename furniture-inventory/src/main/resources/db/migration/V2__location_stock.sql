@@ -0,0 +1,13 @@
+-- Stock held at locations other than the home location, and the location of each
+-- ledger movement (null for changes made to an item's total without a location).
+
+CREATE TABLE location_stock (
+    location  VARCHAR(20)       NOT NULL,
+    item_type VARCHAR(10)       NOT NULL,
+    item_id   BIGINT            NOT NULL,
+    quantity  INTEGER           NOT NULL,
+    unfolded  INTEGER DEFAULT 0 NOT NULL,
+    PRIMARY KEY (item_id, item_type, location)
+);
+
+ALTER TABLE inventory_movement ADD COLUMN location VARCHAR(20);
@@ -0,0 +1,86 @@
+package com.furniture.inventory.alert;
+
+import com.furniture.inventory.entity.InhousePart;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.entity.StockStatus;
+import com.furniture.inventory.repository.PartRepository;
+import com.furniture.inventory.repository.ProductRepository;
+import com.furniture.inventory.service.AssemblyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StockAlertServiceTest {
+
+    @Autowired
+    private StockAlertService alertService;
+
+    @Autowired
+    private AssemblyService assemblyService;
+
+    @Autowired
+    private PartRepository partRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void assemblyDownToMinimumRaisesLowAlert() {
+        Part leg = new InhousePart("Alert Leg", 3.0, 12, 903);
+        leg.setMinInv(10);
+        leg = partRepository.save(leg);
+        Long legId = leg.getId();
+
+        Product stool = new Product("Alert Stool", 30.0, 0);
+        stool.addPart(leg, 1);
+        stool = productRepository.save(stool);
+
+        long lastSeen = lastSequence();
+        stool.setInv(2);
+        assemblyService.saveWithAssembly(stool, 0);
+
+        List<StockAlert> raised = alertService.since(lastSeen).stream()
+                .filter(a -> a.partId().equals(legId))
+                .toList();
+        assertEquals(1, raised.size());
+        assertEquals(StockStatus.NORMAL, raised.get(0).previous());
+        assertEquals(StockStatus.LOW, raised.get(0).status());
+        assertTrue(alertService.active(StockStatus.LOW).stream().anyMatch(l -> l.id().equals(legId)));
+        assertEquals(StockStatus.LOW, partRepository.findById(legId).orElseThrow().getStockStatus());
+    }
+
+    @Test
+    void restockingResolvesAlert() {
+        Part top = new InhousePart("Alert Top", 8.0, 5, 904);
+        top.setMinInv(5);
+        top = partRepository.save(top);
+        Long topId = top.getId();
+        assertTrue(alertService.active(StockStatus.LOW).stream().anyMatch(l -> l.id().equals(topId)));
+
+        long lastSeen = lastSequence();
+        Part loaded = partRepository.findById(topId).orElseThrow();
+        loaded.setInv(40);
+        partRepository.save(loaded);
+
+        List<StockAlert> raised = alertService.since(lastSeen).stream()
+                .filter(a -> a.partId().equals(topId))
+                .toList();
+        assertEquals(1, raised.size());
+        assertTrue(raised.get(0).isResolved());
+        assertTrue(alertService.active(null).stream().noneMatch(l -> l.id().equals(topId)));
+    }
+
+    private long lastSequence() {
+        List<StockAlert> all = alertService.since(0);
+        return all.isEmpty() ? 0 : all.get(all.size() - 1).sequence();
+    }
+}
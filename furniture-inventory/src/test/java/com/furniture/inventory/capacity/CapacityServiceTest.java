@@ -0,0 +1,71 @@
+package com.furniture.inventory.capacity;
+
+import com.furniture.inventory.entity.InhousePart;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.repository.PartRepository;
+import com.furniture.inventory.service.AssemblyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CapacityServiceTest {
+
+    @Autowired
+    private CapacityService capacityService;
+
+    @Autowired
+    private AssemblyService assemblyService;
+
+    @Autowired
+    private PartRepository partRepository;
+
+    @Test
+    void followsPartStockThroughSubAssembliesAndAssembly() {
+        Part panel = part("Capacity Panel", 50, 10);
+        Part leg = part("Capacity Leg", 21, 1);
+
+        Product table = new Product("Capacity Table", 200.0, 0);
+        table.addPart(panel, 2);
+        table.addPart(leg, 4);
+        table = assemblyService.saveWithAssembly(table, 0);
+
+        Product cabinet = new Product("Capacity Cabinet", 900.0, 0);
+        cabinet.addPart(panel, 1);
+        cabinet.addComponent(table, 2);
+        cabinet = assemblyService.saveWithAssembly(cabinet, 0);
+
+        // Headroom: 40 panels, 20 legs
+        assertEquals(new BuildableQuantity(table.getId(), 5, leg.getId()), buildable(table));
+        // 5 panels and 8 legs per cabinet
+        assertEquals(new BuildableQuantity(cabinet.getId(), 2, leg.getId()), buildable(cabinet));
+
+        Part restocked = partRepository.findById(leg.getId()).orElseThrow();
+        restocked.setInv(81);
+        partRepository.save(restocked);
+        assertEquals(new BuildableQuantity(table.getId(), 20, panel.getId()), buildable(table));
+        assertEquals(new BuildableQuantity(cabinet.getId(), 8, panel.getId()), buildable(cabinet));
+
+        // Assembling one table takes 2 panels and 4 legs through the bulk update
+        table.setInv(1);
+        assemblyService.saveWithAssembly(table, 0);
+        assertEquals(19, buildable(table).units());
+        assertEquals(7, buildable(cabinet).units());
+    }
+
+    private Part part(String name, int inv, int minInv) {
+        Part part = new InhousePart(name, 5.0, inv, 930);
+        part.setMinInv(minInv);
+        part.setMaxInv(500);
+        return partRepository.save(part);
+    }
+
+    private BuildableQuantity buildable(Product product) {
+        return capacityService.buildable(product.getId()).orElseThrow();
+    }
+}
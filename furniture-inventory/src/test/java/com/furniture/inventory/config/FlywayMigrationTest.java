@@ -0,0 +1,38 @@
+package com.furniture.inventory.config;
+
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.repository.ProductRepository;
+import com.furniture.inventory.service.PurchaseOutcome;
+import com.furniture.inventory.service.PurchaseService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Boots on a schema built only by the Flyway migrations, as the prod profile does,
+ * and has Hibernate validate it against the entity mappings.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:flyway_migration_test;DB_CLOSE_DELAY=-1",
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@ActiveProfiles("test")
+class FlywayMigrationTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Test
+    void migratedSchemaMatchesMappings() {
+        Product product = productRepository.save(new Product("Migrated Stool", 19.99, 2));
+
+        assertEquals(PurchaseOutcome.PURCHASED, purchaseService.purchase(product.getId()));
+        assertEquals(1, productRepository.findById(product.getId()).orElseThrow().getInv());
+    }
+}
@@ -0,0 +1,49 @@
+package com.furniture.inventory.config;
+
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.repository.ProductRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "inventory.slow-query.enabled=true",
+        "inventory.slow-query.threshold=0ms",
+        "inventory.slow-query.sample-rate=1.0"})
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+class SlowQueryLogTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void logsStatementsOverThresholdWithBindParameters(CapturedOutput output) throws Exception {
+        Product product = productRepository.save(new Product("Slow Query Ottoman", 89.5, 3));
+        productRepository.findVersionById(product.getId());
+
+        assertTrue(output.getOut().contains("Slow query elapsed_ms="));
+        assertTrue(output.getOut().contains("params=[" + product.getId() + "]"));
+        assertTrue(output.getOut().contains("'Slow Query Ottoman'"));
+        assertTrue(meterRegistry.timer("inventory.jdbc.slow").count() > 0);
+        // Pool metrics and health still reach the Hikari pool behind the wrapper
+        assertNotNull(dataSource.unwrap(HikariDataSource.class));
+    }
+}
@@ -0,0 +1,33 @@
+package com.furniture.inventory.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Gives every test context its own JCache cache manager. Hibernate closes its cache
+ * manager when the context closes, or fails to start, and with the provider's
+ * default URI that is the one manager every other cached context is still using.
+ * The URN is not a config resource, so the manager still reads application.conf.
+ */
+@Configuration(proxyBeanMethods = false)
+@Profile("test")
+class TestCacheManagerConfig {
+
+    @Bean
+    HibernatePropertiesCustomizer contextCacheManager() {
+        return properties -> {
+            CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+            URI uri = URI.create("urn:furniture-inventory-test:" + UUID.randomUUID());
+            properties.put("hibernate.javax.cache.cache_manager",
+                    provider.getCacheManager(uri, provider.getDefaultClassLoader()));
+        };
+    }
+}
@@ -0,0 +1,143 @@
+package com.furniture.inventory.controller;
+
+import com.furniture.inventory.entity.InhousePart;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.repository.PartRepository;
+import com.furniture.inventory.repository.ProductRepository;
+import com.furniture.inventory.service.PurchaseService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PartRepository partRepository;
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Test
+    void conditionalGetIsNotModifiedUntilTheProductChanges() throws Exception {
+        Product product = productRepository.save(new Product("API Armchair", 250.0, 5));
+        String url = "/api/v1/products/" + product.getId();
+
+        String etag = mockMvc.perform(get(url).param("fields", "id,inv"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inv").value(5))
+                .andExpect(jsonPath("$.name").doesNotExist())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get(url).param("fields", "id,inv").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        purchaseService.purchase(product.getId());
+
+        String changed = mockMvc.perform(get(url).param("fields", "id,inv").header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.inv").value(4))
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void bomListsPartLinesWithQuantities() throws Exception {
+        Part leg = partRepository.save(new InhousePart("API Leg", 3.0, 40, 77));
+        Product table = new Product("API Table", 120.0, 0);
+        table.addPart(leg, 4);
+        table = productRepository.save(table);
+
+        mockMvc.perform(get("/api/v1/products/" + table.getId() + "/bom"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(jsonPath("$.parts[0].id").value(leg.getId()))
+                .andExpect(jsonPath("$.parts[0].quantity").value(4));
+    }
+
+    @Test
+    void unknownFieldIsRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/parts").param("fields", "id,secret"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void staleFormSavesAreRejected() throws Exception {
+        Product product = productRepository.save(new Product("Form Bookcase", 150.0, 3));
+        long opened = product.getVersion();
+        // A sale lands while the form is open
+        purchaseService.purchase(product.getId());
+
+        mockMvc.perform(post("/products/update/" + product.getId())
+                        .param("version", String.valueOf(opened))
+                        .param("name", "Form Bookcase Renamed")
+                        .param("price", "150.0")
+                        .param("inv", "3"))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("error"));
+        Product stored = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals("Form Bookcase", stored.getName());
+        assertEquals(2, stored.getInv());
+
+        mockMvc.perform(post("/products/update/" + product.getId())
+                        .param("version", String.valueOf(stored.getVersion()))
+                        .param("name", "Form Bookcase Renamed")
+                        .param("price", "150.0")
+                        .param("inv", "2"))
+                .andExpect(status().is3xxRedirection());
+        assertEquals("Form Bookcase Renamed", productRepository.findById(product.getId()).orElseThrow().getName());
+
+        Part part = partRepository.save(new InhousePart("Form Hinge", 2.0, 10, 908));
+        mockMvc.perform(get("/parts/update/" + part.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("name=\"version\" value=\"" + part.getVersion() + "\"")));
+        Part changed = partRepository.findById(part.getId()).orElseThrow();
+        changed.setInv(12);
+        partRepository.save(changed);
+        mockMvc.perform(post("/parts/update/" + part.getId())
+                        .param("version", String.valueOf(part.getVersion()))
+                        .param("partType", "inhouse")
+                        .param("name", "Form Hinge")
+                        .param("price", "2.0")
+                        .param("inv", "9")
+                        .param("minInv", "0")
+                        .param("maxInv", "100"))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("error"));
+        assertEquals(12, partRepository.findById(part.getId()).orElseThrow().getInv());
+
+        mockMvc.perform(post("/parts/update/" + part.getId())
+                        .param("version", String.valueOf(partRepository.findById(part.getId()).orElseThrow().getVersion()))
+                        .param("partType", "inhouse")
+                        .param("name", "Form Hinge")
+                        .param("price", "2.0")
+                        .param("inv", "9")
+                        .param("minInv", "0")
+                        .param("maxInv", "100"))
+                .andExpect(status().is3xxRedirection());
+        assertEquals(9, partRepository.findById(part.getId()).orElseThrow().getInv());
+    }
+}
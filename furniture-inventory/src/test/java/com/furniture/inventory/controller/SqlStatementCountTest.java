@@ -0,0 +1,129 @@
+package com.furniture.inventory.controller;
+
+import com.furniture.inventory.entity.InhousePart;
+import com.furniture.inventory.entity.OutsourcedPart;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.repository.PartRepository;
+import com.furniture.inventory.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards against N+1 regressions: counts the SQL statements each endpoint prepares
+ * against a catalog large enough that per-row loading would blow the budget.
+ * The second-level cache is cleared first so every statement is counted.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlStatementCountTest {
+
+    private static final int PRODUCTS = 40;
+    private static final int PARTS_PER_PRODUCT = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PartRepository partRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${inventory.paging.page-size}")
+    private int pickerSize;
+
+    private Statistics statistics;
+    private Product product;
+    private Part usedPart;
+
+    @BeforeEach
+    void seedCatalog() {
+        List<Part> parts = new ArrayList<>();
+        for (int i = 0; i < PARTS_PER_PRODUCT; i++) {
+            Part part = i % 2 == 0
+                    ? new InhousePart("N+1 Inhouse " + i, 1.0, 50, 200 + i)
+                    : new OutsourcedPart("N+1 Outsourced " + i, 1.0, 50, "Supplier " + i);
+            parts.add(partRepository.save(part));
+        }
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product p = new Product("N+1 Product " + i, 100.0, 0);
+            for (Part part : parts) {
+                p.addPart(part, 2);
+            }
+            product = productRepository.save(p);
+        }
+        usedPart = parts.get(0);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void mainScreenUsesConstantQueries() throws Exception {
+        assertStatementsAtMost(get("/mainscreen").param("size", "200"), status().isOk(), 4);
+    }
+
+    @Test
+    void productFormLoadsBillOfMaterialsInBulk() throws Exception {
+        MvcResult result = assertStatementsAtMost(get("/products/update/" + product.getId()), status().isOk(), 8);
+
+        // The sub-assembly picker lists one page of the catalog, not all of it
+        Collection<?> products = (Collection<?>) result.getModelAndView().getModel().get("availableProducts");
+        assertEquals(pickerSize, products.size());
+        assertEquals(true, result.getModelAndView().getModel().get("moreProductsAvailable"));
+    }
+
+    @Test
+    void productFormPickersSearchByName() throws Exception {
+        MvcResult result = assertStatementsAtMost(get("/products/update/" + product.getId())
+                .param("productFilter", "N+1 Product 7"), status().isOk(), 8);
+
+        @SuppressWarnings("unchecked")
+        Collection<Product> products = (Collection<Product>) result.getModelAndView().getModel().get("availableProducts");
+        assertFalse(products.isEmpty());
+        assertTrue(products.stream().allMatch(other -> other.getName().equals("N+1 Product 7")));
+    }
+
+    @Test
+    void partDeleteCheckDoesNotLoadProducts() throws Exception {
+        // Refused, as the part is in every product's bill of materials, and back to the main screen
+        assertStatementsAtMost(get("/parts/delete/" + usedPart.getId()), status().is3xxRedirection(), 4);
+        assertTrue(partRepository.existsById(usedPart.getId()));
+    }
+
+    private MvcResult assertStatementsAtMost(RequestBuilder request, ResultMatcher expected, long budget) throws Exception {
+        statistics.clear();
+        MvcResult result = mockMvc.perform(request).andExpect(expected).andReturn();
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= budget,
+                "Expected at most " + budget + " SQL statements but " + statements + " were prepared");
+        return result;
+    }
+}
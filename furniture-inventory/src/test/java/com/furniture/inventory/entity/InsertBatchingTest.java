@@ -0,0 +1,55 @@
+package com.furniture.inventory.entity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Part ids come from a pooled sequence, so inserts go out as JDBC batches rather than
+ * one statement per row. Throughput is measured by InsertBenchmark in
+ * furniture-inventory-benchmarks; this only checks the statement count.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class InsertBatchingTest {
+
+    private static final int ROWS = 5_000;
+    private static final int FLUSH_EVERY = 1_000;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void pooledSequenceInsertsAreBatched() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                entityManager.persist(new InhousePart("Batched Part " + i, 9.99, 10, i));
+                if ((i + 1) % FLUSH_EVERY == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        });
+
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements < ROWS / 10,
+                "Expected batched inserts but " + statements + " statements were prepared");
+    }
+}
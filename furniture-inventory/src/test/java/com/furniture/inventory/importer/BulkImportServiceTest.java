@@ -0,0 +1,90 @@
+package com.furniture.inventory.importer;
+
+import com.furniture.inventory.entity.OutsourcedPart;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.repository.PartRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BulkImportServiceTest {
+
+    @Autowired
+    private BulkImportService importService;
+
+    @Autowired
+    private PartRepository partRepository;
+
+    @Test
+    void csvImportWritesValidRowsAndReportsRejectedOnes() throws Exception {
+        String csv = """
+                type,name,price,inv,min inv,max inv,machine id,company name
+                inhouse,Import Leg,12.5,10,5,50,77,
+                outsourced,"Import Hinge, brass",3.25,20,0,40,,"Acme ""Hardware""\"
+                inhouse,Import Broken,abc,10,0,50,1,
+                outsourced,Import Overstock,1.0,90,0,50,,Acme
+                """;
+
+        ImportResult result = importService.importFrom(ImportTarget.PARTS, ImportFormat.CSV, stream(csv));
+
+        assertEquals(4, result.rowsRead());
+        assertEquals(2, result.rowsImported());
+        assertEquals(2, result.rowsRejected());
+
+        List<String> errors = Files.readAllLines(Path.of(result.errorFile()));
+        assertEquals("line,error", errors.get(0));
+        assertTrue(errors.get(1).startsWith("4,") && errors.get(1).contains("Invalid price"));
+        assertTrue(errors.get(2).startsWith("5,") && errors.get(2).contains("maximum inventory"));
+
+        Part hinge = partRepository.findAll().stream()
+                .filter(p -> p.getName().equals("Import Hinge, brass"))
+                .findFirst().orElseThrow();
+        assertEquals("Acme \"Hardware\"", ((OutsourcedPart) hinge).getCompanyName());
+    }
+
+    @Test
+    void jsonImportStreamsArrayOfObjects() throws Exception {
+        StringBuilder json = new StringBuilder("[");
+        int rows = 12_000;
+        for (int i = 0; i < rows; i++) {
+            json.append(i == 0 ? "" : ",\n")
+                    .append("{\"name\": \"Json Product ").append(i).append("\", \"price\": ").append(i % 100)
+                    .append(", \"inv\": 3}");
+        }
+        json.append("]");
+
+        ImportResult result = importService.importFrom(ImportTarget.PRODUCTS, ImportFormat.JSON, stream(json.toString()));
+
+        assertEquals(rows, result.rowsRead());
+        assertEquals(rows, result.rowsImported());
+        assertNull(result.errorFile());
+    }
+
+    @Test
+    void malformedInputFailsTheImport() {
+        String csv = "type,name,price\ninhouse,\"Unterminated,1.0\n";
+        IOException e = assertThrows(IOException.class,
+                () -> importService.importFrom(ImportTarget.PARTS, ImportFormat.CSV, stream(csv)));
+        assertTrue(e.getMessage().contains("Unterminated"));
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,117 @@
+package com.furniture.inventory.ledger;
+
+import com.furniture.inventory.entity.InhousePart;
+import com.furniture.inventory.entity.InventoryMovement;
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.entity.MovementType;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.repository.PartRepository;
+import com.furniture.inventory.repository.ProductRepository;
+import com.furniture.inventory.service.AssemblyService;
+import com.furniture.inventory.service.PurchaseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.OptionalInt;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Snapshot after every batch so point-in-time reads go through snapshot plus delta
+@SpringBootTest(properties = "inventory.ledger.snapshot-every=1")
+@ActiveProfiles("test")
+class LedgerServiceTest {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private AssemblyService assemblyService;
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private PartRepository partRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void pointInTimeStockFollowsMovements() throws InterruptedException {
+        Part slat = partRepository.save(new InhousePart("Ledger Slat", 1.5, 30, 905));
+        Product bench = new Product("Ledger Bench", 80.0, 0);
+        bench.addPart(slat, 4);
+        bench = productRepository.save(bench);
+        awaitLedger();
+        Instant opened = Instant.now();
+
+        Part loaded = partRepository.findById(slat.getId()).orElseThrow();
+        loaded.setInv(50);
+        partRepository.save(loaded);
+        awaitLedger();
+        Instant restocked = Instant.now();
+
+        bench.setInv(3);
+        assemblyService.saveWithAssembly(bench, 0);
+        purchaseService.purchase(bench.getId());
+        awaitLedger();
+
+        assertEquals(OptionalInt.of(30), ledgerService.stockAt(ItemType.PART, slat.getId(), opened));
+        assertEquals(OptionalInt.of(50), ledgerService.stockAt(ItemType.PART, slat.getId(), restocked));
+        assertEquals(OptionalInt.of(38), ledgerService.stockAt(ItemType.PART, slat.getId(), Instant.now()));
+        assertEquals(OptionalInt.of(2), ledgerService.stockAt(ItemType.PRODUCT, bench.getId(), Instant.now()));
+
+        List<MovementType> partMovements = ledgerService.history(ItemType.PART, slat.getId(), 10).stream()
+                .map(InventoryMovement::getMovementType)
+                .toList();
+        assertEquals(List.of(MovementType.CONSUME, MovementType.RECEIVE, MovementType.RECEIVE), partMovements);
+        List<MovementType> productMovements = ledgerService.history(ItemType.PRODUCT, bench.getId(), 10).stream()
+                .map(InventoryMovement::getMovementType)
+                .toList();
+        assertEquals(List.of(MovementType.SALE, MovementType.RECEIVE), productMovements);
+    }
+
+    @Test
+    void stockBeforeLedgerStartIsUnknown() {
+        assertTrue(ledgerService.stockAt(ItemType.PART, 1L, Instant.EPOCH).isEmpty());
+    }
+
+    @Test
+    void movementsCommitAndRollBackWithTheStockChange() {
+        Part leg = partRepository.save(new InhousePart("Ledger Leg", 2.0, 10, 906));
+        assertEquals(1, ledgerService.history(ItemType.PART, leg.getId(), 10).size());
+
+        assertThrows(IllegalStateException.class, () -> transactionTemplate.executeWithoutResult(status -> {
+            Part loaded = partRepository.findById(leg.getId()).orElseThrow();
+            loaded.setInv(25);
+            partRepository.saveAndFlush(loaded);
+            throw new IllegalStateException("rolled back");
+        }));
+        assertEquals(1, ledgerService.history(ItemType.PART, leg.getId(), 10).size());
+    }
+
+    private void awaitLedger() throws InterruptedException {
+        // Movements are written with their transaction; let a snapshot pass follow, and move the clock past it
+        Thread.sleep(300);
+    }
+}
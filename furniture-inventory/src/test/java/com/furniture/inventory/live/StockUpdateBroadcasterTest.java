@@ -0,0 +1,55 @@
+package com.furniture.inventory.live;
+
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.repository.ProductRepository;
+import com.furniture.inventory.service.PurchaseService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StockUpdateBroadcasterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StockUpdateBroadcaster broadcaster;
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void subscribersReceiveCurrentLevelOfSoldProduct() throws Exception {
+        Product product = productRepository.save(new Product("Live Ottoman", 60.0, 3));
+        MockHttpServletResponse stream = mockMvc.perform(get("/live/stock"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+
+        purchaseService.purchase(product.getId());
+        purchaseService.purchase(product.getId());
+        broadcaster.publish();
+
+        String expected = "{\"type\":\"PRODUCT\",\"id\":" + product.getId() + ",\"inv\":1}";
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!stream.getContentAsString().contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        String events = stream.getContentAsString();
+        assertTrue(events.contains("event:stock"), events);
+        assertTrue(events.contains(expected), events);
+    }
+}
@@ -0,0 +1,124 @@
+package com.furniture.inventory.location;
+
+import com.furniture.inventory.entity.InhousePart;
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.repository.PartRepository;
+import com.furniture.inventory.repository.ProductRepository;
+import com.furniture.inventory.service.AssemblyService;
+import com.furniture.inventory.service.PurchaseOutcome;
+import com.furniture.inventory.service.PurchaseService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Fold only when the test says so
+@SpringBootTest(properties = {
+        "inventory.location.codes=MAIN,NORTH,SOUTH",
+        "inventory.location.fold-interval=1h"
+})
+@ActiveProfiles("test")
+class LocationStockServiceTest {
+
+    @Autowired
+    private LocationStockService locationStockService;
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PartRepository partRepository;
+
+    @Autowired
+    private AssemblyService assemblyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void stockIsRoutedAcrossLocationsAndFoldedIntoTheTotal() {
+        Long id = productRepository.save(new Product("Location Armchair", 220.0, 2)).getId();
+
+        locationStockService.receive(ItemType.PRODUCT, id, "north", 3);
+        assertEquals(Map.of("MAIN", 2, "NORTH", 3, "SOUTH", 0), locationStockService.stock(ItemType.PRODUCT, id).orElseThrow());
+        assertEquals(OptionalLong.of(5), locationStockService.total(ItemType.PRODUCT, id));
+        assertEquals(2, inventoryCount(id));
+
+        locationStockService.fold();
+        assertEquals(5, inventoryCount(id));
+
+        // Home sells first; once it is empty the sale routes to the next location with stock
+        for (int i = 0; i < 3; i++) {
+            assertEquals(PurchaseOutcome.PURCHASED, purchaseService.purchase(id));
+        }
+        assertEquals(Map.of("MAIN", 0, "NORTH", 2, "SOUTH", 0), locationStockService.stock(ItemType.PRODUCT, id).orElseThrow());
+
+        assertTrue(locationStockService.transfer(ItemType.PRODUCT, id, "NORTH", "SOUTH", 2));
+        assertFalse(locationStockService.transfer(ItemType.PRODUCT, id, "NORTH", "SOUTH", 1));
+        assertEquals(PurchaseOutcome.PURCHASED, purchaseService.purchase(id, "SOUTH"));
+        assertEquals(Map.of("MAIN", 0, "NORTH", 0, "SOUTH", 1), locationStockService.stock(ItemType.PRODUCT, id).orElseThrow());
+
+        locationStockService.fold();
+        assertEquals(1, inventoryCount(id));
+        assertEquals(PurchaseOutcome.PURCHASED, purchaseService.purchase(id));
+        assertEquals(PurchaseOutcome.OUT_OF_STOCK, purchaseService.purchase(id));
+    }
+
+    @Test
+    void homeAssemblyChecksTheLiveTotal() {
+        Part dowel = new InhousePart("Location Dowel", 0.5, 10, 907);
+        dowel.setMinInv(2);
+        Long dowelId = partRepository.save(dowel).getId();
+        locationStockService.receive(ItemType.PART, dowelId, "NORTH", 6);
+        locationStockService.fold();
+
+        // Uses up the dowels at NORTH; the stored total still counts them until the next fold
+        Product shelf = new Product("Location Shelf", 40.0, 0);
+        shelf.addPart(dowel, 6);
+        shelf = productRepository.save(shelf);
+        shelf.setInv(1);
+        assemblyService.saveWithAssembly(shelf, 0, "NORTH", 0);
+        assertEquals(16, partInventoryCount(dowelId));
+
+        Product stool = new Product("Location Stool", 25.0, 0);
+        stool.addPart(dowel, 1);
+        Product saved = productRepository.save(stool);
+        saved.setInv(9);
+        assertThrows(IllegalArgumentException.class, () -> assemblyService.saveWithAssembly(saved, 0));
+
+        saved.setInv(8);
+        assemblyService.saveWithAssembly(saved, 0);
+        assertEquals(Map.of("MAIN", 2, "NORTH", 0, "SOUTH", 0), locationStockService.stock(ItemType.PART, dowelId).orElseThrow());
+        locationStockService.fold();
+        assertEquals(2, partInventoryCount(dowelId));
+    }
+
+    @Test
+    void unknownLocationIsRejected() {
+        Long id = productRepository.save(new Product("Location Ottoman", 90.0, 1)).getId();
+        assertThrows(IllegalArgumentException.class,
+                () -> locationStockService.receive(ItemType.PRODUCT, id, "ATTIC", 1));
+    }
+
+    private int partInventoryCount(Long id) {
+        return jdbcTemplate.queryForObject("SELECT inventory_count FROM part WHERE id = ?", Integer.class, id);
+    }
+
+    private int inventoryCount(Long id) {
+        return jdbcTemplate.queryForObject("SELECT inventory_count FROM product WHERE id = ?", Integer.class, id);
+    }
+}
@@ -0,0 +1,69 @@
+package com.furniture.inventory.planning;
+
+import com.furniture.inventory.entity.InhousePart;
+import com.furniture.inventory.entity.OutsourcedPart;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.repository.PartRepository;
+import com.furniture.inventory.service.AssemblyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MrpPlannerTest {
+
+    private static final String SUPPLIER = "MRP Fasteners Ltd";
+    private static final int MACHINE = 941;
+
+    @Autowired
+    private MrpPlanner planner;
+
+    @Autowired
+    private AssemblyService assemblyService;
+
+    @Autowired
+    private PartRepository partRepository;
+
+    @Test
+    void netsPartsAgainstTargetsAndGroupsBySupplierAndMachine() {
+        Part screw = save(new OutsourcedPart("MRP Screw", 0.5, 10, SUPPLIER), 5, 100);
+        Part panel = save(new InhousePart("MRP Panel", 8.0, 20, MACHINE), 2, 50);
+        Part dowel = save(new InhousePart("MRP Dowel", 0.2, 1, MACHINE), 3, 10);
+
+        Product desk = new Product("MRP Desk", 120.0, 1);
+        desk.addPart(screw, 4);
+        desk.addPart(panel, 2);
+        desk = assemblyService.saveWithAssembly(desk, 1);
+
+        MrpPlan plan = planner.plan(Map.of(desk.getId(), 6), null, 4).orElseThrow();
+
+        // 5 desks short: 20 screws take stock to -10, so 15 keep the minimum and 110 refill to the maximum
+        MrpPlan.PurchaseOrder order = plan.purchaseOrders().stream()
+                .filter(o -> o.supplier().equals(SUPPLIER)).findFirst().orElseThrow();
+        assertEquals(List.of(new MrpPlan.Line(screw.getId(), "MRP Screw", 10, 5, 100, 20, 15, 110)), order.lines());
+        assertEquals(55.0, order.cost(), 1e-9);
+
+        // 10 panels still leave 10 above the minimum; the dowel is below its minimum without any demand
+        MrpPlan.ProductionRun run = plan.productionRuns().stream()
+                .filter(r -> r.machineId() == MACHINE).findFirst().orElseThrow();
+        assertEquals(List.of(new MrpPlan.Line(dowel.getId(), "MRP Dowel", 1, 3, 10, 0, 2, 9)), run.lines());
+
+        MrpPlan serial = planner.plan(Map.of(desk.getId(), 6), null, 1).orElseThrow();
+        assertEquals(serial.purchaseOrders(), plan.purchaseOrders());
+        assertEquals(serial.productionRuns(), plan.productionRuns());
+    }
+
+    private Part save(Part part, int minInv, int maxInv) {
+        part.setMinInv(minInv);
+        part.setMaxInv(maxInv);
+        return partRepository.save(part);
+    }
+}
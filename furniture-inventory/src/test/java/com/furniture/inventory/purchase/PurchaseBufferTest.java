@@ -0,0 +1,138 @@
+package com.furniture.inventory.purchase;
+
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.location.LocationStockService;
+import com.furniture.inventory.repository.ProductRepository;
+import com.furniture.inventory.reservation.Reservation;
+import com.furniture.inventory.reservation.ReservationService;
+import com.furniture.inventory.service.ConcurrentBuyers;
+import com.furniture.inventory.service.PurchaseOutcome;
+import com.furniture.inventory.service.PurchaseService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "inventory.purchase.write-behind.enabled=true",
+        "inventory.purchase.write-behind.journal-dir=./target/purchase-journal-buffer-test",
+        // Flushed by the tests themselves, so unflushed sales stay unflushed
+        "inventory.purchase.write-behind.flush-interval=1h"})
+@ActiveProfiles("test")
+class PurchaseBufferTest {
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private PurchaseBuffer purchaseBuffer;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private LocationStockService locationStockService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Test
+    void concurrentBuyersNeverOversellAndFlushReachesDatabase() throws Exception {
+        Product product = productRepository.save(new Product("Burst Sale Stool", 49.99, ConcurrentBuyers.STOCK));
+
+        ConcurrentBuyers.assertSellsExactlyTheStock(purchaseService, product.getId());
+        purchaseBuffer.flush();
+        assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getInv());
+    }
+
+    @Test
+    void editedProductIsReloadedFromDatabase() {
+        Product product = productRepository.save(new Product("Restocked Lamp", 30.0, 1));
+        assertEquals(PurchaseOutcome.PURCHASED, purchaseService.purchase(product.getId()));
+        assertEquals(PurchaseOutcome.OUT_OF_STOCK, purchaseService.purchase(product.getId()));
+        purchaseBuffer.flush();
+
+        Product restocked = productRepository.findById(product.getId()).orElseThrow();
+        restocked.setInv(2);
+        productRepository.save(restocked);
+
+        assertEquals(PurchaseOutcome.PURCHASED, purchaseService.purchase(product.getId()));
+        assertEquals(PurchaseOutcome.PURCHASED, purchaseService.purchase(product.getId()));
+        assertEquals(PurchaseOutcome.OUT_OF_STOCK, purchaseService.purchase(product.getId()));
+    }
+
+    @Test
+    void bufferSellsOnlyHomeStock() {
+        Long id = productRepository.save(new Product("Split Stock Bench", 120.0, 1)).getId();
+        locationStockService.receive(ItemType.PRODUCT, id, "NORTH", 2);
+        // Folded, the total counts the units at NORTH too
+        locationStockService.fold();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(PurchaseOutcome.PURCHASED, purchaseService.purchase(id));
+        }
+        assertEquals(PurchaseOutcome.OUT_OF_STOCK, purchaseService.purchase(id));
+        purchaseBuffer.flush();
+
+        Map<String, Integer> stock = locationStockService.stock(ItemType.PRODUCT, id).orElseThrow();
+        assertTrue(stock.values().stream().allMatch(units -> units == 0), stock::toString);
+        locationStockService.fold();
+        assertEquals(0, productRepository.findById(id).orElseThrow().getInv());
+    }
+
+    @Test
+    void syncSaleAtHomeSeesUnflushedSales() {
+        Long id = productRepository.save(new Product("Last Unit Armchair", 210.0, 1)).getId();
+        assertEquals(PurchaseOutcome.PURCHASED, purchaseService.purchase(id));
+
+        // Neither the home counter nor inventory_count has the buffered sale yet
+        assertEquals(PurchaseOutcome.OUT_OF_STOCK, purchaseService.purchase(id, "MAIN"));
+        assertTrue(locationStockService.route(ItemType.PRODUCT, id, 1, null).isEmpty());
+
+        purchaseBuffer.flush();
+        assertEquals(0, productRepository.findById(id).orElseThrow().getInv());
+    }
+
+    @Test
+    void holdsSeeUnflushedSales() {
+        Long id = productRepository.save(new Product("Held Sideboard", 400.0, 2)).getId();
+        assertEquals(PurchaseOutcome.PURCHASED, purchaseService.purchase(id));
+
+        assertEquals(OptionalLong.of(1), reservationService.available(ItemType.PRODUCT, id));
+        assertTrue(reservationService.reserve(ItemType.PRODUCT, id, 2, null).isEmpty());
+        Reservation cart = reservationService.reserve(ItemType.PRODUCT, id, 1, null).orElseThrow();
+        assertEquals(PurchaseOutcome.OUT_OF_STOCK, purchaseService.purchase(id));
+        assertTrue(reservationService.confirm(cart.id(), null));
+
+        purchaseBuffer.flush();
+        assertEquals(0, productRepository.findById(id).orElseThrow().getInv());
+    }
+
+    @Test
+    void journalReplaysOnlySalesAfterCheckpoint() throws Exception {
+        Path dir = Files.createTempDirectory("purchase-journal");
+        PurchaseJournal journal = new PurchaseJournal(dir, 1024, new SimpleMeterRegistry());
+        journal.replay(0);
+        journal.start(0);
+        journal.append(7L, 1).get();
+        journal.append(7L, 1).get();
+        journal.append(9L, 1).get();
+        journal.close();
+
+        PurchaseJournal.Replay replay = new PurchaseJournal(dir, 1024, new SimpleMeterRegistry()).replay(1);
+        assertEquals(3, replay.maxSeq());
+        assertEquals(1, replay.unapplied().get(7L));
+        assertEquals(1, replay.unapplied().get(9L));
+        assertEquals(2, replay.unapplied().size());
+    }
+}
@@ -0,0 +1,95 @@
+package com.furniture.inventory.purchasing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.furniture.inventory.entity.OutsourcedPart;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.repository.PartRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "inventory.purchasing.max-lines=2",
+        "inventory.purchasing.window=PT1H",
+        "inventory.purchasing.outbox-dir=./target/purchase-orders-batcher-test"})
+@ActiveProfiles("test")
+class PurchaseOrderBatcherTest {
+
+    @Autowired
+    private PurchaseOrderBatcher batcher;
+
+    @Autowired
+    private PartRepository partRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${inventory.purchasing.outbox-dir}")
+    private Path outboxDir;
+
+    @Test
+    void issuesOneOrderPerSupplierOnceTheBatchIsFull() throws Exception {
+        Instant start = Instant.now();
+        Part hinge = part("Batch Hinge", "Batch  Hardware Co", 2);
+        assertEquals(48, batcher.pending().get("Batch  Hardware Co").get(hinge.getId()));
+
+        // Same supplier spelled differently fills the batch of two
+        Part handle = part("Batch Handle", " batch hardware co ", 5);
+        PurchaseOrder order = awaitOrder(hinge.getId(), start);
+
+        assertEquals("Batch  Hardware Co", order.supplier());
+        assertEquals(List.of(hinge.getId(), handle.getId()),
+                order.lines().stream().map(PurchaseOrder.Line::partId).toList());
+        assertEquals(48 + 45, order.units());
+        assertFalse(batcher.pending().containsKey("Batch  Hardware Co"));
+    }
+
+    @Test
+    void dropsPartsThatRecoverBeforeTheOrderIsIssued() {
+        Part glue = part("Batch Glue", "Batch Adhesives", 1);
+        assertTrue(batcher.pending().containsKey("Batch Adhesives"));
+
+        glue.setInv(30);
+        partRepository.save(glue);
+        assertFalse(batcher.pending().containsKey("Batch Adhesives"));
+    }
+
+    private Part part(String name, String supplier, int inv) {
+        Part part = new OutsourcedPart(name, 4.0, inv, supplier);
+        part.setMinInv(10);
+        part.setMaxInv(50);
+        return partRepository.save(part);
+    }
+
+    private PurchaseOrder awaitOrder(Long partId, Instant since) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            try (Stream<Path> files = Files.list(outboxDir)) {
+                for (Path file : files.filter(f -> f.toString().endsWith(".json")).toList()) {
+                    PurchaseOrder order = objectMapper.readValue(file.toFile(), PurchaseOrder.class);
+                    // Skip orders left over from earlier runs
+                    if (!order.createdAt().isBefore(since) && order.lines().stream().anyMatch(line -> line.partId().equals(partId))) {
+                        return order;
+                    }
+                }
+            } catch (NoSuchFileException e) {
+                // not created yet
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("No purchase order for part " + partId);
+    }
+}
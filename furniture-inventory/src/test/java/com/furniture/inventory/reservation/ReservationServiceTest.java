@@ -0,0 +1,156 @@
+package com.furniture.inventory.reservation;
+
+import com.furniture.inventory.entity.ItemType;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.repository.ProductRepository;
+import com.furniture.inventory.service.PurchaseOutcome;
+import com.furniture.inventory.service.PurchaseService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// A fast wheel so expiry can be observed within the test
+@SpringBootTest(properties = "inventory.reservation.tick=10ms")
+@ActiveProfiles("test")
+class ReservationServiceTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void heldUnitsAreNotSoldUntilReleased() {
+        Long id = productRepository.save(new Product("Reserved Sofa", 900.0, 3)).getId();
+
+        Reservation cart = reservationService.reserve(ItemType.PRODUCT, id, 2, null).orElseThrow();
+        assertEquals(OptionalLong.of(1), reservationService.available(ItemType.PRODUCT, id));
+        assertTrue(reservationService.reserve(ItemType.PRODUCT, id, 2, null).isEmpty());
+
+        assertEquals(PurchaseOutcome.PURCHASED, purchaseService.purchase(id));
+        assertEquals(PurchaseOutcome.OUT_OF_STOCK, purchaseService.purchase(id));
+
+        assertTrue(reservationService.release(cart.id()));
+        assertFalse(reservationService.release(cart.id()));
+        assertEquals(OptionalLong.of(2), reservationService.available(ItemType.PRODUCT, id));
+        assertEquals(PurchaseOutcome.PURCHASED, purchaseService.purchase(id));
+    }
+
+    @Test
+    void confirmingSellsTheHeldUnits() {
+        Long id = productRepository.save(new Product("Reserved Desk", 300.0, 2)).getId();
+
+        Reservation cart = reservationService.reserve(ItemType.PRODUCT, id, 2, null).orElseThrow();
+        assertTrue(reservationService.confirm(cart.id(), null));
+
+        assertTrue(reservationService.find(cart.id()).isEmpty());
+        assertEquals(OptionalLong.of(0), reservationService.available(ItemType.PRODUCT, id));
+        assertEquals(PurchaseOutcome.OUT_OF_STOCK, purchaseService.purchase(id));
+    }
+
+    @Test
+    void concurrentBuyersAndHoldsNeverOvercommit() throws Exception {
+        Long id = productRepository.save(new Product("Reserved Wardrobe", 700.0, 20)).getId();
+        Reservation cart = reservationService.reserve(ItemType.PRODUCT, id, 8, null).orElseThrow();
+
+        // Buyers and new holds race for the 12 units the cart leaves
+        List<Callable<Optional<Reservation>>> tasks = new ArrayList<>();
+        AtomicInteger purchased = new AtomicInteger();
+        for (int i = 0; i < 60; i++) {
+            tasks.add(i % 3 == 0
+                    ? () -> reservationService.reserve(ItemType.PRODUCT, id, 1, null)
+                    : () -> {
+                        if (purchaseService.purchase(id) == PurchaseOutcome.PURCHASED) {
+                            purchased.incrementAndGet();
+                        }
+                        return Optional.empty();
+                    });
+        }
+        List<Reservation> holds = new ArrayList<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(16)) {
+            for (Future<Optional<Reservation>> result : pool.invokeAll(tasks)) {
+                result.get().ifPresent(holds::add);
+            }
+        }
+
+        assertEquals(12, purchased.get() + holds.size());
+        assertEquals(OptionalLong.of(0), reservationService.available(ItemType.PRODUCT, id));
+        // Every hold, the cart's included, can still be sold
+        assertTrue(reservationService.confirm(cart.id(), null));
+        for (Reservation hold : holds) {
+            assertTrue(reservationService.confirm(hold.id(), null));
+        }
+        assertEquals(OptionalLong.of(0), reservationService.available(ItemType.PRODUCT, id));
+        // Nothing is taking or placing holds any more, so no item keeps a lock
+        assertEquals(0, reservationService.lockedItems());
+    }
+
+    @Test
+    void holdsLapseAfterTheirTimeToLive() throws InterruptedException {
+        Long id = productRepository.save(new Product("Reserved Lamp", 40.0, 1)).getId();
+
+        Reservation cart = reservationService.reserve(ItemType.PRODUCT, id, 1, Duration.ofMillis(200)).orElseThrow();
+        Reservation renewed = reservationService.renew(cart.id(), Duration.ofMillis(300)).orElseThrow();
+        assertFalse(renewed.expiresAt().isBefore(cart.expiresAt()));
+        assertEquals(OptionalLong.of(0), reservationService.available(ItemType.PRODUCT, id));
+
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (reservationService.find(cart.id()).isPresent() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(reservationService.find(cart.id()).isEmpty());
+        assertEquals(OptionalLong.of(1), reservationService.available(ItemType.PRODUCT, id));
+        assertTrue(reservationService.renew(cart.id(), null).isEmpty());
+    }
+
+    @Test
+    void wheelFiresEveryTimeoutAtItsDeadline() {
+        TimingWheel<TestTimeout> wheel = new TimingWheel<>(5);
+        // Finest wheel, each coarser wheel, and past the wheels' span
+        long[] deadlines = {6, 63, 64, 70, 4095, 4100, 300_000, 20_000_000};
+        List<TestTimeout> timeouts = new ArrayList<>();
+        for (long deadline : deadlines) {
+            TestTimeout timeout = new TestTimeout();
+            wheel.schedule(timeout, deadline);
+            timeouts.add(timeout);
+        }
+        TestTimeout cancelled = new TestTimeout();
+        wheel.schedule(cancelled, 100);
+        assertTrue(wheel.cancel(cancelled));
+
+        List<Long> fired = new ArrayList<>();
+        List<Long> expected = new ArrayList<>();
+        for (long deadline : deadlines) {
+            wheel.advance(deadline - 1, t -> fired.add(wheel.now()));
+            assertEquals(expected, fired);
+            wheel.advance(deadline, t -> fired.add(wheel.now()));
+            expected.add(deadline);
+            assertEquals(expected, fired);
+        }
+        assertEquals(0, wheel.size());
+        assertTrue(timeouts.stream().noneMatch(TimingWheel.Timeout::isScheduled));
+    }
+
+    private static final class TestTimeout extends TimingWheel.Timeout {
+    }
+}
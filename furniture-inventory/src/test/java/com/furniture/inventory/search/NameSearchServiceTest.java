@@ -0,0 +1,154 @@
+package com.furniture.inventory.search;
+
+import com.furniture.inventory.entity.InhousePart;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.paging.KeysetPage;
+import com.furniture.inventory.repository.PartRepository;
+import com.furniture.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NameSearchServiceTest {
+
+    @Autowired
+    private NameSearchService searchService;
+
+    @Autowired
+    private PartRepository partRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void indexFollowsInsertsRenamesAndDeletes() {
+        Long partId = partRepository.save(new InhousePart("Zebrawood Panel", 12.0, 10, 501)).getId();
+        Long productId = productRepository.save(new Product("Zebrawood Console", 650.0, 1)).getId();
+        assertEquals(List.of(partId), searchService.searchParts("zebrawood", 10));
+        assertEquals(List.of(productId), searchService.searchProducts("ZEBRAWOOD", 10));
+
+        // A rolled-back rename never reaches the index
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            Part part = partRepository.findById(partId).orElseThrow();
+            part.setName("Rolled Back Panel");
+            partRepository.saveAndFlush(part);
+            status.setRollbackOnly();
+        });
+        assertEquals(List.of(partId), searchService.searchParts("zebrawood", 10));
+        assertTrue(searchService.searchParts("rolled back", 10).isEmpty());
+
+        Part renamed = partRepository.findById(partId).orElseThrow();
+        renamed.setName("Quartersawn Panel");
+        partRepository.save(renamed);
+        assertTrue(searchService.searchParts("zebrawood", 10).isEmpty());
+        assertEquals(List.of(partId), searchService.searchParts("quartersawn", 10));
+
+        partRepository.deleteById(partId);
+        assertTrue(searchService.searchParts("quartersawn", 10).isEmpty());
+    }
+
+    @Test
+    void matchesRankExactThenPrefixThenWordPrefixThenSubstring() {
+        TrigramIndex index = new TrigramIndex();
+        index.put(1L, "Blackwalnut Shelf");
+        index.put(2L, "Dark Walnut Shelf");
+        index.put(3L, "Walnut Table");
+        index.put(4L, "  WALNUT ");
+        index.put(5L, "Walnut Stool");
+
+        assertEquals(List.of(4L, 5L, 3L, 2L, 1L), index.search("walnut", 10));
+        assertEquals(List.of(4L, 5L), index.search("walnut", 2));
+        assertEquals(List.of(1L), index.search("kwal", 10));
+        assertTrue(index.search("walnuts", 10).isEmpty());
+
+        // Shorter than a gram: words starting with the query only, not every name containing it
+        assertEquals(List.of(4L, 5L, 3L, 2L), index.search("wa", 10));
+        assertEquals(List.of(2L), index.search("d", 10));
+        assertTrue(index.search("al", 10).isEmpty());
+
+        index.put(2L, "Ash Shelf");
+        assertTrue(index.search("d", 10).isEmpty());
+        assertEquals(List.of(2L), index.search("as", 10));
+        index.remove(2L);
+        assertTrue(index.search("as", 10).isEmpty());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void postingsStaySortedWhateverTheInsertOrder() {
+        TrigramIndex index = new TrigramIndex();
+        for (long id = 2000; id >= 1; id--) {
+            index.put(id, "Oak Leg " + id);
+        }
+        index.put(9000L, "Zebrawood Oak Leg");
+
+        assertEquals(List.of(7L, 70L, 71L), index.search("oak leg 7", 3));
+        // One rare gram against thousands of common ones
+        assertEquals(List.of(9000L), index.search("zebrawood oak", 10));
+        assertEquals(2001, index.search("oak", 5000).size());
+
+        index.remove(7L);
+        index.remove(70L);
+        assertEquals(List.of(71L, 72L, 73L), index.search("oak leg 7", 3));
+    }
+
+    @Test
+    void searchResultsPageByRankOffset() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            ids.add(partRepository.save(new InhousePart("Pagewood Leg " + i, 3.0, 20, 600 + i)).getId());
+        }
+
+        KeysetPage<Part> first = partPage(null);
+        assertEquals(ids.subList(0, 2), first.getContent().stream().map(Part::getId).toList());
+        assertEquals("2", first.getNextCursor());
+        assertNull(first.getPreviousCursor());
+
+        KeysetPage<Part> second = partPage(first.getNextCursor());
+        assertEquals(ids.subList(2, 4), second.getContent().stream().map(Part::getId).toList());
+        assertEquals("0", second.getPreviousCursor());
+
+        KeysetPage<Part> last = partPage(second.getNextCursor());
+        assertEquals(ids.subList(4, 5), last.getContent().stream().map(Part::getId).toList());
+        assertFalse(last.isHasNext());
+        assertEquals("2", last.getPreviousCursor());
+    }
+
+    @SuppressWarnings("unchecked")
+    private KeysetPage<Part> partPage(String after) throws Exception {
+        MockHttpServletRequestBuilder request = get("/mainscreen").param("partFilter", "pagewood leg").param("size", "2");
+        if (after != null) {
+            request.param("partAfter", after);
+        }
+        return (KeysetPage<Part>) mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getModelAndView().getModel().get("partPage");
+    }
+}
@@ -0,0 +1,66 @@
+package com.furniture.inventory.service;
+
+import com.furniture.inventory.entity.InhousePart;
+import com.furniture.inventory.entity.OutsourcedPart;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.repository.PartRepository;
+import com.furniture.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BomExplosionServiceTest {
+
+    @Autowired
+    private BomExplosionService explosionService;
+
+    @Autowired
+    private PartRepository partRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void productsSaveWithPartsAndSubAssembliesCommittedEarlier() {
+        // Each save commits on its own, so the BOM references detached entities
+        Part rail = partRepository.save(new InhousePart("Bom Rail", 2.0, 40, 910));
+        Part bolt = partRepository.save(new OutsourcedPart("Bom Bolt", 0.1, 500, "Bom Fasteners"));
+        Part glue = partRepository.save(new OutsourcedPart("Bom Glue", 4.0, 20, "Bom Fasteners"));
+
+        Product frame = new Product("Bom Frame", 30.0, 0);
+        frame.addPart(rail, 2);
+        frame = productRepository.save(frame);
+
+        Product bed = new Product("Bom Bed", 400.0, 0);
+        bed.addComponent(frame, 2);
+        bed.addPart(bolt, 8);
+        bed = productRepository.save(bed);
+
+        assertEquals(Map.of(rail.getId(), 4L, bolt.getId(), 8L), explosionService.requirementsPerUnit(bed.getId()));
+
+        // Changing a BOM in a later transaction, with parts saved in earlier ones
+        Long bedId = bed.getId();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Product reloaded = productRepository.findById(bedId).orElseThrow();
+            reloaded.addPart(bolt, 12);
+            reloaded.addPart(glue, 1);
+            productRepository.save(reloaded);
+        });
+        explosionService.invalidate(bed.getId());
+
+        assertEquals(Map.of(rail.getId(), 4L, bolt.getId(), 12L, glue.getId(), 1L), explosionService.requirementsPerUnit(bed.getId()));
+    }
+}
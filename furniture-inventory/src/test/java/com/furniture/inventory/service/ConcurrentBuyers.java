@@ -0,0 +1,48 @@
+package com.furniture.inventory.service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * A flash sale for the purchase tests: more buyers than stock, all buying one
+ * unit of the same product at once, whichever way purchases are written.
+ */
+public final class ConcurrentBuyers {
+
+    /** Units the product under test starts with */
+    public static final int STOCK = 100;
+    public static final int BUYERS = 300;
+    private static final int THREADS = 64;
+
+    private ConcurrentBuyers() {
+    }
+
+    /**
+     * Lets {@link #BUYERS} buyers race for a product stocked with {@link #STOCK}
+     * units and checks that exactly the stock was sold and everyone else was
+     * told it is out of stock
+     */
+    public static void assertSellsExactlyTheStock(PurchaseService purchaseService, Long productId) throws Exception {
+        List<Callable<PurchaseOutcome>> buyers = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            buyers.add(() -> purchaseService.purchase(productId));
+        }
+
+        Map<PurchaseOutcome, Integer> outcomes = new EnumMap<>(PurchaseOutcome.class);
+        try (ExecutorService pool = Executors.newFixedThreadPool(THREADS)) {
+            for (Future<PurchaseOutcome> result : pool.invokeAll(buyers)) {
+                outcomes.merge(result.get(), 1, Integer::sum);
+            }
+        }
+
+        assertEquals(Map.of(PurchaseOutcome.PURCHASED, STOCK, PurchaseOutcome.OUT_OF_STOCK, BUYERS - STOCK), outcomes);
+    }
+}
@@ -0,0 +1,111 @@
+package com.furniture.inventory.service;
+
+import com.furniture.inventory.entity.InhousePart;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.repository.PartRepository;
+import com.furniture.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ProductCostServiceTest {
+
+    @Autowired
+    private ProductCostService costService;
+
+    @Autowired
+    private PartRepository partRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void partPriceChangeRollsUpThroughSubAssemblies() {
+        Part panel = partRepository.save(new InhousePart("Cost Panel", 10.0, 50, 901));
+
+        Product drawer = new Product("Cost Drawer", 40.0, 0);
+        drawer.addPart(panel, 2);
+        drawer = productRepository.save(drawer);
+
+        Product chest = new Product("Cost Chest", 150.0, 0);
+        chest.addPart(panel, 1);
+        chest.addComponent(drawer, 3);
+        chest = productRepository.save(chest);
+
+        assertEquals(20.0, drawer.getPartsTotalCost(), 1e-9);
+        assertEquals(70.0, chest.getPartsTotalCost(), 1e-9);
+
+        Part loaded = partRepository.findById(panel.getId()).orElseThrow();
+        loaded.setPrice(12.0);
+        costService.savePart(loaded, 10.0);
+
+        Product reloadedDrawer = productRepository.findById(drawer.getId()).orElseThrow();
+        Product reloadedChest = productRepository.findById(chest.getId()).orElseThrow();
+        assertEquals(24.0, reloadedDrawer.getPartsTotalCost(), 1e-9);
+        assertEquals(16.0, reloadedDrawer.getMargin(), 1e-9);
+        // 1 panel directly plus 3 drawers of 2 panels each
+        assertEquals(84.0, reloadedChest.getPartsTotalCost(), 1e-9);
+        assertEquals(66.0, reloadedChest.getMargin(), 1e-9);
+    }
+
+    @Test
+    void subAssemblyCostChangeReachesParents() {
+        Part rail = partRepository.save(new InhousePart("Cost Rail", 5.0, 50, 902));
+
+        Product frame = new Product("Cost Frame", 20.0, 0);
+        frame.addPart(rail, 2);
+        frame = productRepository.save(frame);
+
+        Product bed = new Product("Cost Bed", 100.0, 0);
+        bed.addComponent(frame, 2);
+        bed = productRepository.save(bed);
+
+        costService.propagate(frame.getId(), 5.0);
+
+        assertEquals(30.0, productRepository.findById(bed.getId()).orElseThrow().getPartsTotalCost(), 1e-9);
+    }
+
+    @Test
+    void bomChangeAndParentCostsCommitTogether() throws Exception {
+        Part slat = partRepository.save(new InhousePart("Cost Slat", 4.0, 1, 903));
+
+        Product base = productRepository.save(new Product("Cost Base", 30.0, 0));
+        Product sofa = new Product("Cost Sofa", 200.0, 0);
+        sofa.addComponent(base, 2);
+        sofa = productRepository.save(sofa);
+
+        // Assembling 2 bases needs 6 slats but only 1 is in stock: neither the base nor the sofa changes
+        mockMvc.perform(updateBase(base, 2, slat)).andExpect(status().isOk());
+        assertEquals(0.0, productRepository.findById(base.getId()).orElseThrow().getPartsTotalCost(), 1e-9);
+        assertEquals(0.0, productRepository.findById(sofa.getId()).orElseThrow().getPartsTotalCost(), 1e-9);
+
+        mockMvc.perform(updateBase(base, 0, slat)).andExpect(status().is3xxRedirection());
+        assertEquals(12.0, productRepository.findById(base.getId()).orElseThrow().getPartsTotalCost(), 1e-9);
+        assertEquals(24.0, productRepository.findById(sofa.getId()).orElseThrow().getPartsTotalCost(), 1e-9);
+    }
+
+    private MockHttpServletRequestBuilder updateBase(Product base, int inv, Part slat) {
+        return post("/products/update/" + base.getId())
+                .param("version", String.valueOf(productRepository.findById(base.getId()).orElseThrow().getVersion()))
+                .param("name", base.getName())
+                .param("price", "30.0")
+                .param("inv", String.valueOf(inv))
+                .param("parts", slat.getId().toString())
+                .param("qty_" + slat.getId(), "3");
+    }
+}
@@ -0,0 +1,54 @@
+package com.furniture.inventory.service;
+
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.flash;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PurchaseServiceTest {
+
+    @Autowired
+    private PurchaseService purchaseService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void buyNowMessagesNameTheProduct() throws Exception {
+        Long id = productRepository.save(new Product("Last Rocking Chair", 180.0, 1)).getId();
+
+        mockMvc.perform(post("/products/buy/" + id))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(flash().attribute("success", "Successfully purchased 'Last Rocking Chair'. Inventory updated."));
+        mockMvc.perform(post("/products/buy/" + id))
+                .andExpect(flash().attribute("error", "Cannot purchase 'Last Rocking Chair'. Product is out of stock."));
+    }
+
+    @Test
+    void concurrentBuyersNeverOversell() throws Exception {
+        Product product = productRepository.save(new Product("Flash Sale Stool", 49.99, ConcurrentBuyers.STOCK));
+
+        ConcurrentBuyers.assertSellsExactlyTheStock(purchaseService, product.getId());
+        assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getInv());
+    }
+
+    @Test
+    void unknownProductIsReportedAsNotFound() {
+        assertEquals(PurchaseOutcome.NOT_FOUND, purchaseService.purchase(Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,63 @@
+package com.furniture.inventory.valuation;
+
+import com.furniture.inventory.entity.OutsourcedPart;
+import com.furniture.inventory.entity.Part;
+import com.furniture.inventory.entity.Product;
+import com.furniture.inventory.repository.PartRepository;
+import com.furniture.inventory.repository.ProductRepository;
+import com.furniture.inventory.service.AssemblyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ValuationServiceTest {
+
+    private static final String SUPPLIER = "Valuation Supply Co";
+
+    @Autowired
+    private ValuationService valuationService;
+
+    @Autowired
+    private AssemblyService assemblyService;
+
+    @Autowired
+    private PartRepository partRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void incrementalTotalsMatchFullRecompute() {
+        InventoryValuation before = valuationService.current();
+
+        Part hinge = partRepository.save(new OutsourcedPart("Valuation Hinge", 2.5, 40, SUPPLIER));
+        assertEquals(100.0, supplierValue(valuationService.current()), 1e-9);
+
+        // Assembling 4 cabinets takes 8 hinges through the bulk UPDATE path
+        Product cabinet = new Product("Valuation Cabinet", 120.0, 0);
+        cabinet.addPart(hinge, 2);
+        cabinet = productRepository.save(cabinet);
+        cabinet.setInv(4);
+        assemblyService.saveWithAssembly(cabinet, 0);
+
+        InventoryValuation after = valuationService.current();
+        assertEquals(80.0, supplierValue(after), 1e-9);
+        assertEquals(before.productsValue() + 480.0, after.productsValue(), 1e-6);
+        assertEquals(before.partsValue() + 80.0, after.partsValue(), 1e-6);
+
+        valuationService.reconcile();
+        InventoryValuation reconciled = valuationService.current();
+        assertEquals(0.0, reconciled.lastReconcileDrift(), 1e-6);
+        assertEquals(after.totalValue(), reconciled.totalValue(), 1e-6);
+        assertEquals(80.0, supplierValue(reconciled), 1e-9);
+    }
+
+    private static double supplierValue(InventoryValuation valuation) {
+        return valuation.partsValueBySupplier().getOrDefault(SUPPLIER, 0.0);
+    }
+}